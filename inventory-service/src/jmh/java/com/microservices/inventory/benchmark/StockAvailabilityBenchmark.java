@@ -0,0 +1,144 @@
+package com.microservices.inventory.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stock Availability Benchmark
+ * Sepet stok kontrolü (InventoryService.checkStockAvailability): ürün başına lookup vs tek IN sorgusu
+ *
+ * - perProductLookup: eski yol, sepetteki her ürün için ayrı findByProductId
+ * - setBasedLookup: InventoryRepository.findStockLevelsByProductIdIn ile aynı SQL, sepet başına tek sorgu
+ *
+ * H2 in-memory; gerçek PostgreSQL'de her sorguya ağ gecikmesi eklenir, fark sepet boyutuyla büyür.
+ *
+ * Çalıştırma:
+ *   mvn -Pbenchmark -pl inventory-service test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockAvailabilityBenchmark {
+
+    private static final int PRODUCT_COUNT = 10_000;
+
+    private static final String SINGLE_SQL = "SELECT product_id, quantity, reserved_quantity, status, version "
+            + "FROM inventory WHERE product_id = ?";
+
+    @Param({"1", "10", "50"})
+    private int cartSize;
+
+    private String jdbcUrl;
+    private Connection connection;
+    private PreparedStatement single;
+    private PreparedStatement batch;
+    private Map<UUID, Integer> cart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        jdbcUrl = "jdbc:h2:mem:bench-availability-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        connection = DriverManager.getConnection(jdbcUrl);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE inventory (id UUID PRIMARY KEY, product_id UUID UNIQUE, quantity INT, "
+                    + "reserved_quantity INT, status VARCHAR(20), version BIGINT)");
+        }
+
+        List<UUID> productIds = new ArrayList<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO inventory VALUES (?, ?, 100, 10, 'IN_STOCK', 0)")) {
+            for (int i = 0; i < PRODUCT_COUNT; i++) {
+                UUID productId = UUID.randomUUID();
+                productIds.add(productId);
+                insert.setObject(1, UUID.randomUUID());
+                insert.setObject(2, productId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        // Rastgele sepet: her biri 1 adet
+        Collections.shuffle(productIds);
+        cart = new HashMap<>();
+        for (UUID productId : productIds.subList(0, cartSize)) {
+            cart.put(productId, 1);
+        }
+
+        single = connection.prepareStatement(SINGLE_SQL);
+        batch = connection.prepareStatement("SELECT product_id, quantity, reserved_quantity, status, version "
+                + "FROM inventory WHERE product_id IN (" + String.join(", ", Collections.nCopies(cartSize, "?")) + ")");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public Map<UUID, Boolean> perProductLookup() throws SQLException {
+        Map<UUID, Boolean> availability = new HashMap<>();
+        for (Map.Entry<UUID, Integer> entry : cart.entrySet()) {
+            single.setObject(1, entry.getKey());
+            boolean isAvailable = false;
+            try (ResultSet rs = single.executeQuery()) {
+                if (rs.next()) {
+                    isAvailable = rs.getInt("quantity") - rs.getInt("reserved_quantity") >= entry.getValue();
+                }
+            }
+            availability.put(entry.getKey(), isAvailable);
+        }
+        return availability;
+    }
+
+    @Benchmark
+    public Map<UUID, Boolean> setBasedLookup() throws SQLException {
+        int index = 1;
+        for (UUID productId : cart.keySet()) {
+            batch.setObject(index++, productId);
+        }
+        Map<UUID, Integer> available = new HashMap<>();
+        try (ResultSet rs = batch.executeQuery()) {
+            while (rs.next()) {
+                available.put(rs.getObject("product_id", UUID.class),
+                        rs.getInt("quantity") - rs.getInt("reserved_quantity"));
+            }
+        }
+
+        Map<UUID, Boolean> availability = new HashMap<>();
+        for (Map.Entry<UUID, Integer> entry : cart.entrySet()) {
+            Integer level = available.get(entry.getKey());
+            availability.put(entry.getKey(), level != null && level >= entry.getValue());
+        }
+        return availability;
+    }
+}
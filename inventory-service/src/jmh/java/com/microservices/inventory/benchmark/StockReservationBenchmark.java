@@ -0,0 +1,145 @@
+package com.microservices.inventory.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microservices.inventory.DTO.StockReservationResult;
+import com.microservices.inventory.Model.Inventory;
+import com.microservices.inventory.Service.HotItemStockCounter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Stock Reservation Benchmark
+ * Tek bir (hot) ürün için eşzamanlı rezervasyon: mevcut koşullu UPDATE yolu vs bellek içi sayaç
+ *
+ * - dbConditionalUpdate: InventoryRepository.reserveStockAtomically ile aynı SQL, her istek ayrı transaction
+ *   (H2 in-memory; gerçek PostgreSQL'de ağ gecikmesi ve satır kilidi beklemesi eklenir)
+ * - hotCounter: HotItemStockCounter.reserve (CAS + LongAdder)
+ *
+ * Stok tükenmesin diye her işlem rezerve + serbest bırakma çiftidir.
+ *
+ * Çalıştırma:
+ *   mvn -Pbenchmark -pl inventory-service test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class StockReservationBenchmark {
+
+    private static final String RESERVE_SQL = "UPDATE inventory SET "
+            + "reserved_quantity = reserved_quantity + ?, "
+            + "status = CASE "
+            + "  WHEN quantity <= 0 THEN 'OUT_OF_STOCK' "
+            + "  WHEN quantity <= min_stock_level THEN 'LOW_STOCK' "
+            + "  WHEN quantity - (reserved_quantity + ?) <= 0 THEN 'RESERVED' "
+            + "  ELSE 'IN_STOCK' END, "
+            + "updated_at = CURRENT_TIMESTAMP "
+            + "WHERE id = ? AND quantity - reserved_quantity >= ?";
+
+    private static final String RELEASE_SQL = "UPDATE inventory SET "
+            + "reserved_quantity = reserved_quantity - ?, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE id = ? AND reserved_quantity >= ?";
+
+    private String jdbcUrl;
+    private UUID inventoryId;
+    private HotItemStockCounter counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        inventoryId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        jdbcUrl = "jdbc:h2:mem:bench-" + inventoryId + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE inventory (id UUID PRIMARY KEY, product_id UUID, quantity INT, "
+                    + "reserved_quantity INT, min_stock_level INT, status VARCHAR(20), updated_at TIMESTAMP)");
+            statement.execute("INSERT INTO inventory VALUES ('" + inventoryId + "', '" + productId
+                    + "', 1000000, 0, 0, 'IN_STOCK', CURRENT_TIMESTAMP)");
+        }
+
+        Inventory inventory = new Inventory();
+        inventory.setId(inventoryId);
+        inventory.setProductId(productId);
+        inventory.setQuantity(1_000_000);
+        inventory.setReservedQuantity(0);
+        counter = new HotItemStockCounter(true, productId.toString(), new SimpleMeterRegistry());
+        counter.load(inventory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    /**
+     * Her thread kendi bağlantısını kullanır (connection pool'daki gibi)
+     */
+    @State(Scope.Thread)
+    public static class DbConnection {
+        Connection connection;
+        PreparedStatement reserve;
+        PreparedStatement release;
+
+        @Setup(Level.Trial)
+        public void open(StockReservationBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(benchmark.jdbcUrl);
+            connection.setAutoCommit(true);  // Her UPDATE ayrı transaction (reserveStock gibi)
+            reserve = connection.prepareStatement(RESERVE_SQL);
+            release = connection.prepareStatement(RELEASE_SQL);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int dbConditionalUpdate(DbConnection db) throws SQLException {
+        db.reserve.setInt(1, 1);
+        db.reserve.setInt(2, 1);
+        db.reserve.setObject(3, inventoryId);
+        db.reserve.setInt(4, 1);
+        int reserved = db.reserve.executeUpdate();
+
+        db.release.setInt(1, 1);
+        db.release.setObject(2, inventoryId);
+        db.release.setInt(3, 1);
+        return reserved + db.release.executeUpdate();
+    }
+
+    @Benchmark
+    public boolean hotCounter() {
+        StockReservationResult reserved = counter.reserve(inventoryId, 1);
+        StockReservationResult released = counter.release(inventoryId, 1);
+        return reserved.isSuccess() && released.isSuccess();
+    }
+}
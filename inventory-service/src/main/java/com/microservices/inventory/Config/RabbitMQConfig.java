@@ -0,0 +1,64 @@
+package com.microservices.inventory.Config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * RabbitMQ Configuration
+ * 
+ * Exchange ve message converter'ı yapılandırır
+ * 
+ * Exchange:
+ * - inventory.events.exchange: Stok event'lerinin gönderildiği topic exchange
+ * 
+ * Queue tanımlanmaz: her tüketici (ör. Order Service instance'ları) kendi queue'sunu
+ * routing key ile bağlar ve event'lerin bir kopyasını alır (yerel stok replikası)
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    // Exchange ismi (tüketicilerle aynı olmalı)
+    public static final String INVENTORY_EXCHANGE = "inventory.events.exchange";
+
+    // Routing Key'ler (tüketicilerle aynı olmalı)
+    public static final String ROUTING_KEY_STOCK_LEVEL_CHANGED = "inventory.stock.changed.key";
+
+    /**
+     * Topic Exchange
+     * Tüm inventory event'lerinin gönderildiği exchange
+     */
+    @Bean
+    public TopicExchange inventoryExchange() {
+        return new TopicExchange(INVENTORY_EXCHANGE, true, false); // durable: true, auto-delete: false
+    }
+
+    /**
+     * Jackson2JsonMessageConverter
+     * Java objelerini JSON'a çevirir
+     * JavaTimeModule: LocalDateTime desteği için
+     */
+    @Bean
+    public Jackson2JsonMessageConverter jsonMessageConverter() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+
+    /**
+     * RabbitTemplate
+     * JSON formatında mesaj göndermek için Jackson2JsonMessageConverter kullanılır
+     */
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, Jackson2JsonMessageConverter jsonMessageConverter) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(jsonMessageConverter);
+        return rabbitTemplate;
+    }
+}
@@ -1,10 +1,13 @@
 package com.microservices.inventory.Controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,9 +20,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.microservices.inventory.DTO.InventoryImportResult;
+import com.microservices.inventory.DTO.StockReservationResult;
 import com.microservices.inventory.Model.Inventory;
 import com.microservices.inventory.Model.InventoryStatus;
 import com.microservices.inventory.Model.Location;
+import com.microservices.inventory.Service.HotItemStockCounter;
+import com.microservices.inventory.Service.InventoryImportService;
 import com.microservices.inventory.Service.InventoryService;
 
 /**
@@ -28,17 +35,26 @@ import com.microservices.inventory.Service.InventoryService;
  * 
  * Önemli Endpoint'ler:
  * - GET /inventory/product/{productId} → Product ID'ye göre stok (EN ÖNEMLİ!)
+ * - POST /inventory/product/batch → Birden fazla ürün için stok (Order Service)
  * - GET /inventory/check → Toplu stok kontrolü (sepet için)
  * - PATCH /inventory/{id}/reserve → Stok rezerve et (sipariş için)
  * - GET /inventory/location/{location} → Lokasyona göre stok (Getir için)
+ * - POST /inventory/import → Toplu stok import'u (depo senkronizasyonu, CSV/JSON)
  */
 @RestController
 @RequestMapping("/inventory")  // Gateway zaten /api/inventory/** alıyor
 public class InventoryController {
     private final InventoryService inventoryService;
+    private final HotItemStockCounter hotItemStockCounter;
+    private final InventoryImportService inventoryImportService;
 
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(
+            InventoryService inventoryService,
+            HotItemStockCounter hotItemStockCounter,
+            InventoryImportService inventoryImportService) {
         this.inventoryService = inventoryService;
+        this.hotItemStockCounter = hotItemStockCounter;
+        this.inventoryImportService = inventoryImportService;
     }
 
     /**
@@ -77,6 +93,21 @@ public class InventoryController {
         return ResponseEntity.ok(inventory);
     }
 
+    /**
+     * Birden fazla Product ID için stok getir
+     * POST /inventory/product/batch
+     * Request body: ["product-id-1", "product-id-2", ...]
+     *
+     * Order Service sipariş oluştururken ve stok rezerve/serbest bırakırken
+     * ürün başına ayrı istek yerine tek istek atar
+     * Stok kaydı olmayan product'lar response listesinde yer almaz
+     */
+    @PostMapping("/product/batch")
+    public ResponseEntity<List<Inventory>> getInventoriesByProductIds(@RequestBody List<UUID> productIds) {
+        List<Inventory> inventories = inventoryService.getInventoriesByProductIds(productIds);
+        return ResponseEntity.ok(inventories);
+    }
+
     /**
      * Kullanılabilir stok miktarını getir
      * GET /inventory/product/{productId}/available
@@ -154,6 +185,37 @@ public class InventoryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdInventory);
     }
 
+    /**
+     * Toplu stok import'u (depo senkronizasyonu)
+     * POST /inventory/import?mode=SET|ADJUST
+     * Content-Type: text/csv (başlık satırı: productId,quantity[,minStockLevel,maxStockLevel,location])
+     * 
+     * Satır başına PUT /inventory/{id} yerine kullanılır:
+     * - Gövde akış halinde okunur, satırlar JDBC batch upsert ile yazılır (kayıt yoksa oluşturulur)
+     * - Sadece dokunulan kayıtların cache key'leri silinir
+     * - Hatalı satırlar atlanır ve response'ta raporlanır (200 + rowsRejected/errors)
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<InventoryImportResult> importInventoryCsv(
+            @RequestParam(value = "mode", defaultValue = "SET") InventoryImportService.Mode mode,
+            InputStream body) throws IOException {
+        InventoryImportResult result = inventoryImportService.importCsv(body, mode);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Toplu stok import'u (JSON)
+     * POST /inventory/import?mode=SET|ADJUST
+     * Request body: [{"productId": "...", "quantity": 10, "location": "BESIKTAS"}, ...]
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<InventoryImportResult> importInventoryJson(
+            @RequestParam(value = "mode", defaultValue = "SET") InventoryImportService.Mode mode,
+            InputStream body) throws IOException {
+        InventoryImportResult result = inventoryImportService.importJson(body, mode);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Stok kaydını tamamen güncelle
      * PUT /inventory/{id}
@@ -182,31 +244,46 @@ public class InventoryController {
 
     /**
      * Stok rezerve et (sipariş için)
-     * PATCH /inventory/{id}/reserve?quantity=2
+     * PATCH /inventory/{id}/reserve?quantity=2&productId=...
      * 
      * Sipariş verildiğinde Order Service bu endpoint'i çağırır
+     * productId opsiyonel: verilirse kayıtla eşleşmesi UPDATE'te doğrulanır ve ayrıca okunmaz
      * Stok rezerve edilir, böylece başka siparişler için kullanılamaz
+     * 
+     * Response: { inventoryId, quantity, success, reason }
+     * Yetersiz stokta da 200 döner (success=false, reason=INSUFFICIENT_STOCK)
+     * 
+     * Hot item (flash sale) ürünlerinde istek DB'ye gitmeden bellekteki sayaçtan karşılanır
+     * (transaction ve satır kilidi yok; DB HotItemStockFlusher ile toplu güncellenir)
      */
     @PatchMapping("/{id}/reserve")
-    public ResponseEntity<Inventory> reserveStock(
+    public ResponseEntity<StockReservationResult> reserveStock(
             @PathVariable("id") UUID id,
-            @RequestParam("quantity") Integer quantity) {
-        Inventory updatedInventory = inventoryService.reserveStock(id, quantity);
-        return ResponseEntity.ok(updatedInventory);
+            @RequestParam("quantity") Integer quantity,
+            @RequestParam(value = "productId", required = false) UUID productId) {
+        StockReservationResult result = hotItemStockCounter.isHot(id)
+                ? hotItemStockCounter.reserve(id, quantity)
+                : inventoryService.reserveStock(id, productId, quantity);
+        return ResponseEntity.ok(result);
     }
 
     /**
      * Rezerve edilmiş stoku serbest bırak
-     * PATCH /inventory/{id}/release?quantity=2
+     * PATCH /inventory/{id}/release?quantity=2&productId=...
      * 
      * Sipariş iptal edildiğinde veya başarısız olduğunda kullanılır
+     * 
+     * Rezerve edilenden fazlası istenirse 200 + success=false (reason=OVER_RELEASE)
      */
     @PatchMapping("/{id}/release")
-    public ResponseEntity<Inventory> releaseReservedStock(
+    public ResponseEntity<StockReservationResult> releaseReservedStock(
             @PathVariable("id") UUID id,
-            @RequestParam("quantity") Integer quantity) {
-        Inventory updatedInventory = inventoryService.releaseReservedStock(id, quantity);
-        return ResponseEntity.ok(updatedInventory);
+            @RequestParam("quantity") Integer quantity,
+            @RequestParam(value = "productId", required = false) UUID productId) {
+        StockReservationResult result = hotItemStockCounter.isHot(id)
+                ? hotItemStockCounter.release(id, quantity)
+                : inventoryService.releaseReservedStock(id, productId, quantity);
+        return ResponseEntity.ok(result);
     }
 
     /**
@@ -0,0 +1,58 @@
+package com.microservices.inventory.Controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.microservices.inventory.DTO.StockLedgerBalance;
+import com.microservices.inventory.Model.StockMovement;
+import com.microservices.inventory.Service.StockLedgerService;
+
+/**
+ * Stock Ledger Controller
+ * Stok defteri (denetim kaydı) sorguları
+ *
+ * - GET /inventory/ledger/{productId} → Defterden hesaplanan bakiye (snapshot + son hareketler)
+ * - GET /inventory/ledger/{productId}/movements → Ürünün son hareketleri (en yeni önce)
+ */
+@RestController
+@RequestMapping("/inventory/ledger")
+public class StockLedgerController {
+    private static final int MAX_MOVEMENTS = 500;
+
+    private final StockLedgerService ledgerService;
+
+    public StockLedgerController(StockLedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    /**
+     * Ürünün defter bakiyesi
+     * GET /inventory/ledger/{productId}
+     *
+     * Inventory kaydı ile karşılaştırılarak mutabakat yapılır; hareketi olmayan ürün için 404
+     */
+    @GetMapping("/{productId}")
+    public ResponseEntity<StockLedgerBalance> getBalance(@PathVariable("productId") UUID productId) {
+        return ResponseEntity.ok(ledgerService.getBalance(productId));
+    }
+
+    /**
+     * Ürünün son hareketleri
+     * GET /inventory/ledger/{productId}/movements?limit=50
+     *
+     * limit en fazla MAX_MOVEMENTS
+     */
+    @GetMapping("/{productId}/movements")
+    public ResponseEntity<List<StockMovement>> getMovements(
+            @PathVariable("productId") UUID productId,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ledgerService.getRecentMovements(productId, Math.min(limit, MAX_MOVEMENTS)));
+    }
+}
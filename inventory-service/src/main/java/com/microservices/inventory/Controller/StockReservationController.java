@@ -0,0 +1,100 @@
+package com.microservices.inventory.Controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.microservices.inventory.DTO.ReservationRequest;
+import com.microservices.inventory.DTO.ReservationResponse;
+import com.microservices.inventory.Service.StockReservationService;
+
+/**
+ * Stock Reservation Controller
+ * Sipariş bazlı (çok kalemli) stok rezervasyonu
+ *
+ * Order Service her sipariş için tek istek atar:
+ * - POST /inventory/reservations → Tüm kalemleri rezerve et (all-or-nothing)
+ * - POST /inventory/reservations/{orderId}/release → Rezervasyonu serbest bırak
+ * - POST /inventory/reservations/batch → Birden fazla siparişi tek istekte rezerve et (sipariş bazlı all-or-nothing)
+ * - POST /inventory/reservations/release/batch → Birden fazla siparişin rezervasyonunu serbest bırak
+ */
+@RestController
+@RequestMapping("/inventory/reservations")
+public class StockReservationController {
+    private final StockReservationService reservationService;
+
+    public StockReservationController(StockReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * Siparişin tüm kalemlerini rezerve et
+     * POST /inventory/reservations
+     *
+     * Yetersiz stokta 200 + success=false döner (hiçbir kalem rezerve edilmez)
+     */
+    @PostMapping
+    public ResponseEntity<ReservationResponse> reserve(@RequestBody ReservationRequest request) {
+        ReservationResponse response = reservationService.reserve(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Siparişin rezervasyonunu serbest bırak
+     * POST /inventory/reservations/{orderId}/release
+     *
+     * Rezervasyon yoksa 200 + success=false (reason=RESERVATION_NOT_FOUND)
+     */
+    @PostMapping("/{orderId}/release")
+    public ResponseEntity<ReservationResponse> release(@PathVariable("orderId") UUID orderId) {
+        ReservationResponse response = reservationService.release(orderId);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Birden fazla siparişi tek istekte rezerve et
+     * POST /inventory/reservations/batch
+     *
+     * Her sipariş kendi transaction'ında rezerve edilir (reserve ile aynı kurallar);
+     * bir siparişin stok yetersizliği diğerlerini etkilemez. Sonuçlar istek sırasıyla döner.
+     *
+     * Önceki siparişler zaten commit edildiği için bir siparişteki hata (kilit timeout'u, aynı
+     * orderId ile eşzamanlı rezervasyon vb.) tüm batch'i 500 yapmaz: o sipariş success=false
+     * (reason=UNAVAILABLE) olarak raporlanır. Rezervasyon sipariş bazında idempotent olduğundan tekrar denenebilir.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReservationResponse>> reserveAll(@RequestBody List<ReservationRequest> requests) {
+        List<ReservationResponse> responses = new ArrayList<>(requests.size());
+        for (ReservationRequest request : requests) {
+            try {
+                responses.add(reservationService.reserve(request));
+            } catch (IllegalArgumentException e) {
+                responses.add(ReservationResponse.failure(
+                        request != null ? request.getOrderId() : null, "INVALID_REQUEST", List.of()));
+            } catch (RuntimeException e) {
+                UUID orderId = request != null ? request.getOrderId() : null;
+                System.err.println("Error reserving stock for order " + orderId + " in batch: " + e.getMessage());
+                responses.add(ReservationResponse.failure(orderId, "UNAVAILABLE", List.of()));
+            }
+        }
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Birden fazla siparişin rezervasyonunu serbest bırak
+     * POST /inventory/reservations/release/batch
+     *
+     * Tek transaction, set-based stok güncellemesi. Sonuçlar istek sırasıyla döner.
+     */
+    @PostMapping("/release/batch")
+    public ResponseEntity<List<ReservationResponse>> releaseAll(@RequestBody List<UUID> orderIds) {
+        return ResponseEntity.ok(reservationService.releaseAll(orderIds));
+    }
+}
@@ -0,0 +1,27 @@
+package com.microservices.inventory.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inventory Import Result DTO
+ * POST /inventory/import sonucu
+ *
+ * Import batch'ler halinde commit edilir: hatalı satırlar ve başarısız batch'ler raporlanır,
+ * diğer satırlar uygulanmış olur (tekrar göndermek güvenli: SET modu idempotent)
+ */
+@Data
+@NoArgsConstructor
+public class InventoryImportResult {
+    private String mode;
+    private long rowsRead;
+    private long rowsApplied;
+    private long rowsRejected;
+    private int batches;
+    private boolean completed = true;  // false: gövde okunamadı (ör. bozuk JSON), kalan satırlar işlenmedi
+    private List<String> errors = new ArrayList<>();  // İlk MAX_REPORTED_ERRORS hata
+    private boolean errorsTruncated;
+}
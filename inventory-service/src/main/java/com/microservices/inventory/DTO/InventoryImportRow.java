@@ -0,0 +1,27 @@
+package com.microservices.inventory.DTO;
+
+import java.util.UUID;
+
+import com.microservices.inventory.Model.Location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inventory Import Row DTO
+ * Toplu import'ta (CSV/JSON) doğrulanmış tek satır
+ *
+ * - quantity: SET modunda yeni stok miktarı, ADJUST modunda stok değişimi (negatif olabilir)
+ * - minStockLevel / maxStockLevel / location: null ise mevcut değer korunur
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryImportRow {
+    private UUID productId;
+    private Integer quantity;
+    private Integer minStockLevel;
+    private Integer maxStockLevel;
+    private Location location;
+}
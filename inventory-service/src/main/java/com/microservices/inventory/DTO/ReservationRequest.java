@@ -0,0 +1,49 @@
+package com.microservices.inventory.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reservation Request DTO
+ * Bir siparişin tüm kalemlerini tek istekte rezerve etmek için
+ * 
+ * holdSeconds doluysa rezervasyon süreli bir hold'dur (ör. ödeme bekleniyor);
+ * süre içinde holdSeconds olmadan tekrar çağrılmazsa sweeper stoku geri verir.
+ * holdSeconds boşsa rezervasyon kalıcıdır (mevcut hold varsa kalıcı hale getirilir).
+ * 
+ * Örnek Request:
+ * {
+ *   "orderId": "order-id",
+ *   "holdSeconds": 900,
+ *   "items": [
+ *     { "productId": "product-id-1", "quantity": 2 },
+ *     { "productId": "product-id-2", "quantity": 1 }
+ *   ]
+ * }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+    private UUID orderId;
+    private List<Item> items = new ArrayList<>();
+    private Integer holdSeconds;
+
+    public ReservationRequest(UUID orderId, List<Item> items) {
+        this.orderId = orderId;
+        this.items = items;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private UUID productId;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,41 @@
+package com.microservices.inventory.DTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.microservices.inventory.Model.ReservationStatus;
+import com.microservices.inventory.Model.StockReservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reservation Response DTO
+ * Sipariş bazlı rezervasyon/serbest bırakma sonucu
+ * 
+ * StockReservationResult ile aynı yaklaşım: yetersiz stok HTTP hatası değil
+ * success=false olarak döner (reason + failedProductIds ile)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    private UUID reservationId;
+    private UUID orderId;
+    private ReservationStatus status;
+    private LocalDateTime expiresAt;  // null → kalıcı rezervasyon
+    private boolean success;
+    private String reason;  // Başarısızsa: INSUFFICIENT_STOCK, INVENTORY_NOT_FOUND, RESERVATION_NOT_FOUND, INVALID_REQUEST, UNAVAILABLE
+    private List<UUID> failedProductIds = List.of();
+
+    public static ReservationResponse success(StockReservation reservation) {
+        return new ReservationResponse(reservation.getId(), reservation.getOrderId(), reservation.getStatus(),
+                reservation.getExpiresAt(), true, null, List.of());
+    }
+
+    public static ReservationResponse failure(UUID orderId, String reason, List<UUID> failedProductIds) {
+        return new ReservationResponse(null, orderId, null, null, false, reason, failedProductIds);
+    }
+}
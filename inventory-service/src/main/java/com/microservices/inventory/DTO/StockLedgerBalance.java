@@ -0,0 +1,28 @@
+package com.microservices.inventory.DTO;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock Ledger Balance DTO
+ * GET /inventory/ledger/{productId} sonucu
+ *
+ * Stok defterinden hesaplanan bakiye: snapshot + snapshot'tan sonraki hareketler.
+ * Inventory satırı ile karşılaştırılarak denetim/mutabakat için kullanılır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerBalance {
+    private UUID productId;
+    private long quantity;
+    private long reservedQuantity;
+    private long availableQuantity;
+    private long snapshotMovementId;  // Snapshot'a dahil edilen son hareket (0: henüz compaction yok)
+    private LocalDateTime snapshotAt;
+    private long pendingMovements;  // Snapshot'tan sonra eklenen hareket sayısı
+}
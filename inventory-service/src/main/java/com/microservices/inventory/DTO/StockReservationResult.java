@@ -0,0 +1,33 @@
+package com.microservices.inventory.DTO;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock Reservation Result DTO
+ * Atomik rezerve/serbest bırakma işleminin sonucu
+ *
+ * Yetersiz stok bir "hata" değil iş sonucudur: HTTP 200 + success=false döner.
+ * Böylece Order Service tarafındaki Circuit Breaker stok çakışmalarını
+ * servis hatası olarak saymaz.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResult {
+    private UUID inventoryId;
+    private Integer quantity;
+    private boolean success;
+    private String reason;  // Başarısızsa: INSUFFICIENT_STOCK, OVER_RELEASE
+
+    public static StockReservationResult success(UUID inventoryId, Integer quantity) {
+        return new StockReservationResult(inventoryId, quantity, true, null);
+    }
+
+    public static StockReservationResult failure(UUID inventoryId, Integer quantity, String reason) {
+        return new StockReservationResult(inventoryId, quantity, false, reason);
+    }
+}
@@ -0,0 +1,101 @@
+package com.microservices.inventory.Event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stock Level Changed (RabbitMQ mesajı)
+ * 
+ * Bir ürünün kullanılabilir stoku değiştiğinde inventory.events.exchange'e gönderilir
+ * Order Service bu event'i dinleyerek yerel stok replikasını günceller (polling yerine push)
+ * 
+ * - Değerler commit edilmiş DB satırından okunur (kısa pencerede birleştirilmiş son durum)
+ * - version: inventory.version; tüketiciler daha eski versiyonlu mesajları yok saymalı
+ *   (mesajlar sırasız veya tekrar gelebilir)
+ * - deleted: Stok kaydı silindi, tüketici ürünü replikadan çıkarmalı
+ */
+public class StockLevelChanged {
+
+    private UUID productId;
+    private Integer available;
+    private String status;
+    private Long version;
+    private boolean deleted;
+    private LocalDateTime changedAt;
+
+    // Default constructor (Jackson için gerekli)
+    public StockLevelChanged() {
+    }
+
+    // Constructor
+    public StockLevelChanged(UUID productId, Integer available, String status, Long version,
+                             boolean deleted, LocalDateTime changedAt) {
+        this.productId = productId;
+        this.available = available;
+        this.status = status;
+        this.version = version;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+
+    // Getters and Setters
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public Integer getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Integer available) {
+        this.available = available;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StockLevelChanged{" +
+                "productId=" + productId +
+                ", available=" + available +
+                ", status='" + status + '\'' +
+                ", version=" + version +
+                ", deleted=" + deleted +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
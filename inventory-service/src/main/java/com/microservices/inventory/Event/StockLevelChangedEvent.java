@@ -0,0 +1,64 @@
+package com.microservices.inventory.Event;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stock Level Changed Event
+ * 
+ * Bir veya daha fazla ürünün quantity/reservedQuantity değeri değiştiğinde
+ * ApplicationEventPublisher ile yayınlanan (uygulama içi) event
+ * 
+ * - Değişikliği yapan transaction commit olduktan sonra dinlenir
+ *   (AvailabilityCache, StockLevelEventPublisher → RabbitMQ)
+ * - Atomik UPDATE'ler inventory ID ile çalıştığı için ürünler productId veya inventoryId ile verilebilir
+ * - Yeni stok değerleri event'te taşınmaz: dinleyiciler commit edilmiş değeri DB'den okur
+ *   (aynı ürüne eşzamanlı gelen değişikliklerde event sırası önemli olmasın)
+ */
+public class StockLevelChangedEvent {
+
+    private final Set<UUID> productIds;
+    private final Set<UUID> inventoryIds;
+
+    public StockLevelChangedEvent(Collection<UUID> productIds, Collection<UUID> inventoryIds) {
+        this.productIds = productIds != null ? Set.copyOf(productIds) : Set.of();
+        this.inventoryIds = inventoryIds != null ? Set.copyOf(inventoryIds) : Set.of();
+    }
+
+    public static StockLevelChangedEvent forProducts(Collection<UUID> productIds) {
+        return new StockLevelChangedEvent(productIds, null);
+    }
+
+    public static StockLevelChangedEvent forProduct(UUID productId) {
+        return forProducts(Set.of(productId));
+    }
+
+    public static StockLevelChangedEvent forInventories(Collection<UUID> inventoryIds) {
+        return new StockLevelChangedEvent(null, inventoryIds);
+    }
+
+    public static StockLevelChangedEvent forInventory(UUID inventoryId) {
+        return forInventories(Set.of(inventoryId));
+    }
+
+    public Set<UUID> getProductIds() {
+        return productIds;
+    }
+
+    public Set<UUID> getInventoryIds() {
+        return inventoryIds;
+    }
+
+    public boolean isEmpty() {
+        return productIds.isEmpty() && inventoryIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "StockLevelChangedEvent{" +
+                "productIds=" + productIds +
+                ", inventoryIds=" + inventoryIds +
+                '}';
+    }
+}
@@ -2,6 +2,7 @@ package com.microservices.inventory.Exception;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -64,6 +65,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Optimistic locking hatası için handler
+     * 409 CONFLICT döner
+     * 
+     * Örnek: Stok kaydı okunduktan sonra başka bir istek (rezervasyon, güncelleme) versiyonu artırdıysa
+     * İstemci kaydı tekrar okuyup güncellemeyi yeniden denemeli
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailure(
+            ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+            "CONCURRENT_MODIFICATION",
+            "Inventory was modified concurrently, please retry",
+            request.getDescription(false).replace("uri=", "")
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
     /**
      * IllegalArgumentException için handler
      * 400 BAD_REQUEST döner
@@ -3,6 +3,7 @@ package com.microservices.inventory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Inventory Service Application
@@ -10,6 +11,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  */
 @SpringBootApplication
 @EnableDiscoveryClient  // Eureka'ya kayıt olmak için
+@EnableScheduling  // Rezervasyon hold sweeper'ı için
 public class InventoryServiceApplication {
 
     public static void main(String[] args) {
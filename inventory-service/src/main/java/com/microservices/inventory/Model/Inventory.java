@@ -11,6 +11,7 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -122,6 +123,15 @@ public class Inventory {
     @Enumerated(EnumType.STRING)
     private Location location;
     
+    /**
+     * Stok versiyonu
+     * - Her quantity/reservedQuantity değişikliğinde artar (entity update'leri ve atomik UPDATE'ler)
+     * - Eşzamanlı entity güncellemelerinde optimistic locking sağlar
+     * - Availability cache bu değerle eski (sırası karışmış) yazmaları reddeder
+     */
+    @Version
+    private Long version;
+    
     /**
      * Oluşturulma Tarihi
      */
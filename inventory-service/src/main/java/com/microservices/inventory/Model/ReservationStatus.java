@@ -0,0 +1,36 @@
+package com.microservices.inventory.Model;
+
+/**
+ * Reservation Status Enum
+ * Sipariş bazlı stok rezervasyonunun durumu
+ */
+public enum ReservationStatus {
+    
+    /**
+     * Aktif
+     * Tüm kalemler rezerve edildi, stok başka siparişlere kapalı
+     */
+    ACTIVE("Aktif"),
+    
+    /**
+     * Serbest bırakıldı
+     * Sipariş iptal/iade edildi, rezerve stok geri verildi
+     */
+    RELEASED("Serbest bırakıldı"),
+    
+    /**
+     * Süresi doldu
+     * Süreli rezervasyon (hold) zamanında onaylanmadı, sweeper stoku geri verdi
+     */
+    EXPIRED("Süresi doldu");
+    
+    private final String description;
+    
+    ReservationStatus(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,51 @@
+package com.microservices.inventory.Model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * StockLedgerCursor Entity
+ * Stok defteri compaction'ının ulaştığı son hareket (tek satır)
+ * 
+ * Compaction bu satırı FOR UPDATE ile kilitleyerek başlar: birden fazla instance aynı anda
+ * çalışırsa aynı hareket aralığı snapshot'lara iki kez eklenmez, ikinci instance bekler
+ * ve ilkinin ilerlettiği noktadan devam eder
+ */
+@Entity
+@Table(name = "stock_ledger_cursor")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerCursor {
+    
+    public static final int ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    /**
+     * Snapshot'lara dahil edilen son hareketin ID'si
+     */
+    private long lastMovementId;
+    
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public StockLedgerCursor(long lastMovementId) {
+        this.id = ID;
+        this.lastMovementId = lastMovementId;
+    }
+}
@@ -0,0 +1,85 @@
+package com.microservices.inventory.Model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * StockMovement Entity
+ * Stok defterindeki (ledger) tek bir hareket
+ * 
+ * Önemli Notlar:
+ * - Sadece eklenir (append-only): kayıtlar güncellenmez, compaction sonrası saklama süresi dolunca silinir
+ * - Değerler mutlak değil değişimdir (delta): quantityDelta / reservedDelta
+ * - Inventory satırındaki değişiklikle aynı transaction'da yazılır
+ * - id sırası yazma sırasıdır; StockSnapshot.lastMovementId bu sıraya göre tutulur
+ */
+@Entity
+@Table(name = "stock_movement")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+    
+    @NotNull(message = "Product ID is required")
+    private UUID productId;
+    
+    @NotNull(message = "Inventory ID is required")
+    private UUID inventoryId;
+    
+    @NotNull(message = "Movement type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private StockMovementType movementType;
+    
+    /**
+     * Stok miktarındaki değişim (artı: giriş, eksi: çıkış)
+     */
+    private int quantityDelta;
+    
+    /**
+     * Rezerve miktardaki değişim (artı: rezervasyon, eksi: serbest bırakma)
+     */
+    private int reservedDelta;
+    
+    /**
+     * Hareketin kaynağı (rezervasyonlarda orderId); manuel düzeltmelerde null
+     */
+    private UUID referenceId;
+    
+    private LocalDateTime createdAt;
+    
+    public StockMovement(UUID productId, UUID inventoryId, StockMovementType movementType,
+                         int quantityDelta, int reservedDelta, UUID referenceId) {
+        this.productId = productId;
+        this.inventoryId = inventoryId;
+        this.movementType = movementType;
+        this.quantityDelta = quantityDelta;
+        this.reservedDelta = reservedDelta;
+        this.referenceId = referenceId;
+    }
+}
@@ -0,0 +1,101 @@
+package com.microservices.inventory.Model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * StockReservation Entity
+ * Bir siparişin tüm kalemleri için yapılan stok rezervasyonu
+ * 
+ * Önemli Notlar:
+ * - Her sipariş için tek rezervasyon (orderId unique) → aynı istek tekrar gelirse çift rezerve olmaz
+ * - Kalemler ya hep birlikte rezerve edilir ya hiç (all-or-nothing)
+ * - Serbest bırakma da rezervasyon bazlı yapılır (hangi inventory'den ne kadar ayrıldığı burada tutulur)
+ * - expiresAt doluysa rezervasyon süreli bir "hold"dur; süresi dolunca sweeper serbest bırakır
+ */
+@Entity
+@Table(name = "stock_reservations",
+       uniqueConstraints = @UniqueConstraint(columnNames = "orderId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+    
+    @Id
+    private UUID id;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (status == null) {
+            status = ReservationStatus.ACTIVE;
+        }
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Sipariş ID'si (Order Service)
+     */
+    @NotNull(message = "Order ID is required")
+    private UUID orderId;
+    
+    /**
+     * Rezervasyon durumu (ACTIVE, RELEASED, EXPIRED)
+     */
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+    
+    /**
+     * Hold bitiş zamanı
+     * null → kalıcı rezervasyon (sipariş onaylandı); dolu → bu zamana kadar onaylanmazsa serbest bırakılır
+     */
+    private LocalDateTime expiresAt;
+    
+    /**
+     * Rezerve edilen kalemler
+     * CascadeType.ALL: Rezervasyon ile birlikte kaydedilir/silinir
+     */
+    @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    private List<StockReservationItem> items = new ArrayList<>();
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Kalem ekle (iki yönlü ilişkiyi kurar)
+     */
+    public void addItem(StockReservationItem item) {
+        if (items == null) {
+            items = new ArrayList<>();
+        }
+        item.setReservation(this);
+        items.add(item);
+    }
+}
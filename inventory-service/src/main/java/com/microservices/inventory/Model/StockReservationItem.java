@@ -0,0 +1,69 @@
+package com.microservices.inventory.Model;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * StockReservationItem Entity
+ * Rezervasyondaki tek bir kalem (hangi inventory'den kaç adet ayrıldı)
+ */
+@Entity
+@Table(name = "stock_reservation_items")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationItem {
+    
+    @Id
+    private UUID id;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+    }
+    
+    /**
+     * Ait olduğu rezervasyon
+     * @JsonIgnore: Circular reference'ı önlemek için
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reservation_id", nullable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private StockReservation reservation;
+    
+    @NotNull(message = "Product ID is required")
+    private UUID productId;
+    
+    @NotNull(message = "Inventory ID is required")
+    private UUID inventoryId;
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+    
+    public StockReservationItem(UUID productId, UUID inventoryId, Integer quantity) {
+        this.productId = productId;
+        this.inventoryId = inventoryId;
+        this.quantity = quantity;
+    }
+}
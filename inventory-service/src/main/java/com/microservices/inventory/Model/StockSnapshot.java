@@ -0,0 +1,52 @@
+package com.microservices.inventory.Model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * StockSnapshot Entity
+ * Stok defterinin ürün bazlı özeti (compaction sonucu)
+ * 
+ * lastMovementId'ye kadar (dahil) olan tüm hareketlerin toplamını tutar;
+ * güncel defter bakiyesi = snapshot + lastMovementId'den sonraki hareketler
+ */
+@Entity
+@Table(name = "stock_snapshot")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+    
+    @Id
+    private UUID productId;
+    
+    private int quantity;
+    
+    private int reservedQuantity;
+    
+    /**
+     * Snapshot'a dahil edilen son hareketin ID'si
+     */
+    private long lastMovementId;
+    
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public StockSnapshot(UUID productId) {
+        this.productId = productId;
+    }
+}
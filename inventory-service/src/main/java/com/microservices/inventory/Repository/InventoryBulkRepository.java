@@ -0,0 +1,175 @@
+package com.microservices.inventory.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.microservices.inventory.DTO.InventoryImportRow;
+import com.microservices.inventory.Model.StockMovementType;
+
+/**
+ * Inventory Bulk Repository
+ * Toplu import için JDBC batch upsert (Spring Data JPA'nın satır başına SELECT + merge'ü yerine)
+ *
+ * Önemli Notlar:
+ * - INSERT ... ON CONFLICT (product_id) DO UPDATE: kayıt yoksa oluşturulur, varsa güncellenir
+ * - Entity yüklenmez; persistence context ve "inventories" cache'i çağıran taraf temizler
+ * - Status upsert'ten sonra tek set-based UPDATE ile hesaplanır (InventoryRepository'deki CASE kuralları)
+ * - Stok defteri hareketleri upsert öncesi kilitlenen miktarlarla yeni miktar arasındaki farktan yazılır
+ */
+@Repository
+public class InventoryBulkRepository {
+    // Yeni kayıtlarda status placeholder'dır, aynı transaction'da recalculateStatus ile hesaplanır
+    private static final String UPSERT_PREFIX = "INSERT INTO inventory "
+            + "(id, product_id, quantity, reserved_quantity, min_stock_level, max_stock_level, status, location, "
+            + "version, created_at, updated_at) "
+            + "VALUES (?, ?, ?, 0, ?, ?, 'PENDING', ?, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT (product_id) DO UPDATE SET ";
+
+    private static final String UPSERT_SUFFIX = "min_stock_level = COALESCE(CAST(? AS INTEGER), inventory.min_stock_level), "
+            + "max_stock_level = COALESCE(CAST(? AS INTEGER), inventory.max_stock_level), "
+            + "location = COALESCE(CAST(? AS VARCHAR), inventory.location), "
+            + "updated_at = CURRENT_TIMESTAMP, "
+            + "version = inventory.version + 1";
+
+    // SET: stok miktarı olduğu gibi yazılır (depo senkronizasyonu)
+    static final String UPSERT_SET_SQL = UPSERT_PREFIX
+            + "quantity = CAST(? AS INTEGER), " + UPSERT_SUFFIX;
+
+    // ADJUST: mevcut miktara eklenir, negatife düşmez (yeni kayıtta negatif değişim 0 olarak yazılır)
+    static final String UPSERT_ADJUST_SQL = UPSERT_PREFIX
+            + "quantity = GREATEST(0, inventory.quantity + CAST(? AS INTEGER)), " + UPSERT_SUFFIX;
+
+    static final String RECALCULATE_STATUS_SQL = "UPDATE inventory SET "
+            + "status = CASE "
+            + "  WHEN quantity <= 0 THEN 'OUT_OF_STOCK' "
+            + "  WHEN quantity <= min_stock_level THEN 'LOW_STOCK' "
+            + "  WHEN reserved_quantity > 0 AND quantity - reserved_quantity <= 0 THEN 'RESERVED' "
+            + "  ELSE 'IN_STOCK' END "
+            + "WHERE product_id IN (:productIds) "
+            + "RETURNING id";
+
+    // Rezervasyonlarla aynı kilit sırası (productId) → deadlock olmaz
+    static final String LOCK_QUANTITIES_SQL = "SELECT product_id, quantity FROM inventory "
+            + "WHERE product_id IN (:productIds) ORDER BY product_id FOR UPDATE";
+
+    // Fark upsert sonrası satırdan hesaplanır; değişmeyen kayıtlar için hareket yazılmaz
+    static final String RECORD_MOVEMENT_SQL = "INSERT INTO stock_movement "
+            + "(product_id, inventory_id, movement_type, quantity_delta, reserved_delta, created_at) "
+            + "SELECT i.product_id, i.id, ?, i.quantity - ?, 0, CURRENT_TIMESTAMP "
+            + "FROM inventory i WHERE i.product_id = ? AND i.quantity <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public InventoryBulkRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Satırları tek JDBC batch'i olarak upsert et
+     *
+     * @param adjust true: quantity değişim olarak eklenir, false: quantity olduğu gibi yazılır
+     * @return Satır başına etkilenen kayıt sayısı
+     */
+    public int[] upsert(List<InventoryImportRow> rows, boolean adjust) {
+        return jdbcTemplate.batchUpdate(adjust ? UPSERT_ADJUST_SQL : UPSERT_SET_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, rows.get(i), adjust);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Mevcut kayıtları kilitle ve stok miktarlarını oku (upsert öncesi, aynı transaction'da)
+     *
+     * @return productId → quantity (kaydı olmayan ürünler yer almaz)
+     */
+    public Map<UUID, Integer> lockQuantities(Collection<UUID> productIds) {
+        Map<UUID, Integer> quantities = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOCK_QUANTITIES_SQL, Map.of("productIds", productIds),
+                rs -> {
+                    quantities.put(rs.getObject("product_id", UUID.class), rs.getInt("quantity"));
+                });
+        return quantities;
+    }
+
+    /**
+     * Upsert sonrası stok defterine ürün başına bir hareket ekle (tek JDBC batch)
+     * Yeni kayıtlar IN, mevcut kayıtlar ADJUSTMENT olarak yazılır
+     *
+     * @param previousQuantities lockQuantities sonucu
+     */
+    public void recordMovements(Collection<UUID> productIds, Map<UUID, Integer> previousQuantities) {
+        List<UUID> ids = new ArrayList<>(productIds);
+        jdbcTemplate.batchUpdate(RECORD_MOVEMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UUID productId = ids.get(i);
+                Integer previous = previousQuantities.get(productId);
+                ps.setString(1, (previous != null ? StockMovementType.ADJUSTMENT : StockMovementType.IN).name());
+                ps.setInt(2, previous != null ? previous : 0);
+                ps.setObject(3, productId);
+                ps.setInt(4, previous != null ? previous : 0);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+    }
+
+    /**
+     * Verilen ürünlerin status'unu yeniden hesapla
+     *
+     * @return Güncellenen kayıtların inventory ID'leri (cache key'leri için)
+     */
+    public List<UUID> recalculateStatus(Collection<UUID> productIds) {
+        return namedParameterJdbcTemplate.queryForList(
+                RECALCULATE_STATUS_SQL, Map.of("productIds", productIds), UUID.class);
+    }
+
+    private static void bind(PreparedStatement ps, InventoryImportRow row, boolean adjust) throws SQLException {
+        int quantity = row.getQuantity();
+        String location = row.getLocation() != null ? row.getLocation().name() : null;
+        // INSERT değerleri
+        ps.setObject(1, UUID.randomUUID());
+        ps.setObject(2, row.getProductId());
+        ps.setInt(3, adjust ? Math.max(0, quantity) : quantity);
+        ps.setInt(4, row.getMinStockLevel() != null ? row.getMinStockLevel() : 0);
+        setNullableInt(ps, 5, row.getMaxStockLevel());
+        ps.setString(6, location);
+        // ON CONFLICT DO UPDATE değerleri (null → mevcut değer korunur)
+        ps.setInt(7, quantity);
+        setNullableInt(ps, 8, row.getMinStockLevel());
+        setNullableInt(ps, 9, row.getMaxStockLevel());
+        ps.setString(10, location);
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.microservices.inventory.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.microservices.inventory.Model.Inventory;
 import com.microservices.inventory.Model.InventoryStatus;
 import com.microservices.inventory.Model.Location;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, UUID>{
     /**
@@ -19,6 +26,73 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID>{
      */
     Optional<Inventory> findByProductId(UUID productId);
     
+    /**
+     * Birden fazla Product ID için stok kayıtlarını tek sorguda bul
+     * Order Service'in batch lookup'ı için (WHERE product_id IN (...))
+     */
+    List<Inventory> findByProductIdIn(Collection<UUID> productIds);
+    
+    /**
+     * Stok kontrolü için sadece miktarlar (tek sorgu, entity yüklenmez)
+     * checkStockAvailability sepet başına N ayrı lookup yerine bunu kullanır
+     */
+    @Query("SELECT i.productId AS productId, i.quantity AS quantity, i.reservedQuantity AS reservedQuantity, "
+            + "i.status AS status, i.version AS version FROM Inventory i WHERE i.productId IN :productIds")
+    List<StockLevel> findStockLevelsByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+    
+    /**
+     * Inventory ID'leri ile stok seviyeleri (atomik UPDATE'ler inventory ID ile çalışır)
+     */
+    @Query("SELECT i.productId AS productId, i.quantity AS quantity, i.reservedQuantity AS reservedQuantity, "
+            + "i.status AS status, i.version AS version FROM Inventory i WHERE i.id IN :ids")
+    List<StockLevel> findStockLevelsByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Stok seviyesi projection'ı (findStockLevelsByProductIdIn / findStockLevelsByIdIn)
+     */
+    interface StockLevel {
+        UUID getProductId();
+        Integer getQuantity();
+        Integer getReservedQuantity();
+        InventoryStatus getStatus();
+        Long getVersion();
+        
+        /**
+         * Inventory.getAvailableQuantity ile aynı kural
+         */
+        default int getAvailableQuantity() {
+            if (getQuantity() == null) return 0;
+            if (getReservedQuantity() == null) return getQuantity();
+            return Math.max(0, getQuantity() - getReservedQuantity());
+        }
+    }
+    
+    /**
+     * Birden fazla Product ID için stok kayıtlarını satır kilidi ile getir (SELECT ... FOR UPDATE)
+     * 
+     * ORDER BY productId ÖNEMLİ: Tüm çok kalemli rezervasyonlar satırları aynı sırada kilitler,
+     * böylece iki sipariş birbirinin kilidini beklerken deadlock oluşmaz
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.productId IN :productIds ORDER BY i.productId")
+    List<Inventory> findByProductIdInForUpdate(@Param("productIds") Collection<UUID> productIds);
+    
+    /**
+     * Rezervasyonların kalemlerindeki stok kayıtlarını satır kilidi ile getir
+     * 
+     * releaseStockForReservations'tan önce aynı transaction'da çağrılır: set-based UPDATE satırları
+     * tarama sırasıyla kilitler; önce productId sırasıyla kilitlemek reserve() ile deadlock'u önler
+     * 
+     * @param excludedInventoryIds Hot item sayacından serbest bırakılan kayıtlar (kilitlenmez, boş olmamalı)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id IN ("
+            + "SELECT si.inventoryId FROM StockReservationItem si WHERE si.reservation.id IN :reservationIds) "
+            + "AND i.id NOT IN :excludedInventoryIds "
+            + "ORDER BY i.productId")
+    List<Inventory> findByReservationIdInForUpdate(@Param("reservationIds") Collection<UUID> reservationIds,
+                                                   @Param("excludedInventoryIds") Collection<UUID> excludedInventoryIds);
+    
     /**
      * Stok durumuna göre filtrele
      * Birden fazla kayıt olabilir, bu yüzden List döndürür
@@ -36,4 +110,142 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID>{
      * Duplicate check için kullanılır
      */
     boolean existsByProductId(UUID productId);
+    
+    /**
+     * Inventory ID'den productId (entity yüklemeden)
+     * Rezerve/serbest bırakma isteği productId taşımıyorsa veya UPDATE satır eşleştirmediyse kullanılır
+     */
+    @Query("SELECT i.productId FROM Inventory i WHERE i.id = :id")
+    Optional<UUID> findProductIdById(@Param("id") UUID id);
+    
+    /**
+     * Atomik stok rezervasyonu (tek UPDATE statement)
+     * 
+     * Kontrol ve artırma aynı statement'ta yapılır, entity yüklenmez:
+     * - WHERE koşulu yeterli stok yoksa satırı eşleştirmez → 0 döner
+     * - Eşzamanlı istekler satır kilidi ile sıraya girer, lost update olmaz
+     * - Status da aynı statement'ta yeniden hesaplanır (Inventory.calculateStatus ile aynı kurallar)
+     * 
+     * NOT: SET içindeki tüm ifadeler satırın ESKİ değerlerini görür
+     * 
+     * product_id da WHERE'de: çağıranın verdiği productId cache key'i, defter ve event için ayrı
+     * bir okuma yapmadan kullanılır; kayda ait değilse satır eşleşmez
+     * 
+     * @return Güncellenen satır sayısı (1 = başarılı, 0 = yetersiz stok, kayıt yok veya productId uyuşmuyor)
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE inventory SET "
+            + "reserved_quantity = reserved_quantity + :quantity, "
+            + "status = CASE "
+            + "  WHEN quantity <= 0 THEN 'OUT_OF_STOCK' "
+            + "  WHEN quantity <= min_stock_level THEN 'LOW_STOCK' "
+            + "  WHEN quantity - (reserved_quantity + :quantity) <= 0 THEN 'RESERVED' "
+            + "  ELSE 'IN_STOCK' END, "
+            + "updated_at = CURRENT_TIMESTAMP, "
+            + "version = version + 1 "
+            + "WHERE id = :id AND product_id = :productId AND quantity - reserved_quantity >= :quantity",
+            nativeQuery = true)
+    int reserveStockAtomically(@Param("id") UUID id, @Param("productId") UUID productId,
+                               @Param("quantity") int quantity);
+    
+    /**
+     * Atomik rezerve stok serbest bırakma (reserveStockAtomically'nin tersi)
+     * Rezerve edilmiş miktardan fazlası serbest bırakılamaz (WHERE koşulu)
+     * 
+     * @return Güncellenen satır sayısı (1 = başarılı, 0 = fazla serbest bırakma, kayıt yok veya productId uyuşmuyor)
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE inventory SET "
+            + "reserved_quantity = reserved_quantity - :quantity, "
+            + "status = CASE "
+            + "  WHEN quantity <= 0 THEN 'OUT_OF_STOCK' "
+            + "  WHEN quantity <= min_stock_level THEN 'LOW_STOCK' "
+            + "  WHEN reserved_quantity - :quantity > 0 "
+            + "       AND quantity - (reserved_quantity - :quantity) <= 0 THEN 'RESERVED' "
+            + "  ELSE 'IN_STOCK' END, "
+            + "updated_at = CURRENT_TIMESTAMP, "
+            + "version = version + 1 "
+            + "WHERE id = :id AND product_id = :productId AND reserved_quantity >= :quantity",
+            nativeQuery = true)
+    int releaseReservedStockAtomically(@Param("id") UUID id, @Param("productId") UUID productId,
+                                       @Param("quantity") int quantity);
+    
+    /**
+     * Süresi dolan rezervasyonların stoklarını toplu serbest bırak (tek set-based UPDATE)
+     * 
+     * Her inventory satırı için verilen rezervasyonlardaki kalem toplamı kadar reserved_quantity düşürülür;
+     * satır satır entity yüklenmez. Manuel düzeltmelerden sonra negatife düşmesin diye 0'da sabitlenir.
+     * Status aynı statement'ta yeniden hesaplanır (reserve/releaseReservedStockAtomically ile aynı kurallar)
+     * 
+     * Satırlar önce findByReservationIdInForUpdate ile productId sırasıyla kilitlenmeli (deadlock)
+     * 
+     * @param reservationIds Süresi dolan (ve sweeper tarafından kilitlenmiş) rezervasyon ID'leri
+     * @param excludedInventoryIds Hot item sayacından serbest bırakılan kayıtlar (güncellenmez, boş olmamalı)
+     * @return Güncellenen inventory satırı sayısı
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE inventory SET "
+            + "reserved_quantity = GREATEST(0, reserved_quantity - ("
+            + "  SELECT COALESCE(SUM(si.quantity), 0) FROM stock_reservation_items si "
+            + "  WHERE si.inventory_id = inventory.id AND si.reservation_id IN (:reservationIds))), "
+            + "status = CASE "
+            + "  WHEN quantity <= 0 THEN 'OUT_OF_STOCK' "
+            + "  WHEN quantity <= min_stock_level THEN 'LOW_STOCK' "
+            + "  WHEN quantity <= reserved_quantity - ("
+            + "    SELECT COALESCE(SUM(si.quantity), 0) FROM stock_reservation_items si "
+            + "    WHERE si.inventory_id = inventory.id AND si.reservation_id IN (:reservationIds)) THEN 'RESERVED' "
+            + "  ELSE 'IN_STOCK' END, "
+            + "updated_at = CURRENT_TIMESTAMP, "
+            + "version = version + 1 "
+            + "WHERE id IN (SELECT si.inventory_id FROM stock_reservation_items si "
+            + "             WHERE si.reservation_id IN (:reservationIds)) "
+            + "AND id NOT IN (:excludedInventoryIds)",
+            nativeQuery = true)
+    int releaseStockForReservations(@Param("reservationIds") Collection<UUID> reservationIds,
+                                    @Param("excludedInventoryIds") Collection<UUID> excludedInventoryIds);
+    
+    /**
+     * Hot item modunda biriken rezerve deltasını tek UPDATE ile uygula
+     * 
+     * Rezervasyonlar HotItemStockCounter'da bellekte kabul edilir; flush sırasında
+     * aradaki toplam değişim (artı: rezerve, eksi: serbest bırakma) bu statement ile yazılır.
+     * Kontrol burada yapılmaz (kabul bellekte yapıldı), sadece negatife düşmesi engellenir.
+     * 
+     * @return Güncellenen satır sayısı (0 = kayıt silinmiş)
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE inventory SET "
+            + "reserved_quantity = GREATEST(0, reserved_quantity + :delta), "
+            + "status = CASE "
+            + "  WHEN quantity <= 0 THEN 'OUT_OF_STOCK' "
+            + "  WHEN quantity <= min_stock_level THEN 'LOW_STOCK' "
+            + "  WHEN quantity <= reserved_quantity + :delta THEN 'RESERVED' "
+            + "  ELSE 'IN_STOCK' END, "
+            + "updated_at = CURRENT_TIMESTAMP, "
+            + "version = version + 1 "
+            + "WHERE id = :id",
+            nativeQuery = true)
+    int applyReservedDelta(@Param("id") UUID id, @Param("delta") long delta);
+    
+    /**
+     * applyReservedDelta'nın kontrollü hali: artı delta sadece kullanılabilir stok yetiyorsa yazılır
+     * 
+     * 0 dönerse sayaç DB'den fazla kabul etmiştir (sayaç dışı stok azaltması);
+     * HotItemStockFlusher deltayı yine de yazar (rezervasyonlar kabul edildi) ve sayacı hemen düzeltir
+     * 
+     * @return Güncellenen satır sayısı
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE inventory SET "
+            + "reserved_quantity = GREATEST(0, reserved_quantity + :delta), "
+            + "status = CASE "
+            + "  WHEN quantity <= 0 THEN 'OUT_OF_STOCK' "
+            + "  WHEN quantity <= min_stock_level THEN 'LOW_STOCK' "
+            + "  WHEN quantity <= reserved_quantity + :delta THEN 'RESERVED' "
+            + "  ELSE 'IN_STOCK' END, "
+            + "updated_at = CURRENT_TIMESTAMP, "
+            + "version = version + 1 "
+            + "WHERE id = :id AND (:delta <= 0 OR quantity - reserved_quantity >= :delta)",
+            nativeQuery = true)
+    int applyReservedDeltaIfAvailable(@Param("id") UUID id, @Param("delta") long delta);
 }
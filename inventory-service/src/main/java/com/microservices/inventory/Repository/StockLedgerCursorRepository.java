@@ -0,0 +1,24 @@
+package com.microservices.inventory.Repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.microservices.inventory.Model.StockLedgerCursor;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface StockLedgerCursorRepository extends JpaRepository<StockLedgerCursor, Integer> {
+    /**
+     * Compaction cursor'ını satır kilidi ile getir
+     * Kilit transaction sonuna kadar tutulur: aynı anda tek compaction batch'i çalışır
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM StockLedgerCursor c WHERE c.id = :id")
+    Optional<StockLedgerCursor> findByIdForUpdate(@Param("id") Integer id);
+}
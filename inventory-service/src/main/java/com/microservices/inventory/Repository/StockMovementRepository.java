@@ -0,0 +1,122 @@
+package com.microservices.inventory.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.microservices.inventory.Model.StockMovement;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    /**
+     * Defter bakiyesi için toplam değişim (projection)
+     */
+    interface DeltaSum {
+        Long getQuantityDelta();
+        Long getReservedDelta();
+        Long getMovements();
+    }
+    
+    /**
+     * Compaction için ürün bazlı toplam değişim (projection)
+     */
+    interface ProductDelta {
+        UUID getProductId();
+        Long getQuantityDelta();
+        Long getReservedDelta();
+    }
+    
+    /**
+     * Compaction sınırını belirlemek için hareket ID'si ve zamanı (projection)
+     */
+    interface MovementMark {
+        Long getId();
+        LocalDateTime getCreatedAt();
+    }
+    
+    /**
+     * Inventory ID ile hareket ekle (tek INSERT ... SELECT)
+     * Atomik UPDATE'lerde entity yüklenmediği için productId satırdan okunur
+     * 
+     * @return Eklenen hareket sayısı (0 = kayıt yok)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO stock_movement "
+            + "(product_id, inventory_id, movement_type, quantity_delta, reserved_delta, created_at) "
+            + "SELECT i.product_id, i.id, :type, :quantityDelta, :reservedDelta, CURRENT_TIMESTAMP "
+            + "FROM inventory i WHERE i.id = :inventoryId",
+            nativeQuery = true)
+    int recordForInventory(@Param("inventoryId") UUID inventoryId,
+                           @Param("type") String type,
+                           @Param("quantityDelta") int quantityDelta,
+                           @Param("reservedDelta") int reservedDelta);
+    
+    /**
+     * Rezervasyonların serbest bırakılmasını kalem başına bir hareket olarak ekle (tek INSERT ... SELECT)
+     * 
+     * InventoryRepository.releaseStockForReservations'tan ÖNCE çağrılmalı: serbest bırakılan miktar
+     * mevcut reserved_quantity ile sınırlanır (UPDATE'teki GREATEST(0, ...) ile aynı sonuç)
+     * 
+     * @param excludedInventoryIds Hot item sayacından serbest bırakılan kayıtlar; hareketlerini
+     *                             HotItemStockFlusher yazar (boş olmamalı)
+     * @return Eklenen hareket sayısı
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO stock_movement "
+            + "(product_id, inventory_id, movement_type, quantity_delta, reserved_delta, reference_id, created_at) "
+            + "SELECT si.product_id, si.inventory_id, :type, 0, -LEAST(si.quantity, i.reserved_quantity), "
+            + "r.order_id, CURRENT_TIMESTAMP "
+            + "FROM stock_reservation_items si "
+            + "JOIN stock_reservations r ON r.id = si.reservation_id "
+            + "JOIN inventory i ON i.id = si.inventory_id "
+            + "WHERE si.reservation_id IN (:reservationIds) AND i.reserved_quantity > 0 "
+            + "AND si.inventory_id NOT IN (:excludedInventoryIds)",
+            nativeQuery = true)
+    int recordReservationRelease(@Param("reservationIds") Collection<UUID> reservationIds,
+                                 @Param("excludedInventoryIds") Collection<UUID> excludedInventoryIds,
+                                 @Param("type") String type);
+    
+    /**
+     * Ürünün son hareketleri (en yeni önce) - denetim kaydı
+     */
+    List<StockMovement> findByProductIdOrderByIdDesc(UUID productId, Pageable pageable);
+    
+    /**
+     * Ürünün verilen ID'den sonraki hareketlerinin toplamı (snapshot + bu toplam = defter bakiyesi)
+     */
+    @Query("SELECT COALESCE(SUM(m.quantityDelta), 0) AS quantityDelta, "
+            + "COALESCE(SUM(m.reservedDelta), 0) AS reservedDelta, COUNT(m) AS movements "
+            + "FROM StockMovement m WHERE m.productId = :productId AND m.id > :afterId")
+    DeltaSum sumDeltasAfter(@Param("productId") UUID productId, @Param("afterId") long afterId);
+    
+    /**
+     * Verilen ID'den sonraki hareketler (ID sırasıyla, sayfa boyutu kadar)
+     */
+    @Query("SELECT m.id AS id, m.createdAt AS createdAt FROM StockMovement m WHERE m.id > :afterId ORDER BY m.id")
+    List<MovementMark> findMarksAfter(@Param("afterId") long afterId, Pageable pageable);
+    
+    /**
+     * (fromId, toId] aralığındaki hareketlerin ürün bazlı toplamı (tek GROUP BY sorgusu)
+     */
+    @Query("SELECT m.productId AS productId, SUM(m.quantityDelta) AS quantityDelta, "
+            + "SUM(m.reservedDelta) AS reservedDelta "
+            + "FROM StockMovement m WHERE m.id > :fromId AND m.id <= :toId GROUP BY m.productId")
+    List<ProductDelta> sumDeltasByProductBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+    
+    /**
+     * Snapshot'a dahil edilmiş ve saklama süresi dolmuş hareketleri sil
+     * 
+     * @return Silinen hareket sayısı
+     */
+    @Modifying
+    @Query("DELETE FROM StockMovement m WHERE m.id <= :compactedId AND m.createdAt < :before")
+    int deleteCompactedBefore(@Param("compactedId") long compactedId, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,98 @@
+package com.microservices.inventory.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.microservices.inventory.Model.StockReservation;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+    /**
+     * Rezervasyon kalemlerinin stok kaydı başına toplamı (cache key'leri ve hot item sayacı için projection)
+     */
+    interface ItemRef {
+        UUID getProductId();
+        UUID getInventoryId();
+        Long getQuantity();
+    }
+    
+    /**
+     * Sipariş ID'ye göre rezervasyon bul
+     * Her sipariş için tek rezervasyon olmalı (unique constraint)
+     */
+    Optional<StockReservation> findByOrderId(UUID orderId);
+    
+    /**
+     * Sipariş ID'ye göre rezervasyonu satır kilidi ile getir
+     * Aynı siparişin eşzamanlı iki release isteği stoku iki kez geri vermesin
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId")
+    Optional<StockReservation> findByOrderIdForUpdate(@Param("orderId") UUID orderId);
+    
+    /**
+     * Siparişlerin rezervasyonlarını satır kilidi ile getir (toplu release)
+     * ID sırasıyla kilitlenir: eşzamanlı iki toplu istek deadlock'a girmesin
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId IN :orderIds ORDER BY r.id")
+    List<StockReservation> findByOrderIdInForUpdate(@Param("orderIds") Collection<UUID> orderIds);
+    
+    /**
+     * Süresi dolmuş ACTIVE hold'ları satır kilidi ile getir (en eski önce, sayfa boyutu kadar)
+     * 
+     * lock.timeout = -2 → SKIP LOCKED: birden fazla instance aynı anda sweep ederse
+     * birbirini beklemez, kilitli satırları atlar (destekleyen veritabanlarında)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM StockReservation r "
+            + "WHERE r.status = com.microservices.inventory.Model.ReservationStatus.ACTIVE "
+            + "AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<StockReservation> findExpiredHoldsForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Verilen rezervasyonların kalemlerindeki ürünler ve stok kayıtları (stok değişikliği event'i ve cache key'leri için)
+     */
+    @Query("SELECT i.productId AS productId, i.inventoryId AS inventoryId, SUM(i.quantity) AS quantity "
+            + "FROM StockReservationItem i WHERE i.reservation.id IN :ids GROUP BY i.productId, i.inventoryId")
+    List<ItemRef> findItemRefsByReservationIdIn(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Verilen rezervasyonları toplu olarak EXPIRED yap (tek UPDATE)
+     * 
+     * @return Güncellenen rezervasyon sayısı
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StockReservation r "
+            + "SET r.status = com.microservices.inventory.Model.ReservationStatus.EXPIRED, r.updatedAt = :now "
+            + "WHERE r.id IN :ids AND r.status = com.microservices.inventory.Model.ReservationStatus.ACTIVE")
+    int markExpired(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+    
+    /**
+     * Verilen rezervasyonları toplu olarak RELEASED yap (tek UPDATE)
+     * 
+     * @return Güncellenen rezervasyon sayısı
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StockReservation r "
+            + "SET r.status = com.microservices.inventory.Model.ReservationStatus.RELEASED, "
+            + "r.expiresAt = null, r.updatedAt = :now "
+            + "WHERE r.id IN :ids AND r.status = com.microservices.inventory.Model.ReservationStatus.ACTIVE")
+    int markReleased(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+}
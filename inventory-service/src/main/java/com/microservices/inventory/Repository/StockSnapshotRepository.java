@@ -0,0 +1,19 @@
+package com.microservices.inventory.Repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.microservices.inventory.Model.StockSnapshot;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, UUID> {
+    /**
+     * Compaction'ın ulaştığı son hareket ID'si
+     * Her compaction (fromId, toId] aralığının tamamını işlediği için en büyük lastMovementId yeterli
+     */
+    @Query("SELECT COALESCE(MAX(s.lastMovementId), 0) FROM StockSnapshot s")
+    long findCompactedMovementId();
+}
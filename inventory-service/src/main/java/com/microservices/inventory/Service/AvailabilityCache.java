@@ -0,0 +1,177 @@
+package com.microservices.inventory.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.microservices.inventory.Event.StockLevelChangedEvent;
+import com.microservices.inventory.Exception.ResourceNotFoundException;
+import com.microservices.inventory.Repository.InventoryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Availability Cache
+ * GET /inventory/product/{productId}/available için write-through Redis cache
+ * 
+ * Eski "available:" @Cacheable girdisi her rezervasyonda allEntries=true ile silindiği için
+ * yoğun ürünlerde neredeyse hiç hit vermiyor, silme ile yeniden yükleme arasında da bayat değer yazılabiliyordu.
+ * 
+ * Önemli Notlar:
+ * - Ürün başına bir Redis hash: inventory:availability:{productId} → version, quantity, reserved, available
+ * - Stok değiştiren her transaction commit olduktan sonra (StockLevelChangedEvent) değer DB'den
+ *   okunup cache'e yazılır; silmek yerine güncellendiği için sonraki okumalar da hit olur
+ * - Yazma Lua script ile yapılır ve inventory.version'a göre korunur: cache'teki versiyon
+ *   aynı veya daha yeniyse yazma yapılmaz (geç kalan refresh/miss yüklemesi yeni değeri ezemez)
+ * - Redis hatası stok işlemini bozmaz: anahtar silinmeye çalışılır, okuma DB'ye düşer, TTL üst sınırdır
+ * - Hot item modunda DB (ve dolayısıyla cache) flush aralığı kadar geriden gelir
+ */
+@Component
+public class AvailabilityCache {
+    static final String KEY_PREFIX = "inventory:availability:";
+
+    // Tek round-trip: versiyon kontrolü + yazma + TTL atomik
+    private static final RedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('HGET', KEYS[1], 'version') "
+            + "if current and tonumber(current) >= tonumber(ARGV[1]) then return 0 end "
+            + "redis.call('HSET', KEYS[1], 'version', ARGV[1], 'quantity', ARGV[2], "
+            + "'reserved', ARGV[3], 'available', ARGV[4]) "
+            + "redis.call('PEXPIRE', KEYS[1], ARGV[5]) "
+            + "return 1",
+            Long.class);
+
+    // Refresh'te tek IN sorgusundaki en fazla ID (toplu release'lerde binlerce ürün olabilir)
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final MeterRegistry meterRegistry;
+    private final long ttlMillis;
+
+    public AvailabilityCache(
+            StringRedisTemplate redisTemplate,
+            InventoryRepository inventoryRepository,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.availability-cache.ttl-seconds:600}") long ttlSeconds) {
+        if (ttlSeconds <= 0) {
+            throw new IllegalArgumentException("inventory.availability-cache.ttl-seconds must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.inventoryRepository = inventoryRepository;
+        this.meterRegistry = meterRegistry;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Kullanılabilir stok miktarı (quantity - reservedQuantity)
+     * Cache'te yoksa DB'den okunur ve cache'e yazılır
+     * 
+     * @throws ResourceNotFoundException Ürün için stok kaydı yoksa
+     */
+    public int getAvailableQuantity(UUID productId) {
+        try {
+            Object available = redisTemplate.opsForHash().get(key(productId), "available");
+            if (available != null) {
+                meterRegistry.counter("inventory.availability.cache", "result", "hit").increment();
+                return Integer.parseInt(available.toString());
+            }
+            meterRegistry.counter("inventory.availability.cache", "result", "miss").increment();
+        } catch (Exception e) {
+            meterRegistry.counter("inventory.availability.cache", "result", "error").increment();
+            System.err.println("Error reading availability cache for product " + productId + ": " + e.getMessage());
+        }
+
+        InventoryRepository.StockLevel level = inventoryRepository.findStockLevelsByProductIdIn(List.of(productId))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+        write(level);
+        return level.getAvailableQuantity();
+    }
+
+    /**
+     * Stok değişikliği commit olduktan sonra cache'i güncelle
+     * fallbackExecution: transaction dışında yayınlanan event'ler de (ör. testler, toplu işler) işlenir
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        try {
+            refresh(event.getProductIds(), event.getInventoryIds());
+        } catch (Exception e) {
+            // DB okunamadıysa değişen ürünler bilinen kadarıyla silinir, sonraki okuma yeniden yükler
+            meterRegistry.counter("inventory.availability.cache.write", "result", "error").increment();
+            System.err.println("Error refreshing availability cache: " + e.getMessage());
+            event.getProductIds().forEach(this::evict);
+        }
+    }
+
+    private void refresh(Set<UUID> productIds, Set<UUID> inventoryIds) {
+        Set<UUID> missing = new HashSet<>(productIds);
+        for (List<UUID> chunk : chunks(productIds)) {
+            for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevelsByProductIdIn(chunk)) {
+                missing.remove(level.getProductId());
+                write(level);
+            }
+        }
+        for (List<UUID> chunk : chunks(inventoryIds)) {
+            inventoryRepository.findStockLevelsByIdIn(chunk).forEach(this::write);
+        }
+        // Stok kaydı silinmiş ürünler
+        missing.forEach(this::evict);
+    }
+
+    /**
+     * Versiyon korumalı yazma
+     * Hata olursa anahtar silinir: bayat değer TTL boyunca okunmasın
+     */
+    private void write(InventoryRepository.StockLevel level) {
+        int quantity = level.getQuantity() != null ? level.getQuantity() : 0;
+        int reserved = level.getReservedQuantity() != null ? level.getReservedQuantity() : 0;
+        long version = level.getVersion() != null ? level.getVersion() : 0;
+        try {
+            Long written = redisTemplate.execute(WRITE_SCRIPT, List.of(key(level.getProductId())),
+                    String.valueOf(version), String.valueOf(quantity), String.valueOf(reserved),
+                    String.valueOf(level.getAvailableQuantity()), String.valueOf(ttlMillis));
+            String result = written != null && written == 1L ? "written" : "stale";
+            meterRegistry.counter("inventory.availability.cache.write", "result", result).increment();
+        } catch (Exception e) {
+            meterRegistry.counter("inventory.availability.cache.write", "result", "error").increment();
+            System.err.println("Error writing availability cache for product " + level.getProductId() +
+                    ": " + e.getMessage());
+            evict(level.getProductId());
+        }
+    }
+
+    private void evict(UUID productId) {
+        try {
+            redisTemplate.delete(key(productId));
+        } catch (Exception e) {
+            System.err.println("Error evicting availability cache for product " + productId + ": " + e.getMessage());
+        }
+    }
+
+    private static List<List<UUID>> chunks(Set<UUID> ids) {
+        List<UUID> all = new ArrayList<>(ids);
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += REFRESH_BATCH_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + REFRESH_BATCH_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    static String key(UUID productId) {
+        return KEY_PREFIX + productId;
+    }
+}
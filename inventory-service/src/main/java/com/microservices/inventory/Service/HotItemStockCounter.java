@@ -0,0 +1,270 @@
+package com.microservices.inventory.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.microservices.inventory.DTO.StockReservationResult;
+import com.microservices.inventory.Model.Inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hot Item Stock Counter
+ * Flash sale ürünleri için bellek içi (lock-free) stok sayacı
+ *
+ * Neden gerekli?
+ * - Flash sale'de tüm siparişler aynı inventory satırını günceller → tek satır hotspot,
+ *   her rezervasyon satır kilidi için sıraya girer
+ * - Bu modda rezervasyon bellekte atomik sayaçla kabul edilir (kilit yok, DB'ye gidilmez)
+ * - Biriken değişim HotItemStockFlusher tarafından periyodik olarak toplu yazılır
+ *
+ * Önemli Notlar:
+ * - Sadece inventory.hot-items.product-ids ile işaretlenen ürünler için aktif (opt-in)
+ * - Tek instance varsayımı: sayaç instance'a özeldir, birden fazla instance'ta
+ *   aynı ürün hot item yapılmamalıdır
+ * - DB, flush aralığı kadar geriden gelir; instance çökerse flush edilmemiş delta kaybolur
+ *   (HotItemStockFlusher kapanışta son bir flush yapar)
+ * - Tüm rezervasyon ve serbest bırakma yolları sayaçtan geçer: PATCH /{id}/reserve|release ve sipariş
+ *   rezervasyonları (StockReservationService: reserve, release, releaseAll, süresi dolan hold'lar).
+ *   Sipariş rezervasyonu serbest bırakmaları commit sonrası uygulanır; bu yollar hot item satırını
+ *   DB'de güncellemez, böylece henüz flush edilmemiş rezervasyon DB'de 0'a sabitlenip kaybolmaz
+ * - Sayaç dışı değişiklikler (manuel stok güncellemesi, import) reconcile ile düzeltilir;
+ *   bu aralıkta sayaç DB'den fazla kabul edebilir. Flush'taki koşullu UPDATE bunu tespit eder
+ *   ve sayaç hemen DB'ye göre düzeltilir (bkz. HotItemStockFlusher)
+ */
+@Component
+public class HotItemStockCounter {
+    private final Set<UUID> hotProductIds;
+    private final Map<UUID, Slot> slotsByInventoryId = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> inventoryIdsByProductId = new ConcurrentHashMap<>();
+    private final Counter reserveSuccess;
+    private final Counter reserveInsufficient;
+    private final Counter releaseSuccess;
+    private final Counter releaseOverRelease;
+
+    public HotItemStockCounter(
+            @Value("${inventory.hot-items.enabled:false}") boolean enabled,
+            @Value("${inventory.hot-items.product-ids:}") String productIds,
+            MeterRegistry meterRegistry) {
+        this.hotProductIds = enabled ? parseProductIds(productIds) : Collections.emptySet();
+        this.reserveSuccess = meterRegistry.counter("inventory.hot.reserve.success");
+        this.reserveInsufficient = meterRegistry.counter("inventory.hot.reserve.fail", "reason", "insufficient");
+        this.releaseSuccess = meterRegistry.counter("inventory.hot.release.success");
+        this.releaseOverRelease = meterRegistry.counter("inventory.hot.release.fail", "reason", "over_release");
+    }
+
+    private static Set<UUID> parseProductIds(String productIds) {
+        return Arrays.stream(productIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(UUID::fromString)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Hot item olarak işaretlenen ürün ID'leri
+     */
+    public Set<UUID> getHotProductIds() {
+        return hotProductIds;
+    }
+
+    /**
+     * Bu inventory bellekte mi yönetiliyor?
+     * Sayaç henüz yüklenmediyse false döner (istek normal DB yolundan gider)
+     */
+    public boolean isHot(UUID inventoryId) {
+        return slotsByInventoryId.containsKey(inventoryId);
+    }
+
+    /**
+     * Inventory satırından sayacı yükle (uygulama açılışında veya reconcile sırasında)
+     * Zaten yüklüyse dokunmaz
+     */
+    public void load(Inventory inventory) {
+        if (!hotProductIds.contains(inventory.getProductId())) {
+            return;
+        }
+        slotsByInventoryId.computeIfAbsent(inventory.getId(),
+                id -> new Slot(availableOf(inventory), reservedOf(inventory)));
+        inventoryIdsByProductId.put(inventory.getProductId(), inventory.getId());
+    }
+
+    /**
+     * Ürün bellekte yönetiliyorsa inventory ID'si, değilse null
+     * Sipariş rezervasyonu productId ile geldiği için kullanılır
+     */
+    public UUID getHotInventoryId(UUID productId) {
+        UUID inventoryId = inventoryIdsByProductId.get(productId);
+        return inventoryId != null && slotsByInventoryId.containsKey(inventoryId) ? inventoryId : null;
+    }
+
+    /**
+     * Bellekte stok rezerve et (lock-free)
+     *
+     * Kullanılabilir miktar CAS ile düşürülür; yetersizse hiçbir şey değişmez.
+     * DB'ye yazma HotItemStockFlusher tarafından toplu yapılır.
+     */
+    public StockReservationResult reserve(UUID inventoryId, Integer quantity) {
+        validateQuantity(quantity);
+        Slot slot = slotsByInventoryId.get(inventoryId);
+        while (true) {
+            long current = slot.available.get();
+            if (current < quantity) {
+                reserveInsufficient.increment();
+                return StockReservationResult.failure(inventoryId, quantity, "INSUFFICIENT_STOCK");
+            }
+            if (slot.available.compareAndSet(current, current - quantity)) {
+                break;
+            }
+        }
+        slot.reserved.addAndGet(quantity);
+        slot.reservedDelta.add(quantity);
+        reserveSuccess.increment();
+        return StockReservationResult.success(inventoryId, quantity);
+    }
+
+    /**
+     * Bellekte rezerve stoku serbest bırak
+     * Rezerve edilenden fazlası serbest bırakılamaz (OVER_RELEASE)
+     */
+    public StockReservationResult release(UUID inventoryId, Integer quantity) {
+        validateQuantity(quantity);
+        Slot slot = slotsByInventoryId.get(inventoryId);
+        while (true) {
+            long current = slot.reserved.get();
+            if (current < quantity) {
+                releaseOverRelease.increment();
+                return StockReservationResult.failure(inventoryId, quantity, "OVER_RELEASE");
+            }
+            if (slot.reserved.compareAndSet(current, current - quantity)) {
+                break;
+            }
+        }
+        slot.available.addAndGet(quantity);
+        slot.reservedDelta.add(-quantity);
+        releaseSuccess.increment();
+        return StockReservationResult.success(inventoryId, quantity);
+    }
+
+    /**
+     * Son flush'tan bu yana biriken rezerve değişimi (inventoryId → delta)
+     * Sadece değişen satırlar döner
+     */
+    public Map<UUID, Long> pendingDeltas() {
+        Map<UUID, Long> deltas = new HashMap<>();
+        slotsByInventoryId.forEach((inventoryId, slot) -> {
+            long delta = slot.reservedDelta.sum() - slot.flushed;
+            if (delta != 0) {
+                deltas.put(inventoryId, delta);
+            }
+        });
+        return deltas;
+    }
+
+    /**
+     * Delta DB'ye yazıldı (transaction commit edildikten sonra çağrılır)
+     * Toplam delta sıfırlanmaz; flush edilen kısım kaydedilir, böylece flush sırasında
+     * gelen rezervasyonlar kaybolmaz
+     */
+    public void markFlushed(UUID inventoryId, long delta) {
+        Slot slot = slotsByInventoryId.get(inventoryId);
+        if (slot != null) {
+            slot.flushed += delta;
+        }
+    }
+
+    /**
+     * Sayacı DB ile karşılaştır (flush sonrası okunan satır ile)
+     *
+     * Beklenen değer = DB değeri - henüz flush edilmemiş delta.
+     * Aradaki fark (drift) sayaç dışı yollardan gelen değişikliklerden kaynaklanır
+     * (manuel stok güncellemesi, import, commit sonrası henüz sayaca uygulanmamış serbest bırakma).
+     * - Sayaç DB'den fazla kullanılabilir görüyorsa (drift > 0) hemen düzeltilir: aksi halde satış fazlası olur
+     * - Sayaç daha az görüyorsa (drift < 0) commit sonrası uygulanacak serbest bırakmalar
+     *   yanlış alarm üretmesin diye fark iki ardışık kontrolde aynıysa düzeltilir
+     *
+     * @return Kullanılabilir miktardaki fark (sayaç - beklenen); 0 = tutarlı
+     */
+    public long reconcile(Inventory inventory) {
+        Slot slot = slotsByInventoryId.get(inventory.getId());
+        if (slot == null) {
+            return 0;
+        }
+        long deltaBefore = slot.reservedDelta.sum();
+        long available = slot.available.get();
+        long reserved = slot.reserved.get();
+        if (slot.reservedDelta.sum() != deltaBefore) {
+            return 0;  // Okuma sırasında rezervasyon geldi, sonraki turda tekrar dene
+        }
+        long pending = deltaBefore - slot.flushed;
+        long availableDrift = available - (availableOf(inventory) - pending);
+        long reservedDrift = reserved - (reservedOf(inventory) + pending);
+
+        if (availableDrift == 0 && reservedDrift == 0) {
+            slot.lastAvailableDrift = 0;
+            return 0;
+        }
+        if (availableDrift > 0 || availableDrift == slot.lastAvailableDrift) {
+            slot.available.addAndGet(-availableDrift);
+            slot.reserved.addAndGet(-reservedDrift);
+            slot.lastAvailableDrift = 0;
+        } else {
+            slot.lastAvailableDrift = availableDrift;
+        }
+        return availableDrift;
+    }
+
+    /**
+     * Bellekteki kullanılabilir miktar (izleme ve testler için)
+     */
+    public long getAvailable(UUID inventoryId) {
+        Slot slot = slotsByInventoryId.get(inventoryId);
+        return slot != null ? slot.available.get() : 0;
+    }
+
+    private static long availableOf(Inventory inventory) {
+        return (long) inventory.getQuantity() - reservedOf(inventory);
+    }
+
+    private static long reservedOf(Inventory inventory) {
+        return inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
+    }
+
+    private static void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+    }
+
+    /**
+     * Tek bir hot item'ın sayaç durumu
+     *
+     * - available/reserved: Kabul kararı için (CAS)
+     * - reservedDelta: Açılıştan beri toplam rezerve değişimi (LongAdder, striped - yazma çakışması yok)
+     * - flushed: DB'ye yazılmış kısım (sadece HotItemStockFlusher, kilidi tutarken yazar)
+     */
+    private static final class Slot {
+        private final AtomicLong available;
+        private final AtomicLong reserved;
+        private final LongAdder reservedDelta = new LongAdder();
+        private volatile long flushed;
+        private volatile long lastAvailableDrift;
+
+        private Slot(long available, long reserved) {
+            this.available = new AtomicLong(available);
+            this.reserved = new AtomicLong(reserved);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.microservices.inventory.Service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.microservices.inventory.Event.StockLevelChangedEvent;
+import com.microservices.inventory.Model.Inventory;
+import com.microservices.inventory.Model.StockMovementType;
+import com.microservices.inventory.Repository.InventoryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hot Item Stock Flusher
+ * HotItemStockCounter'da biriken rezerve değişimlerini DB'ye toplu yazar ve sayacı DB ile karşılaştırır
+ *
+ * - flush: Her hot item için biriken delta tek UPDATE ile yazılır, hepsi tek transaction'da
+ *   (rezervasyon başına bir UPDATE yerine flush başına ürün başına bir UPDATE)
+ *   Stok defterine de flush başına ürün başına tek hareket yazılır (rezervasyon başına değil)
+ *   Artı delta kullanılabilir stok kontrolü ile yazılır; tutmazsa (sayaç dışı stok azaltması) delta yine
+ *   yazılır, inventory.hot.oversold artırılır ve sayaç hemen DB'ye göre düzeltilir
+ * - reconcile: Flush sonrası DB satırı okunur, sayaçla fark (drift) ölçülür ve düzeltilir
+ *
+ * flush, reconcile ve kapanış flush'ı aynı kilitle sırayla çalışır: flush ve reconcile ayrı scheduler
+ * thread'lerinde koşar, reconcile de flush çağırır. Aynı bekleyen delta iki kez okunup DB'ye ve deftere
+ * iki kez yazılmasın, markFlushed tek yazıcıyla kalsın diye.
+ *
+ * Sadece inventory.hot-items.enabled=true iken yüklenir.
+ */
+@Component
+@ConditionalOnProperty(value = "inventory.hot-items.enabled", havingValue = "true")
+public class HotItemStockFlusher {
+    private final HotItemStockCounter counter;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedgerService ledgerService;
+    private final Timer flushTimer;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public HotItemStockFlusher(
+            HotItemStockCounter counter,
+            InventoryRepository inventoryRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher,
+            StockLedgerService ledgerService) {
+        this.counter = counter;
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.ledgerService = ledgerService;
+        this.flushTimer = Timer.builder("inventory.hot.flush.duration").register(meterRegistry);
+    }
+
+    /**
+     * Uygulama açılınca hot item sayaçlarını DB'den yükle
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHotItems() {
+        if (counter.getHotProductIds().isEmpty()) {
+            return;
+        }
+        inventoryRepository.findByProductIdIn(counter.getHotProductIds()).forEach(counter::load);
+    }
+
+    /**
+     * Biriken deltaları DB'ye yaz
+     * Transaction başarısız olursa deltalar sayaçta kalır, bir sonraki flush'ta tekrar denenir
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-items.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPendingDeltas();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPendingDeltas() {
+        Map<UUID, Long> deltas = counter.pendingDeltas();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Set<UUID> oversold = new HashSet<>();
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                oversold.clear();
+                deltas.forEach((id, delta) -> {
+                    if (inventoryRepository.applyReservedDeltaIfAvailable(id, delta) == 0
+                            && inventoryRepository.applyReservedDelta(id, delta) > 0) {
+                        oversold.add(id);
+                    }
+                    ledgerService.recordForInventory(id, delta > 0
+                            ? StockMovementType.RESERVATION
+                            : StockMovementType.RESERVATION_CANCELLED, 0, Math.toIntExact(delta));
+                });
+                // AvailabilityCache flush commit olunca güncellenir
+                eventPublisher.publishEvent(StockLevelChangedEvent.forInventories(deltas.keySet()));
+            }));
+            deltas.forEach(counter::markFlushed);
+            meterRegistry.counter("inventory.hot.flush.rows").increment(deltas.size());
+        } catch (Exception e) {
+            meterRegistry.counter("inventory.hot.flush.fail").increment();
+            System.err.println("Error flushing hot item stock deltas: " + e.getMessage());
+            return;
+        }
+        if (!oversold.isEmpty()) {
+            resync(oversold);
+        }
+    }
+
+    /**
+     * Sayaç DB'den fazla kabul etti: reconcile turunu beklemeden sayacı DB'ye göre düzelt
+     * (drift > 0 reconcile'da hemen düzeltilir), böylece sonraki rezervasyonlar reddedilir
+     */
+    private void resync(Set<UUID> inventoryIds) {
+        meterRegistry.counter("inventory.hot.oversold").increment(inventoryIds.size());
+        try {
+            for (Inventory inventory : inventoryRepository.findAllById(inventoryIds)) {
+                long drift = counter.reconcile(inventory);
+                System.err.println("Hot item stock oversold for product " + inventory.getProductId() +
+                        ": counter corrected by " + drift);
+            }
+        } catch (Exception e) {
+            System.err.println("Error resyncing hot item stock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sayaç ile DB arasındaki farkı tespit et ve düzelt
+     * Önce flush edilir, böylece karşılaştırma sadece o anda biriken kısmı hesaba katar
+     */
+    @Scheduled(
+        fixedDelayString = "${inventory.hot-items.reconcile-interval-ms:30000}",
+        initialDelayString = "${inventory.hot-items.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        if (counter.getHotProductIds().isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushPendingDeltas();
+            reconcileWithDatabase();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void reconcileWithDatabase() {
+        try {
+            for (Inventory inventory : inventoryRepository.findByProductIdIn(counter.getHotProductIds())) {
+                if (!counter.isHot(inventory.getId())) {
+                    counter.load(inventory);  // Açılıştan sonra oluşturulan stok kaydı
+                    continue;
+                }
+                long drift = counter.reconcile(inventory);
+                if (drift != 0) {
+                    meterRegistry.counter("inventory.hot.drift.detected",
+                            "productId", inventory.getProductId().toString()).increment();
+                    System.err.println("Hot item stock drift for product " + inventory.getProductId() +
+                            ": counter differs from database by " + drift);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error reconciling hot item stock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Kapanışta bekleyen deltaları yaz (flush aralığındaki rezervasyonlar kaybolmasın)
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
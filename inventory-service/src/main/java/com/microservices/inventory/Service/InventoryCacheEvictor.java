@@ -0,0 +1,68 @@
+package com.microservices.inventory.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Inventory Cache Evictor
+ * "inventories" cache'inde sadece değişen kayıtların key'lerini siler
+ *
+ * Neden allEntries=true değil?
+ * - RedisCacheWriter allEntries için KEYS inventories::* + DEL çalıştırır (checkout yolunda tüm cache boşalır)
+ * - Değişmeyen ürünlerin girdileri gereksiz yere yeniden yüklenir
+ *
+ * Silinen key'ler InventoryService'teki @Cacheable key'leridir: "all", "{id}", "product:{productId}".
+ * Transaction içinde çağrılırsa silme commit sonrasına ertelenir (commit öncesi okuma bayat değeri geri yazmasın).
+ */
+@Component
+public class InventoryCacheEvictor {
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public InventoryCacheEvictor(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void evict(UUID productId, UUID inventoryId) {
+        evict(productId != null ? List.of(productId) : List.of(), inventoryId != null ? List.of(inventoryId) : List.of());
+    }
+
+    public void evict(Collection<UUID> productIds, Collection<UUID> inventoryIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(productIds, inventoryIds);
+                }
+            });
+        } else {
+            evictNow(productIds, inventoryIds);
+        }
+    }
+
+    private void evictNow(Collection<UUID> productIds, Collection<UUID> inventoryIds) {
+        Cache cache = cacheManager.getCache("inventories");
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.evict("all");
+            productIds.forEach(productId -> cache.evict("product:" + productId));
+            inventoryIds.forEach(id -> cache.evict(id.toString()));
+        } catch (Exception e) {
+            // Cache TTL'i kısa (2 dk): stok işlemi başarılı sayılır
+            meterRegistry.counter("inventory.cache.evict.fail").increment();
+            System.err.println("Error evicting inventory cache: " + e.getMessage());
+        }
+    }
+}
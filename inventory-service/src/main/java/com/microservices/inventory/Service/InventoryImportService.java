@@ -0,0 +1,353 @@
+package com.microservices.inventory.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.inventory.DTO.InventoryImportResult;
+import com.microservices.inventory.DTO.InventoryImportRow;
+import com.microservices.inventory.Event.StockLevelChangedEvent;
+import com.microservices.inventory.Model.Location;
+import com.microservices.inventory.Repository.InventoryBulkRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Inventory Import Service
+ * Depo senkronizasyonu için toplu stok import/düzeltme (POST /inventory/import)
+ *
+ * Önemli Notlar:
+ * - Gövde akış halinde okunur (CSV satır satır, JSON token token): tüm dosya belleğe alınmaz
+ * - Geçerli satırlar batch-size'lık gruplar halinde JDBC batch upsert ile yazılır, her batch kendi transaction'ında
+ * - Hatalı satırlar atlanır ve satır numarasıyla raporlanır; başarısız batch diğerlerini etkilemez
+ * - "inventories" cache'inde sadece dokunulan kayıtların key'leri silinir (allEntries yerine)
+ * - Her batch StockLevelChangedEvent yayınlar (AvailabilityCache ve RabbitMQ event'leri commit sonrası güncellenir)
+ *
+ * Modlar:
+ * - SET: quantity yeni stok miktarıdır (tam senkronizasyon, tekrar göndermek güvenli)
+ * - ADJUST: quantity mevcut stoka eklenir (negatif olabilir, stok 0'ın altına düşmez)
+ */
+@Service
+public class InventoryImportService {
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    public enum Mode {
+        SET,
+        ADJUST
+    }
+
+    private final InventoryBulkRepository bulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    public InventoryImportService(
+            InventoryBulkRepository bulkRepository,
+            PlatformTransactionManager transactionManager,
+            CacheManager cacheManager,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.import.batch-size:1000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("inventory.import.batch-size must be positive");
+        }
+        this.bulkRepository = bulkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * CSV import
+     * İlk satır başlıktır: productId ve quantity zorunlu; minStockLevel, maxStockLevel, location opsiyonel
+     * (sütun sırası serbest, büyük/küçük harf ve '_' fark etmez)
+     */
+    public InventoryImportResult importCsv(InputStream body, Mode mode) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Batch batch = new Batch(mode);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        Map<String, Integer> columns = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] cells = line.split(",", -1);
+            if (columns == null) {
+                columns = parseHeader(cells);
+                continue;
+            }
+            batch.result.setRowsRead(batch.result.getRowsRead() + 1);
+            try {
+                batch.add(lineNumber, toRow(mode,
+                        cell(cells, columns, "productid"),
+                        cell(cells, columns, "quantity"),
+                        cell(cells, columns, "minstocklevel"),
+                        cell(cells, columns, "maxstocklevel"),
+                        cell(cells, columns, "location")));
+            } catch (IllegalArgumentException e) {
+                batch.reject("line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        if (columns == null) {
+            throw new IllegalArgumentException("CSV must have a header row with productId and quantity columns");
+        }
+        return finish(batch, sample);
+    }
+
+    /**
+     * JSON import
+     * Gövde obje dizisidir: [{"productId": "...", "quantity": 10, "location": "BESIKTAS"}, ...]
+     */
+    public InventoryImportResult importJson(InputStream body, Mode mode) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Batch batch = new Batch(mode);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON body must be an array of inventory rows");
+            }
+            int item = 0;
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    item++;
+                    batch.result.setRowsRead(batch.result.getRowsRead() + 1);
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        batch.reject("item " + item + ": row must be an object");
+                        continue;
+                    }
+                    JsonNode node = parser.readValueAsTree();
+                    try {
+                        batch.add(item, toRow(mode,
+                                text(node, "productId"),
+                                text(node, "quantity"),
+                                text(node, "minStockLevel"),
+                                text(node, "maxStockLevel"),
+                                text(node, "location")));
+                    } catch (IllegalArgumentException e) {
+                        batch.reject("item " + item + ": " + e.getMessage());
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // Bozuk gövde: okunan geçerli satırlar yine uygulanır, gerisi işlenemez
+                batch.result.setCompleted(false);
+                batch.addError("item " + (item + 1) + ": malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+        return finish(batch, sample);
+    }
+
+    private InventoryImportResult finish(Batch batch, Timer.Sample sample) {
+        batch.flush();
+        InventoryImportResult result = batch.result;
+        meterRegistry.counter("inventory.import.rows", "result", "applied").increment(result.getRowsApplied());
+        meterRegistry.counter("inventory.import.rows", "result", "rejected").increment(result.getRowsRejected());
+        sample.stop(meterRegistry.timer("inventory.import.duration", "mode", result.getMode()));
+        return result;
+    }
+
+    /**
+     * Batch'i yaz: kilit + upsert + status hesaplama + defter hareketleri tek transaction'da,
+     * cache key'leri commit sonrası silinir
+     */
+    private void apply(List<InventoryImportRow> rows, Mode mode) {
+        Set<UUID> productIds = new LinkedHashSet<>();
+        rows.forEach(row -> productIds.add(row.getProductId()));
+        List<UUID> inventoryIds = transactionTemplate.execute(status -> {
+            Map<UUID, Integer> previousQuantities = bulkRepository.lockQuantities(productIds);
+            bulkRepository.upsert(rows, mode == Mode.ADJUST);
+            List<UUID> ids = bulkRepository.recalculateStatus(productIds);
+            bulkRepository.recordMovements(productIds, previousQuantities);
+            eventPublisher.publishEvent(StockLevelChangedEvent.forProducts(productIds));
+            return ids;
+        });
+        evictCacheKeys(productIds, inventoryIds != null ? inventoryIds : List.of());
+    }
+
+    /**
+     * Sadece dokunulan kayıtların cache key'lerini sil (InventoryService'teki @Cacheable key'leri)
+     */
+    private void evictCacheKeys(Set<UUID> productIds, List<UUID> inventoryIds) {
+        Cache cache = cacheManager.getCache("inventories");
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.evict("all");
+            productIds.forEach(productId -> cache.evict("product:" + productId));
+            inventoryIds.forEach(id -> cache.evict(id.toString()));
+        } catch (Exception e) {
+            // Cache TTL'i kısa (2 dk): import başarılı sayılır
+            meterRegistry.counter("inventory.import.cache.evict.fail").increment();
+            System.err.println("Error evicting inventory cache after import: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String[] cells) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < cells.length; i++) {
+            columns.put(normalize(cells[i]), i);
+        }
+        if (!columns.containsKey("productid") || !columns.containsKey("quantity")) {
+            throw new IllegalArgumentException("CSV header must contain productId and quantity columns");
+        }
+        return columns;
+    }
+
+    private static String normalize(String header) {
+        return header.replace("\uFEFF", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String cell(String[] cells, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= cells.length) {
+            return null;
+        }
+        String value = cells[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Satırı doğrula (hatalıysa IllegalArgumentException)
+     */
+    static InventoryImportRow toRow(Mode mode, String productId, String quantity,
+                                    String minStockLevel, String maxStockLevel, String location) {
+        if (productId == null) {
+            throw new IllegalArgumentException("productId is required");
+        }
+        UUID parsedProductId;
+        try {
+            parsedProductId = UUID.fromString(productId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid productId '" + productId + "'");
+        }
+        Integer parsedQuantity = parseInt("quantity", quantity);
+        if (parsedQuantity == null) {
+            throw new IllegalArgumentException("quantity is required");
+        }
+        if (mode == Mode.SET && parsedQuantity < 0) {
+            throw new IllegalArgumentException("quantity cannot be negative");
+        }
+        Integer parsedMin = parseInt("minStockLevel", minStockLevel);
+        Integer parsedMax = parseInt("maxStockLevel", maxStockLevel);
+        if ((parsedMin != null && parsedMin < 0) || (parsedMax != null && parsedMax < 0)) {
+            throw new IllegalArgumentException("stock levels cannot be negative");
+        }
+        Location parsedLocation = null;
+        if (location != null) {
+            try {
+                parsedLocation = Location.valueOf(location.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown location '" + location + "'");
+            }
+        }
+        return new InventoryImportRow(parsedProductId, parsedQuantity, parsedMin, parsedMax, parsedLocation);
+    }
+
+    private static Integer parseInt(String field, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + field + " '" + value + "'");
+        }
+    }
+
+    /**
+     * Biriken satırlar ve sonuç (import başına bir tane)
+     */
+    private final class Batch {
+        private final Mode mode;
+        private final InventoryImportResult result = new InventoryImportResult();
+        private final List<InventoryImportRow> rows = new ArrayList<>();
+        private int firstPosition;
+
+        private Batch(Mode mode) {
+            this.mode = mode;
+            result.setMode(mode.name());
+        }
+
+        private void add(int position, InventoryImportRow row) {
+            if (rows.isEmpty()) {
+                firstPosition = position;
+            }
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                apply(rows, mode);
+                result.setRowsApplied(result.getRowsApplied() + rows.size());
+                result.setBatches(result.getBatches() + 1);
+            } catch (Exception e) {
+                meterRegistry.counter("inventory.import.batch.fail").increment();
+                System.err.println("Error applying inventory import batch: " + e.getMessage());
+                result.setRowsRejected(result.getRowsRejected() + rows.size());
+                addError("batch of " + rows.size() + " rows starting at " + firstPosition + " failed: " + e.getMessage());
+            }
+            rows.clear();
+        }
+
+        private void reject(String error) {
+            result.setRowsRejected(result.getRowsRejected() + 1);
+            addError(error);
+        }
+
+        private void addError(String error) {
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(error);
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+}
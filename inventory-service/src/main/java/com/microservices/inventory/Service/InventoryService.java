@@ -1,20 +1,27 @@
 package com.microservices.inventory.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import io.micrometer.core.instrument.MeterRegistry;
 
+import com.microservices.inventory.DTO.StockReservationResult;
+import com.microservices.inventory.Event.StockLevelChangedEvent;
 import com.microservices.inventory.Exception.DuplicateResourceException;
 import com.microservices.inventory.Exception.ResourceNotFoundException;
 import com.microservices.inventory.Model.Inventory;
 import com.microservices.inventory.Model.InventoryStatus;
 import com.microservices.inventory.Model.Location;
+import com.microservices.inventory.Model.StockMovementType;
 import com.microservices.inventory.Repository.InventoryRepository;
 
 /**
@@ -23,17 +30,39 @@ import com.microservices.inventory.Repository.InventoryRepository;
  * 
  * Önemli Notlar:
  * - Her product için tek bir inventory kaydı olmalı (productId unique)
- * - Rezerve işlemleri stok kontrolü yapmalı
+ * - Rezerve işlemleri stok kontrolü yapmalı (atomik UPDATE ile, bkz. reserveStock)
  * - Status otomatik hesaplanır (@PreUpdate)
+ * - Stok değiştiren her işlem StockLevelChangedEvent yayınlar (AvailabilityCache commit sonrası güncellenir)
+ * - Stok değiştiren her işlem aynı transaction'da stok defterine hareket ekler (StockLedgerService)
  */
 @Service
 public class InventoryService {
     private final InventoryRepository inventoryRepository;
     private final MeterRegistry meterRegistry;
+    private final AvailabilityCache availabilityCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedgerService ledgerService;
+    private final InventoryCacheEvictor cacheEvictor;
+    private final int stockCheckMaxBatchSize;
 
-    public InventoryService(InventoryRepository inventoryRepository, MeterRegistry meterRegistry) {
+    public InventoryService(
+            InventoryRepository inventoryRepository,
+            MeterRegistry meterRegistry,
+            AvailabilityCache availabilityCache,
+            ApplicationEventPublisher eventPublisher,
+            StockLedgerService ledgerService,
+            InventoryCacheEvictor cacheEvictor,
+            @Value("${inventory.stock-check.max-batch-size:500}") int stockCheckMaxBatchSize) {
+        if (stockCheckMaxBatchSize <= 0) {
+            throw new IllegalArgumentException("inventory.stock-check.max-batch-size must be positive");
+        }
         this.inventoryRepository = inventoryRepository;
         this.meterRegistry = meterRegistry;
+        this.availabilityCache = availabilityCache;
+        this.eventPublisher = eventPublisher;
+        this.ledgerService = ledgerService;
+        this.cacheEvictor = cacheEvictor;
+        this.stockCheckMaxBatchSize = stockCheckMaxBatchSize;
     }
 
     /**
@@ -65,14 +94,29 @@ public class InventoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
     }
 
+    /**
+     * Birden fazla Product ID için stok getir (batch)
+     * Order Service sepet başına N ayrı GET yerine bunu kullanır
+     *
+     * Cache'lenmez: ID kombinasyonları her sepette farklıdır
+     * Stok kaydı olmayan product'lar response'ta yer almaz
+     */
+    public List<Inventory> getInventoriesByProductIds(List<UUID> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return List.of();
+        }
+        return inventoryRepository.findByProductIdIn(productIds.stream().distinct().toList());
+    }
+
     /**
      * Kullanılabilir stok miktarını getir
      * quantity - reservedQuantity
+     * 
+     * "inventories" cache'i yerine write-through AvailabilityCache kullanılır:
+     * rezervasyonlar girdiyi silmez, commit sonrası yeni değerle günceller
      */
-    @Cacheable(value = "inventories", key = "'available:' + #productId.toString()")
     public Integer getAvailableQuantity(UUID productId) {
-        Inventory inventory = getInventoryByProductId(productId);
-        return inventory.getAvailableQuantity();
+        return availabilityCache.getAvailableQuantity(productId);
     }
 
     /**
@@ -93,27 +137,39 @@ public class InventoryService {
 
     /**
      * Toplu stok kontrolü
-     * Sepet için kullanılır
+     * Sepet için kullanılır (her checkout'ta çağrılır)
+     * 
+     * Sepet boyutundan bağımsız tek sorgu: sadece productId/quantity/reservedQuantity okunur.
+     * Cache kullanılmaz; ürün başına cache lookup'ı (self-invocation ile zaten devre dışıydı)
+     * yerine tek IN sorgusu hem daha hızlı hem de her zaman güncel.
      * 
      * @param productQuantities Map<ProductId, RequiredQuantity>
      * @return Map<ProductId, IsAvailable> - true = stokta var, false = stokta yok
      */
+    @Transactional(readOnly = true)
     public Map<UUID, Boolean> checkStockAvailability(Map<UUID, Integer> productQuantities) {
         Map<UUID, Boolean> availabilityMap = new HashMap<>();
+        if (productQuantities == null || productQuantities.isEmpty()) {
+            return availabilityMap;
+        }
+        
+        // Tek sorguda tüm sepet (IN listesi stock-check.max-batch-size'a kadar, daha büyük istekler parçalanır)
+        Map<UUID, InventoryRepository.StockLevel> stockLevels = new HashMap<>();
+        List<UUID> productIds = new ArrayList<>(productQuantities.keySet());
+        for (int from = 0; from < productIds.size(); from += stockCheckMaxBatchSize) {
+            List<UUID> chunk = productIds.subList(from, Math.min(from + stockCheckMaxBatchSize, productIds.size()));
+            for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevelsByProductIdIn(chunk)) {
+                stockLevels.put(level.getProductId(), level);
+            }
+        }
         
         for (Map.Entry<UUID, Integer> entry : productQuantities.entrySet()) {
-            UUID productId = entry.getKey();
+            InventoryRepository.StockLevel level = stockLevels.get(entry.getKey());
             Integer requiredQuantity = entry.getValue();
-            
-            try {
-                Inventory inventory = getInventoryByProductId(productId);
-                // Kullanılabilir stok yeterli mi?
-                boolean isAvailable = inventory.hasEnoughStock(requiredQuantity);
-                availabilityMap.put(productId, isAvailable);
-            } catch (ResourceNotFoundException e) {
-                // Stok kaydı yoksa stokta yok demektir
-                availabilityMap.put(productId, false);
-            }
+            // Stok kaydı yoksa stokta yok demektir
+            boolean isAvailable = level != null && requiredQuantity != null
+                    && level.getAvailableQuantity() >= requiredQuantity;
+            availabilityMap.put(entry.getKey(), isAvailable);
         }
         
         return availabilityMap;
@@ -123,6 +179,7 @@ public class InventoryService {
      * Yeni stok kaydı oluştur
      * Product oluşturulduğunda çağrılır
      */
+    @Transactional
     @CacheEvict(value = "inventories", allEntries = true)  // Tüm inventory cache'lerini temizle
     public Inventory createInventory(Inventory inventory) {
         // Duplicate check: Aynı productId'ye sahip inventory var mı?
@@ -131,16 +188,23 @@ public class InventoryService {
             throw new DuplicateResourceException("Inventory", "productId", inventory.getProductId());
         }
         
-        return inventoryRepository.save(inventory);
+        Inventory saved = inventoryRepository.save(inventory);
+        ledgerService.record(saved.getProductId(), saved.getId(), StockMovementType.IN,
+                valueOf(saved.getQuantity()), valueOf(saved.getReservedQuantity()), null);
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProduct(saved.getProductId()));
+        return saved;
     }
 
     /**
      * Stok kaydını tamamen güncelle
      * Partial update yapıyor (null olmayan field'ları günceller)
      */
+    @Transactional
     @CacheEvict(value = "inventories", key = "#id.toString() + ':*'", allEntries = true)  // İlgili tüm cache'leri temizle
     public Inventory updateInventory(UUID id, Inventory inventoryDetails) {
         Inventory inventory = getInventoryById(id);
+        int previousQuantity = valueOf(inventory.getQuantity());
+        int previousReserved = valueOf(inventory.getReservedQuantity());
         
         // ProductId değiştirilemez (unique constraint)
         // Sadece diğer field'lar güncellenir
@@ -162,15 +226,22 @@ public class InventoryService {
         }
         
         // Status otomatik hesaplanır (@PreUpdate)
-        return inventoryRepository.save(inventory);
+        Inventory saved = inventoryRepository.save(inventory);
+        ledgerService.record(saved.getProductId(), saved.getId(), StockMovementType.ADJUSTMENT,
+                valueOf(saved.getQuantity()) - previousQuantity,
+                valueOf(saved.getReservedQuantity()) - previousReserved, null);
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProduct(saved.getProductId()));
+        return saved;
     }
 
     /**
      * Sadece stok miktarını güncelle
      * Yeni ürün geldiğinde veya stok azaldığında kullanılır
      */
+    @Transactional
     public Inventory updateQuantity(UUID id, Integer quantity) {
         Inventory inventory = getInventoryById(id);
+        int previousQuantity = valueOf(inventory.getQuantity());
         
         // Negatif olamaz kontrolü
         if (quantity < 0) {
@@ -179,75 +250,141 @@ public class InventoryService {
         
         inventory.setQuantity(quantity);
         // Status otomatik hesaplanır (@PreUpdate)
-        return inventoryRepository.save(inventory);
+        Inventory saved = inventoryRepository.save(inventory);
+        ledgerService.record(saved.getProductId(), saved.getId(), StockMovementType.ADJUSTMENT,
+                quantity - previousQuantity, 0, null);
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProduct(saved.getProductId()));
+        return saved;
     }
 
     /**
      * Stok rezerve et (sipariş için)
      * Sipariş verildiğinde Order Service bu method'u çağırır
      * 
+     * Tek bir koşullu UPDATE ile yapılır (read-modify-write yok):
+     * - Entity yüklenmez, cache'ten okunmaz → eşzamanlı checkout'larda lost update olmaz
+     * - Yetersiz stokta exception değil success=false döner
+     * - "inventories" cache'inde sadece bu kaydın key'leri commit sonrası silinir
+     * - productId çağırandan gelir (UPDATE'in WHERE'inde doğrulanır): cache key'i, defter hareketi ve
+     *   event için ayrı okuma yapılmaz. Verilmezse (eski istemciler) tek PK sorgusu ile okunur.
+     * 
      * @param id Inventory ID
+     * @param productId Kaydın ürünü (null → DB'den okunur)
      * @param quantity Rezerve edilecek miktar
-     * @return Güncellenmiş inventory
+     * @return Rezervasyon sonucu (success/failure)
      */
-    public Inventory reserveStock(UUID id, Integer quantity) {
-        Inventory inventory = getInventoryById(id);
+    @Transactional
+    public StockReservationResult reserveStock(UUID id, UUID productId, Integer quantity) {
+        validateQuantity(quantity);
+        UUID resolvedProductId = productId != null ? productId : findProductId(id, "inventory.reserve.fail");
         
-        // Stok yeterli mi kontrolü
-        if (!inventory.hasEnoughStock(quantity)) {
+        int updated = inventoryRepository.reserveStockAtomically(id, resolvedProductId, quantity);
+        if (updated == 0) {
+            // Satır eşleşmedi: kayıt yok mu, ürün mü uyuşmuyor, stok mu yetersiz?
+            checkProductMatches(id, productId, "inventory.reserve.fail");
             meterRegistry.counter("inventory.reserve.fail", "reason", "insufficient").increment();
-            throw new IllegalArgumentException(
-                String.format("Insufficient stock. Available: %d, Required: %d", 
-                    inventory.getAvailableQuantity(), quantity));
+            return StockReservationResult.failure(id, quantity, "INSUFFICIENT_STOCK");
         }
         
-        // Rezerve edilmiş miktarı artır
-        int newReservedQuantity = (inventory.getReservedQuantity() != null ? 
-                                   inventory.getReservedQuantity() : 0) + quantity;
-        inventory.setReservedQuantity(newReservedQuantity);
-        
         meterRegistry.counter("inventory.reserve.success").increment();
-        // Status otomatik hesaplanır (@PreUpdate)
-        return inventoryRepository.save(inventory);
+        ledgerService.record(resolvedProductId, id, StockMovementType.RESERVATION, 0, quantity, null);
+        cacheEvictor.evict(resolvedProductId, id);
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProduct(resolvedProductId));
+        return StockReservationResult.success(id, quantity);
+    }
+
+    @Transactional
+    public StockReservationResult reserveStock(UUID id, Integer quantity) {
+        return reserveStock(id, null, quantity);
     }
 
     /**
      * Rezerve edilmiş stoku serbest bırak
      * Sipariş iptal edildiğinde veya başarısız olduğunda kullanılır
      * 
+     * reserveStock ile aynı şekilde tek koşullu UPDATE ile yapılır (productId de aynı şekilde)
+     * 
      * @param id Inventory ID
+     * @param productId Kaydın ürünü (null → DB'den okunur)
      * @param quantity Serbest bırakılacak miktar
-     * @return Güncellenmiş inventory
+     * @return Serbest bırakma sonucu (success/failure)
      */
-    public Inventory releaseReservedStock(UUID id, Integer quantity) {
-        Inventory inventory = getInventoryById(id);
+    @Transactional
+    public StockReservationResult releaseReservedStock(UUID id, UUID productId, Integer quantity) {
+        validateQuantity(quantity);
+        UUID resolvedProductId = productId != null ? productId : findProductId(id, "inventory.release.fail");
         
-        // Rezerve edilmiş miktar yeterli mi?
-        int currentReserved = inventory.getReservedQuantity() != null ? 
-                             inventory.getReservedQuantity() : 0;
-        
-        if (currentReserved < quantity) {
+        int updated = inventoryRepository.releaseReservedStockAtomically(id, resolvedProductId, quantity);
+        if (updated == 0) {
+            checkProductMatches(id, productId, "inventory.release.fail");
             meterRegistry.counter("inventory.release.fail", "reason", "over_release").increment();
-            throw new IllegalArgumentException(
-                String.format("Cannot release more than reserved. Reserved: %d, Requested: %d", 
-                    currentReserved, quantity));
+            return StockReservationResult.failure(id, quantity, "OVER_RELEASE");
         }
         
-        // Rezerve edilmiş miktarı azalt
-        inventory.setReservedQuantity(currentReserved - quantity);
-        
         meterRegistry.counter("inventory.release.success").increment();
-        // Status otomatik hesaplanır (@PreUpdate)
-        return inventoryRepository.save(inventory);
+        ledgerService.record(resolvedProductId, id, StockMovementType.RESERVATION_CANCELLED, 0, -quantity, null);
+        cacheEvictor.evict(resolvedProductId, id);
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProduct(resolvedProductId));
+        return StockReservationResult.success(id, quantity);
+    }
+
+    @Transactional
+    public StockReservationResult releaseReservedStock(UUID id, Integer quantity) {
+        return releaseReservedStock(id, null, quantity);
+    }
+
+    /**
+     * Atomik UPDATE entity yüklemediği için productId verilmemişse tek PK sorgusu ile okunur
+     */
+    private UUID findProductId(UUID id, String failMetric) {
+        return inventoryRepository.findProductIdById(id).orElseThrow(() -> {
+            meterRegistry.counter(failMetric, "reason", "not_found").increment();
+            return new ResourceNotFoundException("Inventory", "id", id);
+        });
+    }
+
+    /**
+     * UPDATE satır eşleştirmedi: kayıt silinmiş veya çağıranın verdiği productId kayda ait değil
+     * (sadece başarısız yolda okunur)
+     */
+    private void checkProductMatches(UUID id, UUID productId, String failMetric) {
+        UUID actual = findProductId(id, failMetric);
+        if (productId != null && !productId.equals(actual)) {
+            meterRegistry.counter(failMetric, "reason", "product_mismatch").increment();
+            throw new IllegalArgumentException(
+                    String.format("Inventory %s does not belong to product %s", id, productId));
+        }
+    }
+
+    /**
+     * Rezerve/serbest bırakma miktarı pozitif olmalı
+     * (negatif miktar ters yönde güncelleme yapılmasına izin verirdi)
+     */
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+    }
+
+    /**
+     * Null miktarlar (eski kayıtlar) defterde 0 sayılır
+     */
+    private static int valueOf(Integer quantity) {
+        return quantity != null ? quantity : 0;
     }
 
     /**
      * Stok kaydını sil
+     * Defter bakiyesi kapanış hareketi ile sıfırlanır
      */
+    @Transactional
     public void deleteInventory(UUID id) {
-        if (!inventoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Inventory", "id", id);
-        }
-        inventoryRepository.deleteById(id);
+        Inventory inventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "id", id));
+        ledgerService.record(inventory.getProductId(), inventory.getId(), StockMovementType.ADJUSTMENT,
+                -valueOf(inventory.getQuantity()), -valueOf(inventory.getReservedQuantity()), null);
+        inventoryRepository.delete(inventory);
+        // Kayıt silindi: AvailabilityCache ürünü DB'de bulamaz ve cache'ten siler
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProduct(inventory.getProductId()));
     }
 }
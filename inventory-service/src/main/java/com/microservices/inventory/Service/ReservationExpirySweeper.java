@@ -0,0 +1,81 @@
+package com.microservices.inventory.Service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Reservation Expiry Sweeper
+ * Süresi dolmuş rezervasyon hold'larını periyodik olarak serbest bırakır
+ *
+ * Neden gerekli?
+ * - Ödeme bekleyen (PAYMENT_PENDING) ve terk edilen siparişler release çağırmaz
+ * - Hold'lar sweeper olmadan reservedQuantity'yi sonsuza kadar tutar, stok kontrolleri bozulur
+ *
+ * Her tur batch'ler halinde çalışır; her batch ayrı transaction (kilitler kısa tutulur).
+ *
+ * Metrikler:
+ * - inventory.reservation.sweep.duration: Tur süresi
+ * - inventory.reservation.sweep.released: Tur başına serbest bırakılan hold sayısı
+ * - inventory.reservation.expired: Toplam serbest bırakılan hold sayısı
+ */
+@Component
+@ConditionalOnProperty(value = "inventory.reservation.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationExpirySweeper {
+    private final StockReservationService reservationService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Timer sweepTimer;
+    private final DistributionSummary releasedPerRun;
+    private final Counter expiredCounter;
+
+    public ReservationExpirySweeper(
+            StockReservationService reservationService,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.reservation.sweeper.batch-size:500}") int batchSize,
+            @Value("${inventory.reservation.sweeper.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.reservationService = reservationService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.sweepTimer = Timer.builder("inventory.reservation.sweep.duration").register(meterRegistry);
+        this.releasedPerRun = DistributionSummary.builder("inventory.reservation.sweep.released").register(meterRegistry);
+        this.expiredCounter = meterRegistry.counter("inventory.reservation.expired");
+    }
+
+    /**
+     * Süresi dolmuş hold'ları serbest bırak
+     * fixedDelay: Bir tur bitmeden diğeri başlamaz
+     */
+    @Scheduled(
+        fixedDelayString = "${inventory.reservation.sweeper.interval-ms:30000}",
+        initialDelayString = "${inventory.reservation.sweeper.initial-delay-ms:30000}")
+    public void sweep() {
+        sweepTimer.record(() -> {
+            int released = 0;
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                    int count = reservationService.expireHolds(now, batchSize);
+                    released += count;
+                    if (count < batchSize) {
+                        break;  // Sırada bekleyen hold kalmadı
+                    }
+                }
+            } catch (Exception e) {
+                // Hata bir sonraki turu engellemez; kalan hold'lar sonraki turda işlenir
+                System.err.println("Error sweeping expired reservations: " + e.getMessage());
+            } finally {
+                releasedPerRun.record(released);
+                expiredCounter.increment(released);
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.microservices.inventory.Service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Stock Ledger Compactor
+ * Stok defterindeki hareketleri periyodik olarak ürün bazlı snapshot'lara toplar
+ *
+ * Neden gerekli?
+ * - Bakiye = snapshot + snapshot'tan sonraki hareketler; compaction olmadan her bakiye sorgusu
+ *   ürünün tüm geçmişini toplardı
+ * - retention-days > 0 ise snapshot'a girmiş eski hareketler silinir (tablo sınırsız büyümez)
+ *
+ * Her tur batch'ler halinde çalışır; her batch ayrı transaction. Her instance'ta çalışır:
+ * batch'ler stock_ledger_cursor satır kilidi ile sıraya girer (bkz. StockLedgerService.compact)
+ *
+ * Metrikler:
+ * - inventory.ledger.compaction.duration: Tur süresi
+ * - inventory.ledger.compacted: Snapshot'a dahil edilen toplam hareket sayısı
+ * - inventory.ledger.purged: Silinen toplam hareket sayısı
+ */
+@Component
+@ConditionalOnProperty(value = "inventory.ledger.compaction.enabled", havingValue = "true", matchIfMissing = true)
+public class StockLedgerCompactor {
+    private final StockLedgerService ledgerService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long settleSeconds;
+    private final int retentionDays;
+    private final Timer compactionTimer;
+    private final Counter compactedCounter;
+    private final Counter purgedCounter;
+
+    public StockLedgerCompactor(
+            StockLedgerService ledgerService,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.ledger.compaction.batch-size:5000}") int batchSize,
+            @Value("${inventory.ledger.compaction.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${inventory.ledger.compaction.settle-seconds:60}") long settleSeconds,
+            @Value("${inventory.ledger.retention-days:0}") int retentionDays) {
+        this.ledgerService = ledgerService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.settleSeconds = settleSeconds;
+        this.retentionDays = retentionDays;
+        this.compactionTimer = Timer.builder("inventory.ledger.compaction.duration").register(meterRegistry);
+        this.compactedCounter = meterRegistry.counter("inventory.ledger.compacted");
+        this.purgedCounter = meterRegistry.counter("inventory.ledger.purged");
+    }
+
+    /**
+     * Hareketleri snapshot'lara topla, saklama süresi dolanları sil
+     * fixedDelay: Bir tur bitmeden diğeri başlamaz
+     */
+    @Scheduled(
+        fixedDelayString = "${inventory.ledger.compaction.interval-ms:60000}",
+        initialDelayString = "${inventory.ledger.compaction.initial-delay-ms:60000}")
+    public void compact() {
+        compactionTimer.record(() -> {
+            try {
+                // settle-seconds: transaction süresinden uzun olmalı (commit'i geciken hareket atlanmasın)
+                LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(settleSeconds);
+                for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                    int count = ledgerService.compact(settledBefore, batchSize);
+                    compactedCounter.increment(count);
+                    if (count < batchSize) {
+                        break;  // Sırada bekleyen hareket kalmadı
+                    }
+                }
+                if (retentionDays > 0) {
+                    purgedCounter.increment(ledgerService.purgeCompacted(LocalDateTime.now().minusDays(retentionDays)));
+                }
+            } catch (Exception e) {
+                // Hata bir sonraki turu engellemez; kalan hareketler sonraki turda işlenir
+                System.err.println("Error compacting stock ledger: " + e.getMessage());
+            }
+        });
+    }
+}
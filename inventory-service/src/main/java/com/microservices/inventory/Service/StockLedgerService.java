@@ -0,0 +1,195 @@
+package com.microservices.inventory.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.microservices.inventory.DTO.StockLedgerBalance;
+import com.microservices.inventory.Exception.ResourceNotFoundException;
+import com.microservices.inventory.Model.StockLedgerCursor;
+import com.microservices.inventory.Model.StockMovement;
+import com.microservices.inventory.Model.StockMovementType;
+import com.microservices.inventory.Model.StockSnapshot;
+import com.microservices.inventory.Repository.StockLedgerCursorRepository;
+import com.microservices.inventory.Repository.StockMovementRepository;
+import com.microservices.inventory.Repository.StockSnapshotRepository;
+
+/**
+ * Stock Ledger Service
+ * Append-only stok defteri (stock_movement) ve snapshot'lar
+ *
+ * Önemli Notlar:
+ * - Her reserve/release/adjust işlemi ürün başına bir hareket ekler (sadece INSERT, satır güncellenmez)
+ * - record* method'ları çağıranın transaction'ında çalışır (MANDATORY): hareket ve stok değişikliği
+ *   birlikte commit/rollback olur
+ * - Inventory satırı stok kontrolünün kaynağı olmaya devam eder (koşullu UPDATE satış fazlasını engeller);
+ *   defter denetim kaydı ve mutabakat içindir
+ * - compact: Hareketler periyodik olarak ürün bazlı snapshot'lara toplanır (StockLedgerCompactor),
+ *   bakiye = snapshot + snapshot'tan sonraki hareketler
+ */
+@Service
+public class StockLedgerService {
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final StockLedgerCursorRepository cursorRepository;
+
+    public StockLedgerService(
+            StockMovementRepository movementRepository,
+            StockSnapshotRepository snapshotRepository,
+            StockLedgerCursorRepository cursorRepository) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.cursorRepository = cursorRepository;
+    }
+
+    /**
+     * Tek hareket ekle (entity zaten yüklüyse)
+     * Değişim yoksa (iki delta da 0) hareket yazılmaz
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UUID productId, UUID inventoryId, StockMovementType type,
+                       int quantityDelta, int reservedDelta, UUID referenceId) {
+        if (quantityDelta == 0 && reservedDelta == 0) {
+            return;
+        }
+        movementRepository.save(new StockMovement(
+                productId, inventoryId, type, quantityDelta, reservedDelta, referenceId));
+    }
+
+    /**
+     * Inventory ID ile hareket ekle (atomik UPDATE'ler: entity yüklenmez, tek INSERT ... SELECT)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordForInventory(UUID inventoryId, StockMovementType type, int quantityDelta, int reservedDelta) {
+        if (quantityDelta == 0 && reservedDelta == 0) {
+            return;
+        }
+        movementRepository.recordForInventory(inventoryId, type.name(), quantityDelta, reservedDelta);
+    }
+
+    /**
+     * Rezervasyonların serbest bırakılmasını kalem başına hareket olarak ekle (tek INSERT ... SELECT)
+     * Stok UPDATE'inden önce çağrılmalı (bkz. StockMovementRepository.recordReservationRelease)
+     *
+     * @param excludedInventoryIds Hot item sayacından serbest bırakılan kayıtlar (boş olmamalı)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReservationsReleased(Collection<UUID> reservationIds, Collection<UUID> excludedInventoryIds) {
+        if (reservationIds == null || reservationIds.isEmpty()) {
+            return;
+        }
+        movementRepository.recordReservationRelease(reservationIds, excludedInventoryIds,
+                StockMovementType.RESERVATION_CANCELLED.name());
+    }
+
+    /**
+     * Defterden hesaplanan güncel bakiye: snapshot + snapshot'tan sonraki hareketler
+     * Sadece ürünün compaction sonrası hareketleri okunur (index: product_id, id)
+     */
+    @Transactional(readOnly = true)
+    public StockLedgerBalance getBalance(UUID productId) {
+        StockSnapshot snapshot = snapshotRepository.findById(productId).orElse(null);
+        long afterId = snapshot != null ? snapshot.getLastMovementId() : 0L;
+        StockMovementRepository.DeltaSum pending = movementRepository.sumDeltasAfter(productId, afterId);
+        if (snapshot == null && pending.getMovements() == 0) {
+            throw new ResourceNotFoundException("Stock ledger", "productId", productId);
+        }
+
+        long quantity = (snapshot != null ? snapshot.getQuantity() : 0) + pending.getQuantityDelta();
+        long reserved = (snapshot != null ? snapshot.getReservedQuantity() : 0) + pending.getReservedDelta();
+        return new StockLedgerBalance(
+                productId,
+                quantity,
+                reserved,
+                quantity - reserved,
+                afterId,
+                snapshot != null ? snapshot.getUpdatedAt() : null,
+                pending.getMovements());
+    }
+
+    /**
+     * Ürünün son hareketleri (en yeni önce)
+     */
+    @Transactional(readOnly = true)
+    public List<StockMovement> getRecentMovements(UUID productId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return movementRepository.findByProductIdOrderByIdDesc(productId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Hareketleri snapshot'lara topla (bir batch)
+     *
+     * İşlem Adımları:
+     * 0. Compaction cursor'ını kilitle: birden fazla instance aynı aralığı iki kez eklemesin,
+     *    bekleyen instance ilkinin commit ettiği noktadan devam eder
+     * 1. Son compaction noktasından sonraki en fazla batchSize hareketi ID sırasıyla oku
+     * 2. settledBefore'dan yeni ilk harekette dur: ID'ler INSERT sırasında verilir, commit sırası farklı olabilir;
+     *    henüz commit olmamış düşük ID'li bir hareket atlanmasın diye son hareketler bekletilir
+     * 3. Aralığın ürün bazlı toplamını tek GROUP BY sorgusu ile al, snapshot'lara ekle
+     *
+     * @return Snapshot'a dahil edilen hareket sayısı (batchSize'dan azsa sırada bekleyen kalmadı)
+     */
+    @Transactional
+    public int compact(LocalDateTime settledBefore, int batchSize) {
+        // Cursor satırı yoksa (V8 öncesi veya boş şema) snapshot'lardan oluşturulur; aynı anda oluşturan
+        // ikinci instance primary key hatası alır ve sonraki turda kilitli yoldan devam eder
+        StockLedgerCursor cursor = cursorRepository.findByIdForUpdate(StockLedgerCursor.ID)
+                .orElseGet(() -> cursorRepository.saveAndFlush(
+                        new StockLedgerCursor(snapshotRepository.findCompactedMovementId())));
+        long fromId = cursor.getLastMovementId();
+        long toId = fromId;
+        int count = 0;
+        for (StockMovementRepository.MovementMark mark
+                : movementRepository.findMarksAfter(fromId, PageRequest.of(0, batchSize))) {
+            if (!mark.getCreatedAt().isBefore(settledBefore)) {
+                break;
+            }
+            toId = mark.getId();
+            count++;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        List<StockMovementRepository.ProductDelta> deltas = movementRepository.sumDeltasByProductBetween(fromId, toId);
+        Map<UUID, StockSnapshot> snapshots = snapshotRepository
+                .findAllById(deltas.stream().map(StockMovementRepository.ProductDelta::getProductId).toList())
+                .stream()
+                .collect(Collectors.toMap(StockSnapshot::getProductId, Function.identity()));
+        for (StockMovementRepository.ProductDelta delta : deltas) {
+            StockSnapshot snapshot = snapshots.computeIfAbsent(delta.getProductId(), StockSnapshot::new);
+            snapshot.setQuantity(snapshot.getQuantity() + delta.getQuantityDelta().intValue());
+            snapshot.setReservedQuantity(snapshot.getReservedQuantity() + delta.getReservedDelta().intValue());
+            snapshot.setLastMovementId(toId);
+        }
+        snapshotRepository.saveAll(snapshots.values());
+        cursor.setLastMovementId(toId);
+        cursorRepository.save(cursor);
+        return count;
+    }
+
+    /**
+     * Snapshot'a dahil edilmiş ve saklama süresi dolmuş hareketleri sil
+     * Snapshot'a girmemiş hareketler (bakiye hesabında gerekli) silinmez
+     *
+     * @return Silinen hareket sayısı
+     */
+    @Transactional
+    public int purgeCompacted(LocalDateTime before) {
+        long compactedId = cursorRepository.findById(StockLedgerCursor.ID)
+                .map(StockLedgerCursor::getLastMovementId)
+                .orElseGet(snapshotRepository::findCompactedMovementId);
+        return movementRepository.deleteCompactedBefore(compactedId, before);
+    }
+}
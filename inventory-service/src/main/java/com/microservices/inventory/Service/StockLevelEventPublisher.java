@@ -0,0 +1,158 @@
+package com.microservices.inventory.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.microservices.inventory.Config.RabbitMQConfig;
+import com.microservices.inventory.Event.StockLevelChanged;
+import com.microservices.inventory.Event.StockLevelChangedEvent;
+import com.microservices.inventory.Repository.InventoryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stock Level Event Publisher
+ * Stok değişikliklerini RabbitMQ'ya StockLevelChanged olarak gönderir
+ * 
+ * - Commit edilen StockLevelChangedEvent'lerdeki ürünler biriktirilir (Set: aynı ürün bir kez)
+ * - flush-interval-ms'de bir birikenlerin son durumu tek sorguda okunur ve ürün başına bir mesaj gönderilir
+ *   → flash sale'de saniyede yüzlerce rezervasyon alan ürün için pencere başına tek mesaj
+ * - Gönderilemeyen ürünler tekrar biriktirilir, bir sonraki flush'ta denenir
+ *   (mesaj tekrar edebilir; tüketiciler version ile eskiyi/tekrarı ayırt eder)
+ * 
+ * inventory.events.stock-level.enabled=false ile kapatılabilir.
+ */
+@Component
+@ConditionalOnProperty(value = "inventory.events.stock-level.enabled", havingValue = "true", matchIfMissing = true)
+public class StockLevelEventPublisher {
+
+    // Tek IN sorgusundaki en fazla ID
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final InventoryRepository inventoryRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<UUID> pendingProductIds = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingInventoryIds = ConcurrentHashMap.newKeySet();
+
+    public StockLevelEventPublisher(
+            InventoryRepository inventoryRepository,
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("inventory.events.stock-level.pending", pendingProductIds, Set::size);
+    }
+
+    /**
+     * Değişen ürünleri biriktir (commit sonrası; rollback olan değişiklikler gönderilmez)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        pendingProductIds.addAll(event.getProductIds());
+        pendingInventoryIds.addAll(event.getInventoryIds());
+    }
+
+    /**
+     * Biriken ürünlerin güncel stok durumunu gönder
+     */
+    @Scheduled(fixedDelayString = "${inventory.events.stock-level.flush-interval-ms:250}")
+    public void flush() {
+        Set<UUID> productIds = drain(pendingProductIds);
+        Set<UUID> inventoryIds = drain(pendingInventoryIds);
+        if (productIds.isEmpty() && inventoryIds.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> published = new HashSet<>();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Set<UUID> deleted = new HashSet<>(productIds);
+            for (List<UUID> chunk : chunks(productIds)) {
+                for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevelsByProductIdIn(chunk)) {
+                    deleted.remove(level.getProductId());
+                    send(toMessage(level, now));
+                    published.add(level.getProductId());
+                }
+            }
+            for (List<UUID> chunk : chunks(inventoryIds)) {
+                for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevelsByIdIn(chunk)) {
+                    if (published.add(level.getProductId())) {
+                        send(toMessage(level, now));
+                    }
+                }
+            }
+            // Stok kaydı silinmiş ürünler
+            for (UUID productId : deleted) {
+                send(new StockLevelChanged(productId, 0, null, null, true, now));
+                published.add(productId);
+            }
+            meterRegistry.counter("inventory.events.stock-level.sent").increment(published.size());
+        } catch (Exception e) {
+            // Gönderilemeyenler bir sonraki flush'ta tekrar denenir (inventoryId'ler productId olarak dönmüş olabilir)
+            productIds.removeAll(published);
+            pendingProductIds.addAll(productIds);
+            pendingInventoryIds.addAll(inventoryIds);
+            meterRegistry.counter("inventory.events.stock-level.fail").increment();
+            System.err.println("Error publishing stock level events: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Kapanışta bekleyen değişiklikleri gönder
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void send(StockLevelChanged message) {
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.INVENTORY_EXCHANGE,
+                RabbitMQConfig.ROUTING_KEY_STOCK_LEVEL_CHANGED,
+                message);
+    }
+
+    private static StockLevelChanged toMessage(InventoryRepository.StockLevel level, LocalDateTime changedAt) {
+        return new StockLevelChanged(
+                level.getProductId(),
+                level.getAvailableQuantity(),
+                level.getStatus() != null ? level.getStatus().name() : null,
+                level.getVersion(),
+                false,
+                changedAt);
+    }
+
+    private static Set<UUID> drain(Set<UUID> pending) {
+        Set<UUID> drained = new HashSet<>();
+        for (UUID id : pending) {
+            if (pending.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+
+    private static List<List<UUID>> chunks(Set<UUID> ids) {
+        List<UUID> all = new ArrayList<>(ids);
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += FLUSH_BATCH_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + FLUSH_BATCH_SIZE, all.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,432 @@
+package com.microservices.inventory.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.microservices.inventory.DTO.ReservationRequest;
+import com.microservices.inventory.DTO.ReservationResponse;
+import com.microservices.inventory.Event.StockLevelChangedEvent;
+import com.microservices.inventory.Model.Inventory;
+import com.microservices.inventory.Model.ReservationStatus;
+import com.microservices.inventory.Model.StockMovementType;
+import com.microservices.inventory.Model.StockReservation;
+import com.microservices.inventory.Model.StockReservationItem;
+import com.microservices.inventory.Repository.InventoryRepository;
+import com.microservices.inventory.Repository.StockReservationRepository;
+
+/**
+ * Stock Reservation Service
+ * Sipariş bazlı (çok kalemli) stok rezervasyonu
+ *
+ * Önemli Notlar:
+ * - Tüm kalemler tek transaction'da rezerve edilir: ya hepsi ya hiçbiri (all-or-nothing)
+ * - Inventory satırları productId sırasıyla kilitlenir (SELECT ... FOR UPDATE ORDER BY) → deadlock olmaz
+ * - Aynı sipariş için tekrar gelen istek mevcut rezervasyonu döner (idempotent)
+ * - holdSeconds ile süreli rezervasyon (hold); süresi dolanları expireHolds toplu serbest bırakır
+ * - Stok değiştiren işlemler StockLevelChangedEvent yayınlar (commit sonrası AvailabilityCache güncellenir)
+ * - Her kalem için stok defterine hareket eklenir (referenceId = orderId)
+ * - "inventories" cache'inde sadece rezervasyondaki ürünlerin key'leri commit sonrası silinir (allEntries yerine)
+ * - Hot item (flash sale) kalemleri DB satırı yerine HotItemStockCounter'dan kabul edilir ve serbest
+ *   bırakılır; PATCH /{id}/reserve ile aynı sayacı kullandıkları için iki yol birbirini görür.
+ *   DB'ye ve stok defterine HotItemStockFlusher yazar
+ */
+@Service
+public class StockReservationService {
+    // NOT IN (:excludedInventoryIds) boş liste kabul etmez; hiçbir kayda denk gelmeyen ID
+    private static final UUID NO_INVENTORY = new UUID(0L, 0L);
+
+    private final StockReservationRepository reservationRepository;
+    private final InventoryRepository inventoryRepository;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedgerService ledgerService;
+    private final InventoryCacheEvictor cacheEvictor;
+    private final HotItemStockCounter hotItemStockCounter;
+
+    public StockReservationService(
+            StockReservationRepository reservationRepository,
+            InventoryRepository inventoryRepository,
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher,
+            StockLedgerService ledgerService,
+            InventoryCacheEvictor cacheEvictor,
+            HotItemStockCounter hotItemStockCounter) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.ledgerService = ledgerService;
+        this.cacheEvictor = cacheEvictor;
+        this.hotItemStockCounter = hotItemStockCounter;
+    }
+
+    /**
+     * Siparişin tüm kalemlerini rezerve et
+     *
+     * İşlem Adımları:
+     * 1. Aynı sipariş için ACTIVE rezervasyon varsa onu döndür (tekrar rezerve etme);
+     *    sadece bitiş zamanı güncellenir (holdSeconds yoksa hold kalıcı hale gelir)
+     * 2. Kalemleri productId'ye göre birleştir ve sırala
+     * 3. Inventory satırlarını sıralı kilitle (hot item'lar hariç)
+     * 4. Herhangi bir kalem için stok yoksa hiçbir şey değiştirmeden success=false dön
+     * 5. Hot item kalemlerini sayaçtan kabul et; biri yetmezse kabul edilenler geri verilir
+     * 6. Diğer kalemler için reservedQuantity artır ve rezervasyonu kaydet
+     *
+     * Hot item kalemleri transaction rollback olursa sayaca geri verilir; DB'ye HotItemStockFlusher yazar
+     */
+    @Transactional
+    public ReservationResponse reserve(ReservationRequest request) {
+        validateRequest(request);
+        UUID orderId = request.getOrderId();
+        LocalDateTime expiresAt = request.getHoldSeconds() != null
+                ? LocalDateTime.now().plusSeconds(request.getHoldSeconds())
+                : null;
+
+        StockReservation reservation = reservationRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (reservation != null && reservation.getStatus() == ReservationStatus.ACTIVE) {
+            // Idempotent: aynı sipariş için tekrar gelen istek (retry) stoku ikinci kez ayırmaz
+            // Hold onaylanıyorsa (holdSeconds yok) kalıcı hale gelir, değilse süresi uzar
+            reservation.setExpiresAt(expiresAt);
+            return ReservationResponse.success(reservationRepository.save(reservation));
+        }
+
+        // Aynı ürün birden fazla satırda olabilir → topla; TreeMap ile kilit sırası sabit
+        Map<UUID, Integer> requested = new TreeMap<>();
+        for (ReservationRequest.Item item : request.getItems()) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        // productId → inventoryId; bu kalemler için DB satırı kilitlenmez
+        Map<UUID, UUID> hotInventoryIds = new HashMap<>();
+        for (UUID productId : requested.keySet()) {
+            UUID inventoryId = hotItemStockCounter.getHotInventoryId(productId);
+            if (inventoryId != null) {
+                hotInventoryIds.put(productId, inventoryId);
+            }
+        }
+        List<UUID> dbProductIds = requested.keySet().stream()
+                .filter(productId -> !hotInventoryIds.containsKey(productId))
+                .toList();
+
+        Map<UUID, Inventory> locked = dbProductIds.isEmpty() ? Map.of() : inventoryRepository
+                .findByProductIdInForUpdate(dbProductIds)
+                .stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
+
+        List<UUID> missing = new ArrayList<>();
+        List<UUID> insufficient = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : requested.entrySet()) {
+            if (hotInventoryIds.containsKey(entry.getKey())) {
+                continue;
+            }
+            Inventory inventory = locked.get(entry.getKey());
+            if (inventory == null) {
+                missing.add(entry.getKey());
+            } else if (!inventory.hasEnoughStock(entry.getValue())) {
+                insufficient.add(entry.getKey());
+            }
+        }
+        if (!missing.isEmpty()) {
+            meterRegistry.counter("inventory.reservation.fail", "reason", "not_found").increment();
+            return ReservationResponse.failure(orderId, "INVENTORY_NOT_FOUND", missing);
+        }
+        // Sayaç en son: DB kalemleri yetmediyse sayaca hiç dokunulmaz
+        if (insufficient.isEmpty()) {
+            insufficient.addAll(admitHotItems(requested, hotInventoryIds));
+        }
+        if (!insufficient.isEmpty()) {
+            meterRegistry.counter("inventory.reservation.fail", "reason", "insufficient").increment();
+            return ReservationResponse.failure(orderId, "INSUFFICIENT_STOCK", insufficient);
+        }
+
+        if (reservation == null) {
+            reservation = new StockReservation();
+            reservation.setOrderId(orderId);
+        } else {
+            // Daha önce serbest bırakılmış / süresi dolmuş rezervasyon yeniden aktif ediliyor
+            reservation.getItems().clear();
+        }
+        reservation.setStatus(ReservationStatus.ACTIVE);
+        reservation.setExpiresAt(expiresAt);
+
+        for (Map.Entry<UUID, Integer> entry : requested.entrySet()) {
+            UUID hotInventoryId = hotInventoryIds.get(entry.getKey());
+            if (hotInventoryId != null) {
+                // Stok ve defter hareketi HotItemStockFlusher ile yazılır
+                reservation.addItem(new StockReservationItem(entry.getKey(), hotInventoryId, entry.getValue()));
+                continue;
+            }
+            Inventory inventory = locked.get(entry.getKey());
+            inventory.setReservedQuantity(
+                    (inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0) + entry.getValue());
+            // Status otomatik hesaplanır (@PreUpdate) - satır zaten kilitli, flush'ta güncellenir
+            reservation.addItem(new StockReservationItem(entry.getKey(), inventory.getId(), entry.getValue()));
+            ledgerService.record(entry.getKey(), inventory.getId(), StockMovementType.RESERVATION,
+                    0, entry.getValue(), orderId);
+        }
+
+        StockReservation saved = reservationRepository.save(reservation);
+        meterRegistry.counter("inventory.reservation.success").increment();
+        List<UUID> inventoryIds = new ArrayList<>(hotInventoryIds.values());
+        locked.values().forEach(inventory -> inventoryIds.add(inventory.getId()));
+        cacheEvictor.evict(requested.keySet(), inventoryIds);
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProducts(dbProductIds));
+        return ReservationResponse.success(saved);
+    }
+
+    /**
+     * Siparişin rezervasyonunu serbest bırak
+     *
+     * - Rezervasyon yoksa success=false (RESERVATION_NOT_FOUND) döner;
+     *   Order Service bu durumda eski kalem bazlı release'e düşer
+     * - Zaten RELEASED/EXPIRED ise tekrar stok geri verilmez (idempotent)
+     */
+    @Transactional
+    public ReservationResponse release(UUID orderId) {
+        StockReservation reservation = reservationRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (reservation == null) {
+            return ReservationResponse.failure(orderId, "RESERVATION_NOT_FOUND", List.of());
+        }
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            return ReservationResponse.success(reservation);
+        }
+
+        Map<UUID, StockReservationItem> itemsByProduct = reservation.getItems().stream()
+                .collect(Collectors.toMap(StockReservationItem::getProductId, Function.identity()));
+        Set<UUID> hotInventoryIds = releaseHotItemsAfterCommit(reservation.getItems().stream()
+                .collect(Collectors.toMap(StockReservationItem::getInventoryId,
+                        item -> item.getQuantity().longValue(), Long::sum)));
+        List<UUID> dbProductIds = reservation.getItems().stream()
+                .filter(item -> !hotInventoryIds.contains(item.getInventoryId()))
+                .map(StockReservationItem::getProductId)
+                .toList();
+        // reserve ile aynı kilit sırası (productId)
+        for (Inventory inventory : dbProductIds.isEmpty() ? List.<Inventory>of()
+                : inventoryRepository.findByProductIdInForUpdate(dbProductIds)) {
+            StockReservationItem item = itemsByProduct.get(inventory.getProductId());
+            int currentReserved = inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
+            // Manuel düzeltmelerden sonra negatife düşmesin
+            int newReserved = Math.max(0, currentReserved - item.getQuantity());
+            inventory.setReservedQuantity(newReserved);
+            ledgerService.record(inventory.getProductId(), inventory.getId(), StockMovementType.RESERVATION_CANCELLED,
+                    0, newReserved - currentReserved, orderId);
+        }
+
+        reservation.setStatus(ReservationStatus.RELEASED);
+        reservation.setExpiresAt(null);
+        StockReservation saved = reservationRepository.save(reservation);
+        meterRegistry.counter("inventory.reservation.released").increment();
+        cacheEvictor.evict(itemsByProduct.keySet(),
+                itemsByProduct.values().stream().map(StockReservationItem::getInventoryId).toList());
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProducts(itemsByProduct.keySet()));
+        return ReservationResponse.success(saved);
+    }
+
+    /**
+     * Birden fazla siparişin rezervasyonunu toplu serbest bırak
+     * Order Service'in toplu durum geçişlerinde (iptal, iade, ödeme hatası) kullanılır
+     *
+     * İşlem Adımları:
+     * 1. Rezervasyonları ID sırasıyla, ardından stok satırlarını productId sırasıyla kilitle
+     * 2. ACTIVE olanların stoklarını tek set-based UPDATE ile geri ver (expireHolds ile aynı sorgu)
+     * 3. Rezervasyonları tek UPDATE ile RELEASED yap
+     *
+     * Sonuç sipariş bazlıdır ve release ile aynı anlamı taşır:
+     * rezervasyon yoksa RESERVATION_NOT_FOUND, zaten RELEASED/EXPIRED ise success (idempotent)
+     */
+    @Transactional
+    public List<ReservationResponse> releaseAll(List<UUID> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, StockReservation> byOrder = reservationRepository.findByOrderIdInForUpdate(orderIds)
+                .stream()
+                .collect(Collectors.toMap(StockReservation::getOrderId, Function.identity()));
+        List<UUID> activeIds = byOrder.values().stream()
+                .filter(reservation -> reservation.getStatus() == ReservationStatus.ACTIVE)
+                .map(StockReservation::getId)
+                .toList();
+        if (!activeIds.isEmpty()) {
+            releaseStock(activeIds);
+            reservationRepository.markReleased(activeIds, LocalDateTime.now());
+            meterRegistry.counter("inventory.reservation.released").increment(activeIds.size());
+        }
+
+        List<ReservationResponse> responses = new ArrayList<>();
+        for (UUID orderId : orderIds) {
+            StockReservation reservation = byOrder.get(orderId);
+            if (reservation == null) {
+                responses.add(ReservationResponse.failure(orderId, "RESERVATION_NOT_FOUND", List.of()));
+            } else {
+                // markReleased persistence context'i temizlediği için durum elle yazılır
+                ReservationStatus status = reservation.getStatus() == ReservationStatus.ACTIVE
+                        ? ReservationStatus.RELEASED
+                        : reservation.getStatus();
+                responses.add(new ReservationResponse(
+                        reservation.getId(), orderId, status, null, true, null, List.of()));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Süresi dolmuş hold'ları toplu serbest bırak (bir batch)
+     *
+     * İşlem Adımları:
+     * 1. Süresi dolmuş ACTIVE rezervasyonları kilitle (en eski önce, en fazla batchSize),
+     *    ardından stok satırlarını productId sırasıyla kilitle (reserve ile aynı sıra → deadlock olmaz)
+     * 2. Tüm kalemlerin stoklarını tek set-based UPDATE ile geri ver
+     * 3. Rezervasyonları tek UPDATE ile EXPIRED yap
+     *
+     * Rezervasyon satırları kilitli olduğu için aynı anda gelen release/reserve bekler
+     * ve ardından EXPIRED durumunu görür (stok iki kez geri verilmez).
+     *
+     * "inventories" cache'inde sadece serbest bırakılan ürünlerin key'leri commit sonrası silinir
+     *
+     * @return Serbest bırakılan hold sayısı (batchSize'dan azsa sırada bekleyen kalmadı)
+     */
+    @Transactional
+    public int expireHolds(LocalDateTime now, int batchSize) {
+        List<UUID> expiredIds = reservationRepository
+                .findExpiredHoldsForUpdate(now, PageRequest.of(0, batchSize))
+                .stream()
+                .map(StockReservation::getId)
+                .toList();
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        releaseStock(expiredIds);
+        return reservationRepository.markExpired(expiredIds, now);
+    }
+
+    /**
+     * Hot item kalemlerini sayaçtan kabul et (all-or-nothing)
+     *
+     * @return Stoku yetmeyen ürünler; boş değilse kabul edilenler sayaca geri verilmiştir
+     */
+    private List<UUID> admitHotItems(Map<UUID, Integer> requested, Map<UUID, UUID> hotInventoryIds) {
+        if (hotInventoryIds.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Integer> admitted = new HashMap<>();
+        List<UUID> insufficient = new ArrayList<>();
+        for (Map.Entry<UUID, UUID> entry : hotInventoryIds.entrySet()) {
+            int quantity = requested.get(entry.getKey());
+            if (hotItemStockCounter.reserve(entry.getValue(), quantity).isSuccess()) {
+                admitted.put(entry.getValue(), quantity);
+            } else {
+                insufficient.add(entry.getKey());
+            }
+        }
+        if (!insufficient.isEmpty()) {
+            admitted.forEach(hotItemStockCounter::release);
+            return insufficient;
+        }
+        // Rezervasyon kaydı commit olmazsa sayaçtaki kabul de geri alınır
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    admitted.forEach(hotItemStockCounter::release);
+                }
+            }
+        });
+        return List.of();
+    }
+
+    /**
+     * Hot item kalemlerini commit sonrası sayaçtan serbest bırak
+     *
+     * Bu kalemlerin rezervasyonu DB'ye henüz flush edilmemiş olabilir; DB'de serbest bırakmak
+     * reserved_quantity'yi 0'da sabitler ve flush sonrası stok kaybolurdu. Bu yüzden DB satırına
+     * dokunulmaz, sayacın eksi deltasını HotItemStockFlusher yazar
+     *
+     * @param quantities inventoryId → serbest bırakılan miktar (hot olmayanlar yok sayılır)
+     * @return Sayaçtan serbest bırakılacak inventory ID'leri (DB yolunda atlanmalı)
+     */
+    private Set<UUID> releaseHotItemsAfterCommit(Map<UUID, Long> quantities) {
+        Map<UUID, Integer> hot = new HashMap<>();
+        quantities.forEach((inventoryId, quantity) -> {
+            if (hotItemStockCounter.isHot(inventoryId)) {
+                hot.put(inventoryId, Math.toIntExact(quantity));
+            }
+        });
+        if (hot.isEmpty()) {
+            return Set.of();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // OVER_RELEASE: sayaç drift etmiş, reconcile düzeltir
+                hot.forEach(hotItemStockCounter::release);
+            }
+        });
+        return hot.keySet();
+    }
+
+    /**
+     * Rezervasyonların stoklarını toplu serbest bırak (releaseAll ve expireHolds)
+     * Hot item kalemleri sayaçtan, diğerleri tek set-based UPDATE ile
+     */
+    private void releaseStock(List<UUID> reservationIds) {
+        List<StockReservationRepository.ItemRef> items = reservationRepository.findItemRefsByReservationIdIn(reservationIds);
+        Set<UUID> hotInventoryIds = releaseHotItemsAfterCommit(items.stream().collect(Collectors.toMap(
+                StockReservationRepository.ItemRef::getInventoryId,
+                StockReservationRepository.ItemRef::getQuantity,
+                Long::sum)));
+        Collection<UUID> excluded = hotInventoryIds.isEmpty() ? Set.of(NO_INVENTORY) : hotInventoryIds;
+
+        evictAndPublish(items);
+        inventoryRepository.findByReservationIdInForUpdate(reservationIds, excluded);  // reserve ile aynı kilit sırası
+        ledgerService.recordReservationsReleased(reservationIds, excluded);  // Stok UPDATE'inden önce
+        inventoryRepository.releaseStockForReservations(reservationIds, excluded);
+    }
+
+    /**
+     * Toplu serbest bırakmada dokunulan kayıtların cache key'lerini sil ve StockLevelChangedEvent yayınla
+     */
+    private void evictAndPublish(List<StockReservationRepository.ItemRef> items) {
+        Set<UUID> productIds = items.stream()
+                .map(StockReservationRepository.ItemRef::getProductId)
+                .collect(Collectors.toSet());
+        cacheEvictor.evict(productIds, items.stream().map(StockReservationRepository.ItemRef::getInventoryId).toList());
+        eventPublisher.publishEvent(StockLevelChangedEvent.forProducts(productIds));
+    }
+
+    private void validateRequest(ReservationRequest request) {
+        if (request == null || request.getOrderId() == null) {
+            throw new IllegalArgumentException("Order ID is required");
+        }
+        if (request.getHoldSeconds() != null && request.getHoldSeconds() <= 0) {
+            throw new IllegalArgumentException("Hold seconds must be positive");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Reservation must have at least one item");
+        }
+        for (ReservationRequest.Item item : request.getItems()) {
+            if (item.getProductId() == null) {
+                throw new IllegalArgumentException("Product ID is required");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive");
+            }
+        }
+    }
+}
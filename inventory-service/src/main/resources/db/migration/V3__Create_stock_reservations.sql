@@ -0,0 +1,25 @@
+-- Inventory Service - Stock Reservations
+-- Migration: V3__Create_stock_reservations.sql
+-- Description: Creates stock_reservations and stock_reservation_items tables
+-- A reservation groups all lines of one order so they are reserved/released all-or-nothing
+
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id UUID PRIMARY KEY,
+    order_id UUID NOT NULL UNIQUE,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS stock_reservation_items (
+    id UUID PRIMARY KEY,
+    reservation_id UUID NOT NULL,
+    product_id UUID NOT NULL,
+    inventory_id UUID NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity >= 1),
+    CONSTRAINT fk_reservation_items_reservation FOREIGN KEY (reservation_id) REFERENCES stock_reservations(id) ON DELETE CASCADE
+);
+
+-- Indexes for better query performance
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_status ON stock_reservations(status);
+CREATE INDEX IF NOT EXISTS idx_stock_reservation_items_reservation_id ON stock_reservation_items(reservation_id);
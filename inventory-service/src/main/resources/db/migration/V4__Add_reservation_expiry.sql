@@ -0,0 +1,11 @@
+-- Inventory Service - Reservation holds
+-- Migration: V4__Add_reservation_expiry.sql
+-- Description: Adds expires_at to stock_reservations so reservations can be time-bounded holds
+-- NULL means the reservation is durable (order confirmed); the sweeper releases ACTIVE holds past expires_at
+
+ALTER TABLE stock_reservations ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+-- Sweeper query: WHERE status = 'ACTIVE' AND expires_at < now() ORDER BY expires_at
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_active_expiry
+    ON stock_reservations(expires_at)
+    WHERE status = 'ACTIVE' AND expires_at IS NOT NULL;
@@ -0,0 +1,6 @@
+-- Inventory Service - Stock version
+-- Migration: V5__Add_inventory_version.sql
+-- Description: Adds a version column to inventory, incremented by every quantity/reserved change
+-- JPA uses it for optimistic locking; the Redis availability cache uses it to drop out-of-order writes
+
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,27 @@
+-- Inventory Service - Stock movement ledger
+-- Migration: V6__Create_stock_ledger.sql
+-- Description: Creates the append-only stock_movement ledger and the stock_snapshot table it is compacted into
+-- Every reserve/release/adjust appends one row per product in the same transaction as the inventory change;
+-- ledger stock = snapshot + movements after snapshot.last_movement_id
+
+CREATE TABLE IF NOT EXISTS stock_movement (
+    id BIGSERIAL PRIMARY KEY,
+    product_id UUID NOT NULL,
+    inventory_id UUID NOT NULL,
+    movement_type VARCHAR(30) NOT NULL,
+    quantity_delta INTEGER NOT NULL DEFAULT 0,
+    reserved_delta INTEGER NOT NULL DEFAULT 0,
+    reference_id UUID,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS stock_snapshot (
+    product_id UUID PRIMARY KEY,
+    quantity INTEGER NOT NULL,
+    reserved_quantity INTEGER NOT NULL,
+    last_movement_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Ledger balance / audit trail: movements of one product after a given id
+CREATE INDEX IF NOT EXISTS idx_stock_movement_product_id ON stock_movement(product_id, id);
@@ -0,0 +1,19 @@
+-- Inventory Service - Stock ledger opening balances
+-- Migration: V7__Seed_stock_snapshots.sql
+-- Description: Seeds stock_snapshot with the current stock of every inventory row
+-- Rows that existed before V6 have no IN movement, so their ledger balance started at 0.
+-- The snapshot is set to the current inventory values and marked as covering every movement recorded
+-- so far (they are already part of inventory), so ledger stock = inventory stock for every product.
+
+INSERT INTO stock_snapshot (product_id, quantity, reserved_quantity, last_movement_id, updated_at)
+SELECT i.product_id,
+       i.quantity,
+       i.reserved_quantity,
+       (SELECT COALESCE(MAX(m.id), 0) FROM stock_movement m),
+       now()
+FROM inventory i
+ON CONFLICT (product_id) DO UPDATE SET
+    quantity = EXCLUDED.quantity,
+    reserved_quantity = EXCLUDED.reserved_quantity,
+    last_movement_id = EXCLUDED.last_movement_id,
+    updated_at = EXCLUDED.updated_at;
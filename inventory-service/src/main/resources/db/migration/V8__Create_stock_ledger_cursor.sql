@@ -0,0 +1,16 @@
+-- Inventory Service - Stock ledger compaction cursor
+-- Migration: V8__Create_stock_ledger_cursor.sql
+-- Description: Creates the single-row cursor that stock ledger compaction locks FOR UPDATE
+-- Compaction runs on every instance; locking this row serialises the batches so the same movement range
+-- is never added to the snapshots twice
+
+CREATE TABLE IF NOT EXISTS stock_ledger_cursor (
+    id INTEGER PRIMARY KEY,
+    last_movement_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO stock_ledger_cursor (id, last_movement_id, updated_at)
+SELECT 1, COALESCE(MAX(last_movement_id), 0), now()
+FROM stock_snapshot
+ON CONFLICT (id) DO NOTHING;
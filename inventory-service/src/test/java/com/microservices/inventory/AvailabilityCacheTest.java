@@ -0,0 +1,167 @@
+package com.microservices.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import com.microservices.inventory.Event.StockLevelChangedEvent;
+import com.microservices.inventory.Exception.ResourceNotFoundException;
+import com.microservices.inventory.Model.InventoryStatus;
+import com.microservices.inventory.Repository.InventoryRepository;
+import com.microservices.inventory.Service.AvailabilityCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * AvailabilityCache için Test
+ * Redis ve repository mock'lanır: okuma yolu, commit sonrası refresh ve Redis hatası davranışı
+ * (Lua script'in versiyon kontrolü Redis tarafında çalışır, burada sadece argümanları doğrulanır)
+ */
+class AvailabilityCacheTest {
+
+    private StringRedisTemplate redisTemplate;
+    private HashOperations<String, Object, Object> hashOperations;
+    private InventoryRepository inventoryRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCache cache;
+
+    private UUID productId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        inventoryRepository = mock(InventoryRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AvailabilityCache(redisTemplate, inventoryRepository, meterRegistry, 600);
+        productId = UUID.randomUUID();
+    }
+
+    private static InventoryRepository.StockLevel level(UUID productId, int quantity, int reserved, long version) {
+        return new InventoryRepository.StockLevel() {
+            public UUID getProductId() { return productId; }
+            public Integer getQuantity() { return quantity; }
+            public Integer getReservedQuantity() { return reserved; }
+            public InventoryStatus getStatus() { return InventoryStatus.IN_STOCK; }
+            public Long getVersion() { return version; }
+        };
+    }
+
+    private double count(String name, String result) {
+        return meterRegistry.counter(name, "result", result).count();
+    }
+
+    @Test
+    void testHitIsServedFromRedis() {
+        // Given
+        when(hashOperations.get("inventory:availability:" + productId, "available")).thenReturn("42");
+
+        // When
+        int available = cache.getAvailableQuantity(productId);
+
+        // Then: DB'ye gidilmez
+        assertEquals(42, available);
+        verifyNoInteractions(inventoryRepository);
+        assertEquals(1, count("inventory.availability.cache", "hit"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMissLoadsFromDatabaseAndWritesThrough() {
+        // Given
+        when(inventoryRepository.findStockLevelsByProductIdIn(List.of(productId)))
+                .thenReturn(List.of(level(productId, 100, 30, 7)));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+
+        // When
+        int available = cache.getAvailableQuantity(productId);
+
+        // Then: versiyon, quantity, reserved, available ve TTL (ms) script'e verilir
+        assertEquals(70, available);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("inventory:availability:" + productId)),
+                eq("7"), eq("100"), eq("30"), eq("70"), eq("600000"));
+        assertEquals(1, count("inventory.availability.cache", "miss"));
+        assertEquals(1, count("inventory.availability.cache.write", "written"));
+    }
+
+    @Test
+    void testMissForUnknownProductThrows() {
+        when(inventoryRepository.findStockLevelsByProductIdIn(List.of(productId))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.getAvailableQuantity(productId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedisReadFailureFallsBackToDatabase() {
+        // Given: Redis erişilemiyor
+        when(hashOperations.get(anyString(), any())).thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(inventoryRepository.findStockLevelsByProductIdIn(List.of(productId)))
+                .thenReturn(List.of(level(productId, 10, 4, 1)));
+
+        // When / Then: okuma DB'den cevaplanır, hata fırlatılmaz
+        assertEquals(6, cache.getAvailableQuantity(productId));
+        assertEquals(1, count("inventory.availability.cache", "error"));
+        assertEquals(1, count("inventory.availability.cache.write", "error"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStockChangeRefreshesEntriesAndEvictsDeletedProducts() {
+        // Given: biri güncellendi, biri silindi, biri inventory ID ile geldi (atomik UPDATE)
+        UUID deletedProductId = UUID.randomUUID();
+        UUID inventoryId = UUID.randomUUID();
+        UUID hotProductId = UUID.randomUUID();
+        when(inventoryRepository.findStockLevelsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(level(productId, 50, 5, 3)));
+        when(inventoryRepository.findStockLevelsByIdIn(anyCollection()))
+                .thenReturn(List.of(level(hotProductId, 20, 20, 9)));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L, 0L);
+
+        // When
+        cache.onStockLevelChanged(new StockLevelChangedEvent(
+                Set.of(productId, deletedProductId), Set.of(inventoryId)));
+
+        // Then: güncellenen ürünler silinmez, yeni değerle yazılır
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("inventory:availability:" + productId)),
+                eq("3"), eq("50"), eq("5"), eq("45"), eq("600000"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("inventory:availability:" + hotProductId)),
+                eq("9"), eq("20"), eq("20"), eq("0"), eq("600000"));
+        verify(redisTemplate).delete("inventory:availability:" + deletedProductId);
+        verify(redisTemplate, never()).delete("inventory:availability:" + productId);
+        assertEquals(1, count("inventory.availability.cache.write", "written"));
+        assertEquals(1, count("inventory.availability.cache.write", "stale"));  // Daha yeni versiyon cache'te
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedWriteEvictsEntry() {
+        // Given: script çalışmadı (ör. timeout) - eski değer TTL boyunca okunmasın
+        when(inventoryRepository.findStockLevelsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(level(productId, 50, 5, 3)));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("timeout"));
+
+        // When
+        cache.onStockLevelChanged(StockLevelChangedEvent.forProduct(productId));
+
+        // Then
+        verify(redisTemplate).delete("inventory:availability:" + productId);
+        assertEquals(1, count("inventory.availability.cache.write", "error"));
+    }
+}
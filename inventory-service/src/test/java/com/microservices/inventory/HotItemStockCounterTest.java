@@ -0,0 +1,160 @@
+package com.microservices.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.microservices.inventory.DTO.StockReservationResult;
+import com.microservices.inventory.Model.Inventory;
+import com.microservices.inventory.Service.HotItemStockCounter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * HotItemStockCounter için Test
+ * Bellek içi sayaç: Spring context gerekmez
+ */
+class HotItemStockCounterTest {
+
+    private HotItemStockCounter counter;
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new Inventory();
+        inventory.setId(UUID.randomUUID());
+        inventory.setProductId(UUID.randomUUID());
+        inventory.setQuantity(100);
+        inventory.setReservedQuantity(10);
+
+        counter = new HotItemStockCounter(true, inventory.getProductId().toString(), new SimpleMeterRegistry());
+        counter.load(inventory);
+    }
+
+    @Test
+    void testOnlyFlaggedProductsAreHot() {
+        // Given: İşaretlenmemiş ürün
+        Inventory other = new Inventory();
+        other.setId(UUID.randomUUID());
+        other.setProductId(UUID.randomUUID());
+        other.setQuantity(10);
+        other.setReservedQuantity(0);
+
+        // When
+        counter.load(other);
+
+        // Then
+        assertTrue(counter.isHot(inventory.getId()));
+        assertFalse(counter.isHot(other.getId()));
+    }
+
+    @Test
+    void testReserveAndFlushDelta() {
+        // When: İki rezervasyon ve bir serbest bırakma
+        assertTrue(counter.reserve(inventory.getId(), 5).isSuccess());
+        assertTrue(counter.reserve(inventory.getId(), 3).isSuccess());
+        assertTrue(counter.release(inventory.getId(), 2).isSuccess());
+
+        // Then: Tek net delta birikti
+        assertEquals(84, counter.getAvailable(inventory.getId()));
+        assertEquals(Map.of(inventory.getId(), 6L), counter.pendingDeltas());
+
+        // Flush sonrası bekleyen delta kalmaz
+        counter.markFlushed(inventory.getId(), 6L);
+        assertTrue(counter.pendingDeltas().isEmpty());
+    }
+
+    @Test
+    void testReserveInsufficientAndOverRelease() {
+        // When & Then: 90 kullanılabilir
+        StockReservationResult tooMuch = counter.reserve(inventory.getId(), 91);
+        assertFalse(tooMuch.isSuccess());
+        assertEquals("INSUFFICIENT_STOCK", tooMuch.getReason());
+
+        // 10 rezerve var
+        StockReservationResult overRelease = counter.release(inventory.getId(), 11);
+        assertFalse(overRelease.isSuccess());
+        assertEquals("OVER_RELEASE", overRelease.getReason());
+        assertTrue(counter.pendingDeltas().isEmpty());
+    }
+
+    @Test
+    void testConcurrentCounterReservationsStayWithinAvailable() throws Exception {
+        // Given: 90 kullanılabilir, 16 thread x 20 istek
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        for (int t = 0; t < 16; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    if (counter.reserve(inventory.getId(), 1).isSuccess()) {
+                        succeeded.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        // When
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then: Tam olarak stok kadar kabul edildi, delta kabul edilenlerle aynı
+        assertEquals(90, succeeded.get());
+        assertEquals(0, counter.getAvailable(inventory.getId()));
+        assertEquals(Map.of(inventory.getId(), 90L), counter.pendingDeltas());
+    }
+
+    @Test
+    void testReconcileCorrectsPositiveDriftImmediately() {
+        // Given: Sayaç dışında DB'de 20 adet daha rezerve edildi (ör. manuel düzeltme)
+        counter.reserve(inventory.getId(), 5);  // Henüz flush edilmedi
+        inventory.setReservedQuantity(30);
+
+        // When: Sayaç fazla görüyor → ilk kontrolde düzeltilir
+        long drift = counter.reconcile(inventory);
+
+        // Then: Beklenen = DB (100 - 30) - flush edilmemiş 5 = 65
+        assertEquals(20, drift);
+        assertEquals(65, counter.getAvailable(inventory.getId()));
+        assertEquals(0, counter.reconcile(inventory));
+    }
+
+    @Test
+    void testReconcileCorrectsNegativeDriftOnlyWhenConfirmed() {
+        // Given: DB'de 5 adet serbest bırakıldı (sayaç dışı düzeltme)
+        inventory.setReservedQuantity(5);
+
+        // When: İlk kontrol sadece tespit eder, ikinci kontrol düzeltir
+        assertEquals(-5, counter.reconcile(inventory));
+        assertEquals(90, counter.getAvailable(inventory.getId()));
+        assertEquals(-5, counter.reconcile(inventory));
+
+        // Then
+        assertEquals(95, counter.getAvailable(inventory.getId()));
+        assertEquals(0, counter.reconcile(inventory));
+    }
+
+    @Test
+    void testDisabledModeHasNoHotItems() {
+        // Given: Özellik kapalı
+        HotItemStockCounter disabled = new HotItemStockCounter(false, inventory.getProductId().toString(), new SimpleMeterRegistry());
+
+        // When
+        disabled.load(inventory);
+
+        // Then
+        assertFalse(disabled.isHot(inventory.getId()));
+    }
+}
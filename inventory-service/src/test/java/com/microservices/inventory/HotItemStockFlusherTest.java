@@ -0,0 +1,123 @@
+package com.microservices.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.microservices.inventory.Model.Inventory;
+import com.microservices.inventory.Model.StockMovementType;
+import com.microservices.inventory.Repository.InventoryRepository;
+import com.microservices.inventory.Service.HotItemStockCounter;
+import com.microservices.inventory.Service.HotItemStockFlusher;
+import com.microservices.inventory.Service.StockLedgerService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * HotItemStockFlusher için Test
+ * Repository ve defter mock'lanır; DB'ye yazılan toplam delta sayaçla karşılaştırılır
+ */
+class HotItemStockFlusherTest {
+
+    private HotItemStockCounter counter;
+    private HotItemStockFlusher flusher;
+    private InventoryRepository inventoryRepository;
+    private StockLedgerService ledgerService;
+    private Inventory inventory;
+    private final AtomicLong appliedToDb = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        inventory = new Inventory();
+        inventory.setId(UUID.randomUUID());
+        inventory.setProductId(UUID.randomUUID());
+        inventory.setQuantity(1000);
+        inventory.setReservedQuantity(0);
+
+        counter = new HotItemStockCounter(true, inventory.getProductId().toString(), new SimpleMeterRegistry());
+        counter.load(inventory);
+
+        inventoryRepository = mock(InventoryRepository.class);
+        ledgerService = mock(StockLedgerService.class);
+        // Yavaş UPDATE: eşzamanlı iki flush aynı bekleyen deltayı okuyabilecek kadar
+        when(inventoryRepository.applyReservedDeltaIfAvailable(eq(inventory.getId()), anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            appliedToDb.addAndGet(invocation.getArgument(1, Long.class));
+            return 1;
+        });
+        when(inventoryRepository.findByProductIdIn(anyCollection())).thenAnswer(invocation -> {
+            Inventory current = new Inventory();
+            current.setId(inventory.getId());
+            current.setProductId(inventory.getProductId());
+            current.setQuantity(inventory.getQuantity());
+            current.setReservedQuantity(Math.toIntExact(appliedToDb.get()));
+            return List.of(current);
+        });
+
+        flusher = new HotItemStockFlusher(counter, inventoryRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), mock(ApplicationEventPublisher.class), ledgerService);
+    }
+
+    @Test
+    void testFlushWritesPendingDeltaOnce() {
+        // Given
+        counter.reserve(inventory.getId(), 5);
+
+        // When
+        flusher.flush();
+        flusher.flush();
+
+        // Then
+        assertEquals(5, appliedToDb.get());
+        assertTrue(counter.pendingDeltas().isEmpty());
+        verify(ledgerService).recordForInventory(inventory.getId(), StockMovementType.RESERVATION, 0, 5);
+    }
+
+    @Test
+    void testConcurrentFlushAndReconcileDoNotDoubleApply() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 1; round <= 5; round++) {
+                // Given: flush edilmemiş rezervasyon
+                counter.reserve(inventory.getId(), 3);
+                CountDownLatch start = new CountDownLatch(1);
+
+                // When: scheduled flush ve reconcile aynı anda
+                var flush = executor.submit(() -> {
+                    start.await();
+                    flusher.flush();
+                    return null;
+                });
+                var reconcile = executor.submit(() -> {
+                    start.await();
+                    flusher.reconcile();
+                    return null;
+                });
+                start.countDown();
+                flush.get(5, TimeUnit.SECONDS);
+                reconcile.get(5, TimeUnit.SECONDS);
+
+                // Then: her rezervasyon DB'ye bir kez yazıldı, sayaç DB ile tutarlı
+                assertEquals(3L * round, appliedToDb.get());
+                assertTrue(counter.pendingDeltas().isEmpty());
+                assertEquals(1000 - 3L * round, counter.getAvailable(inventory.getId()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(ledgerService, times(5)).recordForInventory(inventory.getId(), StockMovementType.RESERVATION, 0, 3);
+    }
+}
@@ -21,10 +21,14 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.inventory.Controller.InventoryController;
+import com.microservices.inventory.DTO.InventoryImportResult;
+import com.microservices.inventory.DTO.StockReservationResult;
 import com.microservices.inventory.Exception.ResourceNotFoundException;
 import com.microservices.inventory.Model.Inventory;
 import com.microservices.inventory.Model.InventoryStatus;
 import com.microservices.inventory.Model.Location;
+import com.microservices.inventory.Service.HotItemStockCounter;
+import com.microservices.inventory.Service.InventoryImportService;
 import com.microservices.inventory.Service.InventoryService;
 
 /**
@@ -41,6 +45,12 @@ class InventoryControllerTest {
     @MockBean
     private InventoryService inventoryService;  // InventoryService mock'lanıyor
 
+    @MockBean
+    private HotItemStockCounter hotItemStockCounter;  // Varsayılan: hiçbir ürün hot item değil
+
+    @MockBean
+    private InventoryImportService inventoryImportService;
+
     @Autowired
     private ObjectMapper objectMapper;  // JSON dönüşümleri için
 
@@ -126,6 +136,23 @@ class InventoryControllerTest {
         verify(inventoryService, times(1)).getInventoryByProductId(testProductId);
     }
 
+    @Test
+    void testGetInventoriesByProductIds() throws Exception {
+        // Given: Batch lookup - stok kaydı olmayan product response'ta yer almaz
+        List<UUID> productIds = List.of(testProductId, UUID.randomUUID());
+        when(inventoryService.getInventoriesByProductIds(productIds)).thenReturn(List.of(testInventory));
+
+        // When & Then: POST /inventory/product/batch
+        mockMvc.perform(post("/inventory/product/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(productIds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].productId").value(testProductId.toString()));
+
+        verify(inventoryService, times(1)).getInventoriesByProductIds(productIds);
+    }
+
     @Test
     void testGetAvailableQuantity() throws Exception {
         // Given: Mock service davranışı
@@ -236,35 +263,67 @@ class InventoryControllerTest {
     @Test
     void testReserveStock() throws Exception {
         // Given: Mock service davranışı
-        Inventory reservedInventory = new Inventory();
-        reservedInventory.setId(testInventoryId);
-        reservedInventory.setReservedQuantity(30);
-        when(inventoryService.reserveStock(testInventoryId, 30)).thenReturn(reservedInventory);
+        when(inventoryService.reserveStock(testInventoryId, testProductId, 30))
+                .thenReturn(StockReservationResult.success(testInventoryId, 30));
 
-        // When & Then: PATCH isteği gönderiliyor
+        // When & Then: PATCH isteği gönderiliyor (productId ile: ayrıca okunmaz)
         mockMvc.perform(patch("/inventory/{id}/reserve", testInventoryId)
-                .param("quantity", "30"))
+                .param("quantity", "30")
+                .param("productId", testProductId.toString()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.reservedQuantity").value(30));
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.quantity").value(30));
 
-        verify(inventoryService, times(1)).reserveStock(testInventoryId, 30);
+        verify(inventoryService, times(1)).reserveStock(testInventoryId, testProductId, 30);
+    }
+
+    @Test
+    void testReserveStockInsufficient() throws Exception {
+        // Given: Yetersiz stok - iş sonucu olarak 200 + success=false döner
+        when(inventoryService.reserveStock(testInventoryId, null, 500))
+                .thenReturn(StockReservationResult.failure(testInventoryId, 500, "INSUFFICIENT_STOCK"));
+
+        // When & Then
+        mockMvc.perform(patch("/inventory/{id}/reserve", testInventoryId)
+                .param("quantity", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.reason").value("INSUFFICIENT_STOCK"));
+    }
+
+    @Test
+    void testReserveStockHotItem() throws Exception {
+        // Given: Ürün hot item modunda (bellekteki sayaçtan karşılanır)
+        when(hotItemStockCounter.isHot(testInventoryId)).thenReturn(true);
+        when(hotItemStockCounter.reserve(testInventoryId, 2))
+            .thenReturn(StockReservationResult.success(testInventoryId, 2));
+
+        // When & Then
+        mockMvc.perform(patch("/inventory/{id}/reserve", testInventoryId)
+                .param("quantity", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        // DB yolu kullanılmadı
+        verify(hotItemStockCounter, times(1)).reserve(testInventoryId, 2);
+        verify(inventoryService, never()).reserveStock(any(UUID.class), any(), any(Integer.class));
     }
 
     @Test
     void testReleaseReservedStock() throws Exception {
         // Given: Mock service davranışı
-        Inventory releasedInventory = new Inventory();
-        releasedInventory.setId(testInventoryId);
-        releasedInventory.setReservedQuantity(10);
-        when(inventoryService.releaseReservedStock(testInventoryId, 20)).thenReturn(releasedInventory);
+        when(inventoryService.releaseReservedStock(testInventoryId, testProductId, 20))
+                .thenReturn(StockReservationResult.success(testInventoryId, 20));
 
         // When & Then: PATCH isteği gönderiliyor
         mockMvc.perform(patch("/inventory/{id}/release", testInventoryId)
-                .param("quantity", "20"))
+                .param("quantity", "20")
+                .param("productId", testProductId.toString()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.reservedQuantity").value(10));
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.quantity").value(20));
 
-        verify(inventoryService, times(1)).releaseReservedStock(testInventoryId, 20);
+        verify(inventoryService, times(1)).releaseReservedStock(testInventoryId, testProductId, 20);
     }
 
     @Test
@@ -305,5 +364,38 @@ class InventoryControllerTest {
 
         verify(inventoryService, times(1)).getAllInventories();
     }
-}
 
+    @Test
+    void testImportInventoryCsvUsesRequestedMode() throws Exception {
+        // Given
+        InventoryImportResult result = new InventoryImportResult();
+        result.setMode("ADJUST");
+        result.setRowsRead(1);
+        result.setRowsApplied(1);
+        when(inventoryImportService.importCsv(any(), eq(InventoryImportService.Mode.ADJUST))).thenReturn(result);
+
+        // When & Then: CSV gövdesi CSV import'una gider
+        mockMvc.perform(post("/inventory/import").param("mode", "ADJUST")
+                .contentType("text/csv")
+                .content("productId,quantity\n" + testProductId + ",-3\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mode").value("ADJUST"))
+                .andExpect(jsonPath("$.rowsApplied").value(1));
+
+        verify(inventoryImportService).importCsv(any(), eq(InventoryImportService.Mode.ADJUST));
+        verify(inventoryImportService, never()).importJson(any(), any());
+    }
+
+    @Test
+    void testImportInventoryJsonDefaultsToSetMode() throws Exception {
+        when(inventoryImportService.importJson(any(), eq(InventoryImportService.Mode.SET)))
+                .thenReturn(new InventoryImportResult());
+
+        mockMvc.perform(post("/inventory/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"productId\": \"" + testProductId + "\", \"quantity\": 5}]"))
+                .andExpect(status().isOk());
+
+        verify(inventoryImportService).importJson(any(), eq(InventoryImportService.Mode.SET));
+    }
+}
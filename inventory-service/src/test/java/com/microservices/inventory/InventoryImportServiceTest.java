@@ -0,0 +1,213 @@
+package com.microservices.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.inventory.DTO.InventoryImportResult;
+import com.microservices.inventory.DTO.InventoryImportRow;
+import com.microservices.inventory.Event.StockLevelChangedEvent;
+import com.microservices.inventory.Model.Location;
+import com.microservices.inventory.Repository.InventoryBulkRepository;
+import com.microservices.inventory.Service.InventoryImportService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * InventoryImportService için Test
+ * JDBC katmanı (InventoryBulkRepository) mock'lanır: akış halinde parse, batch'leme,
+ * hatalı satır raporu ve sadece dokunulan cache key'lerinin silinmesi test edilir
+ * (ON CONFLICT upsert PostgreSQL'e özgü, H2'de çalışmaz)
+ */
+class InventoryImportServiceTest {
+
+    private InventoryBulkRepository bulkRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private ConcurrentMapCacheManager cacheManager;
+    private InventoryImportService importService;
+
+    private final List<List<InventoryImportRow>> upsertedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bulkRepository = mock(InventoryBulkRepository.class);
+        when(bulkRepository.upsert(anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<InventoryImportRow> rows = invocation.getArgument(0);
+            upsertedBatches.add(new ArrayList<>(rows));
+            return new int[rows.size()];
+        });
+        when(bulkRepository.recalculateStatus(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> productIds = invocation.getArgument(0);
+            return productIds.stream().map(productId -> inventoryIdOf(productId)).toList();
+        });
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        cacheManager = new ConcurrentMapCacheManager("inventories");
+
+        importService = new InventoryImportService(bulkRepository, transactionManager, cacheManager,
+                eventPublisher, new ObjectMapper(), new SimpleMeterRegistry(), 2);
+    }
+
+    private static UUID inventoryIdOf(UUID productId) {
+        return UUID.nameUUIDFromBytes(productId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCsvRowsAreUpsertedInBatches() throws Exception {
+        // Given: batch-size=2, 5 satır
+        StringBuilder csv = new StringBuilder("productId,quantity,location\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append(UUID.randomUUID()).append(',').append(i * 10).append(",besiktas\n");
+        }
+
+        // When
+        InventoryImportResult result = importService.importCsv(body(csv.toString()), InventoryImportService.Mode.SET);
+
+        // Then: 2 + 2 + 1
+        assertEquals(5, result.getRowsRead());
+        assertEquals(5, result.getRowsApplied());
+        assertEquals(0, result.getRowsRejected());
+        assertEquals(3, result.getBatches());
+        assertEquals(List.of(2, 2, 1), upsertedBatches.stream().map(List::size).toList());
+        assertEquals(Location.BESIKTAS, upsertedBatches.get(0).get(0).getLocation());
+        verify(bulkRepository, times(3)).upsert(anyList(), eq(false));
+        verify(eventPublisher, times(3)).publishEvent(any(StockLevelChangedEvent.class));
+    }
+
+    @Test
+    void testInvalidRowsAreSkippedAndReported() throws Exception {
+        // Given: sütun sırası farklı, hatalı satırlar arada
+        UUID valid = UUID.randomUUID();
+        String csv = "quantity,product_id\n"
+                + "5," + valid + "\n"
+                + "\n"
+                + "-1," + UUID.randomUUID() + "\n"
+                + "abc," + UUID.randomUUID() + "\n"
+                + "3,not-a-uuid\n";
+
+        // When
+        InventoryImportResult result = importService.importCsv(body(csv), InventoryImportService.Mode.SET);
+
+        // Then: satır numaraları dosyadaki satırlardır (boş satır dahil)
+        assertEquals(4, result.getRowsRead());
+        assertEquals(1, result.getRowsApplied());
+        assertEquals(3, result.getRowsRejected());
+        assertEquals(3, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("line 4: quantity cannot be negative"));
+        assertTrue(result.getErrors().get(1).startsWith("line 5: invalid quantity"));
+        assertTrue(result.getErrors().get(2).startsWith("line 6: invalid productId"));
+        assertEquals(valid, upsertedBatches.get(0).get(0).getProductId());
+    }
+
+    @Test
+    void testAdjustModeAllowsNegativeDeltas() throws Exception {
+        String csv = "productId,quantity\n" + UUID.randomUUID() + ",-4\n";
+
+        InventoryImportResult result = importService.importCsv(body(csv), InventoryImportService.Mode.ADJUST);
+
+        assertEquals(1, result.getRowsApplied());
+        assertEquals(-4, upsertedBatches.get(0).get(0).getQuantity());
+        verify(bulkRepository).upsert(anyList(), eq(true));
+        // Defter hareketi için mevcut miktarlar upsert'ten önce kilitlenir
+        verify(bulkRepository).lockQuantities(anyCollection());
+        verify(bulkRepository).recordMovements(anyCollection(), anyMap());
+    }
+
+    @Test
+    void testMissingHeaderColumnsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importCsv(body("sku,qty\nA,1\n"), InventoryImportService.Mode.SET));
+    }
+
+    @Test
+    void testJsonArrayIsStreamed() throws Exception {
+        UUID productId = UUID.randomUUID();
+        String json = "[{\"productId\": \"" + productId + "\", \"quantity\": 7, \"minStockLevel\": 2},"
+                + " {\"productId\": \"" + UUID.randomUUID() + "\"},"
+                + " 42]";
+
+        InventoryImportResult result = importService.importJson(body(json), InventoryImportService.Mode.SET);
+
+        assertEquals(3, result.getRowsRead());
+        assertEquals(1, result.getRowsApplied());
+        assertEquals(2, result.getRowsRejected());
+        assertTrue(result.isCompleted());
+        InventoryImportRow row = upsertedBatches.get(0).get(0);
+        assertEquals(productId, row.getProductId());
+        assertEquals(7, row.getQuantity());
+        assertEquals(2, row.getMinStockLevel());
+    }
+
+    @Test
+    void testMalformedJsonAppliesRowsReadSoFar() throws Exception {
+        String json = "[{\"productId\": \"" + UUID.randomUUID() + "\", \"quantity\": 1}, {\"productId\": ";
+
+        InventoryImportResult result = importService.importJson(body(json), InventoryImportService.Mode.SET);
+
+        assertFalse(result.isCompleted());
+        assertEquals(1, result.getRowsApplied());
+        assertTrue(result.getErrors().get(0).contains("malformed JSON"));
+    }
+
+    @Test
+    void testFailedBatchDoesNotStopImport() throws Exception {
+        // Given: ilk batch DB hatası alıyor
+        when(bulkRepository.upsert(anyList(), anyBoolean()))
+                .thenThrow(new DataIntegrityViolationException("check constraint"))
+                .thenReturn(new int[1]);
+        String csv = "productId,quantity\n" + UUID.randomUUID() + ",1\n" + UUID.randomUUID() + ",1\n"
+                + UUID.randomUUID() + ",1\n";
+
+        InventoryImportResult result = importService.importCsv(body(csv), InventoryImportService.Mode.SET);
+
+        assertEquals(1, result.getRowsApplied());
+        assertEquals(2, result.getRowsRejected());
+        assertEquals(1, result.getBatches());
+        assertTrue(result.getErrors().get(0).contains("starting at 2 failed"));
+    }
+
+    @Test
+    void testOnlyTouchedCacheKeysAreEvicted() throws Exception {
+        // Given: cache'te dokunulan ve dokunulmayan kayıtlar
+        UUID touched = UUID.randomUUID();
+        UUID untouched = UUID.randomUUID();
+        Cache cache = cacheManager.getCache("inventories");
+        cache.put("all", "list");
+        cache.put("product:" + touched, "touched");
+        cache.put(inventoryIdOf(touched).toString(), "touched");
+        cache.put("product:" + untouched, "untouched");
+
+        // When
+        importService.importCsv(body("productId,quantity\n" + touched + ",9\n"), InventoryImportService.Mode.SET);
+
+        // Then
+        assertNull(cache.get("all"));
+        assertNull(cache.get("product:" + touched));
+        assertNull(cache.get(inventoryIdOf(touched).toString()));
+        assertNotNull(cache.get("product:" + untouched));
+    }
+}
@@ -0,0 +1,162 @@
+package com.microservices.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.microservices.inventory.DTO.StockReservationResult;
+import com.microservices.inventory.Model.Inventory;
+import com.microservices.inventory.Model.Location;
+import com.microservices.inventory.Repository.InventoryRepository;
+import com.microservices.inventory.Service.AvailabilityCache;
+import com.microservices.inventory.Service.InventoryCacheEvictor;
+import com.microservices.inventory.Service.InventoryService;
+import com.microservices.inventory.Service.StockLedgerService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Inventory Query Count Test
+ *
+ * Hibernate statistics ile checkStockAvailability başına çalışan SQL sayısını doğrular:
+ * sepet boyutu ne olursa olsun max-batch-size'a kadar tek sorgu
+ * Tekil rezerve/serbest bırakma: productId verilince UPDATE + defter INSERT'i dışında okuma yok
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "inventory.stock-check.max-batch-size=50"
+})
+@ActiveProfiles("test")
+@Import({InventoryService.class, AvailabilityCache.class, StockLedgerService.class, InventoryCacheEvictor.class,
+        ConcurrentMapCacheManager.class, SimpleMeterRegistry.class})
+class InventoryQueryCountTest {
+
+    @MockBean  // Redis yok: AvailabilityCache okumaları DB'ye düşer
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testStockCheckQueryCountIsConstantInCartSize() {
+        for (int cartSize : new int[] {1, 10, 50}) {
+            Map<UUID, Integer> cart = cart(cartSize);
+            statistics.clear();
+
+            Map<UUID, Boolean> availability = inventoryService.checkStockAvailability(cart);
+
+            assertEquals(cartSize, availability.size());
+            assertTrue(availability.values().stream().allMatch(Boolean::booleanValue));
+            assertEquals(1, statistics.getPrepareStatementCount(), "cart size " + cartSize);
+            assertEquals(0, statistics.getEntityLoadCount(), "projection, entity yüklenmez");
+        }
+    }
+
+    @Test
+    void testLargeRequestIsSplitIntoBatches() {
+        Map<UUID, Integer> cart = cart(120);
+        statistics.clear();
+
+        inventoryService.checkStockAvailability(cart);
+
+        // 120 ürün / 50 → 3 sorgu
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testAvailabilityUsesReservedQuantityAndMissingRecords() {
+        UUID enough = save(20, 10);      // available = 10
+        UUID insufficient = save(20, 15);  // available = 5
+        UUID missing = UUID.randomUUID();
+
+        Map<UUID, Integer> cart = new HashMap<>();
+        cart.put(enough, 10);
+        cart.put(insufficient, 6);
+        cart.put(missing, 1);
+        Map<UUID, Boolean> availability = inventoryService.checkStockAvailability(cart);
+
+        assertTrue(availability.get(enough));
+        assertFalse(availability.get(insufficient));
+        assertFalse(availability.get(missing));
+    }
+
+    @Test
+    void testReserveAndReleaseWithProductIdDoNotReadProductId() {
+        Inventory inventory = inventoryRepository.findByProductId(save(100, 0)).orElseThrow();
+        inventoryRepository.flush();
+
+        // productId çağırandan: UPDATE + defter INSERT'i
+        statistics.clear();
+        assertTrue(inventoryService.reserveStock(inventory.getId(), inventory.getProductId(), 5).isSuccess());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertTrue(inventoryService.releaseReservedStock(inventory.getId(), inventory.getProductId(), 2).isSuccess());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        // productId yoksa (eski istemci) tek PK sorgusu eklenir
+        statistics.clear();
+        assertTrue(inventoryService.reserveStock(inventory.getId(), 1).isSuccess());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(4, inventoryRepository.findById(inventory.getId()).orElseThrow().getReservedQuantity());
+    }
+
+    @Test
+    void testReserveWithMismatchedProductIdIsRejected() {
+        Inventory inventory = inventoryRepository.findByProductId(save(100, 0)).orElseThrow();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.reserveStock(inventory.getId(), UUID.randomUUID(), 5));
+        StockReservationResult insufficient = inventoryService.reserveStock(inventory.getId(), inventory.getProductId(), 500);
+
+        assertEquals("INSUFFICIENT_STOCK", insufficient.getReason());
+        assertEquals(0, inventoryRepository.findById(inventory.getId()).orElseThrow().getReservedQuantity());
+    }
+
+    private Map<UUID, Integer> cart(int size) {
+        Map<UUID, Integer> cart = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            cart.put(save(100, 0), 2);
+        }
+        inventoryRepository.flush();
+        return cart;
+    }
+
+    private UUID save(int quantity, int reserved) {
+        Inventory inventory = new Inventory();
+        inventory.setProductId(UUID.randomUUID());
+        inventory.setQuantity(quantity);
+        inventory.setReservedQuantity(reserved);
+        inventory.setMinStockLevel(0);
+        inventory.setLocation(Location.BESIKTAS);
+        return inventoryRepository.save(inventory).getProductId();
+    }
+}
@@ -238,5 +238,23 @@ class InventoryRepositoryTest {
         // Then: 2 kayıt olmalı
         assertEquals(2, allInventories.size());
     }
-}
 
+    @Test
+    void testApplyReservedDelta() {
+        // Given: 100 adet stok, 0 rezerve
+        Inventory saved = inventoryRepository.save(testInventory);
+
+        // When: Hot item flush'ı net +95 delta yazıyor
+        int updated = inventoryRepository.applyReservedDelta(saved.getId(), 95);
+
+        // Then: Rezerve miktar ve status tek UPDATE ile güncellendi
+        assertEquals(1, updated);
+        Inventory reloaded = inventoryRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(95, reloaded.getReservedQuantity());
+        assertEquals(InventoryStatus.IN_STOCK, reloaded.getStatus());
+
+        // Negatif delta rezerve miktarı sıfırın altına düşürmez
+        inventoryRepository.applyReservedDelta(saved.getId(), -200);
+        assertEquals(0, inventoryRepository.findById(saved.getId()).orElseThrow().getReservedQuantity());
+    }
+}
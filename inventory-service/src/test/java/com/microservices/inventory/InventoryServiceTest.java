@@ -10,24 +10,35 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
+import com.microservices.inventory.DTO.StockReservationResult;
 import com.microservices.inventory.Exception.DuplicateResourceException;
 import com.microservices.inventory.Exception.ResourceNotFoundException;
 import com.microservices.inventory.Model.Inventory;
 import com.microservices.inventory.Model.InventoryStatus;
 import com.microservices.inventory.Model.Location;
 import com.microservices.inventory.Repository.InventoryRepository;
+import com.microservices.inventory.Service.AvailabilityCache;
+import com.microservices.inventory.Service.InventoryCacheEvictor;
 import com.microservices.inventory.Service.InventoryService;
+import com.microservices.inventory.Service.StockLedgerService;
 
 /**
  * InventoryService için Unit Test
  * @DataJpaTest: Sadece JPA katmanını test eder, veritabanı işlemleri için
  */
 @DataJpaTest
-@Import(InventoryService.class)  // InventoryService'i test context'ine ekle
+@Import({InventoryService.class, AvailabilityCache.class, StockLedgerService.class,
+        InventoryCacheEvictor.class, ConcurrentMapCacheManager.class})  // InventoryService'i test context'ine ekle
 class InventoryServiceTest {
 
+    @MockBean  // Redis yok: AvailabilityCache okumaları DB'ye düşer
+    private StringRedisTemplate redisTemplate;
+
     @Autowired
     private InventoryService inventoryService;
 
@@ -336,13 +347,16 @@ class InventoryServiceTest {
         Inventory createdInventory = inventoryService.createInventory(testInventory);
         UUID inventoryId = createdInventory.getId();
 
-        // When: 30 adet rezerve ediliyor
-        Inventory updatedInventory = inventoryService.reserveStock(inventoryId, 30);
+        // When: 30 adet rezerve ediliyor (atomik UPDATE)
+        StockReservationResult result = inventoryService.reserveStock(inventoryId, 30);
 
-        // Then: Rezerve miktarı artırıldı
+        // Then: Rezervasyon başarılı ve rezerve miktarı artırıldı
+        assertTrue(result.isSuccess());
+        Inventory updatedInventory = inventoryRepository.findById(inventoryId).orElseThrow();
         assertEquals(30, updatedInventory.getReservedQuantity());
         assertEquals(100, updatedInventory.getQuantity()); // Toplam miktar değişmedi
         assertEquals(70, updatedInventory.getAvailableQuantity()); // Kullanılabilir azaldı
+        assertEquals(InventoryStatus.IN_STOCK, updatedInventory.getStatus());
     }
 
     @Test
@@ -353,11 +367,49 @@ class InventoryServiceTest {
         Inventory createdInventory = inventoryService.createInventory(testInventory);
         UUID inventoryId = createdInventory.getId();
 
-        // When & Then: Daha fazla rezerve edilmeye çalışılırsa exception fırlatılmalı
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            inventoryService.reserveStock(inventoryId, 50);
+        // When: Daha fazla rezerve edilmeye çalışılıyor
+        StockReservationResult result = inventoryService.reserveStock(inventoryId, 50);
+
+        // Then: Exception yerine başarısız sonuç döner, stok değişmez
+        assertFalse(result.isSuccess());
+        assertEquals("INSUFFICIENT_STOCK", result.getReason());
+        assertEquals(10, inventoryRepository.findById(inventoryId).orElseThrow().getReservedQuantity());
+    }
+
+    @Test
+    void testReserveStockExactlyAvailableSetsReservedStatus() {
+        // Given: minStockLevel altında olmayan, tamamı rezerve edilecek stok
+        testInventory.setQuantity(50);
+        testInventory.setMinStockLevel(10);
+        Inventory createdInventory = inventoryService.createInventory(testInventory);
+
+        // When: Tüm kullanılabilir stok rezerve ediliyor
+        StockReservationResult result = inventoryService.reserveStock(createdInventory.getId(), 50);
+
+        // Then: Status SQL içinde RESERVED olarak hesaplandı
+        assertTrue(result.isSuccess());
+        assertEquals(InventoryStatus.RESERVED,
+                inventoryRepository.findById(createdInventory.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testReserveStockNotFound() {
+        // When & Then: Olmayan kayıt için ResourceNotFoundException fırlatılmalı
+        UUID nonExistentId = UUID.randomUUID();
+        assertThrows(ResourceNotFoundException.class, () -> {
+            inventoryService.reserveStock(nonExistentId, 1);
+        });
+    }
+
+    @Test
+    void testReserveStockNonPositiveQuantity() {
+        // Given: Bir stok kaydı
+        Inventory createdInventory = inventoryService.createInventory(testInventory);
+
+        // When & Then: Negatif miktar ile rezerve stok azaltılamamalı
+        assertThrows(IllegalArgumentException.class, () -> {
+            inventoryService.reserveStock(createdInventory.getId(), -5);
         });
-        assertTrue(exception.getMessage().contains("Insufficient stock"));
     }
 
     @Test
@@ -369,9 +421,11 @@ class InventoryServiceTest {
         UUID inventoryId = createdInventory.getId();
 
         // When: 20 adet serbest bırakılıyor
-        Inventory updatedInventory = inventoryService.releaseReservedStock(inventoryId, 20);
+        StockReservationResult result = inventoryService.releaseReservedStock(inventoryId, 20);
 
         // Then: Rezerve miktarı azaldı
+        assertTrue(result.isSuccess());
+        Inventory updatedInventory = inventoryRepository.findById(inventoryId).orElseThrow();
         assertEquals(10, updatedInventory.getReservedQuantity());
         assertEquals(100, updatedInventory.getQuantity()); // Toplam miktar değişmedi
         assertEquals(90, updatedInventory.getAvailableQuantity()); // Kullanılabilir arttı
@@ -385,11 +439,13 @@ class InventoryServiceTest {
         Inventory createdInventory = inventoryService.createInventory(testInventory);
         UUID inventoryId = createdInventory.getId();
 
-        // When & Then: Rezerve edilmiş miktardan fazla serbest bırakılmaya çalışılırsa exception fırlatılmalı
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            inventoryService.releaseReservedStock(inventoryId, 50);
-        });
-        assertTrue(exception.getMessage().contains("Cannot release more than reserved"));
+        // When: Rezerve edilmiş miktardan fazla serbest bırakılmaya çalışılıyor
+        StockReservationResult result = inventoryService.releaseReservedStock(inventoryId, 50);
+
+        // Then: Başarısız sonuç döner, rezerve miktarı değişmez
+        assertFalse(result.isSuccess());
+        assertEquals("OVER_RELEASE", result.getReason());
+        assertEquals(30, inventoryRepository.findById(inventoryId).orElseThrow().getReservedQuantity());
     }
 
     @Test
@@ -0,0 +1,227 @@
+package com.microservices.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.microservices.inventory.DTO.ReservationRequest;
+import com.microservices.inventory.DTO.StockLedgerBalance;
+import com.microservices.inventory.Exception.ResourceNotFoundException;
+import com.microservices.inventory.Model.Inventory;
+import com.microservices.inventory.Model.Location;
+import com.microservices.inventory.Model.StockLedgerCursor;
+import com.microservices.inventory.Model.StockMovement;
+import com.microservices.inventory.Model.StockMovementType;
+import com.microservices.inventory.Repository.InventoryRepository;
+import com.microservices.inventory.Repository.StockLedgerCursorRepository;
+import com.microservices.inventory.Repository.StockMovementRepository;
+import com.microservices.inventory.Service.AvailabilityCache;
+import com.microservices.inventory.Service.HotItemStockCounter;
+import com.microservices.inventory.Service.InventoryCacheEvictor;
+import com.microservices.inventory.Service.InventoryService;
+import com.microservices.inventory.Service.StockLedgerService;
+import com.microservices.inventory.Service.StockReservationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * StockLedgerService için Test
+ * Stok değiştiren işlemlerin deftere yazılması, compaction ve defter bakiyesinin inventory ile tutarlılığı
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({InventoryService.class, StockReservationService.class, StockLedgerService.class,
+        InventoryCacheEvictor.class, HotItemStockCounter.class, ConcurrentMapCacheManager.class,
+        AvailabilityCache.class, SimpleMeterRegistry.class})
+class StockLedgerServiceTest {
+
+    @MockBean  // Redis yok: AvailabilityCache okumaları DB'ye düşer
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockLedgerService ledgerService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockLedgerCursorRepository cursorRepository;
+
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        Inventory newInventory = new Inventory();
+        newInventory.setProductId(UUID.randomUUID());
+        newInventory.setQuantity(10);
+        newInventory.setReservedQuantity(0);
+        newInventory.setMinStockLevel(0);
+        newInventory.setLocation(Location.BESIKTAS);
+        inventory = inventoryService.createInventory(newInventory);
+    }
+
+    private LocalDateTime settled() {
+        return LocalDateTime.now().plusSeconds(1);
+    }
+
+    private void assertBalanceMatchesInventory() {
+        Inventory current = inventoryRepository.findByProductId(inventory.getProductId()).orElseThrow();
+        StockLedgerBalance balance = ledgerService.getBalance(inventory.getProductId());
+        assertEquals(current.getQuantity().longValue(), balance.getQuantity());
+        assertEquals(current.getReservedQuantity().longValue(), balance.getReservedQuantity());
+        assertEquals(current.getAvailableQuantity().longValue(), balance.getAvailableQuantity());
+    }
+
+    @Test
+    void testEveryStockChangeAppendsMovement() {
+        // Given: oluşturma (IN) + rezervasyon + atomik rezervasyon + serbest bırakma + düzeltme
+        UUID orderId = UUID.randomUUID();
+        reservationService.reserve(new ReservationRequest(orderId,
+                List.of(new ReservationRequest.Item(inventory.getProductId(), 3))));
+        inventoryService.reserveStock(inventory.getId(), 2);
+        reservationService.release(orderId);
+        inventoryService.updateQuantity(inventory.getId(), 15);
+
+        // Then: en yeni önce, değişimler delta olarak
+        List<StockMovement> movements = ledgerService.getRecentMovements(inventory.getProductId(), 10);
+        assertEquals(List.of(StockMovementType.ADJUSTMENT, StockMovementType.RESERVATION_CANCELLED,
+                        StockMovementType.RESERVATION, StockMovementType.RESERVATION, StockMovementType.IN),
+                movements.stream().map(StockMovement::getMovementType).toList());
+        assertEquals(5, movements.get(0).getQuantityDelta());
+        assertEquals(-3, movements.get(1).getReservedDelta());
+        assertEquals(orderId, movements.get(1).getReferenceId());
+        assertEquals(2, movements.get(2).getReservedDelta());
+        assertEquals(10, movements.get(4).getQuantityDelta());
+        assertBalanceMatchesInventory();
+    }
+
+    @Test
+    void testCompactionFoldsMovementsIntoSnapshot() {
+        // Given: birkaç hareket
+        inventoryService.reserveStock(inventory.getId(), 4);
+        inventoryService.releaseReservedStock(inventory.getId(), 1);
+
+        // When: compaction
+        int compacted = ledgerService.compact(settled(), 100);
+
+        // Then: bakiye snapshot'tan gelir, bekleyen hareket yok
+        assertEquals(3, compacted);
+        StockLedgerBalance balance = ledgerService.getBalance(inventory.getProductId());
+        assertEquals(0, balance.getPendingMovements());
+        assertTrue(balance.getSnapshotMovementId() > 0);
+        assertBalanceMatchesInventory();
+
+        // When: compaction sonrası yeni hareket → snapshot + delta
+        inventoryService.reserveStock(inventory.getId(), 2);
+        balance = ledgerService.getBalance(inventory.getProductId());
+        assertEquals(1, balance.getPendingMovements());
+        assertBalanceMatchesInventory();
+        assertEquals(0, ledgerService.compact(LocalDateTime.now().minusMinutes(1), 100), "yeni hareket bekletilir");
+    }
+
+    @Test
+    void testCompactionIsBatched() {
+        for (int i = 0; i < 4; i++) {
+            inventoryService.reserveStock(inventory.getId(), 1);
+        }
+
+        // 5 hareket (IN + 4 rezervasyon), batch başına 2
+        assertEquals(2, ledgerService.compact(settled(), 2));
+        assertEquals(2, ledgerService.compact(settled(), 2));
+        assertEquals(1, ledgerService.compact(settled(), 2));
+        assertEquals(0, ledgerService.compact(settled(), 2));
+        assertBalanceMatchesInventory();
+    }
+
+    @Test
+    void testCompactionAdvancesCursor() {
+        // Given: cursor satırı henüz yok
+        inventoryService.reserveStock(inventory.getId(), 2);
+        assertTrue(cursorRepository.findById(StockLedgerCursor.ID).isEmpty());
+
+        // When
+        ledgerService.compact(settled(), 100);
+
+        // Then: cursor oluşturuldu ve snapshot ile aynı noktada
+        long cursorId = cursorRepository.findById(StockLedgerCursor.ID).orElseThrow().getLastMovementId();
+        assertEquals(ledgerService.getBalance(inventory.getProductId()).getSnapshotMovementId(), cursorId);
+
+        // Sonraki batch cursor'dan devam eder
+        inventoryService.reserveStock(inventory.getId(), 1);
+        assertEquals(1, ledgerService.compact(settled(), 100));
+        assertTrue(cursorRepository.findById(StockLedgerCursor.ID).orElseThrow().getLastMovementId() > cursorId);
+        assertBalanceMatchesInventory();
+    }
+
+    @Test
+    void testBulkReleaseRecordsMovementPerItem() {
+        // Given: iki sipariş toplu serbest bırakılıyor
+        UUID orderId1 = UUID.randomUUID();
+        UUID orderId2 = UUID.randomUUID();
+        reservationService.reserve(new ReservationRequest(orderId1,
+                List.of(new ReservationRequest.Item(inventory.getProductId(), 3))));
+        reservationService.reserve(new ReservationRequest(orderId2,
+                List.of(new ReservationRequest.Item(inventory.getProductId(), 2))));
+
+        reservationService.releaseAll(List.of(orderId1, orderId2));
+
+        // Then: sipariş başına bir RESERVATION_CANCELLED
+        List<StockMovement> cancelled = ledgerService.getRecentMovements(inventory.getProductId(), 10).stream()
+                .filter(movement -> movement.getMovementType() == StockMovementType.RESERVATION_CANCELLED)
+                .toList();
+        assertEquals(2, cancelled.size());
+        assertEquals(-5, cancelled.stream().mapToInt(StockMovement::getReservedDelta).sum());
+        assertBalanceMatchesInventory();
+    }
+
+    @Test
+    void testPurgeKeepsUncompactedMovements() {
+        inventoryService.reserveStock(inventory.getId(), 1);
+        ledgerService.compact(settled(), 100);
+        inventoryService.reserveStock(inventory.getId(), 1);
+
+        int purged = ledgerService.purgeCompacted(LocalDateTime.now().plusSeconds(1));
+
+        // Snapshot'a girmiş 2 hareket silindi, bakiye değişmedi
+        assertEquals(2, purged);
+        assertEquals(1, movementRepository.count());
+        assertBalanceMatchesInventory();
+    }
+
+    @Test
+    void testDeletedInventoryLedgerBalanceIsZero() {
+        inventoryService.reserveStock(inventory.getId(), 3);
+
+        inventoryService.deleteInventory(inventory.getId());
+
+        StockLedgerBalance balance = ledgerService.getBalance(inventory.getProductId());
+        assertEquals(0, balance.getQuantity());
+        assertEquals(0, balance.getReservedQuantity());
+    }
+
+    @Test
+    void testUnknownProductHasNoLedger() {
+        assertThrows(ResourceNotFoundException.class, () -> ledgerService.getBalance(UUID.randomUUID()));
+    }
+}
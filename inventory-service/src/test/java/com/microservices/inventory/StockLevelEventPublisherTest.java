@@ -0,0 +1,132 @@
+package com.microservices.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import com.microservices.inventory.Config.RabbitMQConfig;
+import com.microservices.inventory.Event.StockLevelChanged;
+import com.microservices.inventory.Event.StockLevelChangedEvent;
+import com.microservices.inventory.Model.InventoryStatus;
+import com.microservices.inventory.Repository.InventoryRepository;
+import com.microservices.inventory.Service.StockLevelEventPublisher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * StockLevelEventPublisher için Test
+ * Repository ve RabbitTemplate mock'lanır: birleştirme, silinen ürünler ve gönderim hatası
+ */
+class StockLevelEventPublisherTest {
+
+    private InventoryRepository inventoryRepository;
+    private RabbitTemplate rabbitTemplate;
+    private StockLevelEventPublisher publisher;
+
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = mock(InventoryRepository.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        publisher = new StockLevelEventPublisher(inventoryRepository, rabbitTemplate, new SimpleMeterRegistry());
+        productId = UUID.randomUUID();
+    }
+
+    private static InventoryRepository.StockLevel level(UUID productId, int quantity, int reserved, long version) {
+        return new InventoryRepository.StockLevel() {
+            public UUID getProductId() { return productId; }
+            public Integer getQuantity() { return quantity; }
+            public Integer getReservedQuantity() { return reserved; }
+            public InventoryStatus getStatus() { return InventoryStatus.LOW_STOCK; }
+            public Long getVersion() { return version; }
+        };
+    }
+
+    private List<StockLevelChanged> sentMessages() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(rabbitTemplate, atLeast(0)).convertAndSend(
+                eq(RabbitMQConfig.INVENTORY_EXCHANGE), eq(RabbitMQConfig.ROUTING_KEY_STOCK_LEVEL_CHANGED), captor.capture());
+        return captor.getAllValues().stream().map(StockLevelChanged.class::cast).toList();
+    }
+
+    @Test
+    void testRapidChangesToSameProductAreCoalesced() {
+        // Given: aynı ürün hem productId hem inventoryId ile (atomik UPDATE) art arda değişti
+        UUID inventoryId = UUID.randomUUID();
+        when(inventoryRepository.findStockLevelsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(level(productId, 100, 40, 12)));
+        when(inventoryRepository.findStockLevelsByIdIn(anyCollection()))
+                .thenReturn(List.of(level(productId, 100, 40, 12)));
+        for (int i = 0; i < 5; i++) {
+            publisher.onStockLevelChanged(StockLevelChangedEvent.forProduct(productId));
+        }
+        publisher.onStockLevelChanged(StockLevelChangedEvent.forInventory(inventoryId));
+
+        // When
+        publisher.flush();
+
+        // Then: son durumla tek mesaj
+        List<StockLevelChanged> sent = sentMessages();
+        assertEquals(1, sent.size());
+        assertEquals(productId, sent.get(0).getProductId());
+        assertEquals(60, sent.get(0).getAvailable());
+        assertEquals("LOW_STOCK", sent.get(0).getStatus());
+        assertEquals(12L, sent.get(0).getVersion());
+        assertFalse(sent.get(0).isDeleted());
+        verify(inventoryRepository, times(1)).findStockLevelsByProductIdIn(anyCollection());
+    }
+
+    @Test
+    void testDeletedProductIsPublishedAsDeleted() {
+        when(inventoryRepository.findStockLevelsByProductIdIn(anyCollection())).thenReturn(List.of());
+        publisher.onStockLevelChanged(StockLevelChangedEvent.forProduct(productId));
+
+        publisher.flush();
+
+        List<StockLevelChanged> sent = sentMessages();
+        assertEquals(1, sent.size());
+        assertTrue(sent.get(0).isDeleted());
+        assertEquals(0, sent.get(0).getAvailable());
+    }
+
+    @Test
+    void testNothingPendingSendsNothing() {
+        publisher.flush();
+
+        verifyNoInteractions(inventoryRepository, rabbitTemplate);
+    }
+
+    @Test
+    void testFailedSendIsRetriedOnNextFlush() {
+        // Given: broker erişilemiyor
+        when(inventoryRepository.findStockLevelsByProductIdIn(anyCollection()))
+                .thenReturn(List.of(level(productId, 10, 0, 1)));
+        doThrow(new AmqpConnectException(new RuntimeException("down")))
+                .doNothing()
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+        publisher.onStockLevelChanged(new StockLevelChangedEvent(Set.of(productId), null));
+
+        // When
+        publisher.flush();
+        publisher.flush();
+
+        // Then: ikinci flush aynı ürünü tekrar gönderir
+        verify(rabbitTemplate, times(2)).convertAndSend(anyString(), anyString(), any(Object.class));
+        verify(inventoryRepository, times(2)).findStockLevelsByProductIdIn(anyCollection());
+
+        // Ve sonra kuyruk boş
+        publisher.flush();
+        verify(inventoryRepository, times(2)).findStockLevelsByProductIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,73 @@
+package com.microservices.inventory;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.inventory.Controller.StockReservationController;
+import com.microservices.inventory.DTO.ReservationRequest;
+import com.microservices.inventory.DTO.ReservationResponse;
+import com.microservices.inventory.Model.ReservationStatus;
+import com.microservices.inventory.Service.StockReservationService;
+
+/**
+ * StockReservationController için Test
+ * @WebMvcTest: Sadece web katmanı, StockReservationService mock'lanır
+ */
+@WebMvcTest(StockReservationController.class)
+class StockReservationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockReservationService reservationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ReservationRequest request(UUID orderId) {
+        return new ReservationRequest(orderId, List.of(new ReservationRequest.Item(UUID.randomUUID(), 1)));
+    }
+
+    @Test
+    void testBatchReportsFailingOrderWithoutFailingBatch() throws Exception {
+        // Given: İkinci sipariş beklenmeyen bir hata alıyor (ör. aynı orderId ile eşzamanlı rezervasyon)
+        UUID reserved = UUID.randomUUID();
+        UUID failing = UUID.randomUUID();
+        UUID invalid = UUID.randomUUID();
+        ReservationResponse success = new ReservationResponse(UUID.randomUUID(), reserved, ReservationStatus.ACTIVE,
+                null, true, null, List.of());
+        when(reservationService.reserve(argThat(r -> r != null && reserved.equals(r.getOrderId())))).thenReturn(success);
+        when(reservationService.reserve(argThat(r -> r != null && failing.equals(r.getOrderId()))))
+            .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+        when(reservationService.reserve(argThat(r -> r != null && invalid.equals(r.getOrderId()))))
+            .thenThrow(new IllegalArgumentException("Quantity must be positive"));
+
+        // When & Then: 200, sonuçlar istek sırasıyla ve sipariş bazında
+        mockMvc.perform(post("/inventory/reservations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(request(reserved), request(failing), request(invalid)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[1].orderId").value(failing.toString()))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].reason").value("UNAVAILABLE"))
+                .andExpect(jsonPath("$[2].reason").value("INVALID_REQUEST"));
+
+        verify(reservationService, times(3)).reserve(any(ReservationRequest.class));
+    }
+}
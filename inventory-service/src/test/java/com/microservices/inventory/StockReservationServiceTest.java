@@ -0,0 +1,417 @@
+package com.microservices.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import com.microservices.inventory.DTO.ReservationRequest;
+import com.microservices.inventory.DTO.ReservationResponse;
+import com.microservices.inventory.Model.Inventory;
+import com.microservices.inventory.Model.Location;
+import com.microservices.inventory.Model.ReservationStatus;
+import com.microservices.inventory.Repository.InventoryRepository;
+import com.microservices.inventory.Repository.StockReservationRepository;
+import com.microservices.inventory.Service.HotItemStockCounter;
+import com.microservices.inventory.Service.InventoryCacheEvictor;
+import com.microservices.inventory.Service.StockLedgerService;
+import com.microservices.inventory.Service.StockReservationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * StockReservationService için Test
+ * @DataJpaTest: Gerçek (in-memory) veritabanı ile kilitli sorgular ve transaction davranışı test edilir
+ */
+@DataJpaTest
+@ActiveProfiles("test")  // H2Dialect: FOR UPDATE sorguları H2 sözdizimiyle üretilsin
+@Import({StockReservationService.class, StockLedgerService.class, InventoryCacheEvictor.class,
+        HotItemStockCounter.class, ConcurrentMapCacheManager.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "inventory.hot-items.enabled=true",
+        "inventory.hot-items.product-ids=" + StockReservationServiceTest.HOT_PRODUCT_ID})
+class StockReservationServiceTest {
+    static final String HOT_PRODUCT_ID = "00000000-0000-0000-0000-00000000f1a5";
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HotItemStockCounter hotItemStockCounter;
+
+    private UUID productId1;
+    private UUID productId2;
+
+    @BeforeEach
+    void setUp() {
+        productId1 = UUID.randomUUID();
+        productId2 = UUID.randomUUID();
+        inventoryRepository.save(newInventory(productId1, 10));
+        inventoryRepository.save(newInventory(productId2, 5));
+    }
+
+    private Inventory newInventory(UUID productId, int quantity) {
+        Inventory inventory = new Inventory();
+        inventory.setProductId(productId);
+        inventory.setQuantity(quantity);
+        inventory.setReservedQuantity(0);
+        inventory.setMinStockLevel(0);
+        inventory.setLocation(Location.BESIKTAS);
+        return inventory;
+    }
+
+    private ReservationRequest request(UUID orderId, ReservationRequest.Item... items) {
+        return new ReservationRequest(orderId, List.of(items));
+    }
+
+    private ReservationRequest hold(UUID orderId, int holdSeconds, ReservationRequest.Item... items) {
+        ReservationRequest request = request(orderId, items);
+        request.setHoldSeconds(holdSeconds);
+        return request;
+    }
+
+    private int reservedOf(UUID productId) {
+        return inventoryRepository.findByProductId(productId).orElseThrow().getReservedQuantity();
+    }
+
+    @Test
+    void testReserveAllItems() {
+        // Given: İki kalemli sipariş
+        UUID orderId = UUID.randomUUID();
+
+        // When: Tek istekte rezerve ediliyor
+        ReservationResponse response = reservationService.reserve(request(orderId,
+                new ReservationRequest.Item(productId1, 3),
+                new ReservationRequest.Item(productId2, 2)));
+
+        // Then: Tüm kalemler rezerve edildi
+        assertTrue(response.isSuccess());
+        assertNotNull(response.getReservationId());
+        assertEquals(ReservationStatus.ACTIVE, response.getStatus());
+        assertEquals(3, reservedOf(productId1));
+        assertEquals(2, reservedOf(productId2));
+    }
+
+    @Test
+    void testReserveEvictsOnlyReservedProductKeysAfterCommit() {
+        // Given: iki ürün de cache'te
+        Cache cache = cacheManager.getCache("inventories");
+        UUID inventoryId1 = inventoryRepository.findByProductId(productId1).orElseThrow().getId();
+        cache.put("all", "list");
+        cache.put("product:" + productId1, "reserved");
+        cache.put(inventoryId1.toString(), "reserved");
+        cache.put("product:" + productId2, "untouched");
+
+        // When: sadece productId1 rezerve ediliyor
+        reservationService.reserve(request(UUID.randomUUID(), new ReservationRequest.Item(productId1, 1)));
+
+        // Then: commit öncesi silinmez (eşzamanlı okuma bayat değeri geri yazmasın)
+        assertNotNull(cache.get("product:" + productId1));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // Commit sonrası sadece dokunulan key'ler silindi
+        assertNull(cache.get("all"));
+        assertNull(cache.get("product:" + productId1));
+        assertNull(cache.get(inventoryId1.toString()));
+        assertNotNull(cache.get("product:" + productId2));
+    }
+
+    @Test
+    void testHotItemReservedAndReleasedThroughCounter() {
+        // Given: Hot item (flash sale) ürünü, sayaç yüklü
+        Inventory hot = inventoryRepository.save(newInventory(UUID.fromString(HOT_PRODUCT_ID), 4));
+        hotItemStockCounter.load(hot);
+        UUID orderId = UUID.randomUUID();
+
+        // When: Normal ürünle aynı siparişte rezerve ediliyor
+        ReservationResponse response = reservationService.reserve(request(orderId,
+                new ReservationRequest.Item(hot.getProductId(), 3),
+                new ReservationRequest.Item(productId1, 2)));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // Then: Hot kalem sayaçtan düştü, DB satırı flush'a kadar değişmedi
+        assertTrue(response.isSuccess());
+        assertEquals(1, hotItemStockCounter.getAvailable(hot.getId()));
+        assertEquals(Map.of(hot.getId(), 3L), hotItemStockCounter.pendingDeltas());
+        assertEquals(0, reservedOf(hot.getProductId()));
+        assertEquals(2, reservedOf(productId1));
+
+        // Sayaçta kalandan fazlası sipariş yolundan da rezerve edilemez
+        TestTransaction.start();
+        ReservationResponse oversized = reservationService.reserve(request(UUID.randomUUID(),
+                new ReservationRequest.Item(hot.getProductId(), 2)));
+        assertFalse(oversized.isSuccess());
+        assertEquals("INSUFFICIENT_STOCK", oversized.getReason());
+
+        // When: Flush'tan önce serbest bırakılıyor
+        reservationService.releaseAll(List.of(orderId));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // Then: Sayaçtan geri verildi, net delta 0 (DB'de 0'a sabitlenip kaybolmaz)
+        assertEquals(4, hotItemStockCounter.getAvailable(hot.getId()));
+        assertTrue(hotItemStockCounter.pendingDeltas().isEmpty());
+        assertEquals(0, reservedOf(hot.getProductId()));
+        assertEquals(0, reservedOf(productId1));
+    }
+
+    @Test
+    void testReserveIsAllOrNothing() {
+        // Given: İkinci kalem için stok yetersiz (5 var, 6 isteniyor)
+        UUID orderId = UUID.randomUUID();
+
+        // When
+        ReservationResponse response = reservationService.reserve(request(orderId,
+                new ReservationRequest.Item(productId1, 3),
+                new ReservationRequest.Item(productId2, 6)));
+
+        // Then: Hiçbir kalem rezerve edilmedi, rezervasyon kaydı oluşmadı
+        assertFalse(response.isSuccess());
+        assertEquals("INSUFFICIENT_STOCK", response.getReason());
+        assertEquals(List.of(productId2), response.getFailedProductIds());
+        assertEquals(0, reservedOf(productId1));
+        assertEquals(0, reservedOf(productId2));
+        assertTrue(reservationRepository.findByOrderId(orderId).isEmpty());
+    }
+
+    @Test
+    void testReserveUnknownProduct() {
+        // Given: Stok kaydı olmayan ürün
+        UUID unknownProductId = UUID.randomUUID();
+
+        // When
+        ReservationResponse response = reservationService.reserve(request(UUID.randomUUID(),
+                new ReservationRequest.Item(productId1, 1),
+                new ReservationRequest.Item(unknownProductId, 1)));
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals("INVENTORY_NOT_FOUND", response.getReason());
+        assertEquals(0, reservedOf(productId1));
+    }
+
+    @Test
+    void testReserveIsIdempotentPerOrder() {
+        // Given: Sipariş bir kez rezerve edildi
+        UUID orderId = UUID.randomUUID();
+        ReservationResponse first = reservationService.reserve(request(orderId,
+                new ReservationRequest.Item(productId1, 4)));
+
+        // When: Aynı sipariş tekrar gönderiliyor (retry)
+        ReservationResponse second = reservationService.reserve(request(orderId,
+                new ReservationRequest.Item(productId1, 4)));
+
+        // Then: Stok ikinci kez ayrılmadı, aynı rezervasyon döndü
+        assertTrue(second.isSuccess());
+        assertEquals(first.getReservationId(), second.getReservationId());
+        assertEquals(4, reservedOf(productId1));
+    }
+
+    @Test
+    void testReserveMergesDuplicateLines() {
+        // Given: Aynı ürün iki satırda
+        ReservationResponse response = reservationService.reserve(request(UUID.randomUUID(),
+                new ReservationRequest.Item(productId1, 2),
+                new ReservationRequest.Item(productId1, 3)));
+
+        // Then: Toplam miktar rezerve edildi
+        assertTrue(response.isSuccess());
+        assertEquals(5, reservedOf(productId1));
+    }
+
+    @Test
+    void testReleaseReservation() {
+        // Given: Aktif rezervasyon
+        UUID orderId = UUID.randomUUID();
+        reservationService.reserve(request(orderId,
+                new ReservationRequest.Item(productId1, 3),
+                new ReservationRequest.Item(productId2, 2)));
+
+        // When: Serbest bırakılıyor (iki kez - idempotent olmalı)
+        ReservationResponse response = reservationService.release(orderId);
+        reservationService.release(orderId);
+
+        // Then: Stoklar geri verildi, sadece bir kez
+        assertTrue(response.isSuccess());
+        assertEquals(ReservationStatus.RELEASED, response.getStatus());
+        assertEquals(0, reservedOf(productId1));
+        assertEquals(0, reservedOf(productId2));
+    }
+
+    @Test
+    void testReleaseWithoutReservation() {
+        // When: Rezervasyonu olmayan sipariş serbest bırakılıyor
+        ReservationResponse response = reservationService.release(UUID.randomUUID());
+
+        // Then: Exception değil, RESERVATION_NOT_FOUND sonucu döner
+        assertFalse(response.isSuccess());
+        assertEquals("RESERVATION_NOT_FOUND", response.getReason());
+    }
+
+    @Test
+    void testReleaseAllReleasesActiveReservationsOnce() {
+        // Given: İki aktif rezervasyon, biri zaten serbest bırakılmış
+        UUID orderId1 = UUID.randomUUID();
+        UUID orderId2 = UUID.randomUUID();
+        UUID released = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        reservationService.reserve(request(orderId1, new ReservationRequest.Item(productId1, 3)));
+        reservationService.reserve(request(orderId2,
+                new ReservationRequest.Item(productId1, 2),
+                new ReservationRequest.Item(productId2, 4)));
+        reservationService.reserve(request(released, new ReservationRequest.Item(productId2, 1)));
+        reservationService.release(released);
+
+        // When: Toplu serbest bırakma
+        List<ReservationResponse> responses = reservationService.releaseAll(List.of(orderId1, orderId2, released, unknown));
+
+        // Then: Sonuçlar istek sırasıyla; stoklar bir kez geri verildi
+        assertEquals(4, responses.size());
+        assertTrue(responses.get(0).isSuccess());
+        assertEquals(ReservationStatus.RELEASED, responses.get(1).getStatus());
+        assertTrue(responses.get(2).isSuccess());
+        assertFalse(responses.get(3).isSuccess());
+        assertEquals("RESERVATION_NOT_FOUND", responses.get(3).getReason());
+        assertEquals(0, reservedOf(productId1));
+        assertEquals(0, reservedOf(productId2));
+        assertEquals(ReservationStatus.RELEASED, reservationRepository.findByOrderId(orderId2).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testReserveInvalidQuantity() {
+        // When & Then: Pozitif olmayan miktar kabul edilmez
+        assertThrows(IllegalArgumentException.class, () -> reservationService.reserve(request(UUID.randomUUID(),
+                new ReservationRequest.Item(productId1, 0))));
+    }
+
+    @Test
+    void testExpireHoldsReleasesStock() {
+        // Given: İki sipariş için 60 saniyelik hold
+        UUID orderId1 = UUID.randomUUID();
+        UUID orderId2 = UUID.randomUUID();
+        reservationService.reserve(hold(orderId1, 60, new ReservationRequest.Item(productId1, 3)));
+        reservationService.reserve(hold(orderId2, 60,
+                new ReservationRequest.Item(productId1, 2),
+                new ReservationRequest.Item(productId2, 5)));
+        assertEquals(5, reservedOf(productId1));
+        assertEquals(5, reservedOf(productId2));
+
+        // When: Sweeper süre dolduktan sonra çalışıyor
+        int expired = reservationService.expireHolds(LocalDateTime.now().plusSeconds(61), 100);
+
+        // Then: İki hold da serbest bırakıldı, stoklar geri verildi
+        assertEquals(2, expired);
+        assertEquals(0, reservedOf(productId1));
+        assertEquals(0, reservedOf(productId2));
+        assertEquals(ReservationStatus.EXPIRED, reservationRepository.findByOrderId(orderId1).orElseThrow().getStatus());
+        assertEquals(ReservationStatus.EXPIRED, reservationRepository.findByOrderId(orderId2).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testExpireHoldsSkipsUnexpiredAndDurable() {
+        // Given: Süresi dolmamış bir hold ve kalıcı bir rezervasyon
+        reservationService.reserve(hold(UUID.randomUUID(), 600, new ReservationRequest.Item(productId1, 3)));
+        reservationService.reserve(request(UUID.randomUUID(), new ReservationRequest.Item(productId2, 2)));
+
+        // When
+        int expired = reservationService.expireHolds(LocalDateTime.now().plusSeconds(60), 100);
+
+        // Then: Hiçbiri serbest bırakılmadı
+        assertEquals(0, expired);
+        assertEquals(3, reservedOf(productId1));
+        assertEquals(2, reservedOf(productId2));
+    }
+
+    @Test
+    void testConfirmHoldMakesItDurable() {
+        // Given: Ödeme bekleyen sipariş için hold
+        UUID orderId = UUID.randomUUID();
+        ReservationResponse held = reservationService.reserve(hold(orderId, 60, new ReservationRequest.Item(productId1, 4)));
+        assertNotNull(held.getExpiresAt());
+
+        // When: Ödeme başarılı → holdSeconds olmadan tekrar rezerve (onay)
+        ReservationResponse confirmed = reservationService.reserve(request(orderId, new ReservationRequest.Item(productId1, 4)));
+        int expired = reservationService.expireHolds(LocalDateTime.now().plusSeconds(120), 100);
+
+        // Then: Aynı rezervasyon, stok bir kez ayrıldı, sweeper dokunmadı
+        assertEquals(held.getReservationId(), confirmed.getReservationId());
+        assertNull(confirmed.getExpiresAt());
+        assertEquals(0, expired);
+        assertEquals(4, reservedOf(productId1));
+    }
+
+    @Test
+    void testExpireHoldsRespectsBatchSize() {
+        // Given: Üç süresi dolacak hold
+        for (int i = 0; i < 3; i++) {
+            reservationService.reserve(hold(UUID.randomUUID(), 60, new ReservationRequest.Item(productId1, 1)));
+        }
+
+        // When: Batch boyutu 2
+        LocalDateTime later = LocalDateTime.now().plusSeconds(61);
+        int first = reservationService.expireHolds(later, 2);
+        int second = reservationService.expireHolds(later, 2);
+
+        // Then: İlk batch 2, ikinci batch kalan 1 hold'u serbest bıraktı
+        assertEquals(2, first);
+        assertEquals(1, second);
+        assertEquals(0, reservedOf(productId1));
+    }
+
+    @Test
+    void testReleaseAfterExpiryIsIdempotent() {
+        // Given: Süresi dolmuş hold
+        UUID orderId = UUID.randomUUID();
+        reservationService.reserve(hold(orderId, 60, new ReservationRequest.Item(productId1, 3)));
+        reservationService.expireHolds(LocalDateTime.now().plusSeconds(61), 100);
+
+        // When: Order Service geç kalmış release gönderiyor
+        ReservationResponse response = reservationService.release(orderId);
+
+        // Then: Stok ikinci kez geri verilmez
+        assertTrue(response.isSuccess());
+        assertEquals(ReservationStatus.EXPIRED, response.getStatus());
+        assertEquals(0, reservedOf(productId1));
+    }
+
+    @Test
+    void testReserveAfterExpiryReservesAgain() {
+        // Given: Süresi dolmuş hold
+        UUID orderId = UUID.randomUUID();
+        reservationService.reserve(hold(orderId, 60, new ReservationRequest.Item(productId1, 3)));
+        reservationService.expireHolds(LocalDateTime.now().plusSeconds(61), 100);
+
+        // When: Ödeme geç geldi → kalıcı rezervasyon isteniyor
+        ReservationResponse response = reservationService.reserve(request(orderId, new ReservationRequest.Item(productId1, 3)));
+
+        // Then: Stok tekrar ayrıldı
+        assertTrue(response.isSuccess());
+        assertEquals(ReservationStatus.ACTIVE, response.getStatus());
+        assertEquals(3, reservedOf(productId1));
+    }
+}
@@ -0,0 +1,90 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// Platform vs virtual thread comparison for order-service checkout (POST /orders)
+// Run once per mode against the same data set, then compare the two summary files:
+//   MODE=platform k6 run k6-order-threads.js
+//   MODE=virtual  k6 run k6-order-threads.js
+// Hits order-service directly (default :8083) so gateway limits do not mask the thread model.
+
+const MODE = __ENV.MODE || 'platform';
+const VUS = parseInt(__ENV.VUS || '500', 10);
+
+export const options = {
+  scenarios: {
+    checkout: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: __ENV.RAMP || '30s', target: VUS },
+        { duration: __ENV.HOLD || '3m', target: VUS },
+        { duration: '15s', target: 0 },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    // Reported for both modes; failures here mark the run, they do not stop it
+    checkout_duration: ['p(99)<3000'],
+    http_req_failed: ['rate<0.02'],
+  },
+};
+
+const BASE = __ENV.BASE_URL || 'http://localhost:8083';
+const HEADERS = {
+  Accept: 'application/json',
+  'Content-Type': 'application/json',
+};
+
+// Adjust IDs to real ones in your data set (product needs enough stock for the whole run)
+const USER_ID = __ENV.USER_ID || '00000000-0000-0000-0000-000000000001';
+const PRODUCT_ID = __ENV.PRODUCT_ID || '00000000-0000-0000-0000-000000000001';
+
+const checkoutDuration = new Trend('checkout_duration', true);
+const checkoutsCompleted = new Counter('checkouts_completed');
+
+export default function () {
+  const payload = JSON.stringify({
+    userId: USER_ID,
+    orderItems: [
+      {
+        productId: PRODUCT_ID,
+        quantity: 1,
+      },
+    ],
+    shippingAddress: 'Test Street',
+    city: 'Test City',
+    zipCode: '00000',
+    phoneNumber: '0000000000',
+  });
+
+  const res = http.post(`${BASE}/orders`, payload, { headers: HEADERS, tags: { mode: MODE } });
+  checkoutDuration.add(res.timings.duration);
+  const ok = check(res, {
+    'order create 201': (r) => r.status === 201,
+  });
+  if (ok) {
+    checkoutsCompleted.add(1);
+  }
+}
+
+export function handleSummary(data) {
+  const duration = data.metrics.checkout_duration.values;
+  const completed = data.metrics.checkouts_completed ? data.metrics.checkouts_completed.values : { count: 0, rate: 0 };
+  const result = {
+    mode: MODE,
+    vus: VUS,
+    checkouts: completed.count,
+    throughput_per_sec: Number(completed.rate.toFixed(2)),
+    p50_ms: Number(duration['p(50)'].toFixed(1)),
+    p95_ms: Number(duration['p(95)'].toFixed(1)),
+    p99_ms: Number(duration['p(99)'].toFixed(1)),
+    error_rate: Number(data.metrics.http_req_failed.values.rate.toFixed(4)),
+  };
+  return {
+    stdout: `\n[${MODE}] ${VUS} VUs: ${result.throughput_per_sec} checkouts/s, p99 ${result.p99_ms} ms, errors ${result.error_rate}\n`,
+    [`summary-${MODE}.json`]: JSON.stringify(result, null, 2),
+  };
+}
@@ -1,5 +1,7 @@
 package com.microservices.order.Client;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -39,6 +41,19 @@ public interface InventoryServiceClient {
     @GetMapping("/inventory/product/{productId}")
     InventoryResponse getInventoryByProductId(@PathVariable("productId") UUID productId);
     
+    /**
+     * Birden fazla ürün için stok bilgisi getir (batch)
+     * 
+     * @param productIds Ürün ID'leri
+     * @return Inventory listesi (stok kaydı olmayan ürünler listede yer almaz)
+     * 
+     * Kullanım:
+     * - Sipariş oluşturma, rezervasyon ve stok geri verme
+     * - N kalemli sepet için N ayrı istek yerine tek istek
+     */
+    @PostMapping("/inventory/product/batch")
+    List<InventoryResponse> getInventoriesByProductIds(@RequestBody List<UUID> productIds);
+
     /**
      * Kullanılabilir stok miktarını getir
      * 
@@ -80,33 +95,91 @@ public interface InventoryServiceClient {
      * Stok rezerve et
      * 
      * @param inventoryId Inventory ID'si
+     * @param productId Kaydın ürünü (Inventory Service ayrıca okumaz; kayıtla eşleşmezse 400)
      * @param quantity Rezerve edilecek miktar
-     * @return Güncellenmiş Inventory bilgisi
+     * @return Rezervasyon sonucu (success=false → yetersiz stok)
      * 
      * Kullanım:
      * - Sipariş onaylandığında stokları rezerve et
      * - Rezerve edilen stoklar başka siparişlerde kullanılamaz
+     * 
+     * Inventory Service bunu tek atomik UPDATE ile yapar (eşzamanlı siparişlerde güvenli)
      */
     @PatchMapping("/inventory/{inventoryId}/reserve")
-    InventoryResponse reserveStock(
+    StockReservationResponse reserveStock(
             @PathVariable("inventoryId") UUID inventoryId,
+            @org.springframework.web.bind.annotation.RequestParam("productId") UUID productId,
             @org.springframework.web.bind.annotation.RequestParam("quantity") Integer quantity);
     
     /**
      * Rezerve edilmiş stoku geri ver
      * 
      * @param inventoryId Inventory ID'si
+     * @param productId Kaydın ürünü (Inventory Service ayrıca okumaz)
      * @param quantity Geri verilecek miktar
-     * @return Güncellenmiş Inventory bilgisi
+     * @return Serbest bırakma sonucu (success=false → rezerve edilenden fazlası istendi)
      * 
      * Kullanım:
      * - Sipariş iptal edildiğinde stokları geri ver
      */
     @PatchMapping("/inventory/{inventoryId}/release")
-    InventoryResponse releaseReservedStock(
+    StockReservationResponse releaseReservedStock(
             @PathVariable("inventoryId") UUID inventoryId,
+            @org.springframework.web.bind.annotation.RequestParam("productId") UUID productId,
             @org.springframework.web.bind.annotation.RequestParam("quantity") Integer quantity);
     
+    /**
+     * Siparişin tüm kalemlerini tek istekte rezerve et (all-or-nothing)
+     * 
+     * @param request orderId + kalemler (productId, quantity)
+     * @return Rezervasyon sonucu (success=false → hiçbir kalem rezerve edilmedi)
+     * 
+     * Kullanım:
+     * - Sipariş onaylandığında / ödeme alındığında
+     * - Kalem başına ayrı reserveStock çağrısı yerine sipariş başına tek çağrı
+     * 
+     * Aynı orderId ile tekrar çağrılırsa stok ikinci kez ayrılmaz (idempotent)
+     * holdSeconds doluysa rezervasyon süreli hold'dur; holdSeconds olmadan tekrar çağrı onu kalıcı yapar
+     */
+    @PostMapping("/inventory/reservations")
+    ReservationResponse createReservation(@RequestBody ReservationRequest request);
+
+    /**
+     * Siparişin rezervasyonunu serbest bırak
+     * 
+     * @param orderId Sipariş ID'si
+     * @return Sonuç (reason=RESERVATION_NOT_FOUND → sipariş eski kalem bazlı akışla rezerve edilmiş)
+     * 
+     * Kullanım:
+     * - Sipariş iptal edildiğinde stokları geri ver
+     */
+    @PostMapping("/inventory/reservations/{orderId}/release")
+    ReservationResponse releaseReservation(@PathVariable("orderId") UUID orderId);
+
+    /**
+     * Birden fazla siparişi tek istekte rezerve et (her sipariş kendi içinde all-or-nothing)
+     * 
+     * @param requests Sipariş başına rezervasyon isteği
+     * @return İstek sırasıyla sipariş bazlı sonuçlar
+     * 
+     * Kullanım:
+     * - Toplu durum geçişi (PATCH /orders/status/bulk → CONFIRMED / PAYMENT_PENDING)
+     */
+    @PostMapping("/inventory/reservations/batch")
+    List<ReservationResponse> createReservations(@RequestBody List<ReservationRequest> requests);
+
+    /**
+     * Birden fazla siparişin rezervasyonunu tek istekte serbest bırak
+     * 
+     * @param orderIds Sipariş ID'leri
+     * @return İstek sırasıyla sipariş bazlı sonuçlar (RESERVATION_NOT_FOUND → kalem bazlı release gerekir)
+     * 
+     * Kullanım:
+     * - Toplu durum geçişi (PATCH /orders/status/bulk → CANCELLED / PAYMENT_FAILED / REFUNDED)
+     */
+    @PostMapping("/inventory/reservations/release/batch")
+    List<ReservationResponse> releaseReservations(@RequestBody List<UUID> orderIds);
+    
     /**
      * Inventory Response DTO
      */
@@ -169,5 +242,197 @@ public interface InventoryServiceClient {
         }
     }
     
-}
 
+    /**
+     * Stock Reservation Response DTO
+     * Rezerve/serbest bırakma işleminin sonucu
+     * Yetersiz stok HTTP hatası değil success=false olarak döner
+     */
+    class StockReservationResponse {
+        private UUID inventoryId;
+        private Integer quantity;
+        private boolean success;
+        private String reason;
+
+        // Getters and Setters
+        public UUID getInventoryId() {
+            return inventoryId;
+        }
+
+        public void setInventoryId(UUID inventoryId) {
+            this.inventoryId = inventoryId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * Reservation Request DTO
+     * Sipariş bazlı rezervasyon isteği
+     */
+    class ReservationRequest {
+        private UUID orderId;
+        private List<ReservationItem> items;
+        private Integer holdSeconds;  // null → kalıcı rezervasyon
+
+        public ReservationRequest() {
+        }
+
+        public ReservationRequest(UUID orderId, List<ReservationItem> items) {
+            this.orderId = orderId;
+            this.items = items;
+        }
+
+        // Getters and Setters
+        public UUID getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(UUID orderId) {
+            this.orderId = orderId;
+        }
+
+        public List<ReservationItem> getItems() {
+            return items;
+        }
+
+        public void setItems(List<ReservationItem> items) {
+            this.items = items;
+        }
+
+        public Integer getHoldSeconds() {
+            return holdSeconds;
+        }
+
+        public void setHoldSeconds(Integer holdSeconds) {
+            this.holdSeconds = holdSeconds;
+        }
+    }
+
+    /**
+     * Reservation Item DTO
+     */
+    class ReservationItem {
+        private UUID productId;
+        private Integer quantity;
+
+        public ReservationItem() {
+        }
+
+        public ReservationItem(UUID productId, Integer quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        // Getters and Setters
+        public UUID getProductId() {
+            return productId;
+        }
+
+        public void setProductId(UUID productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Reservation Response DTO
+     * Sipariş bazlı rezervasyonun sonucu
+     * Yetersiz stok HTTP hatası değil success=false olarak döner
+     */
+    class ReservationResponse {
+        private UUID reservationId;
+        private UUID orderId;
+        private String status;  // ACTIVE, RELEASED, EXPIRED
+        private LocalDateTime expiresAt;  // null → kalıcı rezervasyon
+        private boolean success;
+        private String reason;  // INSUFFICIENT_STOCK, INVENTORY_NOT_FOUND, RESERVATION_NOT_FOUND, UNAVAILABLE
+        private List<UUID> failedProductIds;
+
+        // Getters and Setters
+        public UUID getReservationId() {
+            return reservationId;
+        }
+
+        public void setReservationId(UUID reservationId) {
+            this.reservationId = reservationId;
+        }
+
+        public UUID getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(UUID orderId) {
+            this.orderId = orderId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+
+        public void setExpiresAt(LocalDateTime expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+
+        public List<UUID> getFailedProductIds() {
+            return failedProductIds;
+        }
+
+        public void setFailedProductIds(List<UUID> failedProductIds) {
+            this.failedProductIds = failedProductIds;
+        }
+    }
+}
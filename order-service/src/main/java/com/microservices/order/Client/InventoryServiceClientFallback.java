@@ -1,12 +1,17 @@
 package com.microservices.order.Client;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.stereotype.Component;
 
 import com.microservices.order.Client.InventoryServiceClient.InventoryResponse;
+import com.microservices.order.Client.InventoryServiceClient.ReservationRequest;
+import com.microservices.order.Client.InventoryServiceClient.ReservationResponse;
+import com.microservices.order.Client.InventoryServiceClient.StockReservationResponse;
 
 /**
  * Inventory Service Client Fallback
@@ -32,6 +37,16 @@ public class InventoryServiceClientFallback implements InventoryServiceClient {
         return fallbackResponse;
     }
 
+    @Override
+    public List<InventoryResponse> getInventoriesByProductIds(List<UUID> productIds) {
+        // Fallback: Her ürün için tekil fallback ile aynı default değerler (stok yok)
+        List<InventoryResponse> fallbackResponses = new ArrayList<>();
+        for (UUID productId : productIds) {
+            fallbackResponses.add(getInventoryByProductId(productId));
+        }
+        return fallbackResponses;
+    }
+
     @Override
     public Map<UUID, Boolean> checkStockAvailability(Map<UUID, Integer> request) {
         // Fallback: Tüm ürünler için stok yok döndür
@@ -47,30 +62,62 @@ public class InventoryServiceClientFallback implements InventoryServiceClient {
     }
 
     @Override
-    public InventoryResponse reserveStock(UUID inventoryId, Integer quantity) {
+    public StockReservationResponse reserveStock(UUID inventoryId, UUID productId, Integer quantity) {
         // Fallback: Stok rezerve edilemedi
-        InventoryResponse fallbackResponse = new InventoryResponse();
-        fallbackResponse.setId(inventoryId);
-        fallbackResponse.setQuantity(0);
-        fallbackResponse.setReservedQuantity(0);
-        fallbackResponse.setStatus("UNAVAILABLE");
-        
         System.err.println("Inventory Service Fallback: Cannot reserve stock for inventory " + inventoryId);
-        
-        return fallbackResponse;
+        return unavailableResult(inventoryId, quantity);
     }
 
     @Override
-    public InventoryResponse releaseReservedStock(UUID inventoryId, Integer quantity) {
+    public StockReservationResponse releaseReservedStock(UUID inventoryId, UUID productId, Integer quantity) {
         // Fallback: Rezerve stok geri verilemedi
-        InventoryResponse fallbackResponse = new InventoryResponse();
-        fallbackResponse.setId(inventoryId);
-        fallbackResponse.setQuantity(0);
-        fallbackResponse.setReservedQuantity(0);
-        fallbackResponse.setStatus("UNAVAILABLE");
-        
         System.err.println("Inventory Service Fallback: Cannot release stock for inventory " + inventoryId);
-        
+        return unavailableResult(inventoryId, quantity);
+    }
+
+    @Override
+    public ReservationResponse createReservation(ReservationRequest request) {
+        // Fallback: Sipariş rezervasyonu yapılamadı
+        System.err.println("Inventory Service Fallback: Cannot reserve stock for order " + request.getOrderId());
+        return unavailableReservation(request.getOrderId());
+    }
+
+    @Override
+    public ReservationResponse releaseReservation(UUID orderId) {
+        // Fallback: Sipariş rezervasyonu serbest bırakılamadı
+        System.err.println("Inventory Service Fallback: Cannot release reservation for order " + orderId);
+        return unavailableReservation(orderId);
+    }
+
+    @Override
+    public List<ReservationResponse> createReservations(List<ReservationRequest> requests) {
+        // Fallback: Toplu rezervasyon yapılamadı
+        System.err.println("Inventory Service Fallback: Cannot reserve stock for " + requests.size() + " orders");
+        return requests.stream().map(request -> unavailableReservation(request.getOrderId())).toList();
+    }
+
+    @Override
+    public List<ReservationResponse> releaseReservations(List<UUID> orderIds) {
+        // Fallback: Toplu serbest bırakma yapılamadı
+        System.err.println("Inventory Service Fallback: Cannot release reservations for " + orderIds.size() + " orders");
+        return orderIds.stream().map(this::unavailableReservation).toList();
+    }
+
+    private ReservationResponse unavailableReservation(UUID orderId) {
+        ReservationResponse fallbackResponse = new ReservationResponse();
+        fallbackResponse.setOrderId(orderId);
+        fallbackResponse.setSuccess(false);
+        fallbackResponse.setReason("UNAVAILABLE");
+        fallbackResponse.setFailedProductIds(new ArrayList<>());
+        return fallbackResponse;
+    }
+
+    private StockReservationResponse unavailableResult(UUID inventoryId, Integer quantity) {
+        StockReservationResponse fallbackResponse = new StockReservationResponse();
+        fallbackResponse.setInventoryId(inventoryId);
+        fallbackResponse.setQuantity(quantity);
+        fallbackResponse.setSuccess(false);
+        fallbackResponse.setReason("UNAVAILABLE");
         return fallbackResponse;
     }
 
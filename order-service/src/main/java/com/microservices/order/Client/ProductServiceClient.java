@@ -1,10 +1,13 @@
 package com.microservices.order.Client;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 /**
  * Product Service Client
@@ -48,6 +51,18 @@ public interface ProductServiceClient {
     @GetMapping("/products/{productId}")
     ProductResponse getProductById(@PathVariable("productId") UUID productId);
     
+    /**
+     * Birden fazla ürünün bilgisini tek istekte getir (batch)
+     * 
+     * @param productIds Ürün ID'leri
+     * @return Product listesi (bulunamayan ürünler listede yer almaz)
+     * 
+     * Sipariş oluştururken sepetteki her ürün için ayrı GET atmak yerine
+     * POST /products/batch ile tek çağrı yapılır
+     */
+    @PostMapping("/products/batch")
+    List<ProductResponse> getProductsByIds(@RequestBody List<UUID> productIds);
+
     /**
      * Product Response DTO
      * Product Service'den dönen response'u map etmek için
@@ -1,6 +1,8 @@
 package com.microservices.order.Client;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.stereotype.Component;
@@ -51,5 +53,17 @@ public class ProductServiceClientFallback implements ProductServiceClient {
         
         return fallbackResponse;
     }
-}
 
+    /**
+     * Batch lookup fallback'i
+     * Her ID için tekil fallback ile aynı default değerleri döndürür
+     */
+    @Override
+    public List<ProductResponse> getProductsByIds(List<UUID> productIds) {
+        List<ProductResponse> fallbackResponses = new ArrayList<>();
+        for (UUID productId : productIds) {
+            fallbackResponses.add(getProductById(productId));
+        }
+        return fallbackResponses;
+    }
+}
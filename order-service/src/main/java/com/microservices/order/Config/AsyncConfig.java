@@ -0,0 +1,105 @@
+package com.microservices.order.Config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Async Executor Configuration
+ *
+ * Sipariş oluşturma sırasında Product/Inventory Service çağrılarını
+ * paralel yapmak için kullanılan sınırlı (bounded) thread pool.
+ *
+ * Neden sınırlı?
+ * - Ani trafik artışında sınırsız thread açılıp servisleri boğmasın
+ * - Kuyruk dolarsa iş çağıran thread'de çalışır (CallerRunsPolicy),
+ *   böylece istek kaybolmaz sadece yavaşlar
+ *
+ * Virtual thread modu (spring.threads.virtual.enabled=true, JDK 21+):
+ * - Tomcat istekleri ve @Scheduled işler Spring Boot tarafından virtual thread'lerde çalışır
+ * - Feign çağrıları çağıran thread'de (bloklayarak) yapıldığı için o da virtual thread olur
+ * - orderEnrichmentExecutor pool yerine virtual thread açar, eşzamanlılık limiti korunur
+ * - JDK 17'de property açık olsa bile platform thread pool'ları kullanılır
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Order Enrichment Executor
+     * createOrder içindeki ürün/stok lookup'larını fan-out etmek için
+     *
+     * ContextPropagatingTaskDecorator: traceId/spanId gibi context'leri
+     * worker thread'lere taşır (Zipkin'de çağrılar aynı trace altında görünür)
+     */
+    @Bean(name = "orderEnrichmentExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor orderEnrichmentExecutor(
+            @Value("${order.enrichment.core-pool-size:16}") int corePoolSize,
+            @Value("${order.enrichment.max-pool-size:64}") int maxPoolSize,
+            @Value("${order.enrichment.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-enrich-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Order Enrichment Executor (virtual thread modu)
+     * Her lookup yeni bir virtual thread'de çalışır; bloklanan Feign çağrısı carrier thread'i tutmaz
+     *
+     * Kuyruk yoktur: limit (max-pool-size) dolunca çağıran thread bekler.
+     * Limit, Product/Inventory Service'e aynı anda giden istek sayısını platform moduyla aynı tutar.
+     */
+    @Bean(name = "orderEnrichmentExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor orderEnrichmentVirtualExecutor(
+            @Value("${order.enrichment.max-pool-size:64}") int maxConcurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-enrich-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrency);
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.setTaskTerminationTimeout(10_000);
+        return executor;
+    }
+
+    /**
+     * Order Checkout Executor
+     * POST /orders/async ile alınan siparişlerin doğrulama pipeline'ı için
+     *
+     * Kuyruk dolarsa iş reddedilir (AbortPolicy): sipariş zaten VALIDATING olarak kayıtlı,
+     * OrderCheckoutPipeline'ın recovery job'ı daha sonra tekrar kuyruğa verir.
+     * CallerRunsPolicy burada Tomcat thread'ini tutardı; asenkron endpoint'in amacı tam tersi.
+     */
+    @Bean(name = "orderCheckoutExecutor")
+    public Executor orderCheckoutExecutor(
+            @Value("${order.checkout.core-pool-size:8}") int corePoolSize,
+            @Value("${order.checkout.max-pool-size:32}") int maxPoolSize,
+            @Value("${order.checkout.queue-capacity:2000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-checkout-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
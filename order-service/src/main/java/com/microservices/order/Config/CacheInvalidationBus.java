@@ -0,0 +1,75 @@
+package com.microservices.order.Config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Cache Invalidation Bus
+ * L1 (Caffeine) invalidation mesajlarını Redis pub/sub ile instance'lar arasında dağıtır
+ *
+ * Mesaj formatı (tek satır): "<instanceId>|EVICT|<cache>|<key>" veya "<instanceId>|CLEAR|<cache>|"
+ * - instanceId: Kendi yayınladığımız mesajları tekrar işlememek için
+ * - key son alandır, içinde '|' olsa bile bölünmez
+ *
+ * Yayın başarısız olursa (Redis erişilemez) sadece loglanır; L1 TTL'i kısa olduğu için
+ * diğer instance'lar eski değeri en fazla TTL kadar görür.
+ */
+public class CacheInvalidationBus implements MessageListener {
+    public static final String CHANNEL = "order-service:cache-invalidation";
+
+    private static final String EVICT = "EVICT";
+    private static final String CLEAR = "CLEAR";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private TwoLevelCacheManager cacheManager;
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Gelen mesajların uygulanacağı cache manager
+     * (cache manager bus'a bağımlı olduğu için constructor yerine sonradan bağlanır)
+     */
+    void setCacheManager(TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(instanceId + "|" + EVICT + "|" + cacheName + "|" + key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(instanceId + "|" + CLEAR + "|" + cacheName + "|");
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            System.err.println("Error publishing cache invalidation: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || instanceId.equals(parts[0]) || cacheManager == null) {
+            return;
+        }
+        TwoLevelCache cache = cacheManager.getExistingCache(parts[2]);
+        if (cache == null) {
+            return;  // Bu instance'ta henüz oluşturulmamış cache → L1'de bir şey yok
+        }
+        if (CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else if (EVICT.equals(parts[1])) {
+            cache.evictLocal(parts[3]);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.microservices.order.Config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -28,6 +31,9 @@ import java.util.Map;
  * Queue'lar:
  * - order.created: Sipariş oluşturulduğunda gönderilir
  * - order.status.changed: Sipariş durumu değiştiğinde gönderilir
+ * 
+ * Dinlenen (Inventory Service'in) exchange:
+ * - inventory.events.exchange: StockLevelChanged event'leri, instance başına anonim queue ile
  */
 @Configuration
 public class RabbitMQConfig {
@@ -47,6 +53,10 @@ public class RabbitMQConfig {
     public static final String ORDER_CREATED_DLQ = "order.created.dlq";
     public static final String ORDER_STATUS_CHANGED_DLQ = "order.status.changed.dlq";
 
+    // Inventory Service exchange'i (Inventory Service ile aynı olmalı)
+    public static final String INVENTORY_EXCHANGE = "inventory.events.exchange";
+    public static final String ROUTING_KEY_STOCK_LEVEL_CHANGED = "inventory.stock.changed.key";
+
     /**
      * Order Created Queue
      * Sipariş oluşturulduğunda mesaj gönderilir
@@ -132,6 +142,33 @@ public class RabbitMQConfig {
                              .with(ROUTING_KEY_DLQ);
     }
 
+    /**
+     * Inventory Events Exchange
+     * Inventory Service ile aynı tanım (hangi servis önce açılırsa declare eder)
+     */
+    @Bean
+    public TopicExchange inventoryExchange() {
+        return new TopicExchange(INVENTORY_EXCHANGE, true, false);
+    }
+
+    /**
+     * Stok değişiklikleri queue'su (InventoryAvailabilityReplica)
+     * Anonim (exclusive, auto-delete): her instance tüm event'lerin bir kopyasını alır,
+     * instance kapanınca queue silinir; replika açılışta zaten boş başlar
+     */
+    @Bean
+    public Queue inventoryStockLevelQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("order.inventory.stock."));
+    }
+
+    @Bean
+    public Binding inventoryStockLevelBinding(@Qualifier("inventoryStockLevelQueue") Queue inventoryStockLevelQueue,
+                                              TopicExchange inventoryExchange) {
+        return BindingBuilder.bind(inventoryStockLevelQueue)
+                             .to(inventoryExchange)
+                             .with(ROUTING_KEY_STOCK_LEVEL_CHANGED);
+    }
+
     /**
      * Jackson2JsonMessageConverter
      * Java objelerini JSON'a, JSON'ı Java objelerine çevirir
@@ -148,11 +185,13 @@ public class RabbitMQConfig {
      * RabbitTemplate
      * Mesaj göndermek için kullanılır
      * JSON formatında mesaj göndermek için Jackson2JsonMessageConverter kullanılır
+     * mandatory: Hiçbir kuyruğa yönlendirilemeyen mesaj geri döner (OrderOutboxRelay başarısız sayar)
      */
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, Jackson2JsonMessageConverter jsonMessageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(jsonMessageConverter);
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 }
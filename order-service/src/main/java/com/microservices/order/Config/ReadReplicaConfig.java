@@ -0,0 +1,81 @@
+package com.microservices.order.Config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read Replica Configuration
+ * order.datasource.replica.enabled=true iken iki connection pool tanımlar:
+ *
+ * - primary: spring.datasource.* (+ spring.datasource.hikari.*) → yazmalar, durum geçişleri, checkout
+ * - replica: order.datasource.replica.* (+ order.datasource.replica.hikari.*) → raporlama/listeleme
+ *
+ * Uygulamanın DataSource'u (JPA, Flyway) routing DataSource'tur:
+ * LazyConnectionDataSourceProxy → ReplicaRoutingDataSource → primary | replica
+ * Flyway ve transaction dışı işler primary'ye gider.
+ *
+ * Kapalıyken (varsayılan) Spring Boot'un tek DataSource'u kullanılır.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("order.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${order.datasource.replica.url}") String url,
+            @Value("${order.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${order.datasource.replica.password:${spring.datasource.password}}") String password) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            ReplicaRoutingDataSource replicaRoutingDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${order.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+            @Value("${order.datasource.replica.lag-query}") String lagQuery) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, replicaDataSource, meterRegistry, maxLagMs, lagQuery);
+    }
+}
@@ -1,5 +1,7 @@
 package com.microservices.order.Config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -7,24 +9,79 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.time.Duration;
 
 /**
  * Redis Cache Configuration
  * Spring Cache abstraction ile Redis kullanarak caching yapılandırması
+ *
+ * order.cache.l1.enabled=true (varsayılan): Caffeine L1 + Redis L2 (TwoLevelCacheManager)
+ * - Sık okunan sipariş detayları heap'ten döner, Redis round trip + JSON deserialization yapılmaz
+ * - @CacheEvict → Redis pub/sub ile diğer instance'ların L1'i de temizlenir
+ * order.cache.l1.enabled=false: Sadece Redis (önceki davranış)
+ *
+ * Liste/detay key'lerinin hedefli silinmesi: OrderCacheInvalidator (Redis set tag index)
  */
 @Configuration
 @EnableCaching
 public class RedisCacheConfig {
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    @ConditionalOnProperty(name = "order.cache.l1.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager cacheManager(
+            RedisConnectionFactory redisConnectionFactory,
+            CacheInvalidationBus cacheInvalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${order.cache.ttl-minutes:30}") long ttlMinutes,
+            @Value("${order.cache.l1.ttl-seconds:10}") long l1TtlSeconds,
+            @Value("${order.cache.l1.max-size:10000}") long l1MaxSize) {
+        RedisCacheManager redisCacheManager = redisCacheManager(redisConnectionFactory, ttlMinutes);
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(
+                redisCacheManager, cacheInvalidationBus, meterRegistry, Duration.ofSeconds(l1TtlSeconds), l1MaxSize);
+    }
+
+    @Bean(name = "cacheManager")
+    @ConditionalOnProperty(name = "order.cache.l1.enabled", havingValue = "false")
+    public CacheManager redisOnlyCacheManager(
+            RedisConnectionFactory redisConnectionFactory,
+            @Value("${order.cache.ttl-minutes:30}") long ttlMinutes) {
+        return redisCacheManager(redisConnectionFactory, ttlMinutes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.cache.l1.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate stringRedisTemplate) {
+        return new CacheInvalidationBus(stringRedisTemplate);
+    }
+
+    /**
+     * L1 invalidation mesajlarını dinleyen container
+     * Redis bağlantısı koparsa container kendi recovery mekanizmasıyla yeniden abone olur
+     */
+    @Bean
+    @ConditionalOnProperty(name = "order.cache.l1.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory, long ttlMinutes) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(5))  // Cache TTL: 5 dakika (siparişler daha sık değişir)
+                .entryTtl(Duration.ofMinutes(ttlMinutes))  // Değişiklikler OrderCacheInvalidator ile hedefli silindiği için TTL uzun tutulabilir
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
                 .disableCachingNullValues();
@@ -34,4 +91,3 @@ public class RedisCacheConfig {
                 .build();
     }
 }
-
@@ -0,0 +1,39 @@
+package com.microservices.order.Config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Relay Destination Interceptor
+ * Client'tan gelen SUBSCRIBE/SEND adreslerini RabbitMQ STOMP formuna çevirir
+ *
+ * Broker'dan dönen MESSAGE frame'leri subscription id ile eşleştiği için
+ * client'ın subscribe olduğu adres değişmeden çalışır.
+ */
+public class RelayDestinationInterceptor implements ChannelInterceptor {
+    private final StompDestinations destinations;
+
+    public RelayDestinationInterceptor(StompDestinations destinations) {
+        this.destinations = destinations;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        StompCommand command = accessor.getCommand();
+        if (command != StompCommand.SUBSCRIBE && command != StompCommand.SEND) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        String brokerDestination = destinations.toBroker(destination);
+        if (brokerDestination == null || brokerDestination.equals(destination)) {
+            return message;
+        }
+        accessor.setDestination(brokerDestination);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,76 @@
+package com.microservices.order.Config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replica Lag Monitor
+ * Replica'nın primary'nin ne kadar gerisinde olduğunu periyodik olarak ölçer
+ *
+ * - Gecikme order.datasource.replica.max-lag-ms üstündeyse okumalar primary'ye döner
+ * - Ölçüm başarısızsa (replica kapalı, query hatası) replica kullanılmaz
+ * - Başlangıçta ilk ölçüme kadar replica kullanılmaz
+ *
+ * Lag query'si ms cinsinden tek bir sayı döner (order.datasource.replica.lag-query);
+ * varsayılan PostgreSQL streaming replica için, testlerde in-process stand-in ile değiştirilebilir.
+ *
+ * Metrikler:
+ * - orders.datasource.replica.lag (ms, son ölçüm; ölçülemezse -1)
+ * - orders.datasource.replica.available (1/0)
+ */
+public class ReplicaLagMonitor {
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+    private final String lagQuery;
+    private final AtomicLong lastLagMs = new AtomicLong(-1);
+
+    public ReplicaLagMonitor(
+            ReplicaRoutingDataSource routingDataSource,
+            DataSource replicaDataSource,
+            MeterRegistry meterRegistry,
+            long maxLagMs,
+            String lagQuery) {
+        this.routingDataSource = routingDataSource;
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaJdbcTemplate.setQueryTimeout(2);
+        this.maxLagMs = maxLagMs;
+        this.lagQuery = lagQuery;
+        Gauge.builder("orders.datasource.replica.lag", lastLagMs, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("orders.datasource.replica.available", routingDataSource, ds -> ds.isReplicaAvailable() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.datasource.replica.lag-check-interval-ms:5000}",
+               initialDelayString = "${order.datasource.replica.lag-check-initial-delay-ms:0}")
+    public void check() {
+        boolean wasAvailable = routingDataSource.isReplicaAvailable();
+        boolean available;
+        try {
+            Number lag = replicaJdbcTemplate.queryForObject(lagQuery, Number.class);
+            long lagMs = lag != null ? lag.longValue() : 0;
+            lastLagMs.set(lagMs);
+            available = lagMs <= maxLagMs;
+        } catch (RuntimeException e) {
+            lastLagMs.set(-1);
+            available = false;
+            if (wasAvailable) {
+                System.err.println("Replica lag check failed, routing reads to primary: " + e.getMessage());
+            }
+        }
+        if (available != wasAvailable) {
+            System.err.println("Order read replica " + (available ? "enabled" : "disabled")
+                    + " (lag " + lastLagMs.get() + " ms, max " + maxLagMs + " ms)");
+        }
+        routingDataSource.setReplicaAvailable(available);
+    }
+}
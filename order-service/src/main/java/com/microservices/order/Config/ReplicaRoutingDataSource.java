@@ -0,0 +1,72 @@
+package com.microservices.order.Config;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Replica Routing DataSource
+ * @Transactional(readOnly = true) çağrıları replica'ya, diğer her şeyi primary'ye yönlendirir
+ *
+ * Karar connection alınırken verilir; bu yüzden LazyConnectionDataSourceProxy arkasında kullanılır
+ * (transaction read-only bayrağı set edildikten sonra, ilk SQL'de connection alınır).
+ *
+ * Replica'ya gidilmeyen durumlar:
+ * - Transaction read-only değil (durum geçişleri, checkout, outbox)
+ * - Replica gecikmesi tolerans üstünde veya ölçülemiyor (ReplicaLagMonitor)
+ * - onPrimary(...) içinde (cache'e yazılacak veri gibi güncel olması gereken okumalar)
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private volatile boolean replicaAvailable;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Read-only transaction içinde olsa bile primary'den oku
+     * Transaction'ın ilk SQL'inden önce çağrılmalıdır (connection bir kez alınır)
+     */
+    public static <T> T onPrimary(Supplier<T> query) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    void setReplicaAvailable(boolean replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaAvailable
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && FORCE_PRIMARY.get() == null) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,68 @@
+package com.microservices.order.Config;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * STOMP Destinations
+ * Sipariş WebSocket topic'lerinin adları ve broker'a göre yazımı
+ *
+ * Client'lar her iki modda da aynı adreslere subscribe olur:
+ * - /topic/order-updates/{orderId}
+ * - /topic/user-orders/{userId} (her zaman tek OrderStatusUpdate)
+ * - /topic/user-order-batches/{userId} (her zaman OrderStatusUpdateBatch)
+ *
+ * Relay modunda (RabbitMQ STOMP) routing key içinde '/' kullanılamaz:
+ * /topic/user-orders/{userId} → /topic/user-orders.{userId}
+ * Dönüşüm sunucu tarafında yapılır (RelayDestinationInterceptor), client kodu değişmez.
+ */
+@Component
+public class StompDestinations {
+    public static final String SIMPLE = "simple";
+    public static final String RELAY = "relay";
+
+    private static final String[] BROKER_PREFIXES = {"/topic/", "/queue/"};
+
+    private final boolean relay;
+
+    public StompDestinations(@Value("${order.websocket.broker:simple}") String broker) {
+        if (!SIMPLE.equals(broker) && !RELAY.equals(broker)) {
+            throw new IllegalArgumentException(
+                "order.websocket.broker must be '" + SIMPLE + "' or '" + RELAY + "', was '" + broker + "'");
+        }
+        this.relay = RELAY.equals(broker);
+    }
+
+    public boolean isRelay() {
+        return relay;
+    }
+
+    public String orderUpdates(UUID orderId) {
+        return toBroker("/topic/order-updates/" + orderId);
+    }
+
+    public String userOrders(UUID userId) {
+        return toBroker("/topic/user-orders/" + userId);
+    }
+
+    public String userOrderBatches(UUID userId) {
+        return toBroker("/topic/user-order-batches/" + userId);
+    }
+
+    /**
+     * Client adresini broker'ın kabul ettiği forma çevir (simple modda aynen döner)
+     */
+    public String toBroker(String destination) {
+        if (!relay || destination == null) {
+            return destination;
+        }
+        for (String prefix : BROKER_PREFIXES) {
+            if (destination.startsWith(prefix)) {
+                return prefix + destination.substring(prefix.length()).replace('/', '.');
+            }
+        }
+        return destination;
+    }
+}
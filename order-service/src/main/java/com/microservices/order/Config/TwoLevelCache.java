@@ -0,0 +1,159 @@
+package com.microservices.order.Config;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Two Level Cache
+ * In-process Caffeine (L1) + Redis (L2) katmanlı cache
+ *
+ * Okuma: L1 → (yoksa) L2 → (yoksa) metodu çalıştır; L2'den gelen değer L1'e de yazılır
+ * Yazma: Önce L2, sonra L1
+ * Silme: L2 + L1 silinir ve diğer instance'ların L1'i için CacheInvalidationBus'a yayınlanır
+ *
+ * L1 kısa TTL'lidir: pub/sub mesajı kaçırılırsa bile eski değer en fazla TTL kadar görülür.
+ * L1 key'leri String'dir (RedisCache de key'leri String'e çevirir; invalidation mesajları String taşır).
+ *
+ * Metrikler (tag: cache):
+ * - orders.cache.gets (level=l1|l2, result=hit|miss)
+ * - orders.cache.l2.latency: Redis okuma süresi
+ */
+public class TwoLevelCache implements Cache {
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+    private final Cache remoteCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Timer l2Latency;
+
+    public TwoLevelCache(
+            String name,
+            com.github.benmanes.caffeine.cache.Cache<String, Object> localCache,
+            Cache remoteCache,
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationBus = invalidationBus;
+        this.l1Hits = meterRegistry.counter("orders.cache.gets", "cache", name, "level", "l1", "result", "hit");
+        this.l1Misses = meterRegistry.counter("orders.cache.gets", "cache", name, "level", "l1", "result", "miss");
+        this.l2Hits = meterRegistry.counter("orders.cache.gets", "cache", name, "level", "l2", "result", "hit");
+        this.l2Misses = meterRegistry.counter("orders.cache.gets", "cache", name, "level", "l2", "result", "miss");
+        this.l2Latency = Timer.builder("orders.cache.l2.latency").tag("cache", name).register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(local);
+        }
+        l1Misses.increment();
+
+        ValueWrapper remote = l2Latency.record(() -> remoteCache.get(key));
+        if (remote == null || remote.get() == null) {
+            l2Misses.increment();
+            return remote;
+        }
+        l2Hits.increment();
+        localCache.put(localKey, remote.get());
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            return (T) wrapper.get();
+        }
+        // L2 kendi senkronizasyonunu yapar (sync=true); yüklenen değer L1'e de yazılır
+        T value = remoteCache.get(key, valueLoader);
+        if (value != null) {
+            localCache.put(localKey(key), value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        if (value != null) {
+            localCache.put(localKey(key), value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        localCache.invalidate(localKey(key));
+        invalidationBus.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remoteCache.evictIfPresent(key);
+        localCache.invalidate(localKey(key));
+        invalidationBus.publishEvict(name, localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        invalidationBus.publishClear(name);
+    }
+
+    /**
+     * Sadece bu instance'ın L1'inden sil (diğer instance'lardan gelen invalidation mesajları için)
+     */
+    public void evictLocal(String key) {
+        localCache.invalidate(key);
+    }
+
+    /**
+     * Sadece bu instance'ın L1'ini temizle
+     */
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    private String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
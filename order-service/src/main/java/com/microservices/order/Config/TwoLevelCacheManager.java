@@ -0,0 +1,73 @@
+package com.microservices.order.Config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Two Level Cache Manager
+ * Her cache için Caffeine L1 + Redis L2'den oluşan TwoLevelCache üretir
+ *
+ * - L2: Mevcut RedisCacheManager (TTL, serializer ayarları aynen geçerli)
+ * - L1: Cache başına ayrı Caffeine (expireAfterWrite + maximumSize)
+ * - Caffeine istatistikleri CaffeineCacheMetrics ile Micrometer'a bağlanır (cache.size, cache.evictions, ...)
+ */
+public class TwoLevelCacheManager implements CacheManager {
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+    private final Duration localTtl;
+    private final long localMaxSize;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(
+            CacheManager remoteCacheManager,
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            Duration localTtl,
+            long localMaxSize) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+        this.localTtl = localTtl;
+        this.localMaxSize = localMaxSize;
+        invalidationBus.setCacheManager(this);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    /**
+     * Sadece oluşturulmuş cache'i döner (invalidation mesajları yeni cache oluşturmasın)
+     */
+    TwoLevelCache getExistingCache(String name) {
+        return caches.get(name);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                .expireAfterWrite(localTtl)
+                .maximumSize(localMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, name + ".l1");
+        return new TwoLevelCache(name, localCache, remoteCache, invalidationBus, meterRegistry);
+    }
+}
@@ -1,6 +1,8 @@
 package com.microservices.order.Config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -14,10 +16,36 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * - Client'lar /ws endpoint'ine bağlanır
  * - Server /topic/order-updates/{orderId} topic'ine mesaj gönderir
  * - Client'lar bu topic'i subscribe eder
+ *
+ * Broker seçimi (order.websocket.broker):
+ * - simple: In-memory broker (tek instance, local geliştirme). Mesaj sadece socket'in bağlı olduğu pod'a ulaşır
+ * - relay: RabbitMQ STOMP plugin'ine relay. Herhangi bir pod'un gönderdiği update
+ *   tüm pod'lardaki subscriber'lara ulaşır (order-service yatay ölçeklenebilir)
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final StompDestinations destinations;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final String relayVirtualHost;
+
+    public WebSocketConfig(
+            StompDestinations destinations,
+            @Value("${order.websocket.relay.host:localhost}") String relayHost,
+            @Value("${order.websocket.relay.port:61613}") int relayPort,
+            @Value("${order.websocket.relay.login:guest}") String relayLogin,
+            @Value("${order.websocket.relay.passcode:guest}") String relayPasscode,
+            @Value("${order.websocket.relay.virtual-host:/}") String relayVirtualHost) {
+        this.destinations = destinations;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.relayVirtualHost = relayVirtualHost;
+    }
 
     /**
      * Message Broker Configuration
@@ -26,15 +54,38 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple broker (in-memory message broker)
-        // Production'da RabbitMQ veya Redis kullanılabilir
-        config.enableSimpleBroker("/topic", "/queue");
+        if (destinations.isRelay()) {
+            // RabbitMQ STOMP relay: client ve system bağlantıları aynı kullanıcıyla açılır
+            // Broker'a erişilemezse Spring yeniden bağlanmayı dener; bu sürede push'lar kaybolur
+            // (sipariş durumu GET /orders/{id} ile her zaman okunabilir)
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setVirtualHost(relayVirtualHost);
+        } else {
+            // Enable simple broker (in-memory message broker)
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         
         // Application destination prefix
         // Client'lar /app prefix'i ile mesaj gönderir
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    /**
+     * Relay modunda client adreslerini RabbitMQ formuna çevir
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (destinations.isRelay()) {
+            registration.interceptors(new RelayDestinationInterceptor(destinations));
+        }
+    }
+
     /**
      * STOMP Endpoint Registration
      * Client'lar bu endpoint'e bağlanır
@@ -48,4 +99,3 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();  // SockJS fallback (WebSocket desteklemeyen browser'lar için)
     }
 }
-
@@ -1,6 +1,6 @@
 package com.microservices.order.Controller;
 
-import java.util.List;
+import java.net.URI;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
@@ -12,12 +12,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.microservices.order.DTO.BulkStatusUpdateRequest;
+import com.microservices.order.DTO.BulkStatusUpdateResult;
+import com.microservices.order.DTO.OrderAccepted;
+import com.microservices.order.DTO.OrderSummaryPage;
 import com.microservices.order.Model.Order;
 import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Service.OrderBulkStatusService;
+import com.microservices.order.Service.OrderCheckoutPipeline;
+import com.microservices.order.Service.OrderIdempotencyService;
 import com.microservices.order.Service.OrderService;
 
 /**
@@ -26,28 +34,46 @@ import com.microservices.order.Service.OrderService;
  * 
  * Önemli Endpoint'ler:
  * - POST /orders → Yeni sipariş oluştur
+ * - POST /orders/async → Siparişi kabul et (202), doğrulama arka planda
  * - GET /orders/{id} → Sipariş detayı
  * - GET /orders/user/{userId} → Kullanıcının siparişleri
  * - PATCH /orders/{id}/status → Sipariş durumu güncelle
+ * - PATCH /orders/status/bulk → Çok sayıda siparişin durumunu toplu güncelle
  * - PATCH /orders/{id}/cancel → Sipariş iptal et
+ * 
+ * Listeleme endpoint'leri keyset (cursor) sayfalıdır ve OrderSummary döner:
+ * - ?limit=20 (1-100), ?cursor=<önceki sayfanın nextCursor'ı>
+ * - Kalemler dahil değildir; detay için GET /orders/{id}
  */
 @RestController
 @RequestMapping("/orders")  // Gateway zaten /api/orders/** alıyor
 public class OrderController {
     private final OrderService orderService;
+    private final OrderIdempotencyService idempotencyService;
+    private final OrderCheckoutPipeline checkoutPipeline;
+    private final OrderBulkStatusService bulkStatusService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(
+            OrderService orderService,
+            OrderIdempotencyService idempotencyService,
+            OrderCheckoutPipeline checkoutPipeline,
+            OrderBulkStatusService bulkStatusService) {
         this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
+        this.checkoutPipeline = checkoutPipeline;
+        this.bulkStatusService = bulkStatusService;
     }
 
     /**
      * Tüm siparişleri getir
-     * GET /orders
+     * GET /orders?limit=20&cursor=...
      * Admin paneli için kullanılır
      */
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
+    public ResponseEntity<OrderSummaryPage> getAllOrders(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        OrderSummaryPage orders = orderService.getAllOrders(cursor, limit);
         return ResponseEntity.ok(orders);
     }
 
@@ -63,34 +89,42 @@ public class OrderController {
 
     /**
      * User ID'ye göre siparişleri getir
-     * GET /orders/user/{userId}
-     * Kullanıcının tüm siparişlerini listeler
+     * GET /orders/user/{userId}?limit=20&cursor=...
+     * Kullanıcının siparişlerini en yeni önce listeler
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable("userId") UUID userId) {
-        List<Order> orders = orderService.getOrdersByUserId(userId);
+    public ResponseEntity<OrderSummaryPage> getOrdersByUserId(
+            @PathVariable("userId") UUID userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        OrderSummaryPage orders = orderService.getOrdersByUserId(userId, cursor, limit);
         return ResponseEntity.ok(orders);
     }
 
     /**
      * Sipariş durumuna göre filtrele
-     * GET /orders/status?status=PENDING
+     * GET /orders/status?status=PENDING&limit=20&cursor=...
      */
     @GetMapping("/status")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@RequestParam("status") OrderStatus status) {
-        List<Order> orders = orderService.getOrdersByStatus(status);
+    public ResponseEntity<OrderSummaryPage> getOrdersByStatus(
+            @RequestParam("status") OrderStatus status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        OrderSummaryPage orders = orderService.getOrdersByStatus(status, cursor, limit);
         return ResponseEntity.ok(orders);
     }
 
     /**
      * Kullanıcının belirli durumdaki siparişlerini getir
-     * GET /orders/user/{userId}/status?status=DELIVERED
+     * GET /orders/user/{userId}/status?status=DELIVERED&limit=20&cursor=...
      */
     @GetMapping("/user/{userId}/status")
-    public ResponseEntity<List<Order>> getOrdersByUserIdAndStatus(
+    public ResponseEntity<OrderSummaryPage> getOrdersByUserIdAndStatus(
             @PathVariable("userId") UUID userId,
-            @RequestParam("status") OrderStatus status) {
-        List<Order> orders = orderService.getOrdersByUserIdAndStatus(userId, status);
+            @RequestParam("status") OrderStatus status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        OrderSummaryPage orders = orderService.getOrdersByUserIdAndStatus(userId, status, cursor, limit);
         return ResponseEntity.ok(orders);
     }
 
@@ -115,11 +149,46 @@ public class OrderController {
      *     }
      *   ]
      * }
+     * 
+     * Idempotency-Key header'ı (opsiyonel, önerilir):
+     * - Aynı key ile tekrar gelen istek yeni sipariş oluşturmaz, ilk siparişi döner
+     *   (201 + Idempotent-Replayed: true)
+     * - İlk istek hâlâ işleniyorsa 409, key farklı içerikle kullanılırsa 400
      */
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
-        Order createdOrder = orderService.createOrder(order);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+    public ResponseEntity<Order> createOrder(
+            @RequestBody Order order,
+            @RequestHeader(value = OrderIdempotencyService.HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            Order createdOrder = orderService.createOrder(order);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+        }
+        OrderIdempotencyService.Result result = idempotencyService.createOrder(order, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(result.isReplayed()))
+                .body(result.getOrder());
+    }
+
+    /**
+     * Yeni sipariş oluştur (asenkron)
+     * POST /orders/async
+     * 
+     * Payload doğrulanır, sipariş PENDING + checkoutStatus=VALIDATING olarak kaydedilir ve
+     * 202 Accepted döner. User/Product/Inventory doğrulaması arka planda yapılır; sonuç
+     * /topic/user-orders/{userId} ve /topic/order-updates/{orderId} üzerinden push edilir
+     * (checkoutStatus COMPLETED veya REJECTED, GET /orders/{id} ile de takip edilebilir).
+     * 
+     * Senkron endpoint'ten farkları:
+     * - shippingAddress, city, zipCode, phoneNumber zorunludur (default adres kullanılmaz)
+     * - Fiyatlar her zaman Product Service'ten alınır
+     */
+    @PostMapping("/async")
+    public ResponseEntity<OrderAccepted> createOrderAsync(@RequestBody Order order) {
+        Order accepted = checkoutPipeline.submit(order);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/orders/" + accepted.getId()))
+                .body(new OrderAccepted(
+                        accepted.getId(), accepted.getUserId(), accepted.getStatus(), accepted.getCheckoutStatus()));
     }
 
     /**
@@ -153,6 +222,18 @@ public class OrderController {
         return ResponseEntity.ok(updatedOrder);
     }
 
+    /**
+     * Toplu sipariş durumu güncelle
+     * PATCH /orders/status/bulk
+     * Body: {"orderIds": [...], "status": "SHIPPED"}
+     * Geçersiz geçişler / bulunamayan siparişler failed içinde döner, diğerleri güncellenir
+     */
+    @PatchMapping("/status/bulk")
+    public ResponseEntity<BulkStatusUpdateResult> updateOrderStatusBulk(@RequestBody BulkStatusUpdateRequest request) {
+        BulkStatusUpdateResult result = bulkStatusService.updateStatus(request.getOrderIds(), request.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Sipariş iptal et
      * PATCH /orders/{id}/cancel
@@ -7,7 +7,9 @@ import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
+import com.microservices.order.Config.StompDestinations;
 import com.microservices.order.DTO.OrderStatusUpdate;
+import com.microservices.order.DTO.OrderStatusUpdateBatch;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,6 +26,7 @@ import lombok.RequiredArgsConstructor;
 public class OrderWebSocketController {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final StompDestinations destinations;
 
     /**
      * Order status update mesajını broadcast et
@@ -47,10 +50,8 @@ public class OrderWebSocketController {
     public void sendOrderStatusUpdate(UUID orderId, OrderStatusUpdate update) {
         // Belirli sipariş için topic'e mesaj gönder
         // Client: /topic/order-updates/{orderId} subscribe eder
-        messagingTemplate.convertAndSend("/topic/order-updates/" + orderId, update);
-        
-        // Ayrıca genel topic'e de gönder (tüm siparişler için)
-        messagingTemplate.convertAndSend("/topic/order-updates", update);
+        // Genel /topic/order-updates'e gönderilmez: her değişiklik tüm client'lara gitmesin
+        messagingTemplate.convertAndSend(destinations.orderUpdates(orderId), update);
     }
 
     /**
@@ -62,7 +63,20 @@ public class OrderWebSocketController {
     public void sendUserOrderUpdate(UUID userId, OrderStatusUpdate update) {
         // Kullanıcı bazlı topic'e mesaj gönder
         // Client: /topic/user-orders/{userId} subscribe eder
-        messagingTemplate.convertAndSend("/topic/user-orders/" + userId, update);
+        messagingTemplate.convertAndSend(destinations.userOrders(userId), update);
     }
-}
 
+    /**
+     * Kullanıcının siparişleri için toplu update gönder
+     * OrderStatusPushQueue flush'ında kullanılır
+     *
+     * Ayrı topic: /topic/user-orders/{userId} her zaman tek update taşır, client iki şekli ayırt etmek zorunda kalmaz
+     *
+     * @param userId Kullanıcı ID
+     * @param batch Aynı flush aralığındaki update'ler
+     */
+    public void sendUserOrderUpdates(UUID userId, OrderStatusUpdateBatch batch) {
+        // Client: /topic/user-order-batches/{userId} subscribe eder
+        messagingTemplate.convertAndSend(destinations.userOrderBatches(userId), batch);
+    }
+}
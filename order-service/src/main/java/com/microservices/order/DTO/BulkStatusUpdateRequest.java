@@ -0,0 +1,29 @@
+package com.microservices.order.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.microservices.order.Model.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bulk Status Update Request DTO
+ * PATCH /orders/status/bulk isteği
+ *
+ * Örnek Request:
+ * {
+ *   "orderIds": ["order-id-1", "order-id-2"],
+ *   "status": "SHIPPED"
+ * }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+    private List<UUID> orderIds = new ArrayList<>();
+    private OrderStatus status;
+}
@@ -0,0 +1,35 @@
+package com.microservices.order.DTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.microservices.order.Model.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bulk Status Update Result DTO
+ * Toplu durum geçişinin sipariş bazlı sonucu
+ *
+ * - updated: Durumu değiştirilen siparişler
+ * - failed: Sipariş ID → sebep (bulunamadı, geçersiz geçiş, doğrulama sürüyor)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResult {
+    private OrderStatus status;
+    private int requested;
+    private List<UUID> updated = new ArrayList<>();
+    private Map<UUID, String> failed = new LinkedHashMap<>();
+
+    public BulkStatusUpdateResult(OrderStatus status, int requested) {
+        this.status = status;
+        this.requested = requested;
+    }
+}
@@ -0,0 +1,27 @@
+package com.microservices.order.DTO;
+
+import java.util.UUID;
+
+import com.microservices.order.Model.CheckoutStatus;
+import com.microservices.order.Model.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order Accepted DTO
+ * POST /orders/async cevabı (202 Accepted)
+ * 
+ * Sonuç /topic/user-orders/{userId} ve /topic/order-updates/{orderId} üzerinden push edilir;
+ * ayrıca GET /orders/{id} ile checkoutStatus takip edilebilir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAccepted {
+    private UUID orderId;
+    private UUID userId;
+    private OrderStatus status;
+    private CheckoutStatus checkoutStatus;
+}
@@ -0,0 +1,68 @@
+package com.microservices.order.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Order Cursor
+ * Keyset sayfalama için konum bilgisi: son görülen siparişin (createdAt, id) değeri
+ * 
+ * İstemciye opak bir string olarak verilir (URL-safe Base64 "createdAt|id").
+ * Offset sayfalamadan farkı: sayfa ne kadar ileride olursa olsun sorgu index üzerinden
+ * doğrudan konuma gider, önceki satırları okuyup atlamaz.
+ */
+public final class OrderCursor {
+    /**
+     * İlk sayfa için başlangıç konumu (tüm gerçek kayıtlardan "sonra")
+     * Böylece ilk sayfa ve sonraki sayfalar aynı sorguyu kullanır
+     */
+    public static final OrderCursor START = new OrderCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            new UUID(-1L, -1L));
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public OrderCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * İstemciden gelen cursor'ı çöz
+     * null/boş → ilk sayfa; bozuk cursor → IllegalArgumentException (400)
+     */
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
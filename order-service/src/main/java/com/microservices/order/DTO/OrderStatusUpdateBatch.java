@@ -0,0 +1,25 @@
+package com.microservices.order.DTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order Status Update Batch DTO
+ * Aynı flush aralığında kullanıcının değişen siparişleri /topic/user-order-batches/{userId}
+ * topic'ine tek mesajda gönderilir (tek update olsa bile batch olarak)
+ *
+ * /topic/user-orders/{userId} ise her zaman tek OrderStatusUpdate taşır; client ikisinden birine subscribe olur.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusUpdateBatch {
+    private UUID userId;
+    private List<OrderStatusUpdate> updates;
+    private LocalDateTime timestamp;
+}
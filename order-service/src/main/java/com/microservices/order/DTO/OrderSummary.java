@@ -0,0 +1,31 @@
+package com.microservices.order.DTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.microservices.order.Model.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order Summary DTO
+ * Sipariş listeleri için hafif görünüm (projection)
+ * 
+ * order_items tablosuna hiç dokunmaz: kalem sayısı orders.item_count kolonundan gelir.
+ * Detay (kalemler, adres) için GET /orders/{id} kullanılır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+    private UUID id;
+    private UUID userId;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderDate;
+    private LocalDateTime createdAt;
+    private Integer itemCount;
+}
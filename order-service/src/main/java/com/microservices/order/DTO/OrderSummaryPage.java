@@ -0,0 +1,25 @@
+package com.microservices.order.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order Summary Page DTO
+ * Keyset (cursor) sayfalama sonucu
+ * 
+ * - items: Bu sayfadaki siparişler (en yeni önce)
+ * - nextCursor: Sonraki sayfa için ?cursor= parametresi (son sayfada null)
+ * - hasMore: Sonraki sayfa var mı?
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryPage {
+    private List<OrderSummary> items = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+}
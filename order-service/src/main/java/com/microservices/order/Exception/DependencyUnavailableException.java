@@ -0,0 +1,16 @@
+package com.microservices.order.Exception;
+
+/**
+ * Downstream servis (Product/Inventory) zamanında cevap vermediğinde veya bekleme kesildiğinde fırlatılır
+ * GlobalExceptionHandler 503 SERVICE_UNAVAILABLE döner; istemci kısa süre sonra tekrar deneyebilir
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    public DependencyUnavailableException(String message) {
+        super(message);
+    }
+
+    public DependencyUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
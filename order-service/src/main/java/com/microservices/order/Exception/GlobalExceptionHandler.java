@@ -64,6 +64,44 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * IdempotencyConflictException için handler
+     * 409 CONFLICT döner
+     * 
+     * Örnek: Aynı Idempotency-Key ile ilk istek hâlâ işlenirken gelen retry
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorDetails> handleIdempotencyConflictException(
+            IdempotencyConflictException ex, WebRequest request) {
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+            "IDEMPOTENCY_CONFLICT",
+            ex.getMessage(),
+            request.getDescription(false).replace("uri=", "")
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * DependencyUnavailableException için handler
+     * 503 SERVICE_UNAVAILABLE döner
+     * 
+     * Örnek: Checkout sırasında ürün/stok lookup'ları süre sınırını aştığında
+     */
+    @ExceptionHandler(DependencyUnavailableException.class)
+    public ResponseEntity<ErrorDetails> handleDependencyUnavailableException(
+            DependencyUnavailableException ex, WebRequest request) {
+        
+        ErrorDetails errorDetails = new ErrorDetails(
+            "SERVICE_UNAVAILABLE",
+            ex.getMessage(),
+            request.getDescription(false).replace("uri=", "")
+        );
+        
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * IllegalArgumentException için handler
      * 400 BAD_REQUEST döner
@@ -0,0 +1,12 @@
+package com.microservices.order.Exception;
+
+/**
+ * Aynı Idempotency-Key ile ilk istek henüz tamamlanmadan gelen tekrar istek için exception
+ * GlobalExceptionHandler 409 CONFLICT döner; istemci kısa süre sonra aynı key ile tekrar denemelidir
+ */
+public class IdempotencyConflictException extends RuntimeException {
+    
+    public IdempotencyConflictException(String idempotencyKey) {
+        super(String.format("A request with Idempotency-Key '%s' is already in progress", idempotencyKey));
+    }
+}
@@ -0,0 +1,27 @@
+package com.microservices.order.Model;
+
+/**
+ * Checkout Status Enum
+ * Siparişin doğrulama (user/product/inventory) aşamasını belirtir
+ * 
+ * Senkron POST /orders siparişleri doğrudan COMPLETED olarak kaydedilir.
+ * POST /orders/async siparişleri VALIDATING olarak kaydedilir, arka planda tamamlanır.
+ */
+public enum CheckoutStatus {
+    
+    VALIDATING("Doğrulanıyor"),
+    
+    COMPLETED("Tamamlandı"),
+    
+    REJECTED("Reddedildi");
+    
+    private final String description;
+    
+    CheckoutStatus(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservices.order.Model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * IdempotencyKey Entity
+ * POST /orders isteğinde gönderilen Idempotency-Key kaydı
+ * 
+ * Önemli Notlar:
+ * - Sipariş ile aynı transaction'da yazılır → kayıt varsa sipariş de vardır
+ * - (userId, idempotencyKey) unique: aynı key ile eşzamanlı gelen tekrar isteği insert'te bekler/başarısız olur
+ * - requestHash: Aynı key'in farklı bir sipariş içeriğiyle kullanılmasını yakalamak için
+ */
+@Entity
+@Table(name = "order_idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_order_idempotency_user_key",
+                                             columnNames = {"user_id", "idempotency_key"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+    
+    @Id
+    private UUID id;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    private String idempotencyKey;
+    
+    /**
+     * İstek içeriğinin SHA-256 özeti (hex)
+     */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+    
+    /**
+     * Oluşturulan sipariş (sipariş kaydedilince aynı transaction'da set edilir)
+     */
+    private UUID orderId;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
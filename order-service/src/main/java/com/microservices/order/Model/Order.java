@@ -58,6 +58,10 @@ public class Order {
         if (status == null) {
             status = OrderStatus.PENDING;
         }
+        // Senkron oluşturulan siparişler zaten doğrulanmıştır
+        if (checkoutStatus == null) {
+            checkoutStatus = CheckoutStatus.COMPLETED;
+        }
         // OrderItem listesi null ise boş liste oluştur
         if (orderItems == null) {
             orderItems = new ArrayList<>();
@@ -66,13 +70,15 @@ public class Order {
         if (totalAmount == null) {
             totalAmount = calculateTotalAmount();
         }
+        itemCount = orderItems.size();
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
-        // Toplam tutarı güncelle
+        // Toplam tutarı ve kalem sayısını güncelle
         totalAmount = calculateTotalAmount();
+        itemCount = orderItems != null ? orderItems.size() : 0;
     }
     
     /**
@@ -83,6 +89,21 @@ public class Order {
     @NotNull(message = "User ID is required")
     private UUID userId;
     
+    /**
+     * Müşteri E-posta Adresi
+     * Sipariş oluşturulurken User Service'den alınır ve snapshot olarak tutulur
+     * Durum değişikliği event'leri için her seferinde User Service'e gidilmez
+     */
+    @Size(max = 255, message = "Customer email must be at most 255 characters")
+    private String customerEmail;
+    
+    /**
+     * Müşteri Adı Soyadı
+     * Snapshot olarak tutulur (customerEmail ile birlikte)
+     */
+    @Size(max = 200, message = "Customer name must be at most 200 characters")
+    private String customerName;
+    
     /**
      * Address ID (Opsiyonel)
      * User Service'deki adres ID'si
@@ -109,6 +130,13 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
     
+    /**
+     * Kalem Sayısı
+     * orderItems.size() değerinin kopyası; sipariş listeleri order_items'a dokunmadan gösterir
+     * Otomatik hesaplanır (@PrePersist / @PreUpdate)
+     */
+    private Integer itemCount;
+    
     /**
      * Sipariş Durumu
      * Enum kullanıyoruz (PENDING, CONFIRMED, SHIPPED, vb.)
@@ -116,6 +144,21 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
     
+    /**
+     * Checkout Durumu
+     * VALIDATING: POST /orders/async ile alındı, user/product/inventory doğrulaması arka planda sürüyor
+     * COMPLETED: Doğrulandı (senkron siparişler her zaman COMPLETED)
+     * REJECTED: Doğrulama başarısız, sipariş CANCELLED (sebep rejectionReason'da)
+     */
+    @Enumerated(EnumType.STRING)
+    private CheckoutStatus checkoutStatus;
+    
+    /**
+     * Asenkron checkout red sebebi (örn. yetersiz stok)
+     */
+    @Size(max = 500, message = "Rejection reason must be at most 500 characters")
+    private String rejectionReason;
+    
     /**
      * Toplam Tutar
      * Tüm OrderItem'ların subtotal'ları toplamı
@@ -215,6 +258,14 @@ public class Order {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
     
+    /**
+     * Müşteri iletişim bilgisi snapshot'ı var mı?
+     * Eski siparişlerde (snapshot öncesi) boş olabilir
+     */
+    public boolean hasCustomerContact() {
+        return customerEmail != null && !customerEmail.isBlank();
+    }
+    
     /**
      * OrderItem ekle
      * OrderItem'a Order referansını da set eder ve subtotal'ı hesaplar
@@ -0,0 +1,94 @@
+package com.microservices.order.Model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OutboxEvent Entity
+ * RabbitMQ'ya gönderilecek order event'i (transactional outbox)
+ * 
+ * Önemli Notlar:
+ * - Sipariş ile aynı transaction'da yazılır → sipariş kaydedildiyse event de kaydedilmiştir
+ * - Gönderimi OrderOutboxRelay yapar (publisher confirm gelince SENT olur)
+ * - id, AMQP message-id olarak gönderilir → consumer tekrar gelen mesajları ayıklayabilir
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    private UUID id;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (status == null) {
+            status = OutboxStatus.PENDING;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+    
+    /**
+     * Event'in ait olduğu sipariş ID'si
+     */
+    @Column(nullable = false)
+    private UUID aggregateId;
+    
+    /**
+     * Event sınıfının adı (__TypeId__ header'ı olarak gönderilir)
+     * Örnek: com.microservices.order.Event.OrderCreatedEvent
+     */
+    @Column(nullable = false)
+    private String eventType;
+    
+    @Column(nullable = false)
+    private String exchange;
+    
+    @Column(nullable = false)
+    private String routingKey;
+    
+    /**
+     * JSON mesaj gövdesi (RabbitTemplate'in message converter'ı ile üretilir)
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+    
+    /**
+     * Başarısız gönderim denemesi sayısı
+     */
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(length = 500)
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime sentAt;
+}
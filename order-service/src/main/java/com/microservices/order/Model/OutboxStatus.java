@@ -0,0 +1,14 @@
+package com.microservices.order.Model;
+
+/**
+ * Outbox kaydının yayın durumu
+ * 
+ * - PENDING: Henüz RabbitMQ'ya gönderilmedi (veya broker onaylamadı), relay tekrar dener
+ * - SENT: Broker publisher confirm ile onayladı
+ * - FAILED: Maksimum deneme sayısı aşıldı, relay artık denemez (manuel inceleme gerekir)
+ */
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
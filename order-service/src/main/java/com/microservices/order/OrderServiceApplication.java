@@ -5,6 +5,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Order Service Application
@@ -17,12 +18,13 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
  * - Inventory Service ile stok kontrolü (Feign Client ile)
  * - Product Service ile ürün bilgisi çekme (Feign Client ile)
  * - User Service ile kullanıcı doğrulama (Feign Client ile)
- * - RabbitMQ ile asenkron bildirim gönderme
+ * - RabbitMQ ile asenkron bildirim gönderme (transactional outbox + relay)
  */
 @SpringBootApplication
 @EnableDiscoveryClient  // Eureka'ya kayıt olmak için
 @EnableFeignClients     // Feign Client'ları aktif et
 @EnableRabbit           // RabbitMQ için aktif et
+@EnableScheduling       // Outbox relay için
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,26 @@
+package com.microservices.order.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.microservices.order.Model.IdempotencyKey;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, UUID> {
+    
+    Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(UUID userId, String idempotencyKey);
+    
+    /**
+     * Saklama süresi dolan key'leri sil (tek DELETE)
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,17 +1,95 @@
 package com.microservices.order.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.microservices.order.DTO.OrderSummary;
 import com.microservices.order.Model.Order;
 import com.microservices.order.Model.OrderStatus;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
     
+    /**
+     * Siparişi kalemleriyle birlikte tek sorguda getir (LEFT JOIN FETCH order_items)
+     * Detay okumaları ve durum geçişleri kalemleri her zaman kullanır;
+     * lazy yükleme sipariş başına ikinci bir SELECT demektir
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsById(UUID id);
+    
+    /**
+     * Siparişi satır kilidiyle getir (SELECT ... FOR UPDATE)
+     * Asenkron checkout'u tamamlayan/reddeden işlemler aynı siparişi iki kez sonuçlandırmasın
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findForUpdateById(@Param("id") UUID id);
+    
+    /**
+     * Siparişleri satır kilidiyle getir (toplu durum geçişi)
+     * ID sırasıyla kilitlenir: eşzamanlı iki toplu istek deadlock'a girmesin
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findAllForUpdateByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Siparişleri kalemleriyle tek sorguda getir
+     * Aynı persistence context'teki (kilitli) siparişlerin kalem koleksiyonlarını tek seferde yükler
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Müşteri iletişim snapshot'ı olmayan (eski) siparişlerin kullanıcıları
+     * Toplu durum geçişinde User Service lookup'ları satırlar kilitlenmeden önce yapılabilsin diye
+     */
+    @Query("SELECT DISTINCT o.userId FROM Order o WHERE o.id IN :ids "
+            + "AND (o.customerEmail IS NULL OR TRIM(o.customerEmail) = '')")
+    List<UUID> findUserIdsWithoutCustomerContactByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Toplu durum güncellemesi (tek UPDATE)
+     * Bekleyen değişiklikler önce flush edilir, sonra persistence context temizlenir
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now WHERE o.id IN :ids")
+    int updateStatusByIdIn(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") OrderStatus status,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Teslim tarihi boş siparişlere teslim tarihi yaz (Order.updateStatus(DELIVERED) ile aynı kural)
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Order o SET o.deliveryDate = :now WHERE o.id IN :ids AND o.deliveryDate IS NULL")
+    int markDeliveredByIdIn(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Doğrulaması uzun süredir bitmemiş asenkron siparişler (en eski önce)
+     * Pod yeniden başladıysa veya kuyruk dolduysa pipeline'a tekrar verilir
+     */
+    @Query("SELECT o.id FROM Order o "
+            + "WHERE o.checkoutStatus = com.microservices.order.Model.CheckoutStatus.VALIDATING "
+            + "AND o.createdAt < :before ORDER BY o.createdAt")
+    List<UUID> findValidatingIdsCreatedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+    
     /**
      * User ID'ye göre siparişleri getir
      * Kullanıcının tüm siparişlerini listeler
@@ -29,5 +107,56 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
      * Örnek: Kullanıcının teslim edilmiş siparişleri
      */
     List<Order> findByUserIdAndStatus(UUID userId, OrderStatus status);
+    
+    // ==================== Keyset (cursor) sayfalama ====================
+    // Sıralama: createdAt DESC, id DESC (id eşit createdAt'leri ayırır)
+    // Koşul: (createdAt, id) < (cursor.createdAt, cursor.id)
+    //   → "createdAt <= :createdAt" index aralığını belirler, OR kısmı sadece sınırdaki satırları eler
+    // Sonuç OrderSummary projection'ı: order_items'a dokunmaz (kalem sayısı item_count kolonunda)
+    // Sayfa boyutu Pageable ile (OFFSET yok, sadece LIMIT)
+    
+    String SUMMARY_SELECT = "SELECT new com.microservices.order.DTO.OrderSummary("
+            + "o.id, o.userId, o.status, o.totalAmount, o.orderDate, o.createdAt, o.itemCount) FROM Order o ";
+    String KEYSET_CONDITION = "o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR o.id < :id) ";
+    String KEYSET_ORDER = "ORDER BY o.createdAt DESC, o.id DESC";
+    
+    /**
+     * Tüm siparişler (admin paneli), cursor'dan sonraki sayfa
+     */
+    @Query(SUMMARY_SELECT + "WHERE " + KEYSET_CONDITION + KEYSET_ORDER)
+    List<OrderSummary> findSummariesBefore(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+    
+    /**
+     * Kullanıcının siparişleri, cursor'dan sonraki sayfa
+     */
+    @Query(SUMMARY_SELECT + "WHERE o.userId = :userId AND " + KEYSET_CONDITION + KEYSET_ORDER)
+    List<OrderSummary> findSummariesByUserIdBefore(
+            @Param("userId") UUID userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+    
+    /**
+     * Belirli durumdaki siparişler, cursor'dan sonraki sayfa
+     */
+    @Query(SUMMARY_SELECT + "WHERE o.status = :status AND " + KEYSET_CONDITION + KEYSET_ORDER)
+    List<OrderSummary> findSummariesByStatusBefore(
+            @Param("status") OrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
+    
+    /**
+     * Kullanıcının belirli durumdaki siparişleri, cursor'dan sonraki sayfa
+     */
+    @Query(SUMMARY_SELECT + "WHERE o.userId = :userId AND o.status = :status AND " + KEYSET_CONDITION + KEYSET_ORDER)
+    List<OrderSummary> findSummariesByUserIdAndStatusBefore(
+            @Param("userId") UUID userId,
+            @Param("status") OrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable);
 }
-
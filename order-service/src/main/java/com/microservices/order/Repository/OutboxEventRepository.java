@@ -0,0 +1,58 @@
+package com.microservices.order.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.microservices.order.Model.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    
+    /**
+     * Gönderilmemiş event'leri satır kilidi ile getir (en eski önce, sayfa boyutu kadar)
+     * 
+     * lock.timeout = -2 → SKIP LOCKED: birden fazla Order Service instance'ı aynı anda
+     * relay çalıştırırsa aynı event'i iki kez göndermez, kilitli satırları atlar
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e "
+            + "WHERE e.status = com.microservices.order.Model.OutboxStatus.PENDING "
+            + "ORDER BY e.createdAt")
+    List<OutboxEvent> findPendingForUpdate(Pageable pageable);
+    
+    /**
+     * Broker'ın onayladığı event'leri toplu olarak SENT yap (tek UPDATE)
+     * 
+     * flushAutomatically: Aynı transaction'daki deneme sayısı güncellemeleri önce yazılır
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE OutboxEvent e "
+            + "SET e.status = com.microservices.order.Model.OutboxStatus.SENT, e.sentAt = :sentAt, e.lastError = null "
+            + "WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") LocalDateTime sentAt);
+    
+    /**
+     * Saklama süresi dolmuş SENT event'leri sil
+     * 
+     * @return Silinen kayıt sayısı
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e "
+            + "WHERE e.status = com.microservices.order.Model.OutboxStatus.SENT AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
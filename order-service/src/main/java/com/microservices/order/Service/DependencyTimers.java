@@ -0,0 +1,123 @@
+package com.microservices.order.Service;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.microservices.order.Exception.ResourceNotFoundException;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Dependency Timers
+ * Checkout hot path'indeki her downstream çağrının süresini ayrı ölçer
+ *
+ * orders.dependency.duration{dependency, outcome}:
+ * - dependency: user, product, inventory, stock_check, db_save, event_publish
+ * - outcome: success, not_found, timeout, error
+ *
+ * orders.created.duration{outcome}: checkout'un toplam süresi
+ * - outcome: success, rejected (kullanıcı/ürün yok, yetersiz stok), error
+ *
+ * Tüm timer'lar percentile histogram yayınlar (Prometheus'ta histogram_quantile ile p99),
+ * böylece checkout p99'unu hangi bağımlılığın belirlediği görülebilir.
+ * Süre her zaman finally'de kaydedilir: erken dönen / hata fırlatan yollar da ölçülür.
+ */
+@Component
+public class DependencyTimers {
+    public static final String USER = "user";
+    public static final String PRODUCT = "product";
+    public static final String INVENTORY = "inventory";
+    public static final String STOCK_CHECK = "stock_check";
+    public static final String DB_SAVE = "db_save";
+    public static final String EVENT_PUBLISH = "event_publish";
+
+    public static final String SUCCESS = "success";
+    public static final String REJECTED = "rejected";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    public DependencyTimers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Çağrıyı çalıştır ve süresini sonucuna göre tag'leyerek kaydet
+     * Hata aynen dışarı fırlatılır
+     */
+    public <T> T record(String dependency, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = ERROR;
+        try {
+            T result = call.get();
+            outcome = SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            dependencyTimer(dependency, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void run(String dependency, Runnable call) {
+        record(dependency, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Checkout toplam süresi (senkron createOrder ve asenkron pipeline aynı timer'ı kullanır)
+     */
+    public void stopCheckout(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("orders.created.duration")
+                .description("Checkout duration (validation, enrichment, save, event)")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * Checkout hatasının sonucu: doğrulama hataları rejected, diğerleri error
+     */
+    public static String checkoutOutcomeOf(RuntimeException e) {
+        return e instanceof ResourceNotFoundException || e instanceof IllegalArgumentException ? REJECTED : ERROR;
+    }
+
+    Timer dependencyTimer(String dependency, String outcome) {
+        return Timer.builder("orders.dependency.duration")
+                .description("Downstream call duration on the order hot path")
+                .tag("dependency", dependency)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcomeOf(RuntimeException e) {
+        if (e instanceof FeignException.NotFound || e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof RetryableException || hasCause(e, SocketTimeoutException.class)
+                || hasCause(e, TimeoutException.class)) {
+            return "timeout";
+        }
+        return ERROR;
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,138 @@
+package com.microservices.order.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.microservices.order.Event.StockLevelChanged;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Inventory Availability Replica
+ * Inventory Service'in StockLevelChanged event'lerinden tutulan yerel (instance başına) stok replikası
+ * 
+ * Önemli Notlar:
+ * - Her instance kendi anonim queue'sunu dinler (RabbitMQConfig.inventoryStockLevelQueue)
+ * - Mesajlar sırasız/tekrar gelebilir: daha eski versiyonlu mesaj mevcut değeri ezmez
+ * - Replika sadece ön kontrol içindir: yetersiz görünen sepeti Inventory Service'e gitmeden reddeder,
+ *   yeterli görünen sepet için yetkili kontrol ve rezervasyon yine Inventory Service'te yapılır
+ * - max-age-seconds'tan eski girdiler kullanılmaz (kaçan mesajlar replikayı sonsuza kadar bayat bırakmasın)
+ * - Açılışta boştur; hiç değişmemiş ürünler bilinmez ve ön kontrolden geçer
+ */
+@Component
+public class InventoryAvailabilityReplica {
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean precheckEnabled;
+    private final long maxAgeMillis;
+
+    public InventoryAvailabilityReplica(
+            MeterRegistry meterRegistry,
+            @Value("${order.inventory-replica.precheck-enabled:true}") boolean precheckEnabled,
+            @Value("${order.inventory-replica.max-age-seconds:300}") long maxAgeSeconds) {
+        if (maxAgeSeconds <= 0) {
+            throw new IllegalArgumentException("order.inventory-replica.max-age-seconds must be positive");
+        }
+        this.meterRegistry = meterRegistry;
+        this.precheckEnabled = precheckEnabled;
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+        meterRegistry.gaugeMapSize("orders.inventory.replica.size", Tags.empty(), entries);
+    }
+
+    /**
+     * Inventory Service'ten gelen stok değişikliği
+     */
+    @RabbitListener(queues = "#{inventoryStockLevelQueue.name}",
+                    autoStartup = "${order.inventory-replica.enabled:true}")
+    public void onStockLevelChanged(StockLevelChanged event) {
+        apply(event);
+    }
+
+    /**
+     * Event'i replikaya uygula (version korumalı)
+     */
+    public void apply(StockLevelChanged event) {
+        if (event == null || event.getProductId() == null) {
+            return;
+        }
+        if (event.isDeleted()) {
+            entries.remove(event.getProductId());
+            meterRegistry.counter("orders.inventory.replica.events", "result", "deleted").increment();
+            return;
+        }
+        long version = event.getVersion() != null ? event.getVersion() : 0;
+        int available = event.getAvailable() != null ? event.getAvailable() : 0;
+        Entry updated = new Entry(available, version, System.currentTimeMillis());
+        Entry result = entries.merge(event.getProductId(), updated,
+                (current, incoming) -> current.version > incoming.version ? current : incoming);
+        meterRegistry.counter("orders.inventory.replica.events",
+                "result", result == updated ? "applied" : "stale").increment();
+    }
+
+    /**
+     * Replikadaki kullanılabilir stok (bilinmiyorsa veya girdi eskiyse boş)
+     */
+    public Optional<Integer> getAvailableQuantity(UUID productId) {
+        Entry entry = entries.get(productId);
+        if (entry == null || isExpired(entry, System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.available);
+    }
+
+    /**
+     * Ön kontrol: replikaya göre kesin yetersiz olan ürünler
+     * 
+     * @param requested Map<ProductId, RequiredQuantity>
+     * @return Map<ProductId, AvailableQuantity> - boşsa sepet yeterli veya bilinmiyor
+     */
+    public Map<UUID, Integer> findInsufficient(Map<UUID, Integer> requested) {
+        Map<UUID, Integer> insufficient = new LinkedHashMap<>();
+        if (!precheckEnabled || requested == null) {
+            return insufficient;
+        }
+        for (Map.Entry<UUID, Integer> item : requested.entrySet()) {
+            Optional<Integer> available = getAvailableQuantity(item.getKey());
+            if (available.isPresent() && item.getValue() != null && available.get() < item.getValue()) {
+                insufficient.put(item.getKey(), available.get());
+            }
+        }
+        meterRegistry.counter("orders.inventory.replica.precheck",
+                "result", insufficient.isEmpty() ? "passed" : "rejected").increment();
+        return insufficient;
+    }
+
+    /**
+     * Eskimiş girdileri temizle (hiç değişmeyen ürünler replikada birikmesin)
+     */
+    @Scheduled(fixedDelayString = "${order.inventory-replica.evict-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> isExpired(entry, now));
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.receivedAt > maxAgeMillis;
+    }
+
+    private static final class Entry {
+        private final int available;
+        private final long version;
+        private final long receivedAt;
+
+        private Entry(int available, long version, long receivedAt) {
+            this.available = available;
+            this.version = version;
+            this.receivedAt = receivedAt;
+        }
+    }
+}
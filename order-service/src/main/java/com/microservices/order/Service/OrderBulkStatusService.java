@@ -0,0 +1,347 @@
+package com.microservices.order.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.microservices.order.Client.InventoryServiceClient;
+import com.microservices.order.Client.UserServiceClient;
+import com.microservices.order.Config.RabbitMQConfig;
+import com.microservices.order.DTO.BulkStatusUpdateResult;
+import com.microservices.order.DTO.OrderStatusUpdate;
+import com.microservices.order.Event.OrderStatusChangedEvent;
+import com.microservices.order.Model.Order;
+import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Repository.OrderRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Order Bulk Status Service
+ * PATCH /orders/status/bulk: çok sayıda siparişin durumunu tek istekte değiştirir
+ *
+ * Sipariş başına updateOrderStatus (ayrı transaction, cache evict, kullanıcı lookup'ı, event) yerine
+ * chunk'lar halinde (order.bulk-status.chunk-size) set-based çalışır:
+ * 0. Snapshot'ı olmayan eski siparişlerin kullanıcıları transaction dışında, kilit almadan okunur
+ *    (User Service yavaşsa chunk'ın satırları Feign çağrısı boyunca kilitli kalmasın)
+ * 1. Chunk'taki siparişler ID sırasıyla kilitlenir; geçişler validateStatusTransition ile kontrol edilir
+ * 2. Geçerli siparişler tek UPDATE ile güncellenir, OrderStatusChangedEvent'ler outbox'a tek batch insert ile yazılır
+ * 3. Cache tek pipeline ile temizlenir, WebSocket update'leri OrderStatusPushQueue'ya verilir (commit sonrası)
+ * 4. Commit sonrası stok: rezervasyon/serbest bırakma chunk başına tek Inventory Service çağrısı
+ *
+ * Her chunk kendi transaction'ındadır: geçersiz siparişler diğerlerini engellemez,
+ * başarısız bir chunk sadece kendi siparişlerini failed olarak işaretler.
+ * Stok hataları tekil akıştaki gibi loglanır ve metrik artırılır; durum geçişini geri almaz.
+ *
+ * Metrikler:
+ * - orders.status.bulk.requests / updated / failed
+ * - orders.status.bulk.chunk.errors
+ */
+@Service
+public class OrderBulkStatusService {
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final InventoryServiceClient inventoryServiceClient;
+    private final UserServiceClient userServiceClient;
+    private final OrderOutboxService outboxService;
+    private final OrderCacheInvalidator cacheInvalidator;
+    private final OrderStatusPushQueue statusPushQueue;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOrders;
+    private final int chunkSize;
+    private final int paymentHoldSeconds;
+
+    public OrderBulkStatusService(
+            OrderService orderService,
+            OrderRepository orderRepository,
+            InventoryServiceClient inventoryServiceClient,
+            UserServiceClient userServiceClient,
+            OrderOutboxService outboxService,
+            OrderCacheInvalidator cacheInvalidator,
+            OrderStatusPushQueue statusPushQueue,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.bulk-status.max-orders:1000}") int maxOrders,
+            @Value("${order.bulk-status.chunk-size:200}") int chunkSize,
+            @Value("${order.reservation.payment-hold-seconds:900}") int paymentHoldSeconds) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.userServiceClient = userServiceClient;
+        this.outboxService = outboxService;
+        this.cacheInvalidator = cacheInvalidator;
+        this.statusPushQueue = statusPushQueue;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxOrders = maxOrders;
+        this.chunkSize = chunkSize;
+        this.paymentHoldSeconds = paymentHoldSeconds;
+    }
+
+    /**
+     * Stok etkisi: tekil endpoint'lerle aynı kurallar
+     * (updateOrderStatus/markPaymentSuccess → rezerve, markPaymentPending → hold,
+     *  markPaymentFailed/approveRefund/cancelOrder → serbest bırak)
+     */
+    enum StockAction {
+        NONE, RESERVE, HOLD, RELEASE;
+
+        static StockAction of(OrderStatus currentStatus, OrderStatus newStatus) {
+            if (newStatus == OrderStatus.CONFIRMED
+                    && (currentStatus == OrderStatus.PENDING || currentStatus == OrderStatus.PAYMENT_PENDING)) {
+                return RESERVE;
+            }
+            if (newStatus == OrderStatus.PAYMENT_PENDING) {
+                return HOLD;
+            }
+            if (newStatus == OrderStatus.PAYMENT_FAILED || newStatus == OrderStatus.REFUNDED) {
+                return RELEASE;
+            }
+            if (newStatus == OrderStatus.CANCELLED
+                    && (currentStatus == OrderStatus.CONFIRMED || currentStatus == OrderStatus.PAYMENT_PENDING
+                        || currentStatus == OrderStatus.PAYMENT_FAILED)) {
+                return RELEASE;
+            }
+            return NONE;
+        }
+    }
+
+    public BulkStatusUpdateResult updateStatus(List<UUID> orderIds, OrderStatus newStatus) {
+        if (newStatus == null) {
+            throw new IllegalArgumentException("Target status is required");
+        }
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one order ID is required");
+        }
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Order IDs must not be null");
+        }
+        if (ids.size() > maxOrders) {
+            throw new IllegalArgumentException("At most " + maxOrders + " orders can be updated at once");
+        }
+
+        meterRegistry.counter("orders.status.bulk.requests", "to", newStatus.name()).increment();
+        BulkStatusUpdateResult result = new BulkStatusUpdateResult(newStatus, ids.size());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            ChunkResult chunkResult;
+            try {
+                Map<UUID, UserServiceClient.UserResponse> contacts = lookupCustomerContacts(chunk);
+                chunkResult = transactionTemplate.execute(status -> applyChunk(chunk, newStatus, contacts));
+            } catch (RuntimeException e) {
+                // Chunk geri alındı: sadece bu chunk'ın siparişleri başarısız
+                meterRegistry.counter("orders.status.bulk.chunk.errors").increment();
+                System.err.println("Bulk status update failed for " + chunk.size() + " orders: " + e.getMessage());
+                chunk.forEach(orderId -> result.getFailed().put(orderId, "Update failed: " + e.getMessage()));
+                continue;
+            }
+            result.getUpdated().addAll(chunkResult.updated.keySet());
+            result.getFailed().putAll(chunkResult.failed);
+            adjustStock(chunkResult);
+        }
+        meterRegistry.counter("orders.status.bulk.updated").increment(result.getUpdated().size());
+        meterRegistry.counter("orders.status.bulk.failed").increment(result.getFailed().size());
+        return result;
+    }
+
+    /**
+     * Tek chunk (transaction içinde)
+     *
+     * @param contacts Snapshot'ı olmayan siparişlerin kullanıcıları (transaction öncesi okundu)
+     */
+    private ChunkResult applyChunk(List<UUID> chunk, OrderStatus newStatus,
+                                   Map<UUID, UserServiceClient.UserResponse> contacts) {
+        ChunkResult result = new ChunkResult();
+        Map<UUID, Order> locked = orderRepository.findAllForUpdateByIdIn(chunk).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        List<Order> valid = new ArrayList<>();
+        for (UUID orderId : chunk) {
+            Order order = locked.get(orderId);
+            if (order == null) {
+                result.failed.put(orderId, "Order not found");
+                continue;
+            }
+            try {
+                orderService.ensureCheckoutCompleted(order);
+                orderService.validateStatusTransition(order.getStatus(), newStatus);
+                valid.add(order);
+            } catch (IllegalArgumentException e) {
+                result.failed.put(orderId, e.getMessage());
+            }
+        }
+        if (valid.isEmpty()) {
+            return result;
+        }
+
+        // Stok gereken siparişlerin kalemleri tek sorguda (UPDATE persistence context'i temizlemeden önce)
+        List<UUID> stockOrderIds = valid.stream()
+                .filter(order -> StockAction.of(order.getStatus(), newStatus) != StockAction.NONE)
+                .map(Order::getId)
+                .toList();
+        if (!stockOrderIds.isEmpty()) {
+            orderRepository.findAllWithItemsByIdIn(stockOrderIds);
+        }
+        backfillCustomerContacts(valid, contacts);
+
+        Map<UUID, OrderStatusChangedEvent> events = new LinkedHashMap<>();
+        Map<UUID, UUID> userIdsByOrderId = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Order order : valid) {
+            OrderStatus oldStatus = order.getStatus();
+            result.updated.put(order.getId(), oldStatus);
+            userIdsByOrderId.put(order.getId(), order.getUserId());
+            StockAction action = StockAction.of(oldStatus, newStatus);
+            if (action != StockAction.NONE) {
+                result.stock.computeIfAbsent(action, key -> new ArrayList<>()).add(order);
+            }
+            if (order.hasCustomerContact()) {
+                events.put(order.getId(), new OrderStatusChangedEvent(
+                    order.getId(),
+                    order.getUserId(),
+                    order.getCustomerEmail(),
+                    order.getCustomerName(),
+                    oldStatus.name(),
+                    newStatus.name(),
+                    now
+                ));
+            }
+            statusPushQueue.enqueue(new OrderStatusUpdate(order.getId(), oldStatus, newStatus, order.getUserId()));
+        }
+
+        if (!events.isEmpty()) {
+            outboxService.enqueueAll(RabbitMQConfig.ORDER_EXCHANGE, RabbitMQConfig.ROUTING_KEY_STATUS_CHANGED, events);
+        }
+        orderRepository.updateStatusByIdIn(result.updated.keySet(), newStatus, now);
+        if (newStatus == OrderStatus.DELIVERED) {
+            orderRepository.markDeliveredByIdIn(result.updated.keySet(), now);
+        }
+        cacheInvalidator.evictOrders(userIdsByOrderId);
+        orderService.recordStatusChange(newStatus, valid.size());
+        return result;
+    }
+
+    /**
+     * Snapshot'ı olmayan (eski) siparişler için kullanıcı bilgisi: kullanıcı başına tek lookup
+     * Transaction dışında çağrılır; kullanıcı alınamazsa o siparişler için event gönderilmez (tekil akışla aynı)
+     */
+    private Map<UUID, UserServiceClient.UserResponse> lookupCustomerContacts(List<UUID> chunk) {
+        Map<UUID, UserServiceClient.UserResponse> users = new HashMap<>();
+        for (UUID userId : orderRepository.findUserIdsWithoutCustomerContactByIdIn(chunk)) {
+            try {
+                UserServiceClient.UserResponse user = userServiceClient.getUserById(userId);
+                if (user != null) {
+                    users.put(userId, user);
+                }
+            } catch (Exception e) {
+                System.err.println("Error getting user for OrderStatusChangedEvent: " + e.getMessage());
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Kilitli siparişlere önceden okunan kullanıcı bilgisini yaz
+     */
+    private void backfillCustomerContacts(List<Order> orders, Map<UUID, UserServiceClient.UserResponse> contacts) {
+        int backfilled = 0;
+        for (Order order : orders) {
+            UserServiceClient.UserResponse user = contacts.get(order.getUserId());
+            if (!order.hasCustomerContact() && user != null) {
+                orderService.applyCustomerContact(order, user);
+                backfilled++;
+            }
+        }
+        if (backfilled > 0) {
+            meterRegistry.counter("orders.customer.contact.backfill").increment(backfilled);
+        }
+    }
+
+    /**
+     * Commit sonrası stok işlemleri: işlem türü başına tek batch çağrı
+     */
+    private void adjustStock(ChunkResult result) {
+        reserve(result.stock.getOrDefault(StockAction.RESERVE, List.of()), null);
+        reserve(result.stock.getOrDefault(StockAction.HOLD, List.of()), paymentHoldSeconds);
+        release(result.stock.getOrDefault(StockAction.RELEASE, List.of()));
+    }
+
+    private void reserve(List<Order> orders, Integer holdSeconds) {
+        List<InventoryServiceClient.ReservationRequest> requests = orders.stream()
+                .filter(order -> !order.getOrderItems().isEmpty())
+                .map(order -> {
+                    InventoryServiceClient.ReservationRequest request = new InventoryServiceClient.ReservationRequest(
+                            order.getId(),
+                            order.getOrderItems().stream()
+                                    .map(item -> new InventoryServiceClient.ReservationItem(item.getProductId(), item.getQuantity()))
+                                    .toList());
+                    request.setHoldSeconds(holdSeconds);
+                    return request;
+                })
+                .toList();
+        if (requests.isEmpty()) {
+            return;
+        }
+        try {
+            List<InventoryServiceClient.ReservationResponse> responses = inventoryServiceClient.createReservations(requests);
+            responses.forEach(response -> recordFailure("reserve", response));
+        } catch (Exception e) {
+            meterRegistry.counter("orders.stock.reserve.fail", "reason", "UNAVAILABLE").increment(requests.size());
+            System.err.println("Error reserving stock for " + requests.size() + " orders: " + e.getMessage());
+        }
+    }
+
+    private void release(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<UUID, Order> byId = orders.stream().collect(Collectors.toMap(Order::getId, Function.identity()));
+        try {
+            List<InventoryServiceClient.ReservationResponse> responses =
+                    inventoryServiceClient.releaseReservations(new ArrayList<>(byId.keySet()));
+            for (InventoryServiceClient.ReservationResponse response : responses) {
+                if ("RESERVATION_NOT_FOUND".equals(response.getReason()) && byId.containsKey(response.getOrderId())) {
+                    // Eski kalem bazlı akışla rezerve edilmiş sipariş
+                    orderService.releaseStockPerItem(byId.get(response.getOrderId()));
+                } else {
+                    recordFailure("release", response);
+                }
+            }
+        } catch (Exception e) {
+            meterRegistry.counter("orders.stock.release.fail", "reason", "UNAVAILABLE").increment(orders.size());
+            System.err.println("Error releasing stock for " + orders.size() + " orders: " + e.getMessage());
+        }
+    }
+
+    private void recordFailure(String operation, InventoryServiceClient.ReservationResponse response) {
+        if (response == null || response.isSuccess()) {
+            return;
+        }
+        String reason = response.getReason() != null ? response.getReason() : "UNKNOWN";
+        meterRegistry.counter("orders.stock." + operation + ".fail", "reason", reason).increment();
+        System.err.println("Stock " + operation + " failed for order " + response.getOrderId() + ": " + reason);
+    }
+
+    /**
+     * Chunk sonucu: güncellenen siparişler (ID → eski durum), hatalar ve commit sonrası stok işleri
+     */
+    private static class ChunkResult {
+        private final Map<UUID, OrderStatus> updated = new LinkedHashMap<>();
+        private final Map<UUID, String> failed = new LinkedHashMap<>();
+        private final Map<StockAction, List<Order>> stock = new HashMap<>();
+    }
+}
@@ -0,0 +1,230 @@
+package com.microservices.order.Service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.microservices.order.DTO.OrderSummary;
+import com.microservices.order.DTO.OrderSummaryPage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Order Cache Invalidator
+ * "orders" cache'indeki detay ve liste key'lerini hedefli olarak temizler
+ *
+ * Tag index (Redis set): order-service:cache-tags:{orderId} → bu siparişi içeren liste key'leri
+ * - Liste cache'e yazıldıktan sonra sayfadaki her sipariş için liste key'i set'e eklenir (SADD + EXPIRE, tek pipeline)
+ * - Sipariş değişince sadece detay key'i ve siparişi gerçekten içeren listeler silinir (allEntries flush yok)
+ * - Set'ler silinmez, cache TTL'i kadar yaşar (her tag'lemede yenilenir): silme ile aynı anda cache'lenen
+ *   bir liste tag'ini kaybedemez. Artık listede olmayan üyeler sadece gereksiz bir evict'e yol açar
+ *
+ * Yeni sipariş henüz hiçbir listede olmadığı için tag'i yoktur: 'all' ve kullanıcının listesi silinir.
+ * Silme işlemleri transaction commit'inden sonra yapılır; böylece commit öncesi araya giren bir okuma
+ * eski durumu tekrar cache'e yazamaz. Redis'e erişilemezse siparişin sahibi olduğu listeler silinir (fallback).
+ *
+ * Metrikler:
+ * - orders.cache.tag.evictions: Tag ile silinen liste key sayısı
+ * - orders.cache.tag.errors: Tag index'e erişilemeyen işlemler
+ */
+@Component
+public class OrderCacheInvalidator {
+    public static final String CACHE_NAME = "orders";
+    public static final String ALL_ORDERS_KEY = "all:summary";
+
+    private static final String TAG_KEY_PREFIX = "order-service:cache-tags:";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration tagTtl;
+
+    public OrderCacheInvalidator(
+            CacheManager cacheManager,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${order.cache.ttl-minutes:30}") long cacheTtlMinutes) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.tagTtl = Duration.ofMinutes(cacheTtlMinutes);
+    }
+
+    public static String userOrdersKey(UUID userId) {
+        return "user:" + userId + ":summary";
+    }
+
+    /**
+     * Liste cache'teyse onu döndür; değilse yükle, cache'e yaz ve ardından tag'le
+     *
+     * @Cacheable yerine kullanılır: @Cacheable değeri metot döndükten sonra yazar, tag ise metodun içinde
+     * eklenmek zorunda kalırdı. Tag put'tan önce eklenip araya bir silme girerse, silme tag'i okuyup
+     * henüz yazılmamış listeyi siler ve ardından yazılan liste tag'siz kalırdı
+     */
+    public OrderSummaryPage cachedList(String listKey, Supplier<OrderSummaryPage> loader) {
+        Cache cache = cache();
+        OrderSummaryPage cached = cache.get(listKey, OrderSummaryPage.class);
+        if (cached != null) {
+            return cached;
+        }
+        OrderSummaryPage page = loader.get();
+        cache.put(listKey, page);
+        tagList(listKey, page);
+        return page;
+    }
+
+    /**
+     * Cache'e yazılmış listenin içerdiği siparişleri tag'le
+     */
+    public void tagList(String listKey, OrderSummaryPage page) {
+        if (page.getItems().isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (OrderSummary summary : page.getItems()) {
+                        String tagKey = tagKey(summary.getId());
+                        operations.opsForSet().add(tagKey, listKey);
+                        operations.expire(tagKey, tagTtl);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            // Tag yazılamazsa liste yine cache'lenir; değişiklikte fallback kullanıcı listesini siler
+            meterRegistry.counter("orders.cache.tag.errors").increment();
+            System.err.println("Error tagging cached order list " + listKey + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sipariş değişti: detay key'i + siparişi içeren listeler (commit sonrası)
+     */
+    public void evictOrder(UUID orderId, UUID userId) {
+        afterCommit(() -> {
+            Cache cache = cache();
+            cache.evict(orderId.toString());
+            evictTaggedLists(cache, orderId, userId);
+        });
+    }
+
+    /**
+     * Toplu durum geçişi: detay key'leri + siparişleri içeren listeler (commit sonrası)
+     * Tag set'leri tek pipeline'da okunur; her liste key'i bir kez silinir
+     *
+     * @param userIdsByOrderId Sipariş ID → kullanıcı ID (fallback için)
+     */
+    public void evictOrders(Map<UUID, UUID> userIdsByOrderId) {
+        if (userIdsByOrderId.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            Cache cache = cache();
+            userIdsByOrderId.keySet().forEach(orderId -> cache.evict(orderId.toString()));
+            Set<String> listKeys = taggedLists(userIdsByOrderId);
+            for (String listKey : listKeys) {
+                cache.evict(listKey);
+            }
+            meterRegistry.counter("orders.cache.tag.evictions").increment(listKeys.size());
+        });
+    }
+
+    /**
+     * Yeni sipariş: en yeni siparişleri gösteren ilk sayfalar (commit sonrası)
+     */
+    public void evictListsForNewOrder(UUID userId) {
+        afterCommit(() -> {
+            Cache cache = cache();
+            cache.evict(ALL_ORDERS_KEY);
+            cache.evict(userOrdersKey(userId));
+        });
+    }
+
+    private void evictTaggedLists(Cache cache, UUID orderId, UUID userId) {
+        String tagKey = tagKey(orderId);
+        Set<String> listKeys;
+        try {
+            listKeys = redisTemplate.opsForSet().members(tagKey);
+        } catch (Exception e) {
+            // Tag index okunamadı: siparişi içerebilecek listeleri koşulsuz sil
+            meterRegistry.counter("orders.cache.tag.errors").increment();
+            System.err.println("Error reading cache tags for order " + orderId + ": " + e.getMessage());
+            listKeys = Set.of(ALL_ORDERS_KEY, userOrdersKey(userId));
+        }
+        if (listKeys == null || listKeys.isEmpty()) {
+            return;
+        }
+        for (String listKey : listKeys) {
+            cache.evict(listKey);
+        }
+        meterRegistry.counter("orders.cache.tag.evictions").increment(listKeys.size());
+    }
+
+    private Set<String> taggedLists(Map<UUID, UUID> userIdsByOrderId) {
+        List<String> tagKeys = userIdsByOrderId.keySet().stream().map(OrderCacheInvalidator::tagKey).toList();
+        Set<String> listKeys = new HashSet<>();
+        try {
+            List<Object> members = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (String tagKey : tagKeys) {
+                        operations.opsForSet().members(tagKey);
+                    }
+                    return null;
+                }
+            });
+            for (Object member : members) {
+                if (member instanceof Set<?> keys) {
+                    keys.forEach(key -> listKeys.add(String.valueOf(key)));
+                }
+            }
+        } catch (Exception e) {
+            // Tag index okunamadı: siparişleri içerebilecek listeleri koşulsuz sil
+            meterRegistry.counter("orders.cache.tag.errors").increment();
+            System.err.println("Error reading cache tags for " + tagKeys.size() + " orders: " + e.getMessage());
+            listKeys.add(ALL_ORDERS_KEY);
+            userIdsByOrderId.values().forEach(userId -> listKeys.add(userOrdersKey(userId)));
+        }
+        return listKeys;
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    private static String tagKey(UUID orderId) {
+        return TAG_KEY_PREFIX + orderId;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,234 @@
+package com.microservices.order.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.microservices.order.Controller.OrderWebSocketController;
+import com.microservices.order.DTO.OrderStatusUpdate;
+import com.microservices.order.Exception.ResourceNotFoundException;
+import com.microservices.order.Model.CheckoutStatus;
+import com.microservices.order.Model.Order;
+import com.microservices.order.Model.OrderItem;
+import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Repository.OrderRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.Timer.Sample;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Order Checkout Pipeline
+ * POST /orders/async: siparişi hemen kabul et (202), doğrulamayı arka planda yap
+ *
+ * Akış:
+ * 1. submit: Payload doğrulanır (remote çağrı yok), PENDING + VALIDATING iskelet kaydedilir, kuyruğa verilir
+ * 2. process (orderCheckoutExecutor): createOrder ile aynı user/product/inventory doğrulaması (prepareOrder)
+ *    - Remote çağrılar sırasında DB transaction/bağlantı tutulmaz
+ * 3. Başarılı → completeCheckout (satır kilidi, OrderCreatedEvent); hata → rejectCheckout (CANCELLED + sebep)
+ * 4. Sonuç WebSocket ile push edilir: /topic/user-orders/{userId}, /topic/order-updates/{orderId}
+ *
+ * Geçici hatalar (timeout, servis erişilemez) siparişi VALIDATING bırakır; recovery job
+ * order.checkout.retry-after-seconds sonra tekrar dener, order.checkout.max-age-seconds sonunda reddeder.
+ * Aynı sipariş iki kez işlenirse kilitli okuma ikinci sonucu yok sayar.
+ *
+ * Metrikler:
+ * - orders.checkout.async.accepted / completed / rejected (OrderService)
+ * - orders.checkout.async.deferred: Kuyruk dolu, recovery'ye bırakıldı
+ * - orders.checkout.async.retry (exception): Geçici hata
+ * - orders.checkout.async.latency: Kabulden sonuçlanmaya kadar geçen süre
+ */
+@Service
+public class OrderCheckoutPipeline {
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderWebSocketController webSocketController;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final DependencyTimers dependencyTimers;
+    private final Executor checkoutExecutor;
+    private final Duration retryAfter;
+    private final Duration maxAge;
+    private final int recoveryBatchSize;
+
+    public OrderCheckoutPipeline(
+            OrderService orderService,
+            OrderRepository orderRepository,
+            OrderWebSocketController webSocketController,
+            Validator validator,
+            MeterRegistry meterRegistry,
+            DependencyTimers dependencyTimers,
+            @Qualifier("orderCheckoutExecutor") Executor checkoutExecutor,
+            @Value("${order.checkout.retry-after-seconds:60}") long retryAfterSeconds,
+            @Value("${order.checkout.max-age-seconds:900}") long maxAgeSeconds,
+            @Value("${order.checkout.recovery.batch-size:100}") int recoveryBatchSize) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.webSocketController = webSocketController;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.dependencyTimers = dependencyTimers;
+        this.checkoutExecutor = checkoutExecutor;
+        this.retryAfter = Duration.ofSeconds(retryAfterSeconds);
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+        this.recoveryBatchSize = recoveryBatchSize;
+    }
+
+    /**
+     * Siparişi kabul et ve doğrulamayı kuyruğa ver
+     * Payload hataları senkron olarak 400 döner
+     */
+    public Order submit(Order order) {
+        validatePayload(order);
+        Order accepted = orderService.acceptOrder(order);  // Commit edildi: worker thread siparişi görür
+        enqueue(accepted.getId());
+        return accepted;
+    }
+
+    /**
+     * Doğrulaması bitmemiş siparişleri tekrar kuyruğa ver (pod restart, dolu kuyruk, geçici hata)
+     */
+    @Scheduled(
+        fixedDelayString = "${order.checkout.recovery.interval-ms:30000}",
+        initialDelayString = "${order.checkout.recovery.interval-ms:30000}")
+    public void recoverStalledCheckouts() {
+        try {
+            List<UUID> stalled = orderRepository.findValidatingIdsCreatedBefore(
+                    LocalDateTime.now().minus(retryAfter), PageRequest.of(0, recoveryBatchSize));
+            for (UUID orderId : stalled) {
+                enqueue(orderId);
+            }
+        } catch (Exception e) {
+            System.err.println("Error recovering stalled checkouts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tek siparişin doğrulaması (worker thread'de çalışır)
+     */
+    void process(UUID orderId) {
+        Order order = orderRepository.findWithItemsById(orderId).orElse(null);
+        if (order == null || order.getCheckoutStatus() != CheckoutStatus.VALIDATING) {
+            return;  // Tamamlanmış, reddedilmiş veya iptal edilmiş
+        }
+        if (order.getCreatedAt() != null && order.getCreatedAt().isBefore(LocalDateTime.now().minus(maxAge))) {
+            reject(orderId, "Checkout could not be completed in time");
+            return;
+        }
+
+        // Fiyatlar her zaman Product Service'ten alınır (iskeletteki 0 placeholder'lar)
+        for (OrderItem item : order.getOrderItems()) {
+            item.setPrice(null);
+            item.setSubtotal(null);
+        }
+        Sample sample = Timer.start(meterRegistry);
+        try {
+            orderService.prepareOrder(order);
+        } catch (ResourceNotFoundException | IllegalArgumentException e) {
+            // Kullanıcı/ürün yok, yetersiz stok: kalıcı hata
+            dependencyTimers.stopCheckout(sample, DependencyTimers.REJECTED);
+            reject(orderId, e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            // Timeout, servis erişilemez: recovery tekrar dener
+            dependencyTimers.stopCheckout(sample, DependencyTimers.ERROR);
+            meterRegistry.counter("orders.checkout.async.retry", "exception", e.getClass().getSimpleName()).increment();
+            System.err.println("Checkout validation failed for order " + orderId + ", will retry: " + e.getMessage());
+            return;
+        }
+
+        Order completed;
+        try {
+            completed = orderService.completeCheckout(order);
+        } catch (RuntimeException e) {
+            dependencyTimers.stopCheckout(sample, DependencyTimers.ERROR);
+            throw e;
+        }
+        if (completed != null) {
+            dependencyTimers.stopCheckout(sample, DependencyTimers.SUCCESS);
+            recordLatency(completed);
+            push(completed, "Order accepted");
+        }
+    }
+
+    private void reject(UUID orderId, String reason) {
+        Order rejected = orderService.rejectCheckout(orderId, reason);
+        if (rejected != null) {
+            recordLatency(rejected);
+            push(rejected, "Order rejected: " + reason);
+        }
+    }
+
+    private void enqueue(UUID orderId) {
+        try {
+            checkoutExecutor.execute(() -> {
+                try {
+                    process(orderId);
+                } catch (Exception e) {
+                    System.err.println("Error processing checkout for order " + orderId + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Kuyruk dolu: sipariş VALIDATING olarak kayıtlı, recovery job tekrar verecek
+            meterRegistry.counter("orders.checkout.async.deferred").increment();
+        }
+    }
+
+    private void push(Order order, String message) {
+        try {
+            OrderStatusUpdate update = new OrderStatusUpdate(
+                order.getId(), OrderStatus.PENDING, order.getStatus(), order.getUserId());
+            update.setMessage(message);
+            webSocketController.sendOrderStatusUpdate(order.getId(), update);
+            webSocketController.sendUserOrderUpdate(order.getUserId(), update);
+        } catch (Exception e) {
+            // WebSocket hatası sonucu değiştirmez (GET /orders/{id} ile görülebilir)
+            System.err.println("Error sending WebSocket update: " + e.getMessage());
+        }
+    }
+
+    private void recordLatency(Order order) {
+        if (order.getCreatedAt() != null) {
+            meterRegistry.timer("orders.checkout.async.latency")
+                    .record(Duration.between(order.getCreatedAt(), LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Remote çağrı gerektirmeyen kontroller
+     * Asenkron yolda kullanıcının default adresi kullanılamaz: teslimat bilgileri zorunludur
+     */
+    private void validatePayload(Order order) {
+        if (order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+            throw new IllegalArgumentException("Order must have at least one item");
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProductId() == null) {
+                throw new IllegalArgumentException("Product ID is required");
+            }
+            if (item.getQuantity() == null || item.getQuantity() < 1) {
+                throw new IllegalArgumentException("Quantity must be at least 1");
+            }
+        }
+        Set<ConstraintViolation<Order>> violations = validator.validate(order);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.microservices.order.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.microservices.order.Exception.IdempotencyConflictException;
+import com.microservices.order.Model.IdempotencyKey;
+import com.microservices.order.Model.Order;
+import com.microservices.order.Model.OrderItem;
+import com.microservices.order.Repository.IdempotencyKeyRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Order Idempotency Service
+ * POST /orders için Idempotency-Key desteği: retry'lar yeni sipariş oluşturmaz, ilk siparişi döner
+ *
+ * Akış:
+ * 1. Redis: order-service:idempotency:{userId}:{key} → "{orderId}|{hash}" ise tekrar oynat (Feign çağrısı yok)
+ * 2. Redis SET NX "PENDING|{hash}": eşzamanlı retry'lar User/Product/Inventory fan-out'una girmeden 409 alır
+ * 3. DB: order_idempotency_keys kaydı siparişle aynı transaction'da, siparişten ÖNCE insert edilir
+ *    - Redis'e erişilemezse unique index kilit görevi görür: eşzamanlı retry insert'te bekler, sonra kaydı bulur
+ * 4. Başarılı → Redis'e orderId yazılır (TTL); hata → PENDING silinir, kayıt rollback olur (aynı key ile tekrar denenebilir)
+ *
+ * Tekrar oynatılan cevap siparişin güncel halidir (getOrderById, cache'ten).
+ * Aynı key farklı içerikle kullanılırsa 400 döner (IllegalArgumentException).
+ *
+ * Metrikler:
+ * - orders.idempotency.replayed (source=redis|db)
+ * - orders.idempotency.conflict: İlk istek sürerken gelen retry'lar
+ */
+@Service
+public class OrderIdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final String KEY_PREFIX = "order-service:idempotency:";
+    private static final String PENDING = "PENDING";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration pendingTtl;
+
+    public OrderIdempotencyService(
+            OrderService orderService,
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            StringRedisTemplate redisTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${order.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${order.idempotency.pending-ttl-seconds:60}") long pendingTtlSeconds) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.pendingTtl = Duration.ofSeconds(pendingTtlSeconds);
+    }
+
+    /**
+     * Sipariş oluşturma sonucu
+     * replayed=true → sipariş önceki bir istekte oluşturulmuştu
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Result {
+        private final Order order;
+        private final boolean replayed;
+    }
+
+    public Result createOrder(Order order, String idempotencyKey) {
+        validateKey(idempotencyKey);
+        if (order.getUserId() == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        UUID userId = order.getUserId();
+        String requestHash = requestHash(order);
+        String redisKey = KEY_PREFIX + userId + ":" + idempotencyKey;
+
+        // 1. Redis fast path
+        Optional<Result> cached = replayFromRedis(redisKey, requestHash, idempotencyKey);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // 2. DB (Redis'te süresi dolmuş veya Redis erişilemez)
+        Optional<Result> stored = replayFromDatabase(userId, idempotencyKey, requestHash, redisKey);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        // 3. Claim: eşzamanlı retry'lar fan-out'a girmesin
+        if (!claim(redisKey, requestHash)) {
+            meterRegistry.counter("orders.idempotency.conflict").increment();
+            throw new IdempotencyConflictException(idempotencyKey);
+        }
+
+        // 4. Key kaydı + sipariş tek transaction'da
+        Order created;
+        try {
+            created = transactionTemplate.execute(status -> {
+                IdempotencyKey record = new IdempotencyKey();
+                record.setUserId(userId);
+                record.setIdempotencyKey(idempotencyKey);
+                record.setRequestHash(requestHash);
+                idempotencyKeyRepository.saveAndFlush(record);
+
+                Order saved = orderService.createOrder(order);
+                record.setOrderId(saved.getId());
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Aynı key'i başka bir instance/istek önce commit etti
+            release(redisKey);
+            return replayFromDatabase(userId, idempotencyKey, requestHash, redisKey)
+                    .orElseThrow(() -> new IdempotencyConflictException(idempotencyKey));
+        } catch (RuntimeException e) {
+            release(redisKey);
+            throw e;
+        }
+
+        remember(redisKey, created.getId(), requestHash);
+        return new Result(created, false);
+    }
+
+    /**
+     * Saklama süresi dolan key'leri sil
+     */
+    @Scheduled(
+        fixedDelayString = "${order.idempotency.cleanup.interval-ms:3600000}",
+        initialDelayString = "${order.idempotency.cleanup.interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(ttl);
+            Integer deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(before));
+            meterRegistry.counter("orders.idempotency.purged").increment(deleted != null ? deleted : 0);
+        } catch (Exception e) {
+            System.err.println("Error purging expired idempotency keys: " + e.getMessage());
+        }
+    }
+
+    private Optional<Result> replayFromRedis(String redisKey, String requestHash, String idempotencyKey) {
+        String value;
+        try {
+            value = redisTemplate.opsForValue().get(redisKey);
+        } catch (Exception e) {
+            System.err.println("Error reading idempotency key from Redis: " + e.getMessage());
+            return Optional.empty();
+        }
+        if (value == null) {
+            return Optional.empty();
+        }
+        String[] parts = value.split("\\|", 2);
+        if (parts.length < 2) {
+            return Optional.empty();
+        }
+        verifyHash(parts[1], requestHash, idempotencyKey);
+        if (PENDING.equals(parts[0])) {
+            meterRegistry.counter("orders.idempotency.conflict").increment();
+            throw new IdempotencyConflictException(idempotencyKey);
+        }
+        meterRegistry.counter("orders.idempotency.replayed", "source", "redis").increment();
+        return Optional.of(new Result(orderService.getOrderById(UUID.fromString(parts[0])), true));
+    }
+
+    private Optional<Result> replayFromDatabase(UUID userId, String idempotencyKey, String requestHash, String redisKey) {
+        Optional<IdempotencyKey> record = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (record.isEmpty() || record.get().getOrderId() == null) {
+            return Optional.empty();
+        }
+        verifyHash(record.get().getRequestHash(), requestHash, idempotencyKey);
+        remember(redisKey, record.get().getOrderId(), requestHash);
+        meterRegistry.counter("orders.idempotency.replayed", "source", "db").increment();
+        return Optional.of(new Result(orderService.getOrderById(record.get().getOrderId()), true));
+    }
+
+    private void verifyHash(String storedHash, String requestHash, String idempotencyKey) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IllegalArgumentException(
+                "Idempotency-Key '" + idempotencyKey + "' was already used with a different order request");
+        }
+    }
+
+    /**
+     * Redis'e erişilemezse claim başarılı sayılır (DB unique index yine korur)
+     */
+    private boolean claim(String redisKey, String requestHash) {
+        try {
+            Boolean claimed = redisTemplate.opsForValue().setIfAbsent(redisKey, PENDING + "|" + requestHash, pendingTtl);
+            return !Boolean.FALSE.equals(claimed);
+        } catch (Exception e) {
+            System.err.println("Error claiming idempotency key in Redis: " + e.getMessage());
+            return true;
+        }
+    }
+
+    private void remember(String redisKey, UUID orderId, String requestHash) {
+        try {
+            redisTemplate.opsForValue().set(redisKey, orderId + "|" + requestHash, ttl);
+        } catch (Exception e) {
+            System.err.println("Error storing idempotency key in Redis: " + e.getMessage());
+        }
+    }
+
+    private void release(String redisKey) {
+        try {
+            redisTemplate.delete(redisKey);
+        } catch (Exception e) {
+            System.err.println("Error releasing idempotency key in Redis: " + e.getMessage());
+        }
+    }
+
+    private void validateKey(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * İstek içeriğinin özeti: kullanıcı, teslimat bilgileri ve kalemler (ürün sırasından bağımsız)
+     * Sunucunun doldurduğu alanlar (fiyat, ürün adı, durum) dahil değildir
+     */
+    public static String requestHash(Order order) {
+        StringBuilder canonical = new StringBuilder()
+                .append(order.getUserId()).append('|')
+                .append(order.getAddressId()).append('|')
+                .append(order.getShippingAddress()).append('|')
+                .append(order.getCity()).append('|')
+                .append(order.getZipCode()).append('|')
+                .append(order.getPhoneNumber()).append('|')
+                .append(order.getNotes());
+        if (order.getOrderItems() != null) {
+            order.getOrderItems().stream()
+                    .sorted(Comparator.comparing((OrderItem item) -> String.valueOf(item.getProductId()))
+                            .thenComparing(item -> String.valueOf(item.getQuantity())))
+                    .forEach(item -> canonical.append('|').append(item.getProductId()).append(':').append(item.getQuantity()));
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
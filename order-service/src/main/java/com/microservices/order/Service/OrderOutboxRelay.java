@@ -0,0 +1,243 @@
+package com.microservices.order.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.microservices.order.Model.OutboxEvent;
+import com.microservices.order.Model.OutboxStatus;
+import com.microservices.order.Repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Order Outbox Relay
+ * order_outbox tablosundaki bekleyen event'leri RabbitMQ'ya gönderir
+ *
+ * İşlem Adımları (her batch ayrı transaction):
+ * 1. PENDING event'leri kilitle (en eski önce, SKIP LOCKED → birden fazla instance çakışmaz)
+ * 2. Hepsini publisher confirm (correlated) ile gönder, ardından confirm'leri topluca bekle
+ * 3. Onaylananları tek UPDATE ile SENT yap; onaylanmayanların deneme sayısını artır
+ *
+ * Teslim garantisi at-least-once: confirm gelmeden commit edilemeyen bir batch tekrar gönderilir.
+ * Mesajın message-id'si outbox id'sidir; consumer'lar tekrar gelen mesajları bununla ayıklayabilir.
+ * Sıralama oluşturulma zamanına göredir, ancak bir event tekrar denenirse aynı siparişin
+ * sonraki event'inden sonra ulaşabilir (OrderStatusChangedEvent eski/yeni durumu taşır).
+ *
+ * Metrikler:
+ * - orders.outbox.relay.duration: Tur süresi
+ * - orders.outbox.published: Broker'ın onayladığı event sayısı
+ * - orders.outbox.publish.fail: Başarısız gönderim denemesi sayısı
+ * - orders.outbox.failed: Maksimum denemeyi aşıp FAILED olan event sayısı
+ * - orders.outbox.lag: Event'in yazılması ile broker onayı arasındaki süre
+ */
+@Component
+@ConditionalOnProperty(value = "order.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderOutboxRelay {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long confirmTimeoutMs;
+    private final int maxAttempts;
+    private final long retentionHours;
+    private final Timer relayTimer;
+    private final Timer lagTimer;
+
+    public OrderOutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            RabbitTemplate rabbitTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${order.outbox.relay.batch-size:100}") int batchSize,
+            @Value("${order.outbox.relay.max-batches-per-run:10}") int maxBatchesPerRun,
+            @Value("${order.outbox.relay.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+            @Value("${order.outbox.relay.max-attempts:20}") int maxAttempts,
+            @Value("${order.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retentionHours = retentionHours;
+        this.relayTimer = Timer.builder("orders.outbox.relay.duration").register(meterRegistry);
+        this.lagTimer = Timer.builder("orders.outbox.lag").register(meterRegistry);
+    }
+
+    /**
+     * Bekleyen event'leri gönder
+     * fixedDelay: Bir tur bitmeden diğeri başlamaz
+     */
+    @Scheduled(
+        fixedDelayString = "${order.outbox.relay.interval-ms:200}",
+        initialDelayString = "${order.outbox.relay.initial-delay-ms:5000}")
+    public void relay() {
+        relayTimer.record(() -> {
+            try {
+                for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                    Boolean hasMore = transactionTemplate.execute(status -> publishBatch());
+                    if (!Boolean.TRUE.equals(hasMore)) {
+                        break;  // Sırada event kalmadı veya broker onaylamadı, sonraki turda tekrar denenir
+                    }
+                }
+            } catch (Exception e) {
+                // Hata bir sonraki turu engellemez; event'ler PENDING kalır
+                System.err.println("Error relaying order outbox events: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Saklama süresi dolmuş SENT event'leri sil (tablo ve index küçük kalsın)
+     */
+    @Scheduled(
+        fixedDelayString = "${order.outbox.cleanup.interval-ms:3600000}",
+        initialDelayString = "${order.outbox.cleanup.interval-ms:3600000}")
+    public void purgeSentEvents() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+            Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteSentBefore(before));
+            meterRegistry.counter("orders.outbox.purged").increment(deleted != null ? deleted : 0);
+        } catch (Exception e) {
+            System.err.println("Error purging sent order outbox events: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bir batch gönder (çağıran transaction içinde)
+     *
+     * @return Tam dolu batch sorunsuz gönderildiyse true (sırada event kalmış olabilir)
+     */
+    boolean publishBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findPendingForUpdate(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return false;
+        }
+
+        // Tüm mesajları gönder, confirm'leri sonra bekle (mesaj başına round-trip beklenmez)
+        Map<OutboxEvent, CorrelationData> inFlight = new LinkedHashMap<>();
+        String sendError = null;
+        for (OutboxEvent event : events) {
+            CorrelationData correlationData = new CorrelationData(event.getId().toString());
+            try {
+                rabbitTemplate.send(event.getExchange(), event.getRoutingKey(), toMessage(event), correlationData);
+                inFlight.put(event, correlationData);
+            } catch (AmqpException e) {
+                // Broker'a erişilemiyor: kalan event'ler bu batch'te denenmez
+                sendError = e.getMessage();
+                break;
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> acked = new ArrayList<>();
+        for (Map.Entry<OutboxEvent, CorrelationData> entry : inFlight.entrySet()) {
+            OutboxEvent event = entry.getKey();
+            String error = awaitConfirm(entry.getValue(), deadline);
+            if (error == null) {
+                acked.add(event.getId());
+                lagTimer.record(Duration.between(event.getCreatedAt(), now));
+            } else {
+                recordFailure(event, error);
+            }
+        }
+        if (sendError != null) {
+            recordFailure(events.get(inFlight.size()), sendError);
+        }
+
+        if (!acked.isEmpty()) {
+            outboxEventRepository.markSent(acked, now);
+            meterRegistry.counter("orders.outbox.published").increment(acked.size());
+        }
+        return events.size() == batchSize && acked.size() == events.size();
+    }
+
+    /**
+     * Publisher confirm'i bekle
+     *
+     * @return Hata mesajı; broker onayladıysa null
+     */
+    private String awaitConfirm(CorrelationData correlationData, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            CorrelationData.Confirm confirm = correlationData.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                return "Broker nack: " + confirm.getReason();
+            }
+            if (correlationData.getReturned() != null) {
+                // mandatory: exchange mesajı hiçbir kuyruğa yönlendiremedi
+                return "Message returned: " + correlationData.getReturned().getReplyText();
+            }
+            return null;
+        } catch (TimeoutException e) {
+            return "Publisher confirm timed out";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while waiting for publisher confirm";
+        } catch (ExecutionException e) {
+            return e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        }
+    }
+
+    /**
+     * Başarısız denemeyi kaydet; maksimum deneme aşılırsa event FAILED olur
+     * (entity yönetilen durumda, transaction commit'inde yazılır)
+     */
+    private void recordFailure(OutboxEvent event, String error) {
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error);
+        meterRegistry.counter("orders.outbox.publish.fail").increment();
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            meterRegistry.counter("orders.outbox.failed").increment();
+            System.err.println("Order outbox event " + event.getId() + " failed after "
+                    + event.getAttempts() + " attempts: " + error);
+        }
+    }
+
+    /**
+     * Outbox kaydından AMQP mesajı oluştur
+     * Header'lar Jackson2JsonMessageConverter'ın ürettikleriyle aynı (consumer tarafı değişmez)
+     */
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setMessageId(event.getId().toString());
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getEventType());
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,77 @@
+package com.microservices.order.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.microservices.order.Model.OutboxEvent;
+import com.microservices.order.Repository.OutboxEventRepository;
+
+/**
+ * Order Outbox Service
+ * Order event'lerini RabbitMQ'ya doğrudan göndermek yerine order_outbox tablosuna yazar
+ * 
+ * Önemli Notlar:
+ * - Çağıran transaction'a katılır (MANDATORY): event, siparişle birlikte commit/rollback olur
+ * - Broker gecikmesi/hatası sipariş akışını etkilemez; gönderimi OrderOutboxRelay yapar
+ * - Payload, RabbitTemplate ile aynı converter ile üretilir (consumer'lar için format değişmez)
+ */
+@Service
+public class OrderOutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final Jackson2JsonMessageConverter messageConverter;
+
+    public OrderOutboxService(
+            OutboxEventRepository outboxEventRepository,
+            Jackson2JsonMessageConverter messageConverter) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.messageConverter = messageConverter;
+    }
+
+    /**
+     * Event'i outbox'a yaz
+     * 
+     * @param exchange RabbitMQ exchange
+     * @param routingKey Routing key
+     * @param aggregateId Event'in ait olduğu sipariş ID'si
+     * @param event Gönderilecek event (OrderCreatedEvent, OrderStatusChangedEvent)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent enqueue(String exchange, String routingKey, UUID aggregateId, Object event) {
+        return outboxEventRepository.save(toOutboxEvent(exchange, routingKey, aggregateId, event));
+    }
+
+    /**
+     * Birden fazla event'i outbox'a tek batch insert ile yaz (toplu durum geçişi)
+     * 
+     * @param eventsByAggregateId Sipariş ID → event (sıra korunur)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<OutboxEvent> enqueueAll(String exchange, String routingKey, Map<UUID, ?> eventsByAggregateId) {
+        List<OutboxEvent> outboxEvents = new ArrayList<>(eventsByAggregateId.size());
+        eventsByAggregateId.forEach((aggregateId, event) ->
+                outboxEvents.add(toOutboxEvent(exchange, routingKey, aggregateId, event)));
+        return outboxEventRepository.saveAll(outboxEvents);
+    }
+
+    private OutboxEvent toOutboxEvent(String exchange, String routingKey, UUID aggregateId, Object event) {
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateId(aggregateId);
+        outboxEvent.setEventType(event.getClass().getName());
+        outboxEvent.setExchange(exchange);
+        outboxEvent.setRoutingKey(routingKey);
+        outboxEvent.setPayload(new String(message.getBody(), StandardCharsets.UTF_8));
+        return outboxEvent;
+    }
+}
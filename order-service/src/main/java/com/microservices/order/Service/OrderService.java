@@ -1,17 +1,29 @@
 package com.microservices.order.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.Timer.Sample;
@@ -20,13 +32,18 @@ import com.microservices.order.Client.InventoryServiceClient;
 import com.microservices.order.Client.ProductServiceClient;
 import com.microservices.order.Client.UserServiceClient;
 import com.microservices.order.Config.RabbitMQConfig;
-import com.microservices.order.Controller.OrderWebSocketController;
+import com.microservices.order.Config.ReplicaRoutingDataSource;
+import com.microservices.order.DTO.OrderCursor;
 import com.microservices.order.DTO.OrderStatusUpdate;
+import com.microservices.order.DTO.OrderSummary;
+import com.microservices.order.DTO.OrderSummaryPage;
 import com.microservices.order.Event.OrderCreatedEvent;
 import com.microservices.order.Event.OrderStatusChangedEvent;
+import com.microservices.order.Exception.DependencyUnavailableException;
 import com.microservices.order.Exception.ResourceNotFoundException;
 
 import feign.FeignException;
+import com.microservices.order.Model.CheckoutStatus;
 import com.microservices.order.Model.Order;
 import com.microservices.order.Model.OrderItem;
 import com.microservices.order.Model.OrderStatus;
@@ -43,73 +60,156 @@ import com.microservices.order.Repository.OrderRepository;
  * - Inventory Service ile stok kontrolü yapılır (Feign Client ile)
  * - Product Service ile ürün bilgileri çekilir (Feign Client ile)
  * - User Service ile kullanıcı doğrulama yapılır (Feign Client ile)
+ * - Event'ler siparişle aynı transaction'da outbox'a yazılır, RabbitMQ'ya OrderOutboxRelay gönderir
+ * - Downstream çağrılar DependencyTimers ile, public hot path metotları @Timed (orders.service) ile ölçülür
  */
 @Service
 public class OrderService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final ProductServiceClient productServiceClient;
     private final InventoryServiceClient inventoryServiceClient;
     private final UserServiceClient userServiceClient;
-    private final RabbitTemplate rabbitTemplate;
-    private final OrderWebSocketController webSocketController;
+    private final OrderOutboxService outboxService;
+    private final OrderCacheInvalidator cacheInvalidator;
+    private final OrderStatusPushQueue statusPushQueue;
     private final MeterRegistry meterRegistry;
+    private final DependencyTimers dependencyTimers;
+    private final InventoryAvailabilityReplica inventoryReplica;
+    private final Executor enrichmentExecutor;
+    private final long enrichmentTimeoutMs;
+    private final int paymentHoldSeconds;
 
     public OrderService(
             OrderRepository orderRepository,
             ProductServiceClient productServiceClient,
             InventoryServiceClient inventoryServiceClient,
             UserServiceClient userServiceClient,
-            RabbitTemplate rabbitTemplate,
-            OrderWebSocketController webSocketController,
-            MeterRegistry meterRegistry) {
+            OrderOutboxService outboxService,
+            OrderCacheInvalidator cacheInvalidator,
+            OrderStatusPushQueue statusPushQueue,
+            MeterRegistry meterRegistry,
+            DependencyTimers dependencyTimers,
+            InventoryAvailabilityReplica inventoryReplica,
+            @Qualifier("orderEnrichmentExecutor") Executor enrichmentExecutor,
+            @Value("${order.enrichment.timeout-ms:6000}") long enrichmentTimeoutMs,
+            @Value("${order.reservation.payment-hold-seconds:900}") int paymentHoldSeconds) {
         this.orderRepository = orderRepository;
         this.productServiceClient = productServiceClient;
         this.inventoryServiceClient = inventoryServiceClient;
         this.userServiceClient = userServiceClient;
-        this.rabbitTemplate = rabbitTemplate;
-        this.webSocketController = webSocketController;
+        this.outboxService = outboxService;
+        this.cacheInvalidator = cacheInvalidator;
+        this.statusPushQueue = statusPushQueue;
         this.meterRegistry = meterRegistry;
+        this.dependencyTimers = dependencyTimers;
+        this.inventoryReplica = inventoryReplica;
+        this.enrichmentExecutor = enrichmentExecutor;
+        this.enrichmentTimeoutMs = enrichmentTimeoutMs;
+        this.paymentHoldSeconds = paymentHoldSeconds;
     }
 
     /**
-     * Tüm siparişleri getir
+     * Tüm siparişleri getir (keyset sayfalı özet)
      * Admin paneli için kullanılır
+     * Sadece varsayılan boyuttaki ilk sayfa cache'lenir (içerdiği siparişlerle tag'lenir)
+     * 
+     * Read-only: replica etkinse sonraki sayfalar replica'dan okunur.
+     * Cache'lenen ilk sayfa primary'den okunur; gecikmeli replica verisi invalidation'dan
+     * sonra cache'e yazılıp TTL boyunca kalmasın.
      */
-    @Cacheable(value = "orders", key = "'all'")
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    @Transactional(readOnly = true)
+    public OrderSummaryPage getAllOrders(String cursor, int limit) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        int pageSize = validatePageSize(limit);
+        if (isCachedPage(cursor, limit)) {
+            return cacheInvalidator.cachedList(OrderCacheInvalidator.ALL_ORDERS_KEY,
+                    () -> ReplicaRoutingDataSource.onPrimary(() -> toPage(orderRepository.findSummariesBefore(
+                            position.getCreatedAt(), position.getId(), PageRequest.of(0, pageSize + 1)), pageSize)));
+        }
+        return toPage(orderRepository.findSummariesBefore(
+                position.getCreatedAt(), position.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     /**
      * ID'ye göre sipariş getir
+     * Kalemler aynı sorguda yüklenir (durum geçişleri de bu metodu kullanır)
      */
     @Cacheable(value = "orders", key = "#orderId.toString()")
     public Order getOrderById(UUID orderId) {
-        return orderRepository.findById(orderId)
+        return orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
     }
 
     /**
-     * User ID'ye göre siparişleri getir
-     * Kullanıcının tüm siparişlerini listeler
+     * User ID'ye göre siparişleri getir (keyset sayfalı özet)
+     * Kullanıcının siparişlerini en yeni önce listeler
+     * Sadece varsayılan boyuttaki ilk sayfa cache'lenir (içerdiği siparişlerle tag'lenir)
+     */
+    public OrderSummaryPage getOrdersByUserId(UUID userId, String cursor, int limit) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        int pageSize = validatePageSize(limit);
+        Supplier<OrderSummaryPage> loader = () -> toPage(orderRepository.findSummariesByUserIdBefore(
+                userId, position.getCreatedAt(), position.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
+        if (isCachedPage(cursor, limit)) {
+            return cacheInvalidator.cachedList(OrderCacheInvalidator.userOrdersKey(userId), loader);
+        }
+        return loader.get();
+    }
+
+    /**
+     * Sipariş durumuna göre filtrele (keyset sayfalı özet)
+     * Raporlama sorgusu: replica etkinse replica'dan okunur
      */
-    @Cacheable(value = "orders", key = "'user:' + #userId.toString()")
-    public List<Order> getOrdersByUserId(UUID userId) {
-        return orderRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public OrderSummaryPage getOrdersByStatus(OrderStatus status, String cursor, int limit) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        int pageSize = validatePageSize(limit);
+        return toPage(orderRepository.findSummariesByStatusBefore(
+                status, position.getCreatedAt(), position.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     /**
-     * Sipariş durumuna göre filtrele
+     * Kullanıcının belirli durumdaki siparişlerini getir (keyset sayfalı özet)
+     * Raporlama sorgusu: replica etkinse replica'dan okunur
      */
-    public List<Order> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public OrderSummaryPage getOrdersByUserIdAndStatus(UUID userId, OrderStatus status, String cursor, int limit) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        int pageSize = validatePageSize(limit);
+        return toPage(orderRepository.findSummariesByUserIdAndStatusBefore(
+                userId, status, position.getCreatedAt(), position.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    /**
+     * Cache'lenen liste sayfası: sadece varsayılan boyuttaki ilk sayfa
+     */
+    private boolean isCachedPage(String cursor, int limit) {
+        return cursor == null && limit == DEFAULT_PAGE_SIZE;
+    }
+
+    private int validatePageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
     }
 
     /**
-     * Kullanıcının belirli durumdaki siparişlerini getir
+     * Sorgu pageSize + 1 kayıt çeker: fazladan kayıt varsa sonraki sayfa vardır
+     * nextCursor sayfanın son kaydının (createdAt, id) değeridir
      */
-    public List<Order> getOrdersByUserIdAndStatus(UUID userId, OrderStatus status) {
-        return orderRepository.findByUserIdAndStatus(userId, status);
+    private OrderSummaryPage toPage(List<OrderSummary> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummary> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummary last = items.get(items.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new OrderSummaryPage(items, nextCursor, hasMore);
     }
 
     /**
@@ -128,19 +228,59 @@ public class OrderService {
      * 5. Siparişi kaydet
      */
     @Transactional
-    @CacheEvict(value = "orders", key = "'user:' + #order.userId.toString()")  // Kullanıcının sipariş listesi cache'ini temizle
+    @Timed(value = "orders.service", histogram = true)
     public Order createOrder(Order order) {
         Sample sample = Timer.start(meterRegistry);
+        String outcome = DependencyTimers.ERROR;
+        try {
+            // 1-4. Kullanıcı, ürün ve stok doğrulaması + snapshot
+            prepareOrder(order);
+            
+            // 5. Siparişi kaydet
+            Order savedOrder = dependencyTimers.record(DependencyTimers.DB_SAVE, () -> orderRepository.save(order));
+            meterRegistry.counter("orders.created.count").increment();
+            cacheInvalidator.evictListsForNewOrder(savedOrder.getUserId());  // Yeni sipariş 'all' ve kullanıcı listesinin başına girer
+            
+            // 6. OrderCreatedEvent'i outbox'a yaz (aynı transaction)
+            // Broker'a gönderim OrderOutboxRelay'de yapılır; RabbitMQ gecikmesi/hatası checkout'u etkilemez
+            // OrderItem'lar savedOrder üzerinde zaten yüklü, yeniden fetch gerekmez
+            dependencyTimers.run(DependencyTimers.EVENT_PUBLISH, () -> sendOrderCreatedEvent(savedOrder));
+            outcome = DependencyTimers.SUCCESS;
+            return savedOrder;
+        } catch (RuntimeException e) {
+            outcome = DependencyTimers.checkoutOutcomeOf(e);
+            throw e;
+        } finally {
+            // Tüm yollar (erken hata dahil) tek yerde ölçülür
+            dependencyTimers.stopCheckout(sample, outcome);
+        }
+    }
+
+    /**
+     * Siparişi kaydetmeye hazırla (senkron createOrder ve asenkron checkout pipeline'ı ortak kullanır)
+     * 
+     * 1. User Service ile kullanıcı doğrulama + iletişim snapshot'ı (adres yoksa default adres)
+     * 2. Yerel stok replikası ile ön kontrol (kesin yetersizse Product/Inventory'ye gitmeden reddedilir)
+     *    ve Product/Inventory Service'ten ürün ve stok bilgileri (paralel)
+     * 3. Toplu stok kontrolü
+     * 4. OrderItem snapshot'ları (ürün adı, fiyat) ve toplam tutar
+     * 
+     * Siparişi kaydetmez; doğrulama hatasında ResourceNotFoundException/IllegalArgumentException fırlatır.
+     * Her downstream çağrı DependencyTimers ile ayrı ölçülür; toplam süreyi çağıran taraf ölçer.
+     * @Timed yalnızca proxy üzerinden gelen çağrıları (OrderCheckoutPipeline) ölçer; createOrder içindeki
+     * self-invocation proxy'den geçmez, o süre createOrder'ın kendi @Timed metriğine dahildir.
+     */
+    @Timed(value = "orders.service", histogram = true)
+    public void prepareOrder(Order order) {
         // 1. Kullanıcı doğrulama
         UserServiceClient.UserResponse user;
         try {
-            user = userServiceClient.getUserById(order.getUserId());
+            user = dependencyTimers.record(DependencyTimers.USER, () -> userServiceClient.getUserById(order.getUserId()));
         } catch (FeignException.NotFound e) {
             meterRegistry.counter("orders.created.fail", "exception", "UserNotFound").increment();
             throw new ResourceNotFoundException("User", "id", order.getUserId());
         } catch (RuntimeException e) {
             meterRegistry.counter("orders.created.fail", "exception", e.getClass().getSimpleName()).increment();
-            sample.stop(Timer.builder("orders.created.duration").register(meterRegistry));
             throw e;
         }
         
@@ -148,6 +288,9 @@ public class OrderService {
             throw new ResourceNotFoundException("User", "id", order.getUserId());
         }
         
+        // Müşteri iletişim bilgisi snapshot'ı (sonraki event'ler User Service'e gitmez)
+        applyCustomerContact(order, user);
+        
         // Eğer adres bilgileri gönderilmediyse, kullanıcının default adresini kullan
         if (order.getShippingAddress() == null || order.getShippingAddress().isEmpty()) {
             order.setShippingAddress(user.getAddress());
@@ -165,45 +308,31 @@ public class OrderService {
         Map<UUID, Integer> stockCheckRequest = new HashMap<>();
         Map<UUID, ProductServiceClient.ProductResponse> productMap = new HashMap<>();
         Map<UUID, InventoryServiceClient.InventoryResponse> inventoryMap = new HashMap<>();
-        
+
         for (OrderItem item : order.getOrderItems()) {
-            UUID productId = item.getProductId();
-            Integer quantity = item.getQuantity();
-            
-            // Ürün bilgilerini çek
-            ProductServiceClient.ProductResponse product;
-            try {
-                product = productServiceClient.getProductById(productId);
-            } catch (FeignException.NotFound e) {
-                meterRegistry.counter("orders.created.fail", "exception", "ProductNotFound").increment();
-                sample.stop(Timer.builder("orders.created.duration").register(meterRegistry));
-                throw new ResourceNotFoundException("Product", "id", productId);
-            }
-            if (product == null) {
-                throw new ResourceNotFoundException("Product", "id", productId);
-            }
-            productMap.put(productId, product);
-            
-            // Stok bilgisini çek
-            InventoryServiceClient.InventoryResponse inventory;
-            try {
-                inventory = inventoryServiceClient.getInventoryByProductId(productId);
-            } catch (FeignException.NotFound e) {
-                meterRegistry.counter("orders.created.fail", "exception", "InventoryNotFound").increment();
-                sample.stop(Timer.builder("orders.created.duration").register(meterRegistry));
-                throw new ResourceNotFoundException("Inventory", "productId", productId);
-            }
-            if (inventory == null) {
-                throw new ResourceNotFoundException("Inventory", "productId", productId);
-            }
-            inventoryMap.put(productId, inventory);
-            
             // Stok kontrolü için ekle
-            stockCheckRequest.put(productId, quantity);
+            stockCheckRequest.put(item.getProductId(), item.getQuantity());
         }
         
+        // Yerel replika ön kontrolü (StockLevelChanged event'leri): sadece reddeder, onay Inventory Service'te
+        Map<UUID, Integer> knownInsufficient = inventoryReplica.findInsufficient(stockCheckRequest);
+        if (!knownInsufficient.isEmpty()) {
+            Map.Entry<UUID, Integer> first = knownInsufficient.entrySet().iterator().next();
+            throw new IllegalArgumentException(
+                String.format("Insufficient stock for product %s. Requested: %d, Available: %d",
+                    first.getKey(), stockCheckRequest.get(first.getKey()), first.getValue()));
+        }
+
+        // Ürün ve stok bilgilerini paralel çek (tek bir toplam süre sınırı altında)
+        List<UUID> productIds = order.getOrderItems().stream()
+                .map(OrderItem::getProductId)
+                .distinct()
+                .toList();
+        fetchProductsAndInventories(productIds, productMap, inventoryMap);
+        
         // Toplu stok kontrolü
-        Map<UUID, Boolean> stockAvailability = inventoryServiceClient.checkStockAvailability(stockCheckRequest);
+        Map<UUID, Boolean> stockAvailability = dependencyTimers.record(DependencyTimers.STOCK_CHECK,
+                () -> inventoryServiceClient.checkStockAvailability(stockCheckRequest));
         
         // Stok kontrolü sonuçlarını kontrol et
         for (Map.Entry<UUID, Boolean> entry : stockAvailability.entrySet()) {
@@ -241,32 +370,172 @@ public class OrderService {
         
         // 4. Toplam tutarı hesapla
         order.setTotalAmount(order.calculateTotalAmount());
-        
-        // 5. Siparişi kaydet
-        Order savedOrder = orderRepository.save(order);
+    }
+
+    /**
+     * Asenkron checkout: sipariş iskeletini kaydet (POST /orders/async)
+     * 
+     * Remote çağrı yapılmaz. Sipariş PENDING + VALIDATING olarak kaydedilir,
+     * fiyat/ürün adı OrderCheckoutPipeline'da Product Service'ten doldurulur (fiyatlar 0 placeholder).
+     * OrderCreatedEvent doğrulama tamamlanınca (completeCheckout) yazılır.
+     */
+    @Transactional
+    @Timed(value = "orders.service", histogram = true)
+    public Order acceptOrder(Order order) {
+        for (OrderItem item : order.getOrderItems()) {
+            item.setOrder(order);
+            item.setProductName(null);
+            item.setPrice(BigDecimal.ZERO);
+            item.setSubtotal(BigDecimal.ZERO);
+        }
+        order.setId(null);
+        order.setStatus(OrderStatus.PENDING);
+        order.setCheckoutStatus(CheckoutStatus.VALIDATING);
+        order.setTotalAmount(BigDecimal.ZERO);
+
+        Order saved = orderRepository.save(order);
+        meterRegistry.counter("orders.checkout.async.accepted").increment();
+        cacheInvalidator.evictListsForNewOrder(saved.getUserId());
+        return saved;
+    }
+
+    /**
+     * Asenkron checkout'u tamamla: prepareOrder ile doğrulanmış siparişi kaydet + OrderCreatedEvent
+     * 
+     * Satır kilidi ile okunur: sipariş bu arada iptal edildiyse veya başka bir pipeline çalışması
+     * tamamladıysa hiçbir şey yapılmaz (null döner), event iki kez yazılmaz.
+     */
+    @Transactional
+    @Timed(value = "orders.service", histogram = true)
+    public Order completeCheckout(Order prepared) {
+        Order current = orderRepository.findForUpdateById(prepared.getId()).orElse(null);
+        if (current == null || current.getStatus() != OrderStatus.PENDING
+                || current.getCheckoutStatus() != CheckoutStatus.VALIDATING) {
+            return null;
+        }
+        prepared.setStatus(OrderStatus.PENDING);
+        prepared.setCheckoutStatus(CheckoutStatus.COMPLETED);
+        Order saved = orderRepository.save(prepared);
         meterRegistry.counter("orders.created.count").increment();
-        
-        // 6. RabbitMQ'ya OrderCreatedEvent gönder (asenkron)
-        // OrderItems'ı initialize etmek için order'ı yeniden fetch et
+        meterRegistry.counter("orders.checkout.async.completed").increment();
+        cacheInvalidator.evictOrder(saved.getId(), saved.getUserId());
+        sendOrderCreatedEvent(saved);
+        return saved;
+    }
+
+    /**
+     * Asenkron checkout'u reddet: sipariş CANCELLED + REJECTED (sebep rejectionReason'da)
+     * Stok rezerve edilmediği için serbest bırakılacak bir şey yoktur; OrderCreatedEvent hiç yazılmamıştır.
+     */
+    @Transactional
+    public Order rejectCheckout(UUID orderId, String reason) {
+        Order order = orderRepository.findForUpdateById(orderId).orElse(null);
+        if (order == null || order.getCheckoutStatus() != CheckoutStatus.VALIDATING) {
+            return null;
+        }
+        order.updateStatus(OrderStatus.CANCELLED);
+        order.setCheckoutStatus(CheckoutStatus.REJECTED);
+        order.setRejectionReason(reason != null && reason.length() > 500 ? reason.substring(0, 500) : reason);
+        Order saved = orderRepository.save(order);
+        meterRegistry.counter("orders.checkout.async.rejected").increment();
+        cacheInvalidator.evictOrder(orderId, saved.getUserId());
+        return saved;
+    }
+
+    /**
+     * Ürün ve stok bilgilerini batch endpoint'lerle paralel çek
+     *
+     * Sepetteki tüm ürünler için Product Service'e tek (POST /products/batch) ve
+     * Inventory Service'e tek (POST /inventory/product/batch) çağrı yapılır.
+     * İki çağrı orderEnrichmentExecutor üzerinde aynı anda başlatılır ve
+     * tek bir toplam süre sınırı (order.enrichment.timeout-ms) altında beklenir.
+     * Böylece N kalemli sepet 2N çağrı yerine 2 paralel çağrı ile zenginleştirilir.
+     *
+     * Hata semantiği tekil lookup'larla aynıdır: sonuçlar kalem sırasıyla değerlendirilir,
+     * batch response'ta olmayan ilk ürün/stok için ResourceNotFoundException fırlatılır.
+     * Süre aşılırsa veya bekleme kesilirse iki çağrı da iptal edilir ve DependencyUnavailableException (503) fırlatılır.
+     */
+    private void fetchProductsAndInventories(
+            List<UUID> productIds,
+            Map<UUID, ProductServiceClient.ProductResponse> productMap,
+            Map<UUID, InventoryServiceClient.InventoryResponse> inventoryMap) {
+        // Süreler executor thread'inde ölçülür (kuyrukta bekleme hariç, sadece çağrının kendisi)
+        CompletableFuture<List<ProductServiceClient.ProductResponse>> productsFuture = CompletableFuture.supplyAsync(
+                () -> dependencyTimers.record(DependencyTimers.PRODUCT,
+                        () -> productServiceClient.getProductsByIds(productIds)), enrichmentExecutor);
+        CompletableFuture<List<InventoryServiceClient.InventoryResponse>> inventoriesFuture = CompletableFuture.supplyAsync(
+                () -> dependencyTimers.record(DependencyTimers.INVENTORY,
+                        () -> inventoryServiceClient.getInventoriesByProductIds(productIds)), enrichmentExecutor);
+
         try {
-            Order orderForEvent = orderRepository.findById(savedOrder.getId())
-                .orElse(savedOrder);
-            sendOrderCreatedEvent(orderForEvent, user);
-        } catch (Exception e) {
-            // RabbitMQ hatası sipariş oluşturmayı engellemez
-            // Log'a yazılmalı (production'da logger kullanılmalı)
-            System.err.println("Error sending OrderCreatedEvent: " + e.getMessage());
-            e.printStackTrace();
+            CompletableFuture.allOf(productsFuture, inventoriesFuture)
+                    .get(enrichmentTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            productsFuture.cancel(true);
+            inventoriesFuture.cancel(true);
+            meterRegistry.counter("orders.created.fail", "exception", "EnrichmentTimeout").increment();
+            throw new DependencyUnavailableException(String.format(
+                    "Product/inventory lookups did not complete within %d ms", enrichmentTimeoutMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            productsFuture.cancel(true);
+            inventoriesFuture.cancel(true);
+            meterRegistry.counter("orders.created.fail", "exception", "EnrichmentInterrupted").increment();
+            throw new DependencyUnavailableException("Interrupted while fetching product/inventory details", e);
+        } catch (ExecutionException e) {
+            // Hatalar aşağıda joinLookup ile ele alınır (önce ürün, sonra stok)
+        }
+
+        List<ProductServiceClient.ProductResponse> products = joinLookup(productsFuture);
+        if (products != null) {
+            for (ProductServiceClient.ProductResponse product : products) {
+                if (product != null && product.getId() != null) {
+                    productMap.put(product.getId(), product);
+                }
+            }
+        }
+        List<InventoryServiceClient.InventoryResponse> inventories = joinLookup(inventoriesFuture);
+        if (inventories != null) {
+            for (InventoryServiceClient.InventoryResponse inventory : inventories) {
+                if (inventory != null && inventory.getProductId() != null) {
+                    inventoryMap.put(inventory.getProductId(), inventory);
+                }
+            }
+        }
+
+        for (UUID productId : productIds) {
+            if (!productMap.containsKey(productId)) {
+                meterRegistry.counter("orders.created.fail", "exception", "ProductNotFound").increment();
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+            if (!inventoryMap.containsKey(productId)) {
+                meterRegistry.counter("orders.created.fail", "exception", "InventoryNotFound").increment();
+                throw new ResourceNotFoundException("Inventory", "productId", productId);
+            }
         }
-        sample.stop(Timer.builder("orders.created.duration").register(meterRegistry));
-        return savedOrder;
     }
-    
+
+    /**
+     * Tamamlanmış bir lookup future'ının sonucunu al
+     * CompletionException içindeki asıl hatayı (örn. FeignException) dışarı çıkarır
+     */
+    private <T> T joinLookup(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
     /**
      * OrderCreatedEvent gönder
-     * RabbitMQ'ya asenkron mesaj gönderir
+     * Event outbox'a yazılır, RabbitMQ'ya OrderOutboxRelay gönderir
      */
-    private void sendOrderCreatedEvent(Order order, UserServiceClient.UserResponse user) {
+    private void sendOrderCreatedEvent(Order order) {
         // OrderItem bilgilerini event için hazırla
         // Lazy loading hatası önlemek için orderItems'ı yeni bir listeye kopyala
         List<OrderItem> orderItems = order.getOrderItems();
@@ -289,8 +558,8 @@ public class OrderService {
         OrderCreatedEvent event = new OrderCreatedEvent(
             order.getId(),
             order.getUserId(),
-            user.getEmail(),
-            user.getFirstName() + " " + user.getLastName(),
+            order.getCustomerEmail(),
+            order.getCustomerName(),
             order.getTotalAmount(),
             order.getShippingAddress(),
             order.getCity(),
@@ -300,10 +569,11 @@ public class OrderService {
             orderItemInfos
         );
         
-        // RabbitMQ'ya gönder (Exchange ve Routing Key kullanarak)
-        rabbitTemplate.convertAndSend(
+        // Outbox'a yaz (Exchange ve Routing Key relay tarafından kullanılır)
+        outboxService.enqueue(
             RabbitMQConfig.ORDER_EXCHANGE,
             RabbitMQConfig.ROUTING_KEY_CREATED,
+            order.getId(),
             event
         );
     }
@@ -312,107 +582,94 @@ public class OrderService {
      * Sipariş durumunu güncelle
      * 
      * Örnek durum geçişleri:
+     * - PENDING → PAYMENT_PENDING (stoklar süreli olarak tutulur - hold)
      * - PENDING → CONFIRMED (stok kontrolü yapıldı, stoklar rezerve edilir)
      * - CONFIRMED → PROCESSING (hazırlanıyor)
      * - PROCESSING → SHIPPED (kargoya verildi)
      * - SHIPPED → DELIVERED (teslim edildi)
      * - Herhangi bir durum → CANCELLED (iptal edildi)
+     * 
+     * CONFIRMED/PAYMENT_PENDING geçişi stok rezerve edilemezse yapılmaz (bkz. reserveOrderStock)
      */
     @Transactional
-    @CacheEvict(value = "orders", key = "#orderId.toString()")  // Bu siparişin cache'ini temizle
+    @Timed(value = "orders.service", histogram = true)
     public Order updateOrderStatus(UUID orderId, OrderStatus newStatus) {
         Order order = getOrderById(orderId);
         
         // Durum geçişi kontrolü
+        ensureCheckoutCompleted(order);
         validateStatusTransition(order.getStatus(), newStatus);
         
         // PENDING/PAYMENT_PENDING → CONFIRMED geçişinde stokları rezerve et
         if ((order.getStatus() == OrderStatus.PENDING || order.getStatus() == OrderStatus.PAYMENT_PENDING)
                 && newStatus == OrderStatus.CONFIRMED) {
-            for (OrderItem item : order.getOrderItems()) {
-                try {
-                    // Inventory bilgisini çek
-                    InventoryServiceClient.InventoryResponse inventory = 
-                        inventoryServiceClient.getInventoryByProductId(item.getProductId());
-                    
-                    if (inventory != null) {
-                        // Stokları rezerve et
-                        inventoryServiceClient.reserveStock(
-                            inventory.getId(), 
-                            item.getQuantity());
-                    }
-                } catch (Exception e) {
-                    // Log hatası ama sipariş onay işlemini durdurma
-                    // Production'da logger kullanılmalı
-                    System.err.println("Error reserving stock for product " + 
-                        item.getProductId() + ": " + e.getMessage());
-                }
-            }
+            // Tüm kalemler tek çağrıda, tek transaction'da rezerve edilir (all-or-nothing)
+            // Ödeme beklerken konmuş hold varsa kalıcı hale gelir
+            reserveOrderStock(order, null);
+        } else if (newStatus == OrderStatus.PAYMENT_PENDING) {
+            // Ödeme beklenirken stok süreli tutulur (terk edilirse Inventory Service serbest bırakır)
+            reserveOrderStock(order, paymentHoldSeconds);
         }
         
         OrderStatus oldStatus = order.getStatus();
         order.updateStatus(newStatus);
         Order savedOrder = orderRepository.save(order);
-        meterRegistry.counter("orders.status.change.count", "to", newStatus.name()).increment();
+        cacheInvalidator.evictOrder(orderId, savedOrder.getUserId());  // Detay + siparişi içeren listeler (commit sonrası)
+        recordStatusChange(newStatus, 1);
+        
+        // OrderStatusChangedEvent'i outbox'a yaz (durum değişikliği ile aynı transaction)
+        sendOrderStatusChangedEvent(savedOrder, oldStatus);
+        
+        // WebSocket'e real-time update: commit sonrası kuyruktan, aynı siparişin ardışık update'leri birleştirilerek
+        statusPushQueue.enqueue(new OrderStatusUpdate(
+            savedOrder.getId(),
+            oldStatus,
+            newStatus,
+            savedOrder.getUserId()
+        ));
+        
+        return savedOrder;
+    }
 
-        // Success/failure funnels
+    /**
+     * Durum değişikliği metrikleri (success/failure funnel'ları)
+     * Toplu geçişte sipariş sayısı kadar artırılır
+     */
+    void recordStatusChange(OrderStatus newStatus, int count) {
+        meterRegistry.counter("orders.status.change.count", "to", newStatus.name()).increment(count);
         if (newStatus == OrderStatus.DELIVERED) {
-            meterRegistry.counter("orders.delivered.count").increment();
+            meterRegistry.counter("orders.delivered.count").increment(count);
         } else if (newStatus == OrderStatus.CANCELLED) {
-            meterRegistry.counter("orders.cancelled.count").increment();
+            meterRegistry.counter("orders.cancelled.count").increment(count);
         } else if (newStatus == OrderStatus.PAYMENT_FAILED) {
-            meterRegistry.counter("orders.payment.fail.count").increment();
+            meterRegistry.counter("orders.payment.fail.count").increment(count);
         } else if (newStatus == OrderStatus.PAYMENT_PENDING) {
-            meterRegistry.counter("orders.payment.pending.count").increment();
+            meterRegistry.counter("orders.payment.pending.count").increment(count);
         } else if (newStatus == OrderStatus.REFUND_REQUESTED) {
-            meterRegistry.counter("orders.refund.request.count").increment();
+            meterRegistry.counter("orders.refund.request.count").increment(count);
         } else if (newStatus == OrderStatus.REFUNDED) {
-            meterRegistry.counter("orders.refunded.count").increment();
-        }
-        
-        // RabbitMQ'ya OrderStatusChangedEvent gönder (asenkron)
-        try {
-            sendOrderStatusChangedEvent(savedOrder, oldStatus);
-        } catch (Exception e) {
-            // RabbitMQ hatası durum güncellemeyi engellemez
-            System.err.println("Error sending OrderStatusChangedEvent: " + e.getMessage());
+            meterRegistry.counter("orders.refunded.count").increment(count);
         }
-        
-        // WebSocket'e real-time update gönder
-        try {
-            OrderStatusUpdate statusUpdate = new OrderStatusUpdate(
-                savedOrder.getId(),
-                oldStatus,
-                newStatus,
-                savedOrder.getUserId()
-            );
-            
-            // Belirli sipariş için update gönder
-            webSocketController.sendOrderStatusUpdate(savedOrder.getId(), statusUpdate);
-            
-            // Kullanıcının tüm siparişleri için update gönder
-            webSocketController.sendUserOrderUpdate(savedOrder.getUserId(), statusUpdate);
-        } catch (Exception e) {
-            // WebSocket hatası durum güncellemeyi engellemez
-            System.err.println("Error sending WebSocket update: " + e.getMessage());
-        }
-        
-        return savedOrder;
     }
 
     /**
-     * Ödeme başlatıldı → PAYMENT_PENDING
+     * Ödeme başlatıldı → PAYMENT_PENDING + süreli stok hold'u
+     * Ödeme order.reservation.payment-hold-seconds içinde sonuçlanmazsa hold Inventory Service'te düşer
      */
     @Transactional
-    @CacheEvict(value = "orders", key = "#orderId.toString()")
     public Order markPaymentPending(UUID orderId) {
         Order order = getOrderById(orderId);
         OrderStatus previous = order.getStatus();
+        ensureCheckoutCompleted(order);
         validateStatusTransition(order.getStatus(), OrderStatus.PAYMENT_PENDING);
+
+        reserveOrderStock(order, paymentHoldSeconds);
+
         order.updateStatus(OrderStatus.PAYMENT_PENDING);
         Order saved = orderRepository.save(order);
+        cacheInvalidator.evictOrder(orderId, saved.getUserId());
         meterRegistry.counter("orders.status.change.count", "to", OrderStatus.PAYMENT_PENDING.name()).increment();
-        sendOrderStatusChangedEventSafe(saved, previous);
+        sendOrderStatusChangedEvent(saved, previous);
         return saved;
     }
 
@@ -420,31 +677,21 @@ public class OrderService {
      * Ödeme başarılı → CONFIRMED + stok rezervasyonu
      */
     @Transactional
-    @CacheEvict(value = "orders", key = "#orderId.toString()")
     public Order markPaymentSuccess(UUID orderId) {
         Order order = getOrderById(orderId);
         OrderStatus previous = order.getStatus();
+        ensureCheckoutCompleted(order);
         validateStatusTransition(order.getStatus(), OrderStatus.CONFIRMED);
 
-        // Rezervasyon
-        for (OrderItem item : order.getOrderItems()) {
-            try {
-                InventoryServiceClient.InventoryResponse inventory =
-                    inventoryServiceClient.getInventoryByProductId(item.getProductId());
-                if (inventory != null) {
-                    inventoryServiceClient.reserveStock(inventory.getId(), item.getQuantity());
-                }
-            } catch (Exception e) {
-                System.err.println("Error reserving stock (payment success) for product " +
-                        item.getProductId() + ": " + e.getMessage());
-            }
-        }
+        // Rezervasyon (sipariş başına tek çağrı); ödeme hold'u varsa kalıcı hale gelir
+        reserveOrderStock(order, null);
 
         order.updateStatus(OrderStatus.CONFIRMED);
         Order saved = orderRepository.save(order);
+        cacheInvalidator.evictOrder(orderId, saved.getUserId());
         meterRegistry.counter("orders.status.change.count", "to", OrderStatus.CONFIRMED.name()).increment();
         meterRegistry.counter("orders.payment.success.count").increment();
-        sendOrderStatusChangedEventSafe(saved, previous);
+        sendOrderStatusChangedEvent(saved, previous);
         return saved;
     }
 
@@ -452,19 +699,20 @@ public class OrderService {
      * Ödeme başarısız → PAYMENT_FAILED + stok serbest
      */
     @Transactional
-    @CacheEvict(value = "orders", key = "#orderId.toString()")
     public Order markPaymentFailed(UUID orderId) {
         Order order = getOrderById(orderId);
         OrderStatus previous = order.getStatus();
+        ensureCheckoutCompleted(order);
         validateStatusTransition(order.getStatus(), OrderStatus.PAYMENT_FAILED);
 
         releaseStock(order);
 
         order.updateStatus(OrderStatus.PAYMENT_FAILED);
         Order saved = orderRepository.save(order);
+        cacheInvalidator.evictOrder(orderId, saved.getUserId());
         meterRegistry.counter("orders.status.change.count", "to", OrderStatus.PAYMENT_FAILED.name()).increment();
         meterRegistry.counter("orders.payment.fail.count").increment();
-        sendOrderStatusChangedEventSafe(saved, previous);
+        sendOrderStatusChangedEvent(saved, previous);
         return saved;
     }
 
@@ -472,15 +720,16 @@ public class OrderService {
      * İade talebi → REFUND_REQUESTED
      */
     @Transactional
-    @CacheEvict(value = "orders", key = "#orderId.toString()")
     public Order requestRefund(UUID orderId) {
         Order order = getOrderById(orderId);
         OrderStatus previous = order.getStatus();
+        ensureCheckoutCompleted(order);
         validateStatusTransition(order.getStatus(), OrderStatus.REFUND_REQUESTED);
         order.updateStatus(OrderStatus.REFUND_REQUESTED);
         Order saved = orderRepository.save(order);
+        cacheInvalidator.evictOrder(orderId, saved.getUserId());
         meterRegistry.counter("orders.status.change.count", "to", OrderStatus.REFUND_REQUESTED.name()).increment();
-        sendOrderStatusChangedEventSafe(saved, previous);
+        sendOrderStatusChangedEvent(saved, previous);
         return saved;
     }
 
@@ -488,37 +737,116 @@ public class OrderService {
      * İade onayı → REFUNDED + stok serbest
      */
     @Transactional
-    @CacheEvict(value = "orders", key = "#orderId.toString()")
     public Order approveRefund(UUID orderId) {
         Order order = getOrderById(orderId);
         OrderStatus previous = order.getStatus();
+        ensureCheckoutCompleted(order);
         validateStatusTransition(order.getStatus(), OrderStatus.REFUNDED);
 
         releaseStock(order);
 
         order.updateStatus(OrderStatus.REFUNDED);
         Order saved = orderRepository.save(order);
+        cacheInvalidator.evictOrder(orderId, saved.getUserId());
         meterRegistry.counter("orders.status.change.count", "to", OrderStatus.REFUNDED.name()).increment();
         meterRegistry.counter("orders.refunded.count").increment();
-        sendOrderStatusChangedEventSafe(saved, previous);
+        sendOrderStatusChangedEvent(saved, previous);
         return saved;
     }
 
-    private void sendOrderStatusChangedEventSafe(Order savedOrder, OrderStatus oldStatus) {
+    /**
+     * Siparişin tüm kalemlerini Inventory Service'te tek istekle rezerve et
+     *
+     * Inventory Service kalemleri tek transaction'da, sıralı satır kilidiyle rezerve eder:
+     * ya hepsi ya hiçbiri. Rezervasyon alınamazsa durum geçişi yapılmaz (sipariş stoksuz onaylanmaz):
+     * - success=false (ör. INSUFFICIENT_STOCK) → IllegalArgumentException (400)
+     * - Çağrı hatası (timeout, bağlantı) → DependencyUnavailableException (503)
+     * Geçiş henüz kaydedilmediği için transaction geri alınır; rezervasyon sipariş bazında idempotent
+     * olduğundan aynı geçiş güvenle tekrar denenebilir.
+     *
+     * Rezervasyon alındıktan sonra transaction geri alınırsa (ör. kayıt hatası) ve sipariş PENDING'den
+     * geliyorsa rezervasyon commit sonrası serbest bırakılır; ödeme hold'u varsa süresi dolunca düşer.
+     *
+     * @param holdSeconds null → kalıcı rezervasyon; dolu → bu süre içinde onaylanmazsa serbest bırakılır
+     */
+    private void reserveOrderStock(Order order, Integer holdSeconds) {
+        List<InventoryServiceClient.ReservationItem> items = order.getOrderItems().stream()
+                .map(item -> new InventoryServiceClient.ReservationItem(item.getProductId(), item.getQuantity()))
+                .toList();
+        if (items.isEmpty()) {
+            return;
+        }
+        InventoryServiceClient.ReservationResponse result;
         try {
-            sendOrderStatusChangedEvent(savedOrder, oldStatus);
-        } catch (Exception e) {
-            System.err.println("Error sending OrderStatusChangedEvent: " + e.getMessage());
+            InventoryServiceClient.ReservationRequest request =
+                    new InventoryServiceClient.ReservationRequest(order.getId(), items);
+            request.setHoldSeconds(holdSeconds);
+            result = inventoryServiceClient.createReservation(request);
+        } catch (RuntimeException e) {
+            meterRegistry.counter("orders.stock.reserve.fail", "reason", e.getClass().getSimpleName()).increment();
+            System.err.println("Error reserving stock for order " + order.getId() + ": " + e.getMessage());
+            throw new DependencyUnavailableException(
+                    "Stock reservation for order " + order.getId() + " could not be completed", e);
+        }
+        if (result == null || !result.isSuccess()) {
+            logOrderReservationFailure("reserve", order, result);
+            String reason = result != null && result.getReason() != null ? result.getReason() : "UNKNOWN";
+            throw new IllegalArgumentException(
+                    String.format("Stock could not be reserved for order %s: %s", order.getId(), reason));
+        }
+        if (order.getStatus() == OrderStatus.PENDING) {
+            releaseReservationOnRollback(order);
         }
     }
 
+    /**
+     * Rezervasyon alındı ama durum geçişi commit edilmedi → rezervasyonu geri ver
+     */
+    private void releaseReservationOnRollback(Order order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    releaseStock(order);
+                }
+            }
+        });
+    }
+
+    /**
+     * Siparişin rezervasyonunu serbest bırak
+     *
+     * Sipariş bazlı rezervasyon yoksa (RESERVATION_NOT_FOUND) sipariş eski kalem bazlı
+     * akışla rezerve edilmiştir; bu durumda kalem bazlı release'e düşülür.
+     */
     private void releaseStock(Order order) {
+        try {
+            InventoryServiceClient.ReservationResponse result = inventoryServiceClient.releaseReservation(order.getId());
+            if (result != null && "RESERVATION_NOT_FOUND".equals(result.getReason())) {
+                releaseStockPerItem(order);
+                return;
+            }
+            logOrderReservationFailure("release", order, result);
+        } catch (Exception e) {
+            System.err.println("Error releasing stock for order " + order.getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Kalem bazlı stok serbest bırakma (sipariş bazlı rezervasyondan önce onaylanmış siparişler için)
+     */
+    void releaseStockPerItem(Order order) {
+        Map<UUID, InventoryServiceClient.InventoryResponse> inventories = fetchInventoriesForOrder(order);
         for (OrderItem item : order.getOrderItems()) {
             try {
-                InventoryServiceClient.InventoryResponse inventory =
-                    inventoryServiceClient.getInventoryByProductId(item.getProductId());
+                InventoryServiceClient.InventoryResponse inventory = inventories.get(item.getProductId());
                 if (inventory != null) {
-                    inventoryServiceClient.releaseReservedStock(inventory.getId(), item.getQuantity());
+                    InventoryServiceClient.StockReservationResponse result =
+                        inventoryServiceClient.releaseReservedStock(inventory.getId(), item.getProductId(), item.getQuantity());
+                    logReservationFailure("release", item, result);
                 }
             } catch (Exception e) {
                 System.err.println("Error releasing stock for product " +
@@ -526,23 +854,77 @@ public class OrderService {
             }
         }
     }
+
+    /**
+     * Başarısız sipariş bazlı rezerve/serbest bırakma sonucunu logla ve metrik artır
+     */
+    private void logOrderReservationFailure(String operation, Order order,
+            InventoryServiceClient.ReservationResponse result) {
+        if (result != null && result.isSuccess()) {
+            return;
+        }
+        String reason = result != null && result.getReason() != null ? result.getReason() : "UNKNOWN";
+        meterRegistry.counter("orders.stock." + operation + ".fail", "reason", reason).increment();
+        System.err.println("Stock " + operation + " failed for order " + order.getId() + ": " + reason +
+                (result != null && result.getFailedProductIds() != null && !result.getFailedProductIds().isEmpty()
+                        ? " " + result.getFailedProductIds() : ""));
+    }
+
+    /**
+     * Başarısız rezerve/serbest bırakma sonucunu logla ve metrik artır
+     * (yetersiz stok artık exception değil success=false olarak gelir)
+     */
+    private void logReservationFailure(String operation, OrderItem item,
+            InventoryServiceClient.StockReservationResponse result) {
+        if (result != null && result.isSuccess()) {
+            return;
+        }
+        String reason = result != null && result.getReason() != null ? result.getReason() : "UNKNOWN";
+        meterRegistry.counter("orders.stock." + operation + ".fail", "reason", reason).increment();
+        System.err.println("Stock " + operation + " failed for product " + item.getProductId() +
+                " (quantity " + item.getQuantity() + "): " + reason);
+    }
     
     /**
-     * OrderStatusChangedEvent gönder
-     * RabbitMQ'ya asenkron mesaj gönderir
+     * Siparişteki tüm ürünlerin inventory bilgisini tek batch çağrı ile getir
+     * Rezervasyon ve stok serbest bırakma için kullanılır
+     *
+     * Çağrı başarısız olursa boş map döner; tekil lookup'taki gibi hata loglanır
+     * ve işlem (durum geçişi) engellenmez
      */
-    private void sendOrderStatusChangedEvent(Order order, OrderStatus oldStatus) {
-        // Kullanıcı bilgilerini çek
-        UserServiceClient.UserResponse user;
+    private Map<UUID, InventoryServiceClient.InventoryResponse> fetchInventoriesForOrder(Order order) {
+        Map<UUID, InventoryServiceClient.InventoryResponse> inventories = new HashMap<>();
+        List<UUID> productIds = order.getOrderItems().stream()
+                .map(OrderItem::getProductId)
+                .distinct()
+                .toList();
+        if (productIds.isEmpty()) {
+            return inventories;
+        }
         try {
-            user = userServiceClient.getUserById(order.getUserId());
+            List<InventoryServiceClient.InventoryResponse> responses =
+                inventoryServiceClient.getInventoriesByProductIds(productIds);
+            if (responses != null) {
+                for (InventoryServiceClient.InventoryResponse inventory : responses) {
+                    if (inventory != null && inventory.getProductId() != null) {
+                        inventories.put(inventory.getProductId(), inventory);
+                    }
+                }
+            }
         } catch (Exception e) {
-            // Kullanıcı bilgisi alınamazsa event gönderilmez
-            System.err.println("Error getting user for OrderStatusChangedEvent: " + e.getMessage());
-            return;
+            System.err.println("Error fetching inventories for order " + order.getId() + ": " + e.getMessage());
         }
-        
-        if (user == null) {
+        return inventories;
+    }
+
+    /**
+     * OrderStatusChangedEvent gönder
+     * Event outbox'a yazılır, RabbitMQ'ya OrderOutboxRelay gönderir
+     * Outbox yazılamazsa exception fırlar ve durum değişikliği de geri alınır (event kaybolmaz)
+     */
+    private void sendOrderStatusChangedEvent(Order order, OrderStatus oldStatus) {
+        // İletişim bilgisi siparişte snapshot olarak tutulur; sadece eski siparişlerde bir kez çekilir
+        if (!order.hasCustomerContact() && !backfillCustomerContact(order)) {
             return;
         }
         
@@ -550,29 +932,58 @@ public class OrderService {
         OrderStatusChangedEvent event = new OrderStatusChangedEvent(
             order.getId(),
             order.getUserId(),
-            user.getEmail(),
-            user.getFirstName() + " " + user.getLastName(),
+            order.getCustomerEmail(),
+            order.getCustomerName(),
             oldStatus != null ? oldStatus.name() : "UNKNOWN",
             order.getStatus().name(),
             LocalDateTime.now()
         );
         
-        // RabbitMQ'ya gönder (Exchange ve Routing Key kullanarak)
-        rabbitTemplate.convertAndSend(
+        // Outbox'a yaz (Exchange ve Routing Key relay tarafından kullanılır)
+        outboxService.enqueue(
             RabbitMQConfig.ORDER_EXCHANGE,
             RabbitMQConfig.ROUTING_KEY_STATUS_CHANGED,
+            order.getId(),
             event
         );
     }
 
+    /**
+     * Snapshot'ı olmayan (eski) sipariş için kullanıcı bilgisini bir kez çek ve siparişe yaz
+     * Sipariş transaction içinde yönetilen durumda olduğu için commit'te kaydedilir
+     * 
+     * @return Snapshot dolduruldu ise true; kullanıcı bilgisi alınamazsa false (event gönderilmez)
+     */
+    private boolean backfillCustomerContact(Order order) {
+        UserServiceClient.UserResponse user;
+        try {
+            user = userServiceClient.getUserById(order.getUserId());
+        } catch (Exception e) {
+            System.err.println("Error getting user for OrderStatusChangedEvent: " + e.getMessage());
+            return false;
+        }
+        if (user == null) {
+            return false;
+        }
+        applyCustomerContact(order, user);
+        meterRegistry.counter("orders.customer.contact.backfill").increment();
+        return true;
+    }
+
+    void applyCustomerContact(Order order, UserServiceClient.UserResponse user) {
+        order.setCustomerEmail(user.getEmail());
+        order.setCustomerName(user.getFirstName() + " " + user.getLastName());
+    }
+
     /**
      * Sipariş güncelle
      * Partial update yapıyor (null olmayan field'ları günceller)
      */
-    @CacheEvict(value = "orders", key = "#orderId.toString()")  // Bu siparişin cache'ini temizle
     public Order updateOrder(UUID orderId, Order orderDetails) {
         Order order = getOrderById(orderId);
         
+        ensureCheckoutCompleted(order);
+        
         // Sadece PENDING durumundaki siparişler güncellenebilir
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalArgumentException(
@@ -608,7 +1019,9 @@ public class OrderService {
             order.setTotalAmount(order.calculateTotalAmount());
         }
         
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        cacheInvalidator.evictOrder(orderId, saved.getUserId());  // Tutar/kalem sayısı listelerde de görünür
+        return saved;
     }
 
     /**
@@ -619,6 +1032,7 @@ public class OrderService {
      * - İptal edildiğinde stok geri verilir (Inventory Service ile)
      */
     @Transactional
+    @Timed(value = "orders.service", histogram = true)
     public Order cancelOrder(UUID orderId) {
         Order order = getOrderById(orderId);
         
@@ -643,26 +1057,43 @@ public class OrderService {
             releaseStock(order);
         }
         
+        // Doğrulaması süren asenkron sipariş: pipeline sonucu artık uygulanmaz
+        if (order.getCheckoutStatus() == CheckoutStatus.VALIDATING) {
+            order.setCheckoutStatus(CheckoutStatus.REJECTED);
+            order.setRejectionReason("Cancelled during checkout");
+        }
+        
         order.updateStatus(OrderStatus.CANCELLED);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        cacheInvalidator.evictOrder(orderId, saved.getUserId());
+        return saved;
     }
 
     /**
      * Sipariş sil
      */
-    @CacheEvict(value = "orders", key = "#orderId.toString()")  // Bu siparişin cache'ini temizle
     public void deleteOrder(UUID orderId) {
-        if (!orderRepository.existsById(orderId)) {
-            throw new ResourceNotFoundException("Order", "id", orderId);
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+        orderRepository.delete(order);
+        cacheInvalidator.evictOrder(orderId, order.getUserId());
+    }
+
+    /**
+     * Asenkron checkout doğrulaması bitmemiş siparişte durum geçişi/güncelleme yapılamaz
+     * (ürün fiyatları ve stok kontrolü henüz yok)
+     */
+    void ensureCheckoutCompleted(Order order) {
+        if (order.getCheckoutStatus() == CheckoutStatus.VALIDATING) {
+            throw new IllegalArgumentException("Order is still being validated. Try again shortly.");
         }
-        orderRepository.deleteById(orderId);
     }
 
     /**
      * Durum geçişi validasyonu
      * Geçerli durum geçişlerini kontrol eder
      */
-    private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
+    void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
         // CANCELLED durumundan başka duruma geçilemez
         if (currentStatus == OrderStatus.CANCELLED) {
             throw new IllegalArgumentException("Cannot change status from CANCELLED");
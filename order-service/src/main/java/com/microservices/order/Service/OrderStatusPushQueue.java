@@ -0,0 +1,155 @@
+package com.microservices.order.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.microservices.order.Controller.OrderWebSocketController;
+import com.microservices.order.DTO.OrderStatusUpdate;
+import com.microservices.order.DTO.OrderStatusUpdateBatch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Order Status Push Queue
+ * Sipariş durum değişikliklerinin WebSocket push'larını transaction dışına alır ve birleştirir
+ *
+ * Akış:
+ * 1. enqueue: Update transaction commit'inden sonra kuyruğa girer (rollback olursa hiç gönderilmez)
+ * 2. Coalesce: Aynı sipariş için flush aralığında gelen update'ler tek update olur
+ *    (ilk oldStatus → son newStatus); istemci ara durumları değil son durumu görür
+ * 3. flush (order.websocket.push.flush-interval-ms): Her sipariş için /topic/order-updates/{orderId}'e
+ *    ve /topic/user-orders/{userId}'e tek OrderStatusUpdate; her kullanıcı için
+ *    /topic/user-order-batches/{userId}'e max-batch-size'lık OrderStatusUpdateBatch'ler
+ *    (her topic tek bir mesaj şekli taşır)
+ *
+ * Toplu işlerde (yüzlerce sipariş) batch topic'ine subscribe olan client kullanıcı başına tek mesaj alır
+ * ve DB transaction'ları WebSocket I/O'su beklemez.
+ *
+ * Metrikler:
+ * - orders.websocket.push.enqueued / coalesced
+ * - orders.websocket.push.sent (type=order|user|user_batch)
+ * - orders.websocket.push.errors
+ */
+@Component
+public class OrderStatusPushQueue {
+    private final OrderWebSocketController webSocketController;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchSize;
+    private final ConcurrentMap<UUID, OrderStatusUpdate> pending = new ConcurrentHashMap<>();
+
+    public OrderStatusPushQueue(
+            OrderWebSocketController webSocketController,
+            MeterRegistry meterRegistry,
+            @Value("${order.websocket.push.max-batch-size:100}") int maxBatchSize) {
+        this.webSocketController = webSocketController;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Update'i kuyruğa ver (aktif transaction varsa commit sonrası)
+     */
+    public void enqueue(OrderStatusUpdate update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                offer(update);
+            }
+        });
+    }
+
+    /**
+     * Bekleyen update'leri gönder
+     */
+    @Scheduled(
+        fixedDelayString = "${order.websocket.push.flush-interval-ms:100}",
+        initialDelayString = "${order.websocket.push.flush-interval-ms:100}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<OrderStatusUpdate>> byUser = new LinkedHashMap<>();
+        for (UUID orderId : pending.keySet()) {
+            OrderStatusUpdate update = pending.remove(orderId);
+            if (update == null) {
+                continue;
+            }
+            send(() -> webSocketController.sendOrderStatusUpdate(orderId, update), "order");
+            if (update.getUserId() != null) {
+                byUser.computeIfAbsent(update.getUserId(), userId -> new ArrayList<>()).add(update);
+            }
+        }
+        byUser.forEach(this::sendUserUpdates);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void offer(OrderStatusUpdate update) {
+        meterRegistry.counter("orders.websocket.push.enqueued").increment();
+        pending.merge(update.getOrderId(), update, (previous, latest) -> {
+            meterRegistry.counter("orders.websocket.push.coalesced").increment();
+            return coalesce(previous, latest);
+        });
+    }
+
+    private void sendUserUpdates(UUID userId, List<OrderStatusUpdate> updates) {
+        for (OrderStatusUpdate update : updates) {
+            send(() -> webSocketController.sendUserOrderUpdate(userId, update), "user");
+        }
+        for (int from = 0; from < updates.size(); from += maxBatchSize) {
+            List<OrderStatusUpdate> chunk = updates.subList(from, Math.min(from + maxBatchSize, updates.size()));
+            OrderStatusUpdateBatch batch = new OrderStatusUpdateBatch(
+                    userId, new ArrayList<>(chunk), chunk.get(chunk.size() - 1).getTimestamp());
+            send(() -> webSocketController.sendUserOrderUpdates(userId, batch), "user_batch");
+        }
+    }
+
+    private void send(Runnable push, String type) {
+        try {
+            push.run();
+            meterRegistry.counter("orders.websocket.push.sent", "type", type).increment();
+        } catch (Exception e) {
+            // WebSocket hatası diğer push'ları engellemez
+            meterRegistry.counter("orders.websocket.push.errors").increment();
+            System.err.println("Error sending WebSocket update: " + e.getMessage());
+        }
+    }
+
+    /**
+     * İlk update'in oldStatus'u + son update'in yeni durumu
+     * Varsayılan mesaj birleşik geçişe göre yeniden yazılır; özel mesajlar korunur
+     */
+    private static OrderStatusUpdate coalesce(OrderStatusUpdate previous, OrderStatusUpdate latest) {
+        OrderStatusUpdate merged = new OrderStatusUpdate(
+                latest.getOrderId(), previous.getOldStatus(), latest.getNewStatus(), latest.getUserId());
+        merged.setTimestamp(latest.getTimestamp());
+        if (!isDefaultMessage(latest)) {
+            merged.setMessage(latest.getMessage());
+        }
+        return merged;
+    }
+
+    private static boolean isDefaultMessage(OrderStatusUpdate update) {
+        return String.format("Order status changed from %s to %s", update.getOldStatus(), update.getNewStatus())
+                .equals(update.getMessage());
+    }
+}
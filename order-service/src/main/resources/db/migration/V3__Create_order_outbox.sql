@@ -0,0 +1,28 @@
+-- Order Service - Transactional outbox
+-- Migration: V3__Create_order_outbox.sql
+-- Description: Creates order_outbox; events are written in the same transaction as the order
+-- and published to RabbitMQ by OrderOutboxRelay (at-least-once, id is sent as AMQP message-id)
+
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id UUID PRIMARY KEY,
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    exchange VARCHAR(255) NOT NULL,
+    routing_key VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP
+);
+
+-- Relay query: WHERE status = 'PENDING' ORDER BY created_at (index stays small, sent rows are excluded)
+CREATE INDEX IF NOT EXISTS idx_order_outbox_pending
+    ON order_outbox(created_at)
+    WHERE status = 'PENDING';
+
+-- Retention cleanup: DELETE ... WHERE status = 'SENT' AND sent_at < ?
+CREATE INDEX IF NOT EXISTS idx_order_outbox_sent_at
+    ON order_outbox(sent_at)
+    WHERE status = 'SENT';
@@ -0,0 +1,23 @@
+-- Order Service - Customer contact snapshot
+-- Migration: V4__Add_order_customer_contact.sql
+-- Description: Adds customer_email/customer_name to orders so status change events
+-- no longer call User Service on every transition
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS customer_email VARCHAR(255);
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS customer_name VARCHAR(200);
+
+-- Backfill: users_db is a separate database, so it cannot be joined here.
+-- Seed users (user-service V2__Insert_test_users.sql) are filled from their known values;
+-- any other existing order is filled by OrderService on its first status change (one lookup, then stored).
+UPDATE orders o
+SET customer_email = u.email,
+    customer_name = u.full_name
+FROM (VALUES
+    ('550e8400-e29b-41d4-a716-446655440001'::uuid, 'admin@test.com', 'Admin User'),
+    ('550e8400-e29b-41d4-a716-446655440002'::uuid, 'john.doe@test.com', 'John Doe'),
+    ('550e8400-e29b-41d4-a716-446655440003'::uuid, 'jane.smith@test.com', 'Jane Smith'),
+    ('550e8400-e29b-41d4-a716-446655440004'::uuid, 'premium@test.com', 'Premium Customer'),
+    ('550e8400-e29b-41d4-a716-446655440005'::uuid, 'test@test.com', 'Test User')
+) AS u(user_id, email, full_name)
+WHERE o.user_id = u.user_id
+  AND o.customer_email IS NULL;
@@ -0,0 +1,22 @@
+-- Order Service - Keyset pagination for order listings
+-- Migration: V5__Add_order_keyset_indexes.sql
+-- Description: Adds item_count (so list views never read order_items) and
+-- (..., created_at DESC, id DESC) indexes that serve the cursor queries in OrderRepository
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS item_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill item_count for existing orders
+UPDATE orders o
+SET item_count = c.cnt
+FROM (SELECT order_id, COUNT(*) AS cnt FROM order_items GROUP BY order_id) c
+WHERE o.id = c.order_id;
+
+-- Seek indexes: WHERE <filter> AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_at_id ON orders(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id ON orders(status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_user_status_created_at_id ON orders(user_id, status, created_at DESC, id DESC);
+
+-- The single-column indexes from V1 are covered by the composite ones above
+DROP INDEX IF EXISTS idx_orders_user_id;
+DROP INDEX IF EXISTS idx_orders_status;
@@ -0,0 +1,19 @@
+-- Order Service - Idempotent order creation
+-- Migration: V6__Create_order_idempotency_keys.sql
+-- Description: Stores Idempotency-Key values of POST /orders; a retried request is answered
+-- with the order created by the first one. Redis is the fast path, this table is the durable fallback.
+
+CREATE TABLE IF NOT EXISTS order_idempotency_keys (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    order_id UUID,
+    created_at TIMESTAMP NOT NULL,
+    -- Same key from the same user can only create one order; a concurrent retry waits on this index
+    CONSTRAINT uk_order_idempotency_user_key UNIQUE (user_id, idempotency_key)
+);
+
+-- Retention cleanup: DELETE ... WHERE created_at < ?
+CREATE INDEX IF NOT EXISTS idx_order_idempotency_created_at
+    ON order_idempotency_keys(created_at);
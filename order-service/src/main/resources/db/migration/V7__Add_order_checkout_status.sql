@@ -0,0 +1,12 @@
+-- Order Service - Asynchronous checkout
+-- Migration: V7__Add_order_checkout_status.sql
+-- Description: POST /orders/async stores a PENDING order skeleton with checkout_status = 'VALIDATING'
+-- and completes (or rejects) it in a background pipeline. Existing orders were validated synchronously.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS checkout_status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED';
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS rejection_reason VARCHAR(500);
+
+-- Recovery query: WHERE checkout_status = 'VALIDATING' AND created_at < ? (only in-flight orders are indexed)
+CREATE INDEX IF NOT EXISTS idx_orders_checkout_validating
+    ON orders(created_at)
+    WHERE checkout_status = 'VALIDATING';
@@ -0,0 +1,80 @@
+package com.microservices.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.SocketTimeoutException;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.microservices.order.Service.DependencyTimers;
+
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Dependency Timers Test
+ *
+ * Downstream çağrı sürelerinin dependency + outcome ile tag'lendiğini,
+ * ve hataların aynen fırlatıldığını doğrular
+ */
+class DependencyTimersTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DependencyTimers timers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        timers = new DependencyTimers(meterRegistry);
+    }
+
+    @Test
+    void testSuccessfulCallIsRecordedWithResult() {
+        Map<String, Boolean> result = timers.record(DependencyTimers.STOCK_CHECK, () -> Map.of("p1", true));
+
+        assertEquals(Map.of("p1", true), result);
+        assertEquals(1L, timer(DependencyTimers.STOCK_CHECK, "success").count());
+    }
+
+    @Test
+    void testFailuresAreRecordedByOutcomeAndRethrown() {
+        Request request = Request.create(Request.HttpMethod.GET, "/users/1", Map.of(), null, null, null);
+        FeignException.NotFound notFound = new FeignException.NotFound("not found", request, null, null);
+        RetryableException timeout = new RetryableException(-1, "Read timed out", Request.HttpMethod.GET,
+            new SocketTimeoutException("Read timed out"), (Long) null, request);
+
+        assertSame(notFound, assertThrows(FeignException.NotFound.class,
+            () -> timers.record(DependencyTimers.USER, () -> { throw notFound; })));
+        assertThrows(RetryableException.class,
+            () -> timers.record(DependencyTimers.PRODUCT, () -> { throw timeout; }));
+        assertThrows(IllegalStateException.class,
+            () -> timers.run(DependencyTimers.EVENT_PUBLISH, () -> { throw new IllegalStateException("db down"); }));
+
+        assertEquals(1L, timer(DependencyTimers.USER, "not_found").count());
+        assertEquals(1L, timer(DependencyTimers.PRODUCT, "timeout").count());
+        assertEquals(1L, timer(DependencyTimers.EVENT_PUBLISH, "error").count());
+    }
+
+    @Test
+    void testCheckoutOutcome() {
+        assertEquals(DependencyTimers.REJECTED,
+            DependencyTimers.checkoutOutcomeOf(new IllegalArgumentException("Insufficient stock")));
+        assertEquals(DependencyTimers.ERROR,
+            DependencyTimers.checkoutOutcomeOf(new IllegalStateException("timeout")));
+
+        timers.stopCheckout(Timer.start(meterRegistry), DependencyTimers.REJECTED);
+        assertEquals(1L, meterRegistry.get("orders.created.duration").tag("outcome", "rejected").timer().count());
+    }
+
+    private Timer timer(String dependency, String outcome) {
+        return meterRegistry.get("orders.dependency.duration")
+            .tag("dependency", dependency)
+            .tag("outcome", outcome)
+            .timer();
+    }
+}
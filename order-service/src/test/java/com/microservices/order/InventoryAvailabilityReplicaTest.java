@@ -0,0 +1,89 @@
+package com.microservices.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.microservices.order.Event.StockLevelChanged;
+import com.microservices.order.Service.InventoryAvailabilityReplica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Inventory Availability Replica Test
+ *
+ * StockLevelChanged event'lerinin version sırasına göre uygulandığını
+ * ve ön kontrolün sadece kesin yetersiz sepetleri reddettiğini doğrular
+ */
+class InventoryAvailabilityReplicaTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryAvailabilityReplica replica;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replica = new InventoryAvailabilityReplica(meterRegistry, true, 300);
+        productId = UUID.randomUUID();
+    }
+
+    private static StockLevelChanged event(UUID productId, int available, long version) {
+        return new StockLevelChanged(productId, available, "IN_STOCK", version, false, LocalDateTime.now());
+    }
+
+    @Test
+    void testOlderVersionDoesNotOverwriteNewer() {
+        // Given: mesajlar sırasız geldi
+        replica.apply(event(productId, 5, 10));
+        replica.apply(event(productId, 50, 9));
+
+        // Then
+        assertEquals(Optional.of(5), replica.getAvailableQuantity(productId));
+        assertEquals(1, meterRegistry.counter("orders.inventory.replica.events", "result", "stale").count());
+
+        // When: daha yeni versiyon
+        replica.apply(event(productId, 3, 11));
+        assertEquals(Optional.of(3), replica.getAvailableQuantity(productId));
+    }
+
+    @Test
+    void testDeletedProductIsRemoved() {
+        replica.apply(event(productId, 5, 1));
+
+        replica.apply(new StockLevelChanged(productId, 0, null, null, true, LocalDateTime.now()));
+
+        assertEquals(Optional.empty(), replica.getAvailableQuantity(productId));
+    }
+
+    @Test
+    void testPrecheckRejectsOnlyKnownInsufficientProducts() {
+        // Given: bir ürün yetersiz, biri yeterli, biri bilinmiyor
+        UUID enough = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        replica.apply(event(productId, 2, 1));
+        replica.apply(event(enough, 100, 1));
+
+        // When
+        Map<UUID, Integer> insufficient = replica.findInsufficient(Map.of(productId, 3, enough, 3, unknown, 1000));
+
+        // Then: bilinmeyen ürün yetkili kontrole bırakılır
+        assertEquals(Map.of(productId, 2), insufficient);
+        assertTrue(replica.findInsufficient(Map.of(enough, 100, unknown, 1000)).isEmpty());
+    }
+
+    @Test
+    void testPrecheckCanBeDisabled() {
+        InventoryAvailabilityReplica disabled = new InventoryAvailabilityReplica(meterRegistry, false, 300);
+        disabled.apply(event(productId, 0, 1));
+
+        assertTrue(disabled.findInsufficient(Map.of(productId, 1)).isEmpty());
+        assertEquals(Optional.of(0), disabled.getAvailableQuantity(productId));
+    }
+}
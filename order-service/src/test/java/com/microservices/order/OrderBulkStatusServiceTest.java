@@ -0,0 +1,231 @@
+package com.microservices.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.microservices.order.Client.InventoryServiceClient;
+import com.microservices.order.Client.UserServiceClient;
+import com.microservices.order.DTO.BulkStatusUpdateResult;
+import com.microservices.order.Model.CheckoutStatus;
+import com.microservices.order.Model.Order;
+import com.microservices.order.Model.OrderItem;
+import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Repository.OrderRepository;
+import com.microservices.order.Service.OrderBulkStatusService;
+import com.microservices.order.Service.OrderCacheInvalidator;
+import com.microservices.order.Service.OrderOutboxService;
+import com.microservices.order.Service.OrderService;
+import com.microservices.order.Service.OrderStatusPushQueue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Order Bulk Status Service Test
+ *
+ * PATCH /orders/status/bulk: chunk başına tek UPDATE + tek outbox batch'i,
+ * geçersiz geçişlerin raporlanması ve commit sonrası batch stok çağrıları
+ * Repository ve client'lar mock'lanır; geçiş kuralları OrderService'in gerçek validasyonundan gelir
+ */
+class OrderBulkStatusServiceTest {
+
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private InventoryServiceClient inventoryServiceClient;
+    private UserServiceClient userServiceClient;
+    private OrderOutboxService outboxService;
+    private OrderCacheInvalidator cacheInvalidator;
+    private SimpleMeterRegistry meterRegistry;
+    private Map<UUID, Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        // Geçiş kuralları gerçek metotlardan, diğer çağrılar no-op
+        orderService = mock(OrderService.class, invocation -> {
+            String method = invocation.getMethod().getName();
+            if (method.equals("validateStatusTransition") || method.equals("ensureCheckoutCompleted")) {
+                return invocation.callRealMethod();
+            }
+            return Answers.RETURNS_DEFAULTS.answer(invocation);
+        });
+        orderRepository = mock(OrderRepository.class);
+        inventoryServiceClient = mock(InventoryServiceClient.class);
+        userServiceClient = mock(UserServiceClient.class);
+        outboxService = mock(OrderOutboxService.class);
+        cacheInvalidator = mock(OrderCacheInvalidator.class);
+        meterRegistry = new SimpleMeterRegistry();
+        orders = new HashMap<>();
+
+        when(orderRepository.findAllForUpdateByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().filter(orders::containsKey).map(orders::get).toList();
+        });
+    }
+
+    @Test
+    void testInvalidAndMissingOrdersAreReportedOthersUpdated() {
+        Order shipped = order(OrderStatus.PROCESSING);
+        Order delivered = order(OrderStatus.DELIVERED);
+        Order validating = order(OrderStatus.PENDING);
+        validating.setCheckoutStatus(CheckoutStatus.VALIDATING);
+        UUID missing = UUID.randomUUID();
+
+        BulkStatusUpdateResult result = service(200).updateStatus(
+            List.of(shipped.getId(), delivered.getId(), validating.getId(), missing), OrderStatus.SHIPPED);
+
+        assertEquals(4, result.getRequested());
+        assertEquals(List.of(shipped.getId()), result.getUpdated());
+        assertEquals(Set.of(delivered.getId(), validating.getId(), missing), result.getFailed().keySet());
+        assertEquals("Order not found", result.getFailed().get(missing));
+
+        // Tek UPDATE, tek outbox batch'i; stok etkisi yok
+        verify(orderRepository, times(1)).updateStatusByIdIn(eq(Set.of(shipped.getId())), eq(OrderStatus.SHIPPED), any());
+        verify(outboxService, times(1)).enqueueAll(anyString(), anyString(), argThat(events -> events.size() == 1));
+        verify(cacheInvalidator, times(1)).evictOrders(Map.of(shipped.getId(), shipped.getUserId()));
+        verifyNoInteractions(inventoryServiceClient);
+    }
+
+    @Test
+    void testChunksUseOneStatementEachAndBatchReservationsAfterCommit() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(order(OrderStatus.PENDING).getId());
+        }
+        when(inventoryServiceClient.createReservations(anyList())).thenReturn(List.of());
+
+        BulkStatusUpdateResult result = service(2).updateStatus(ids, OrderStatus.CONFIRMED);
+
+        assertEquals(ids, result.getUpdated());
+        assertTrue(result.getFailed().isEmpty());
+        // 5 sipariş / chunk 2 → 3 transaction, 3 UPDATE, 3 batch rezervasyon çağrısı
+        verify(orderRepository, times(3)).findAllForUpdateByIdIn(anyCollection());
+        verify(orderRepository, times(3)).updateStatusByIdIn(anyCollection(), eq(OrderStatus.CONFIRMED), any());
+        verify(outboxService, times(3)).enqueueAll(anyString(), anyString(), anyMap());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryServiceClient.ReservationRequest>> requests = ArgumentCaptor.forClass(List.class);
+        verify(inventoryServiceClient, times(3)).createReservations(requests.capture());
+        List<UUID> reserved = requests.getAllValues().stream()
+            .flatMap(List::stream)
+            .peek(request -> assertNull(request.getHoldSeconds()))
+            .map(InventoryServiceClient.ReservationRequest::getOrderId)
+            .toList();
+        assertEquals(ids, reserved);
+        verify(orderService, never()).updateOrderStatus(any(), any());
+    }
+
+    @Test
+    void testCancelReleasesInOneCallAndFallsBackForLegacyReservations() {
+        Order confirmed = order(OrderStatus.CONFIRMED);
+        Order legacy = order(OrderStatus.CONFIRMED);
+        Order pending = order(OrderStatus.PENDING);
+        InventoryServiceClient.ReservationResponse notFound = new InventoryServiceClient.ReservationResponse();
+        notFound.setOrderId(legacy.getId());
+        notFound.setReason("RESERVATION_NOT_FOUND");
+        InventoryServiceClient.ReservationResponse released = new InventoryServiceClient.ReservationResponse();
+        released.setOrderId(confirmed.getId());
+        released.setSuccess(true);
+        when(inventoryServiceClient.releaseReservations(anyList())).thenReturn(List.of(released, notFound));
+
+        BulkStatusUpdateResult result = service(200).updateStatus(
+            List.of(confirmed.getId(), legacy.getId(), pending.getId()), OrderStatus.CANCELLED);
+
+        assertEquals(3, result.getUpdated().size());
+        // PENDING siparişte rezervasyon yok → sadece CONFIRMED olanlar serbest bırakılır
+        verify(inventoryServiceClient, times(1)).releaseReservations(argThat(released2 ->
+            Set.copyOf(released2).equals(Set.of(confirmed.getId(), legacy.getId()))));
+        // Rezervasyonu olmayan (eski akış) sipariş kalem bazlı serbest bırakılır
+        assertEquals(List.of(legacy), mockingDetails(orderService).getInvocations().stream()
+            .filter(invocation -> invocation.getMethod().getName().equals("releaseStockPerItem"))
+            .map(invocation -> invocation.getArgument(0))
+            .toList());
+    }
+
+    @Test
+    void testFailedChunkOnlyFailsItsOwnOrders() {
+        Order first = order(OrderStatus.PROCESSING);
+        Order second = order(OrderStatus.PROCESSING);
+        when(orderRepository.updateStatusByIdIn(anyCollection(), any(), any()))
+            .thenThrow(new IllegalStateException("deadlock"))
+            .thenReturn(1);
+
+        BulkStatusUpdateResult result = service(1).updateStatus(List.of(first.getId(), second.getId()), OrderStatus.SHIPPED);
+
+        assertEquals(List.of(second.getId()), result.getUpdated());
+        assertTrue(result.getFailed().get(first.getId()).contains("deadlock"));
+        assertEquals(1.0, meterRegistry.counter("orders.status.bulk.chunk.errors").count());
+    }
+
+    @Test
+    void testMissingCustomerContactIsLookedUpBeforeLocking() {
+        Order legacy = order(OrderStatus.PROCESSING);
+        legacy.setCustomerEmail(null);
+        UserServiceClient.UserResponse user = new UserServiceClient.UserResponse();
+        user.setEmail("ayse@example.com");
+        when(orderRepository.findUserIdsWithoutCustomerContactByIdIn(anyCollection()))
+            .thenReturn(List.of(legacy.getUserId()));
+        when(userServiceClient.getUserById(legacy.getUserId())).thenReturn(user);
+
+        service(200).updateStatus(List.of(legacy.getId()), OrderStatus.SHIPPED);
+
+        // Feign çağrısı satırlar kilitlenmeden önce
+        InOrder inOrder = inOrder(userServiceClient, orderRepository);
+        inOrder.verify(userServiceClient).getUserById(legacy.getUserId());
+        inOrder.verify(orderRepository).findAllForUpdateByIdIn(anyCollection());
+        assertEquals(List.of(user), mockingDetails(orderService).getInvocations().stream()
+            .filter(invocation -> invocation.getMethod().getName().equals("applyCustomerContact"))
+            .map(invocation -> invocation.getArgument(1))
+            .toList());
+    }
+
+    @Test
+    void testRequestValidation() {
+        OrderBulkStatusService service = service(200);
+        assertThrows(IllegalArgumentException.class, () -> service.updateStatus(List.of(), OrderStatus.SHIPPED));
+        assertThrows(IllegalArgumentException.class, () -> service.updateStatus(List.of(UUID.randomUUID()), null));
+
+        List<UUID> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(UUID.randomUUID());
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.updateStatus(tooMany, OrderStatus.SHIPPED));
+        verifyNoInteractions(orderRepository);
+    }
+
+    private OrderBulkStatusService service(int chunkSize) {
+        return new OrderBulkStatusService(orderService, orderRepository, inventoryServiceClient,
+            userServiceClient, outboxService, cacheInvalidator, mock(OrderStatusPushQueue.class),
+            meterRegistry, mock(PlatformTransactionManager.class), 10, chunkSize, 900);
+    }
+
+    private Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setUserId(UUID.randomUUID());
+        order.setStatus(status);
+        order.setCheckoutStatus(CheckoutStatus.COMPLETED);
+        order.setCustomerEmail("ahmet@example.com");
+        order.setCustomerName("Ahmet Yılmaz");
+        OrderItem item = new OrderItem();
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(1);
+        order.setOrderItems(new ArrayList<>(List.of(item)));
+        orders.put(order.getId(), order);
+        return order;
+    }
+}
@@ -0,0 +1,220 @@
+package com.microservices.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.microservices.order.Controller.OrderWebSocketController;
+import com.microservices.order.DTO.OrderStatusUpdate;
+import com.microservices.order.Model.CheckoutStatus;
+import com.microservices.order.Model.Order;
+import com.microservices.order.Model.OrderItem;
+import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Repository.OrderRepository;
+import com.microservices.order.Service.DependencyTimers;
+import com.microservices.order.Service.OrderCheckoutPipeline;
+import com.microservices.order.Service.OrderService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Order Checkout Pipeline Test
+ *
+ * POST /orders/async akışını test eder: kabul → arka plan doğrulaması → tamamla/reddet → WebSocket push
+ * Executor aynı thread'de çalıştırır; OrderService ve repository mock'lanır
+ */
+class OrderCheckoutPipelineTest {
+
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private OrderWebSocketController webSocketController;
+    private SimpleMeterRegistry meterRegistry;
+    private ValidatorFactory validatorFactory;
+    private OrderCheckoutPipeline pipeline;
+
+    private UUID orderId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        orderRepository = mock(OrderRepository.class);
+        webSocketController = mock(OrderWebSocketController.class);
+        meterRegistry = new SimpleMeterRegistry();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        pipeline = newPipeline(Runnable::run);
+        orderId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+
+        when(orderService.acceptOrder(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(orderId);
+            order.setStatus(OrderStatus.PENDING);
+            order.setCheckoutStatus(CheckoutStatus.VALIDATING);
+            order.setCreatedAt(LocalDateTime.now());
+            return order;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void testSubmittedOrderIsCompletedAndPushed() {
+        Order order = newOrder();
+        when(orderRepository.findWithItemsById(orderId)).thenAnswer(invocation -> Optional.of(order));
+        when(orderService.completeCheckout(order)).thenAnswer(invocation -> {
+            order.setCheckoutStatus(CheckoutStatus.COMPLETED);
+            return order;
+        });
+
+        Order accepted = pipeline.submit(order);
+
+        assertEquals(orderId, accepted.getId());
+        verify(orderService).prepareOrder(order);
+        ArgumentCaptor<OrderStatusUpdate> update = ArgumentCaptor.forClass(OrderStatusUpdate.class);
+        verify(webSocketController).sendUserOrderUpdate(eq(userId), update.capture());
+        assertEquals(OrderStatus.PENDING, update.getValue().getNewStatus());
+        assertEquals("Order accepted", update.getValue().getMessage());
+        verify(webSocketController).sendOrderStatusUpdate(eq(orderId), any(OrderStatusUpdate.class));
+        assertEquals(1L, meterRegistry.timer("orders.checkout.async.latency").count());
+        assertEquals(1L, meterRegistry.timer("orders.created.duration", "outcome", "success").count());
+    }
+
+    @Test
+    void testPlaceholderPricesAreClearedBeforeValidation() {
+        Order order = newOrder();
+        when(orderRepository.findWithItemsById(orderId)).thenAnswer(invocation -> {
+            order.getOrderItems().get(0).setPrice(java.math.BigDecimal.ZERO);
+            return Optional.of(order);
+        });
+        doAnswer(invocation -> {
+            assertNull(order.getOrderItems().get(0).getPrice());
+            return null;
+        }).when(orderService).prepareOrder(order);
+
+        pipeline.submit(order);
+
+        verify(orderService).prepareOrder(order);
+    }
+
+    @Test
+    void testInsufficientStockRejectsOrder() {
+        Order order = newOrder();
+        when(orderRepository.findWithItemsById(orderId)).thenAnswer(invocation -> Optional.of(order));
+        doThrow(new IllegalArgumentException("Insufficient stock for product"))
+            .when(orderService).prepareOrder(order);
+        Order cancelled = newOrder();
+        cancelled.setId(orderId);
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        when(orderService.rejectCheckout(orderId, "Insufficient stock for product")).thenReturn(cancelled);
+
+        pipeline.submit(order);
+
+        verify(orderService, never()).completeCheckout(any(Order.class));
+        ArgumentCaptor<OrderStatusUpdate> update = ArgumentCaptor.forClass(OrderStatusUpdate.class);
+        verify(webSocketController).sendUserOrderUpdate(eq(userId), update.capture());
+        assertEquals(OrderStatus.CANCELLED, update.getValue().getNewStatus());
+        assertTrue(update.getValue().getMessage().startsWith("Order rejected"));
+        assertEquals(1L, meterRegistry.timer("orders.created.duration", "outcome", "rejected").count());
+    }
+
+    @Test
+    void testTransientFailureLeavesOrderForRetry() {
+        Order order = newOrder();
+        when(orderRepository.findWithItemsById(orderId)).thenAnswer(invocation -> Optional.of(order));
+        doThrow(new IllegalStateException("Product/inventory lookups did not complete within 6000 ms"))
+            .when(orderService).prepareOrder(order);
+
+        pipeline.submit(order);
+
+        verify(orderService, never()).completeCheckout(any(Order.class));
+        verify(orderService, never()).rejectCheckout(any(UUID.class), anyString());
+        assertEquals(1.0, meterRegistry.counter("orders.checkout.async.retry", "exception", "IllegalStateException").count());
+        assertEquals(1L, meterRegistry.timer("orders.created.duration", "outcome", "error").count());
+    }
+
+    @Test
+    void testExpiredCheckoutIsRejectedWithoutRemoteCalls() {
+        Order order = newOrder();
+        order.setId(orderId);
+        order.setCheckoutStatus(CheckoutStatus.VALIDATING);
+        order.setCreatedAt(LocalDateTime.now().minusHours(1));
+        when(orderRepository.findValidatingIdsCreatedBefore(any(LocalDateTime.class), any()))
+            .thenReturn(List.of(orderId));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+
+        pipeline.recoverStalledCheckouts();
+
+        verify(orderService, never()).prepareOrder(any(Order.class));
+        verify(orderService).rejectCheckout(orderId, "Checkout could not be completed in time");
+    }
+
+    @Test
+    void testFullQueueDefersToRecovery() {
+        pipeline = newPipeline(task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+
+        Order accepted = pipeline.submit(newOrder());
+
+        assertEquals(orderId, accepted.getId());
+        assertEquals(1.0, meterRegistry.counter("orders.checkout.async.deferred").count());
+        verify(orderService, never()).prepareOrder(any(Order.class));
+    }
+
+    @Test
+    void testInvalidPayloadIsRejectedSynchronously() {
+        Order order = newOrder();
+        order.setCity(null);
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.submit(order));
+        verify(orderService, never()).acceptOrder(any(Order.class));
+    }
+
+    @Test
+    void testEmptyOrderIsRejectedSynchronously() {
+        Order order = newOrder();
+        order.setOrderItems(new ArrayList<>());
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.submit(order));
+        verify(orderService, never()).acceptOrder(any(Order.class));
+    }
+
+    private OrderCheckoutPipeline newPipeline(Executor executor) {
+        return new OrderCheckoutPipeline(
+            orderService, orderRepository, webSocketController, validatorFactory.getValidator(),
+            meterRegistry, new DependencyTimers(meterRegistry), executor, 60, 900, 100);
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setShippingAddress("Test Adresi, Levent");
+        order.setCity("İstanbul");
+        order.setZipCode("34394");
+        order.setPhoneNumber("5551234567");
+        OrderItem item = new OrderItem();
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(2);
+        order.setOrderItems(new ArrayList<>(List.of(item)));
+        return order;
+    }
+}
@@ -20,10 +20,20 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.order.Controller.OrderController;
+import com.microservices.order.DTO.BulkStatusUpdateRequest;
+import com.microservices.order.DTO.BulkStatusUpdateResult;
+import com.microservices.order.DTO.OrderSummary;
+import com.microservices.order.DTO.OrderSummaryPage;
+import com.microservices.order.Exception.DependencyUnavailableException;
 import com.microservices.order.Exception.ResourceNotFoundException;
 import com.microservices.order.Model.Order;
 import com.microservices.order.Model.OrderItem;
 import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Exception.IdempotencyConflictException;
+import com.microservices.order.Model.CheckoutStatus;
+import com.microservices.order.Service.OrderBulkStatusService;
+import com.microservices.order.Service.OrderCheckoutPipeline;
+import com.microservices.order.Service.OrderIdempotencyService;
 import com.microservices.order.Service.OrderService;
 
 /**
@@ -40,6 +50,15 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;  // OrderService mock'lanıyor
 
+    @MockBean
+    private OrderIdempotencyService idempotencyService;
+
+    @MockBean
+    private OrderCheckoutPipeline checkoutPipeline;
+
+    @MockBean
+    private OrderBulkStatusService bulkStatusService;
+
     @Autowired
     private ObjectMapper objectMapper;  // JSON dönüşümleri için
 
@@ -89,6 +108,69 @@ class OrderControllerTest {
         verify(orderService, times(1)).createOrder(any(Order.class));
     }
 
+    @Test
+    void testCreateOrderWithIdempotencyKeyReplays() throws Exception {
+        // Given: Aynı key ile önceden oluşturulmuş sipariş
+        when(idempotencyService.createOrder(any(Order.class), eq("checkout-123")))
+            .thenReturn(new OrderIdempotencyService.Result(testOrder, true));
+
+        // When & Then: Aynı sipariş döner, yeni sipariş oluşturulmaz
+        mockMvc.perform(post("/orders")
+                .header("Idempotency-Key", "checkout-123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testOrder)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(testOrderId.toString()));
+
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    @Test
+    void testCreateOrderWithIdempotencyKeyInProgress() throws Exception {
+        when(idempotencyService.createOrder(any(Order.class), eq("checkout-123")))
+            .thenThrow(new IdempotencyConflictException("checkout-123"));
+
+        mockMvc.perform(post("/orders")
+                .header("Idempotency-Key", "checkout-123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testOrder)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testCreateOrderDependencyUnavailable() throws Exception {
+        // Given: Ürün/stok lookup'ları süre sınırını aştı
+        when(orderService.createOrder(any(Order.class)))
+            .thenThrow(new DependencyUnavailableException("Product/inventory lookups did not complete within 6000 ms"));
+
+        // When & Then: 500 değil 503
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testOrder)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("SERVICE_UNAVAILABLE"));
+    }
+
+    @Test
+    void testCreateOrderAsync() throws Exception {
+        // Given: Sipariş iskelet olarak kabul edildi
+        testOrder.setCheckoutStatus(CheckoutStatus.VALIDATING);
+        when(checkoutPipeline.submit(any(Order.class))).thenReturn(testOrder);
+
+        // When & Then: 202 + sipariş ID'si, doğrulama arka planda
+        mockMvc.perform(post("/orders/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testOrder)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/orders/" + testOrderId))
+                .andExpect(jsonPath("$.orderId").value(testOrderId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.checkoutStatus").value("VALIDATING"));
+
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
     @Test
     void testGetOrderById() throws Exception {
         // Given: Mock service davranışı
@@ -121,44 +203,53 @@ class OrderControllerTest {
     @Test
     void testGetOrdersByUserId() throws Exception {
         // Given: Mock service davranışı
-        when(orderService.getOrdersByUserId(testUserId)).thenReturn(List.of(testOrder));
+        when(orderService.getOrdersByUserId(testUserId, "abc", 10))
+                .thenReturn(new OrderSummaryPage(List.of(testSummary()), "next", true));
 
-        // When & Then: GET isteği gönderiliyor
-        mockMvc.perform(get("/orders/user/{userId}", testUserId))
+        // When & Then: GET isteği gönderiliyor (cursor + limit)
+        mockMvc.perform(get("/orders/user/{userId}", testUserId)
+                .param("cursor", "abc")
+                .param("limit", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].userId").value(testUserId.toString()));
-
-        verify(orderService, times(1)).getOrdersByUserId(testUserId);
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].userId").value(testUserId.toString()))
+                .andExpect(jsonPath("$.items[0].itemCount").value(1))
+                .andExpect(jsonPath("$.items[0].orderItems").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        verify(orderService, times(1)).getOrdersByUserId(testUserId, "abc", 10);
     }
 
     @Test
     void testGetOrdersByStatus() throws Exception {
         // Given: Mock service davranışı
-        when(orderService.getOrdersByStatus(OrderStatus.PENDING)).thenReturn(List.of(testOrder));
+        when(orderService.getOrdersByStatus(OrderStatus.PENDING, null, 20))
+                .thenReturn(new OrderSummaryPage(List.of(testSummary()), null, false));
 
-        // When & Then: GET isteği gönderiliyor
+        // When & Then: GET isteği gönderiliyor (varsayılan limit 20)
         mockMvc.perform(get("/orders/status")
                 .param("status", "PENDING"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.hasMore").value(false));
 
-        verify(orderService, times(1)).getOrdersByStatus(OrderStatus.PENDING);
+        verify(orderService, times(1)).getOrdersByStatus(OrderStatus.PENDING, null, 20);
     }
 
     @Test
     void testGetOrdersByUserIdAndStatus() throws Exception {
         // Given: Mock service davranışı
-        when(orderService.getOrdersByUserIdAndStatus(testUserId, OrderStatus.DELIVERED))
-                .thenReturn(List.of(testOrder));
+        when(orderService.getOrdersByUserIdAndStatus(testUserId, OrderStatus.DELIVERED, null, 20))
+                .thenReturn(new OrderSummaryPage(List.of(testSummary()), null, false));
 
         // When & Then: GET isteği gönderiliyor
         mockMvc.perform(get("/orders/user/{userId}/status", testUserId)
                 .param("status", "DELIVERED"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$.items").isArray());
 
-        verify(orderService, times(1)).getOrdersByUserIdAndStatus(testUserId, OrderStatus.DELIVERED);
+        verify(orderService, times(1)).getOrdersByUserIdAndStatus(testUserId, OrderStatus.DELIVERED, null, 20);
     }
 
     @Test
@@ -202,6 +293,26 @@ class OrderControllerTest {
         verify(orderService, times(1)).updateOrderStatus(testOrderId, OrderStatus.CONFIRMED);
     }
 
+    @Test
+    void testUpdateOrderStatusBulk() throws Exception {
+        // Given: Bir sipariş güncellenir, bulunamayan sipariş failed'da döner
+        UUID missingId = UUID.randomUUID();
+        BulkStatusUpdateResult result = new BulkStatusUpdateResult(OrderStatus.SHIPPED, 2);
+        result.getUpdated().add(testOrderId);
+        result.getFailed().put(missingId, "Order not found");
+        when(bulkStatusService.updateStatus(List.of(testOrderId, missingId), OrderStatus.SHIPPED)).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(patch("/orders/status/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new BulkStatusUpdateRequest(List.of(testOrderId, missingId), OrderStatus.SHIPPED))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.updated[0]").value(testOrderId.toString()))
+                .andExpect(jsonPath("$.failed['" + missingId + "']").value("Order not found"));
+    }
+
     @Test
     void testCancelOrder() throws Exception {
         // Given: Mock service davranışı
@@ -248,14 +359,31 @@ class OrderControllerTest {
     @Test
     void testGetAllOrders() throws Exception {
         // Given: Mock service davranışı
-        when(orderService.getAllOrders()).thenReturn(List.of(testOrder));
+        when(orderService.getAllOrders(null, 20))
+                .thenReturn(new OrderSummaryPage(List.of(testSummary()), null, false));
 
         // When & Then: GET isteği gönderiliyor
         mockMvc.perform(get("/orders"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$.items").isArray());
+
+        verify(orderService, times(1)).getAllOrders(null, 20);
+    }
+
+    @Test
+    void testGetAllOrdersInvalidLimit() throws Exception {
+        // Given: Geçersiz limit → IllegalArgumentException → 400
+        when(orderService.getAllOrders(null, 1000))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 100"));
+
+        // When & Then
+        mockMvc.perform(get("/orders").param("limit", "1000"))
+                .andExpect(status().isBadRequest());
+    }
 
-        verify(orderService, times(1)).getAllOrders();
+    private OrderSummary testSummary() {
+        return new OrderSummary(testOrderId, testUserId, OrderStatus.PENDING, new BigDecimal("115000.00"),
+                null, null, 1);
     }
 }
 
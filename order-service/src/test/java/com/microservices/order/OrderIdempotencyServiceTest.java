@@ -0,0 +1,187 @@
+package com.microservices.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.microservices.order.Exception.IdempotencyConflictException;
+import com.microservices.order.Model.IdempotencyKey;
+import com.microservices.order.Model.Order;
+import com.microservices.order.Model.OrderItem;
+import com.microservices.order.Repository.IdempotencyKeyRepository;
+import com.microservices.order.Service.OrderIdempotencyService;
+import com.microservices.order.Service.OrderService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Order Idempotency Service Test
+ *
+ * Idempotency-Key ile tekrar gelen isteklerin yeni sipariş oluşturmadan cevaplandığını test eder
+ * OrderService, repository ve Redis mock'lanır
+ */
+class OrderIdempotencyServiceTest {
+
+    private static final String KEY = "checkout-123";
+
+    private OrderService orderService;
+    private IdempotencyKeyRepository repository;
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderIdempotencyService service;
+
+    private UUID userId;
+    private String redisKey;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        orderService = mock(OrderService.class);
+        repository = mock(IdempotencyKeyRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new OrderIdempotencyService(
+            orderService, repository, redisTemplate, mock(PlatformTransactionManager.class), meterRegistry, 24, 60);
+        userId = UUID.randomUUID();
+        redisKey = "order-service:idempotency:" + userId + ":" + KEY;
+        when(repository.findByUserIdAndIdempotencyKey(any(), anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testFirstRequestCreatesOrderAndRemembersKey() {
+        Order order = newOrder();
+        Order created = createdOrder();
+        when(valueOperations.setIfAbsent(eq(redisKey), startsWith("PENDING|"), any(Duration.class))).thenReturn(true);
+        when(orderService.createOrder(order)).thenReturn(created);
+
+        OrderIdempotencyService.Result result = service.createOrder(order, KEY);
+
+        assertFalse(result.isReplayed());
+        assertSame(created, result.getOrder());
+        verify(repository).saveAndFlush(argThat((IdempotencyKey record) ->
+            record.getUserId().equals(userId) && KEY.equals(record.getIdempotencyKey())));
+        verify(valueOperations).set(eq(redisKey), startsWith(created.getId() + "|"), eq(Duration.ofHours(24)));
+    }
+
+    @Test
+    void testRetryIsReplayedFromRedisWithoutCreatingOrder() {
+        Order order = newOrder();
+        Order created = createdOrder();
+        when(valueOperations.get(redisKey)).thenReturn(created.getId() + "|" + hashOf(order));
+        when(orderService.getOrderById(created.getId())).thenReturn(created);
+
+        OrderIdempotencyService.Result result = service.createOrder(order, KEY);
+
+        assertTrue(result.isReplayed());
+        assertSame(created, result.getOrder());
+        verify(orderService, never()).createOrder(any(Order.class));
+        assertEquals(1.0, meterRegistry.counter("orders.idempotency.replayed", "source", "redis").count());
+    }
+
+    @Test
+    void testRetryIsReplayedFromDatabaseWhenRedisIsDown() {
+        Order order = newOrder();
+        Order created = createdOrder();
+        when(valueOperations.get(redisKey)).thenThrow(new RedisConnectionFailureException("down"));
+        IdempotencyKey record = new IdempotencyKey(UUID.randomUUID(), userId, KEY, hashOf(order), created.getId(), null);
+        when(repository.findByUserIdAndIdempotencyKey(userId, KEY)).thenReturn(Optional.of(record));
+        when(orderService.getOrderById(created.getId())).thenReturn(created);
+
+        OrderIdempotencyService.Result result = service.createOrder(order, KEY);
+
+        assertTrue(result.isReplayed());
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    @Test
+    void testConcurrentRetryGetsConflict() {
+        Order order = newOrder();
+        when(valueOperations.get(redisKey)).thenReturn("PENDING|" + hashOf(order));
+
+        assertThrows(IdempotencyConflictException.class, () -> service.createOrder(order, KEY));
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    @Test
+    void testKeyReusedWithDifferentRequestIsRejected() {
+        Order created = createdOrder();
+        when(valueOperations.get(redisKey)).thenReturn(created.getId() + "|" + hashOf(newOrder()));
+        Order different = newOrder();
+        different.getOrderItems().get(0).setQuantity(5);
+
+        assertThrows(IllegalArgumentException.class, () -> service.createOrder(different, KEY));
+    }
+
+    @Test
+    void testFailedCreationReleasesClaim() {
+        Order order = newOrder();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(orderService.createOrder(order)).thenThrow(new IllegalArgumentException("Insufficient stock"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.createOrder(order, KEY));
+        verify(redisTemplate).delete(redisKey);
+    }
+
+    @Test
+    void testUniqueViolationReplaysWinningRequest() {
+        Order order = newOrder();
+        Order created = createdOrder();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(repository.saveAndFlush(any(IdempotencyKey.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        IdempotencyKey winner = new IdempotencyKey(UUID.randomUUID(), userId, KEY, hashOf(order), created.getId(), null);
+        when(repository.findByUserIdAndIdempotencyKey(userId, KEY))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(winner));
+        when(orderService.getOrderById(created.getId())).thenReturn(created);
+
+        OrderIdempotencyService.Result result = service.createOrder(order, KEY);
+
+        assertTrue(result.isReplayed());
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    @Test
+    void testBlankKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.createOrder(newOrder(), " "));
+    }
+
+    private String hashOf(Order order) {
+        return OrderIdempotencyService.requestHash(order);
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setShippingAddress("Test Adresi, Levent");
+        order.setCity("İstanbul");
+        order.setZipCode("34394");
+        order.setPhoneNumber("5551234567");
+        OrderItem item = new OrderItem();
+        item.setProductId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        item.setQuantity(1);
+        order.setOrderItems(new java.util.ArrayList<>(List.of(item)));
+        return order;
+    }
+
+    private Order createdOrder() {
+        Order order = newOrder();
+        order.setId(UUID.randomUUID());
+        return order;
+    }
+}
@@ -0,0 +1,178 @@
+package com.microservices.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.microservices.order.Client.InventoryServiceClient;
+import com.microservices.order.Client.ProductServiceClient;
+import com.microservices.order.Client.UserServiceClient;
+import com.microservices.order.Model.Order;
+import com.microservices.order.Model.OrderItem;
+import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Service.OrderService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Order Query Count Test
+ *
+ * Hibernate statistics ile createOrder / markPaymentSuccess başına çalışan SQL sayısını doğrular
+ * Amaç: N+1 ve gereksiz yeniden okumaların geri gelmesini yakalamak
+ *
+ * Cache: Redis yerine in-memory CacheManager (@Primary) kullanılır
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OrderQueryCountTest {
+
+    @TestConfiguration
+    static class InMemoryCacheConfig {
+        @Bean
+        @Primary
+        CacheManager testCacheManager() {
+            return new ConcurrentMapCacheManager("orders");
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ProductServiceClient productServiceClient;
+
+    @MockBean
+    private InventoryServiceClient inventoryServiceClient;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @MockBean
+    private org.springframework.amqp.rabbit.core.RabbitTemplate rabbitTemplate;
+
+    private Statistics statistics;
+    private UUID userId;
+    private UUID productId1;
+    private UUID productId2;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = UUID.randomUUID();
+        productId1 = UUID.randomUUID();
+        productId2 = UUID.randomUUID();
+
+        UserServiceClient.UserResponse user = new UserServiceClient.UserResponse();
+        user.setId(userId);
+        user.setEmail("test@example.com");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        when(userServiceClient.getUserById(userId)).thenReturn(user);
+
+        when(productServiceClient.getProductsByIds(anyList()))
+            .thenReturn(List.of(product(productId1, "MacBook Pro"), product(productId2, "iPhone 15")));
+        when(inventoryServiceClient.getInventoriesByProductIds(anyList()))
+            .thenReturn(List.of(inventory(productId1), inventory(productId2)));
+        when(inventoryServiceClient.checkStockAvailability(any(Map.class)))
+            .thenReturn(Map.of(productId1, true, productId2, true));
+        when(inventoryServiceClient.createReservation(any(InventoryServiceClient.ReservationRequest.class)))
+            .thenAnswer(invocation -> {
+                InventoryServiceClient.ReservationResponse response = new InventoryServiceClient.ReservationResponse();
+                response.setOrderId(((InventoryServiceClient.ReservationRequest) invocation.getArgument(0)).getOrderId());
+                response.setReservationId(UUID.randomUUID());
+                response.setSuccess(true);
+                return response;
+            });
+    }
+
+    @Test
+    void testCreateOrderStatementCount() {
+        // Given
+        Order order = newOrder();
+        statistics.clear();
+
+        // When
+        Order created = orderService.createOrder(order);
+
+        // Then: INSERT orders + INSERT order_items (tek batch) + INSERT order_outbox; SELECT yok
+        assertNotNull(created.getId());
+        assertEquals(0, statistics.getQueryExecutionCount() + statistics.getEntityLoadCount());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testMarkPaymentSuccessStatementCount() {
+        // Given: PAYMENT_PENDING sipariş
+        Order created = orderService.createOrder(newOrder());
+        orderService.markPaymentPending(created.getId());
+        statistics.clear();
+
+        // When
+        Order confirmed = orderService.markPaymentSuccess(created.getId());
+
+        // Then: SELECT order + items (tek sorgu) + UPDATE orders + INSERT order_outbox
+        assertEquals(OrderStatus.CONFIRMED, confirmed.getStatus());
+        assertEquals(0, statistics.getCollectionFetchCount());  // Kalemler lazy yüklenmedi
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setShippingAddress("Test Adresi, Levent");
+        order.setCity("İstanbul");
+        order.setZipCode("34394");
+        order.setPhoneNumber("5551234567");
+        OrderItem item1 = new OrderItem();
+        item1.setProductId(productId1);
+        item1.setQuantity(1);
+        OrderItem item2 = new OrderItem();
+        item2.setProductId(productId2);
+        item2.setQuantity(2);
+        order.setOrderItems(new java.util.ArrayList<>(List.of(item1, item2)));
+        return order;
+    }
+
+    private ProductServiceClient.ProductResponse product(UUID id, String name) {
+        ProductServiceClient.ProductResponse product = new ProductServiceClient.ProductResponse();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(new BigDecimal("1000.00"));
+        return product;
+    }
+
+    private InventoryServiceClient.InventoryResponse inventory(UUID productId) {
+        InventoryServiceClient.InventoryResponse inventory = new InventoryServiceClient.InventoryResponse();
+        inventory.setId(UUID.randomUUID());
+        inventory.setProductId(productId);
+        inventory.setQuantity(100);
+        inventory.setReservedQuantity(0);
+        inventory.setStatus("IN_STOCK");
+        return inventory;
+    }
+}
@@ -3,6 +3,7 @@ package com.microservices.order;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -11,7 +12,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
+import com.microservices.order.DTO.OrderCursor;
+import com.microservices.order.DTO.OrderSummary;
 import com.microservices.order.Model.Order;
 import com.microservices.order.Model.OrderItem;
 import com.microservices.order.Model.OrderStatus;
@@ -265,5 +269,57 @@ class OrderRepositoryTest {
         // Then: 2 sipariş olmalı
         assertEquals(2, allOrders.size());
     }
-}
 
+    @Test
+    void testKeysetPaginationByUserId() {
+        // Given: Aynı kullanıcının 5 siparişi (ikisi aynı createdAt → id ile ayrılır)
+        // (@PrePersist createdAt'i ezdiği için zamanlar kayıttan sonra güncelleniyor: 0, 1, 2, 3, 3 dakika)
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            Order order = orderRepository.save(newOrder(testUserId));
+            order.setCreatedAt(base.plusMinutes(i == 4 ? 3 : i));
+        }
+        orderRepository.save(newOrder(UUID.randomUUID()));  // Başka kullanıcı
+        orderRepository.flush();
+
+        // When: 2'şer kayıtlık sayfalarla gez
+        List<UUID> seen = new ArrayList<>();
+        OrderCursor cursor = OrderCursor.START;
+        for (int page = 0; page < 10; page++) {
+            List<OrderSummary> rows = orderRepository.findSummariesByUserIdBefore(
+                testUserId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, 2));
+            if (rows.isEmpty()) {
+                break;
+            }
+            rows.forEach(row -> seen.add(row.getId()));
+            OrderSummary last = rows.get(rows.size() - 1);
+            cursor = new OrderCursor(last.getCreatedAt(), last.getId());
+        }
+
+        // Then: 5 sipariş tekrar/atlama olmadan, en yeni önce geldi
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().distinct().count());
+        List<OrderSummary> all = orderRepository.findSummariesByUserIdBefore(
+            testUserId, OrderCursor.START.getCreatedAt(), OrderCursor.START.getId(), PageRequest.of(0, 10));
+        for (int i = 1; i < all.size(); i++) {
+            assertFalse(all.get(i).getCreatedAt().isAfter(all.get(i - 1).getCreatedAt()));
+        }
+        assertEquals(1, all.get(0).getItemCount());
+    }
+
+    private Order newOrder(UUID userId) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setShippingAddress("Test Adresi, Levent");
+        order.setCity("İstanbul");
+        order.setZipCode("34394");
+        order.setPhoneNumber("5551234567");
+        OrderItem item = new OrderItem();
+        item.setProductId(testProductId);
+        item.setProductName("MacBook Pro");
+        item.setQuantity(1);
+        item.setPrice(new BigDecimal("45000.00"));
+        order.addOrderItem(item);
+        return order;
+    }
+}
@@ -0,0 +1,197 @@
+package com.microservices.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.microservices.order.Client.InventoryServiceClient;
+import com.microservices.order.Client.ProductServiceClient;
+import com.microservices.order.Client.UserServiceClient;
+import com.microservices.order.Exception.DependencyUnavailableException;
+import com.microservices.order.Model.Order;
+import com.microservices.order.Model.OrderItem;
+import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Repository.OrderRepository;
+import com.microservices.order.Service.DependencyTimers;
+import com.microservices.order.Service.InventoryAvailabilityReplica;
+import com.microservices.order.Service.OrderCacheInvalidator;
+import com.microservices.order.Service.OrderOutboxService;
+import com.microservices.order.Service.OrderService;
+import com.microservices.order.Service.OrderStatusPushQueue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Order Service Dependency Test
+ *
+ * Downstream servisler (Product/Inventory) cevap vermediğinde veya stok rezervasyonu alınamadığında
+ * sipariş akışının davranışı
+ * Client'lar ve repository mock'lanır; Spring context ve Redis gerekmez
+ */
+class OrderServiceDependencyTest {
+
+    private OrderRepository orderRepository;
+    private ProductServiceClient productServiceClient;
+    private InventoryServiceClient inventoryServiceClient;
+    private UserServiceClient userServiceClient;
+    private SimpleMeterRegistry meterRegistry;
+    private List<Runnable> stalledLookups;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        productServiceClient = mock(ProductServiceClient.class);
+        inventoryServiceClient = mock(InventoryServiceClient.class);
+        userServiceClient = mock(UserServiceClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        stalledLookups = new ArrayList<>();
+
+        UserServiceClient.UserResponse user = new UserServiceClient.UserResponse();
+        user.setEmail("test@example.com");
+        when(userServiceClient.getUserById(any())).thenReturn(user);
+    }
+
+    /**
+     * Lookup'ları hiç çalıştırmayan executor (takılmış downstream çağrısı gibi)
+     */
+    private OrderService service(long enrichmentTimeoutMs) {
+        Executor stalled = stalledLookups::add;
+        return new OrderService(orderRepository, productServiceClient, inventoryServiceClient, userServiceClient,
+            mock(OrderOutboxService.class), mock(OrderCacheInvalidator.class), mock(OrderStatusPushQueue.class),
+            meterRegistry, new DependencyTimers(meterRegistry),
+            new InventoryAvailabilityReplica(meterRegistry, false, 300),
+            stalled, enrichmentTimeoutMs, 900);
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setUserId(UUID.randomUUID());
+        order.setShippingAddress("Test Address");
+        OrderItem item = new OrderItem();
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(1);
+        item.setPrice(BigDecimal.TEN);
+        order.setOrderItems(List.of(item));
+        return order;
+    }
+
+    /**
+     * Kaydedilmiş, PENDING durumundaki sipariş (getOrderById repository'den okur)
+     */
+    private Order pendingOrder() {
+        Order order = newOrder();
+        order.setId(UUID.randomUUID());
+        order.setStatus(OrderStatus.PENDING);
+        when(orderRepository.findWithItemsById(order.getId())).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return order;
+    }
+
+    private InventoryServiceClient.ReservationResponse reservation(UUID orderId, boolean success, String reason) {
+        InventoryServiceClient.ReservationResponse response = new InventoryServiceClient.ReservationResponse();
+        response.setOrderId(orderId);
+        response.setSuccess(success);
+        response.setReason(reason);
+        return response;
+    }
+
+    /**
+     * İptal edilen future'ın görevi sonradan çalışsa bile client çağrılmaz
+     */
+    private void assertLookupsCancelled() {
+        assertEquals(2, stalledLookups.size());
+        stalledLookups.forEach(Runnable::run);
+        verifyNoInteractions(productServiceClient, inventoryServiceClient);
+    }
+
+    @Test
+    void testEnrichmentTimeoutCancelsLookupsAndIsUnavailable() {
+        // When: lookup'lar süre sınırında tamamlanmıyor
+        DependencyUnavailableException ex = assertThrows(DependencyUnavailableException.class,
+            () -> service(50).prepareOrder(newOrder()));
+
+        // Then
+        assertTrue(ex.getMessage().contains("50 ms"));
+        assertEquals(1.0, meterRegistry.counter("orders.created.fail", "exception", "EnrichmentTimeout").count());
+        assertLookupsCancelled();
+    }
+
+    @Test
+    void testEnrichmentInterruptCancelsLookupsAndKeepsInterruptFlag() {
+        // Given: bekleyen thread kesilmiş
+        Thread.currentThread().interrupt();
+
+        // When
+        assertThrows(DependencyUnavailableException.class, () -> service(5_000).prepareOrder(newOrder()));
+
+        // Then: interrupt durumu korunur (Thread.interrupted bayrağı da temizler)
+        assertTrue(Thread.interrupted());
+        assertLookupsCancelled();
+    }
+
+    @Test
+    void testInsufficientStockBlocksConfirmation() {
+        // Given: Inventory Service rezervasyonu reddediyor (hiçbir kalem ayrılmadı)
+        Order order = pendingOrder();
+        when(inventoryServiceClient.createReservation(any(InventoryServiceClient.ReservationRequest.class)))
+            .thenReturn(reservation(order.getId(), false, "INSUFFICIENT_STOCK"));
+
+        // When & Then: Geçiş yapılmaz, sipariş kaydedilmez
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> service(5_000).updateOrderStatus(order.getId(), OrderStatus.CONFIRMED));
+        assertTrue(ex.getMessage().contains("INSUFFICIENT_STOCK"));
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void testReservationErrorBlocksPaymentTransitions() {
+        // Given: Inventory Service'e ulaşılamıyor
+        Order order = pendingOrder();
+        when(inventoryServiceClient.createReservation(any(InventoryServiceClient.ReservationRequest.class)))
+            .thenThrow(new RuntimeException("Read timed out"));
+        OrderService service = service(5_000);
+
+        // When & Then: Ne ödeme hold'u ne onay stoksuz yapılır
+        assertThrows(DependencyUnavailableException.class, () -> service.markPaymentPending(order.getId()));
+        assertThrows(DependencyUnavailableException.class, () -> service.markPaymentSuccess(order.getId()));
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void testReservationReleasedWhenTransitionRollsBack() {
+        // Given: Rezervasyon alındı
+        Order order = pendingOrder();
+        when(inventoryServiceClient.createReservation(any(InventoryServiceClient.ReservationRequest.class)))
+            .thenReturn(reservation(order.getId(), true, null));
+        when(inventoryServiceClient.releaseReservation(order.getId()))
+            .thenReturn(reservation(order.getId(), true, null));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service(5_000).updateOrderStatus(order.getId(), OrderStatus.CONFIRMED);
+
+            // When: Transaction geri alınıyor (ör. kayıt hatası)
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then: Rezervasyon geri verildi
+        verify(inventoryServiceClient).releaseReservation(order.getId());
+    }
+}
@@ -2,6 +2,7 @@ package com.microservices.order;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -13,6 +14,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.mockito.ArgumentCaptor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -24,6 +26,8 @@ import com.microservices.order.Client.InventoryServiceClient;
 import com.microservices.order.Client.ProductServiceClient;
 import com.microservices.order.Client.UserServiceClient;
 import com.microservices.order.Exception.ResourceNotFoundException;
+import com.microservices.order.DTO.OrderSummary;
+import com.microservices.order.DTO.OrderSummaryPage;
 import com.microservices.order.Model.Order;
 import com.microservices.order.Model.OrderItem;
 import com.microservices.order.Model.OrderStatus;
@@ -63,6 +67,10 @@ class OrderServiceTest {
     private UUID testProductId1;
     private UUID testProductId2;
 
+    // Batch lookup mock'larının cevap verdiği ürün/stok "katalogları"
+    private final Map<UUID, ProductServiceClient.ProductResponse> productCatalog = new HashMap<>();
+    private final Map<UUID, InventoryServiceClient.InventoryResponse> inventoryCatalog = new HashMap<>();
+
     @BeforeEach
     void setUp() {
         // Her test öncesi çalışır
@@ -101,6 +109,16 @@ class OrderServiceTest {
      * Her test için gerekli mock davranışlarını tanımlar
      */
     private void setupFeignClientMocks() {
+        // Batch endpoint mock'ları: sadece katalogdaki ID'ler döner (bulunamayan ID response'ta yok)
+        when(productServiceClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return ids.stream().filter(productCatalog::containsKey).map(productCatalog::get).toList();
+        });
+        when(inventoryServiceClient.getInventoriesByProductIds(anyList())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return ids.stream().filter(inventoryCatalog::containsKey).map(inventoryCatalog::get).toList();
+        });
+        
         // User Service Mock
         UserServiceClient.UserResponse userResponse = new UserServiceClient.UserResponse();
         userResponse.setId(testUserId);
@@ -117,13 +135,13 @@ class OrderServiceTest {
         product1.setId(testProductId1);
         product1.setName("MacBook Pro");
         product1.setPrice(new BigDecimal("45000.00"));
-        when(productServiceClient.getProductById(testProductId1)).thenReturn(product1);
+        stubProduct(product1);
         
         ProductServiceClient.ProductResponse product2 = new ProductServiceClient.ProductResponse();
         product2.setId(testProductId2);
         product2.setName("iPhone 15");
         product2.setPrice(new BigDecimal("35000.00"));
-        when(productServiceClient.getProductById(testProductId2)).thenReturn(product2);
+        stubProduct(product2);
         
         // Inventory Service Mock
         InventoryServiceClient.InventoryResponse inventory1 = new InventoryServiceClient.InventoryResponse();
@@ -132,7 +150,7 @@ class OrderServiceTest {
         inventory1.setQuantity(100);
         inventory1.setReservedQuantity(0);
         inventory1.setStatus("IN_STOCK");
-        when(inventoryServiceClient.getInventoryByProductId(testProductId1)).thenReturn(inventory1);
+        stubInventory(inventory1);
         
         InventoryServiceClient.InventoryResponse inventory2 = new InventoryServiceClient.InventoryResponse();
         inventory2.setId(UUID.randomUUID());
@@ -140,13 +158,67 @@ class OrderServiceTest {
         inventory2.setQuantity(50);
         inventory2.setReservedQuantity(0);
         inventory2.setStatus("IN_STOCK");
-        when(inventoryServiceClient.getInventoryByProductId(testProductId2)).thenReturn(inventory2);
+        stubInventory(inventory2);
         
         // Stok kontrolü mock'u (toplu kontrol)
         Map<UUID, Boolean> stockAvailability = new HashMap<>();
         stockAvailability.put(testProductId1, true);
         stockAvailability.put(testProductId2, true);
         when(inventoryServiceClient.checkStockAvailability(any(Map.class))).thenReturn(stockAvailability);
+
+        // Sipariş bazlı rezervasyon mock'ları (varsayılan: başarılı)
+        when(inventoryServiceClient.createReservation(any(InventoryServiceClient.ReservationRequest.class)))
+            .thenAnswer(invocation -> orderReservation(
+                ((InventoryServiceClient.ReservationRequest) invocation.getArgument(0)).getOrderId(), true, null));
+        when(inventoryServiceClient.releaseReservation(any(UUID.class)))
+            .thenAnswer(invocation -> orderReservation(invocation.getArgument(0), true, null));
+    }
+
+    /**
+     * Aynı kullanıcı ve kalemlerle yeni (kaydedilmemiş) sipariş
+     */
+    private Order copyOf(Order source) {
+        Order copy = new Order();
+        copy.setUserId(source.getUserId());
+        copy.setShippingAddress(source.getShippingAddress());
+        copy.setCity(source.getCity());
+        copy.setZipCode(source.getZipCode());
+        copy.setPhoneNumber(source.getPhoneNumber());
+        List<OrderItem> items = new ArrayList<>();
+        for (OrderItem sourceItem : source.getOrderItems()) {
+            OrderItem item = new OrderItem();
+            item.setProductId(sourceItem.getProductId());
+            item.setQuantity(sourceItem.getQuantity());
+            items.add(item);
+        }
+        copy.setOrderItems(items);
+        return copy;
+    }
+
+    private void stubProduct(ProductServiceClient.ProductResponse product) {
+        productCatalog.put(product.getId(), product);
+    }
+
+    private void stubInventory(InventoryServiceClient.InventoryResponse inventory) {
+        inventoryCatalog.put(inventory.getProductId(), inventory);
+    }
+
+    private InventoryServiceClient.StockReservationResponse reservationResult(UUID inventoryId, int quantity) {
+        InventoryServiceClient.StockReservationResponse result = new InventoryServiceClient.StockReservationResponse();
+        result.setInventoryId(inventoryId);
+        result.setQuantity(quantity);
+        result.setSuccess(true);
+        return result;
+    }
+
+    private InventoryServiceClient.ReservationResponse orderReservation(UUID orderId, boolean success, String reason) {
+        InventoryServiceClient.ReservationResponse result = new InventoryServiceClient.ReservationResponse();
+        result.setReservationId(success ? UUID.randomUUID() : null);
+        result.setOrderId(orderId);
+        result.setSuccess(success);
+        result.setReason(reason);
+        result.setFailedProductIds(new ArrayList<>());
+        return result;
     }
 
     @Test
@@ -175,10 +247,11 @@ class OrderServiceTest {
         
         // Feign Client'ların çağrıldığını doğrula
         verify(userServiceClient, times(1)).getUserById(testUserId);
-        verify(productServiceClient, times(1)).getProductById(testProductId1);
-        verify(productServiceClient, times(1)).getProductById(testProductId2);
-        verify(inventoryServiceClient, times(1)).getInventoryByProductId(testProductId1);
-        verify(inventoryServiceClient, times(1)).getInventoryByProductId(testProductId2);
+        // Ürün ve stok bilgileri sepet başına tek batch çağrı ile çekilir
+        verify(productServiceClient, times(1)).getProductsByIds(List.of(testProductId1, testProductId2));
+        verify(inventoryServiceClient, times(1)).getInventoriesByProductIds(List.of(testProductId1, testProductId2));
+        verify(productServiceClient, never()).getProductById(any());
+        verify(inventoryServiceClient, never()).getInventoryByProductId(any());
         verify(inventoryServiceClient, times(1)).checkStockAvailability(any(Map.class));
     }
 
@@ -227,14 +300,14 @@ class OrderServiceTest {
         product3.setId(productId3);
         product3.setName("Test Product");
         product3.setPrice(new BigDecimal("10000.00"));
-        when(productServiceClient.getProductById(productId3)).thenReturn(product3);
+        stubProduct(product3);
         
         InventoryServiceClient.InventoryResponse inventory3 = new InventoryServiceClient.InventoryResponse();
         inventory3.setId(UUID.randomUUID());
         inventory3.setProductId(productId3);
         inventory3.setQuantity(100);
         inventory3.setReservedQuantity(0);
-        when(inventoryServiceClient.getInventoryByProductId(productId3)).thenReturn(inventory3);
+        stubInventory(inventory3);
         
         Map<UUID, Boolean> stockAvailability3 = new HashMap<>();
         stockAvailability3.put(productId3, true);
@@ -254,10 +327,12 @@ class OrderServiceTest {
         orderService.createOrder(order2);
 
         // When: Tüm siparişler getiriliyor
-        List<Order> orders = orderService.getAllOrders();
+        OrderSummaryPage orders = orderService.getAllOrders(null, OrderService.DEFAULT_PAGE_SIZE);
 
-        // Then: 2 sipariş olmalı
-        assertEquals(2, orders.size());
+        // Then: 2 sipariş olmalı, sonraki sayfa yok
+        assertEquals(2, orders.getItems().size());
+        assertFalse(orders.isHasMore());
+        assertNull(orders.getNextCursor());
     }
 
     @Test
@@ -298,14 +373,14 @@ class OrderServiceTest {
         product3.setId(productId3);
         product3.setName("Test Product");
         product3.setPrice(new BigDecimal("10000.00"));
-        when(productServiceClient.getProductById(productId3)).thenReturn(product3);
+        stubProduct(product3);
         
         InventoryServiceClient.InventoryResponse inventory3 = new InventoryServiceClient.InventoryResponse();
         inventory3.setId(UUID.randomUUID());
         inventory3.setProductId(productId3);
         inventory3.setQuantity(100);
         inventory3.setReservedQuantity(0);
-        when(inventoryServiceClient.getInventoryByProductId(productId3)).thenReturn(inventory3);
+        stubInventory(inventory3);
         
         Map<UUID, Boolean> stockAvailability3 = new HashMap<>();
         stockAvailability3.put(productId3, true);
@@ -340,14 +415,14 @@ class OrderServiceTest {
         product4.setId(productId4);
         product4.setName("Test Product 2");
         product4.setPrice(new BigDecimal("20000.00"));
-        when(productServiceClient.getProductById(productId4)).thenReturn(product4);
+        stubProduct(product4);
         
         InventoryServiceClient.InventoryResponse inventory4 = new InventoryServiceClient.InventoryResponse();
         inventory4.setId(UUID.randomUUID());
         inventory4.setProductId(productId4);
         inventory4.setQuantity(100);
         inventory4.setReservedQuantity(0);
-        when(inventoryServiceClient.getInventoryByProductId(productId4)).thenReturn(inventory4);
+        stubInventory(inventory4);
         
         Map<UUID, Boolean> stockAvailability4 = new HashMap<>();
         stockAvailability4.put(productId4, true);
@@ -367,13 +442,42 @@ class OrderServiceTest {
         orderService.createOrder(order3); // Farklı kullanıcı
 
         // When: testUserId'nin siparişleri getiriliyor
-        List<Order> userOrders = orderService.getOrdersByUserId(testUserId);
+        List<OrderSummary> userOrders = orderService.getOrdersByUserId(testUserId, null, OrderService.DEFAULT_PAGE_SIZE).getItems();
 
         // Then: Sadece testUserId'nin siparişleri bulundu
         assertEquals(2, userOrders.size());
         assertTrue(userOrders.stream().allMatch(o -> o.getUserId().equals(testUserId)));
     }
 
+    @Test
+    void testGetOrdersByUserIdPaginatesWithCursor() {
+        // Given: Aynı kullanıcının 3 siparişi
+        orderService.createOrder(testOrder);
+        orderService.createOrder(copyOf(testOrder));
+        orderService.createOrder(copyOf(testOrder));
+
+        // When: 2'şer kayıtlık sayfalar
+        OrderSummaryPage first = orderService.getOrdersByUserId(testUserId, null, 2);
+        OrderSummaryPage second = orderService.getOrdersByUserId(testUserId, first.getNextCursor(), 2);
+
+        // Then: İlk sayfada 2, ikincide 1 sipariş; tekrar yok
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isHasMore());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getItems().size());
+        assertFalse(second.isHasMore());
+        assertTrue(first.getItems().stream().noneMatch(o -> o.getId().equals(second.getItems().get(0).getId())));
+        assertEquals(2, first.getItems().get(0).getItemCount());
+    }
+
+    @Test
+    void testGetOrdersInvalidCursorOrLimit() {
+        assertThrows(IllegalArgumentException.class,
+            () -> orderService.getOrdersByUserId(testUserId, "not-a-cursor", 20));
+        assertThrows(IllegalArgumentException.class,
+            () -> orderService.getOrdersByUserId(testUserId, null, OrderService.MAX_PAGE_SIZE + 1));
+    }
+
     @Test
     void testGetOrdersByStatus() {
         // Given: Farklı durumlarda siparişler
@@ -399,14 +503,14 @@ class OrderServiceTest {
         product3.setId(productId3);
         product3.setName("Test Product");
         product3.setPrice(new BigDecimal("10000.00"));
-        when(productServiceClient.getProductById(productId3)).thenReturn(product3);
+        stubProduct(product3);
         
         InventoryServiceClient.InventoryResponse inventory3 = new InventoryServiceClient.InventoryResponse();
         inventory3.setId(UUID.randomUUID());
         inventory3.setProductId(productId3);
         inventory3.setQuantity(100);
         inventory3.setReservedQuantity(0);
-        when(inventoryServiceClient.getInventoryByProductId(productId3)).thenReturn(inventory3);
+        stubInventory(inventory3);
         
         Map<UUID, Boolean> stockAvailability2 = new HashMap<>();
         stockAvailability2.put(productId3, true);
@@ -415,7 +519,7 @@ class OrderServiceTest {
         orderService.createOrder(order2); // PENDING
 
         // When: CONFIRMED durumundaki siparişler getiriliyor
-        List<Order> confirmedOrders = orderService.getOrdersByStatus(OrderStatus.CONFIRMED);
+        List<OrderSummary> confirmedOrders = orderService.getOrdersByStatus(OrderStatus.CONFIRMED, null, OrderService.DEFAULT_PAGE_SIZE).getItems();
 
         // Then: Sadece CONFIRMED siparişler bulundu
         assertEquals(1, confirmedOrders.size());
@@ -447,14 +551,14 @@ class OrderServiceTest {
         product3.setId(productId3);
         product3.setName("Test Product");
         product3.setPrice(new BigDecimal("10000.00"));
-        when(productServiceClient.getProductById(productId3)).thenReturn(product3);
+        stubProduct(product3);
         
         InventoryServiceClient.InventoryResponse inventory3 = new InventoryServiceClient.InventoryResponse();
         inventory3.setId(UUID.randomUUID());
         inventory3.setProductId(productId3);
         inventory3.setQuantity(100);
         inventory3.setReservedQuantity(0);
-        when(inventoryServiceClient.getInventoryByProductId(productId3)).thenReturn(inventory3);
+        stubInventory(inventory3);
         
         Map<UUID, Boolean> stockAvailability2 = new HashMap<>();
         stockAvailability2.put(productId3, true);
@@ -463,7 +567,7 @@ class OrderServiceTest {
         orderService.createOrder(order2); // PENDING
 
         // When: testUserId'nin DELIVERED durumundaki siparişleri getiriliyor
-        List<Order> deliveredOrders = orderService.getOrdersByUserIdAndStatus(testUserId, OrderStatus.DELIVERED);
+        List<OrderSummary> deliveredOrders = orderService.getOrdersByUserIdAndStatus(testUserId, OrderStatus.DELIVERED, null, OrderService.DEFAULT_PAGE_SIZE).getItems();
 
         // Then: Sadece testUserId'nin DELIVERED siparişleri bulundu
         assertEquals(1, deliveredOrders.size());
@@ -491,39 +595,93 @@ class OrderServiceTest {
         Order createdOrder = orderService.createOrder(testOrder);
         UUID orderId = createdOrder.getId();
         assertEquals(OrderStatus.PENDING, createdOrder.getStatus());
-        
-        // Inventory mock'larını hazırla (stok rezerve için)
-        InventoryServiceClient.InventoryResponse inventory1 = new InventoryServiceClient.InventoryResponse();
-        inventory1.setId(UUID.randomUUID());
-        inventory1.setProductId(testProductId1);
-        inventory1.setQuantity(100);
-        inventory1.setReservedQuantity(0);
-        when(inventoryServiceClient.getInventoryByProductId(testProductId1)).thenReturn(inventory1);
-        
-        InventoryServiceClient.InventoryResponse inventory2 = new InventoryServiceClient.InventoryResponse();
-        inventory2.setId(UUID.randomUUID());
-        inventory2.setProductId(testProductId2);
-        inventory2.setQuantity(50);
-        inventory2.setReservedQuantity(0);
-        when(inventoryServiceClient.getInventoryByProductId(testProductId2)).thenReturn(inventory2);
-        
-        // Stok rezerve mock'ları
-        when(inventoryServiceClient.reserveStock(eq(inventory1.getId()), eq(1)))
-            .thenReturn(inventory1);
-        when(inventoryServiceClient.reserveStock(eq(inventory2.getId()), eq(2)))
-            .thenReturn(inventory2);
 
         // When: PENDING → CONFIRMED geçişi yapılıyor (stoklar rezerve edilmeli)
         Order updatedOrder = orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
 
         // Then: Durum CONFIRMED oldu
         assertEquals(OrderStatus.CONFIRMED, updatedOrder.getStatus());
-        
-        // Stokların rezerve edildiğini doğrula
-        verify(inventoryServiceClient, atLeastOnce()).getInventoryByProductId(testProductId1);
-        verify(inventoryServiceClient, atLeastOnce()).getInventoryByProductId(testProductId2);
-        verify(inventoryServiceClient, times(1)).reserveStock(eq(inventory1.getId()), eq(1));
-        verify(inventoryServiceClient, times(1)).reserveStock(eq(inventory2.getId()), eq(2));
+
+        // Tüm kalemler tek istekte rezerve edildi (kalem başına çağrı yok)
+        ArgumentCaptor<InventoryServiceClient.ReservationRequest> captor =
+            ArgumentCaptor.forClass(InventoryServiceClient.ReservationRequest.class);
+        verify(inventoryServiceClient, times(1)).createReservation(captor.capture());
+        assertEquals(orderId, captor.getValue().getOrderId());
+        Map<UUID, Integer> reserved = new HashMap<>();
+        captor.getValue().getItems().forEach(item -> reserved.put(item.getProductId(), item.getQuantity()));
+        assertEquals(Map.of(testProductId1, 1, testProductId2, 2), reserved);
+        verify(inventoryServiceClient, never()).reserveStock(any(UUID.class), any(UUID.class), any(Integer.class));
+    }
+
+    @Test
+    void testUpdateOrderStatusReservationFailure() {
+        // Given: Inventory Service stok yetersiz diyor (hiçbir kalem rezerve edilmedi)
+        Order createdOrder = orderService.createOrder(testOrder);
+        UUID orderId = createdOrder.getId();
+        when(inventoryServiceClient.createReservation(any(InventoryServiceClient.ReservationRequest.class)))
+            .thenReturn(orderReservation(orderId, false, "INSUFFICIENT_STOCK"));
+
+        // When: PENDING → CONFIRMED
+        assertThrows(IllegalArgumentException.class,
+            () -> orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED));
+
+        // Then: Sipariş stoksuz onaylanmaz, kalem bazlı yedek çağrı yapılmaz
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(orderId).orElseThrow().getStatus());
+        verify(inventoryServiceClient, never()).reserveStock(any(UUID.class), any(UUID.class), any(Integer.class));
+    }
+
+    @Test
+    void testPaymentPendingPlacesHoldAndSuccessConfirmsIt() {
+        // Given: Bir sipariş oluşturuluyor
+        Order createdOrder = orderService.createOrder(testOrder);
+        UUID orderId = createdOrder.getId();
+
+        // When: Ödeme başlatılıyor, sonra başarılı oluyor
+        orderService.markPaymentPending(orderId);
+        Order confirmed = orderService.markPaymentSuccess(orderId);
+
+        // Then: Önce süreli hold, sonra kalıcı rezervasyon istendi
+        assertEquals(OrderStatus.CONFIRMED, confirmed.getStatus());
+        ArgumentCaptor<InventoryServiceClient.ReservationRequest> captor =
+            ArgumentCaptor.forClass(InventoryServiceClient.ReservationRequest.class);
+        verify(inventoryServiceClient, times(2)).createReservation(captor.capture());
+        assertEquals(900, captor.getAllValues().get(0).getHoldSeconds());
+        assertNull(captor.getAllValues().get(1).getHoldSeconds());
+        assertEquals(orderId, captor.getAllValues().get(1).getOrderId());
+    }
+
+    @Test
+    void testStatusChangesUseCustomerContactSnapshot() {
+        // Given: Sipariş oluşturulurken kullanıcı bilgisi bir kez çekilir ve siparişe yazılır
+        Order createdOrder = orderService.createOrder(testOrder);
+        assertEquals("test@example.com", createdOrder.getCustomerEmail());
+
+        // When: Birden fazla durum değişikliği
+        orderService.markPaymentPending(createdOrder.getId());
+        orderService.markPaymentSuccess(createdOrder.getId());
+
+        // Then: User Service'e durum değişikliklerinde tekrar gidilmedi
+        verify(userServiceClient, times(1)).getUserById(testUserId);
+    }
+
+    @Test
+    void testStatusChangeBackfillsMissingCustomerContactOnce() {
+        // Given: Snapshot'ı olmayan (eski) bir sipariş
+        Order createdOrder = orderService.createOrder(testOrder);
+        Order legacyOrder = orderRepository.findById(createdOrder.getId()).orElseThrow();
+        legacyOrder.setCustomerEmail(null);
+        legacyOrder.setCustomerName(null);
+        orderRepository.save(legacyOrder);
+        clearInvocations(userServiceClient);
+
+        // When: İki durum değişikliği
+        orderService.updateOrderStatus(legacyOrder.getId(), OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(legacyOrder.getId(), OrderStatus.PROCESSING);
+
+        // Then: Kullanıcı bilgisi sadece ilk değişiklikte çekildi ve siparişe yazıldı
+        verify(userServiceClient, times(1)).getUserById(testUserId);
+        assertEquals("test@example.com",
+            orderRepository.findById(legacyOrder.getId()).orElseThrow().getCustomerEmail());
     }
 
     @Test
@@ -656,40 +814,55 @@ class OrderServiceTest {
 
     @Test
     void testCancelConfirmedOrder() {
-        // Given: CONFIRMED durumunda bir sipariş
+        // Given: CONFIRMED durumunda bir sipariş (sipariş bazlı rezervasyon ile)
+        Order createdOrder = orderService.createOrder(testOrder);
+        UUID orderId = createdOrder.getId();
+        orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
+
+        // When: Sipariş iptal ediliyor (stoklar geri verilmeli)
+        Order cancelledOrder = orderService.cancelOrder(orderId);
+
+        // Then: Sipariş iptal edildi
+        assertEquals(OrderStatus.CANCELLED, cancelledOrder.getStatus());
+
+        // Rezervasyon tek istekte serbest bırakıldı
+        verify(inventoryServiceClient, times(1)).releaseReservation(orderId);
+        verify(inventoryServiceClient, never()).releaseReservedStock(any(UUID.class), any(UUID.class), any(Integer.class));
+    }
+
+    @Test
+    void testCancelConfirmedOrderWithoutReservation() {
+        // Given: Sipariş bazlı rezervasyondan önce onaylanmış sipariş (rezervasyon kaydı yok)
         Order createdOrder = orderService.createOrder(testOrder);
         UUID orderId = createdOrder.getId();
         
-        // Önce stokları rezerve et
         InventoryServiceClient.InventoryResponse inventory1 = new InventoryServiceClient.InventoryResponse();
         inventory1.setId(UUID.randomUUID());
         inventory1.setProductId(testProductId1);
-        when(inventoryServiceClient.getInventoryByProductId(testProductId1)).thenReturn(inventory1);
+        stubInventory(inventory1);
         
         InventoryServiceClient.InventoryResponse inventory2 = new InventoryServiceClient.InventoryResponse();
         inventory2.setId(UUID.randomUUID());
         inventory2.setProductId(testProductId2);
-        when(inventoryServiceClient.getInventoryByProductId(testProductId2)).thenReturn(inventory2);
+        stubInventory(inventory2);
         
         orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
         
-        // Stok geri verme mock'ları
-        when(inventoryServiceClient.releaseReservedStock(eq(inventory1.getId()), eq(1)))
-            .thenReturn(inventory1);
-        when(inventoryServiceClient.releaseReservedStock(eq(inventory2.getId()), eq(2)))
-            .thenReturn(inventory2);
+        when(inventoryServiceClient.releaseReservation(orderId))
+            .thenReturn(orderReservation(orderId, false, "RESERVATION_NOT_FOUND"));
+        when(inventoryServiceClient.releaseReservedStock(eq(inventory1.getId()), eq(testProductId1), eq(1)))
+            .thenReturn(reservationResult(inventory1.getId(), 1));
+        when(inventoryServiceClient.releaseReservedStock(eq(inventory2.getId()), eq(testProductId2), eq(2)))
+            .thenReturn(reservationResult(inventory2.getId(), 2));
 
-        // When: Sipariş iptal ediliyor (stoklar geri verilmeli)
+        // When: Sipariş iptal ediliyor
         Order cancelledOrder = orderService.cancelOrder(orderId);
 
-        // Then: Sipariş iptal edildi
+        // Then: Kalem bazlı release'e düşüldü
         assertEquals(OrderStatus.CANCELLED, cancelledOrder.getStatus());
-        
-        // Stokların geri verildiğini doğrula
-        verify(inventoryServiceClient, atLeastOnce()).getInventoryByProductId(testProductId1);
-        verify(inventoryServiceClient, atLeastOnce()).getInventoryByProductId(testProductId2);
-        verify(inventoryServiceClient, times(1)).releaseReservedStock(eq(inventory1.getId()), eq(1));
-        verify(inventoryServiceClient, times(1)).releaseReservedStock(eq(inventory2.getId()), eq(2));
+        verify(inventoryServiceClient, atLeastOnce()).getInventoriesByProductIds(List.of(testProductId1, testProductId2));
+        verify(inventoryServiceClient, times(1)).releaseReservedStock(eq(inventory1.getId()), eq(testProductId1), eq(1));
+        verify(inventoryServiceClient, times(1)).releaseReservedStock(eq(inventory2.getId()), eq(testProductId2), eq(2));
     }
 
     @Test
@@ -855,8 +1028,8 @@ class OrderServiceTest {
         item.setQuantity(1);
         order.setOrderItems(List.of(item));
         
-        // Product Service mock'u: ürün bulunamadı
-        when(productServiceClient.getProductById(nonExistentProductId)).thenReturn(null);
+        // Product Service mock'u: ürün bulunamadı (batch response'ta yer almaz)
+        // nonExistentProductId katalogda yok
         
         // When & Then: ResourceNotFoundException fırlatılmalı
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
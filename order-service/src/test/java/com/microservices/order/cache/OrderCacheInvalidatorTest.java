@@ -0,0 +1,162 @@
+package com.microservices.order.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.microservices.order.DTO.OrderSummary;
+import com.microservices.order.DTO.OrderSummaryPage;
+import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Service.OrderCacheInvalidator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Order Cache Invalidator Test
+ *
+ * Tag index ile sadece değişen siparişi içeren liste key'lerinin silindiğini test eder
+ * Redis mock'lanır, cache olarak ConcurrentMapCacheManager kullanılır
+ */
+class OrderCacheInvalidatorTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private StringRedisTemplate redisTemplate;
+    private SetOperations<String, String> setOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderCacheInvalidator invalidator;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID orderId = UUID.randomUUID();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("orders");
+        redisTemplate = mock(StringRedisTemplate.class);
+        setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        invalidator = new OrderCacheInvalidator(cacheManager, redisTemplate, meterRegistry, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTagListTagsEveryOrderInPage() {
+        UUID otherOrderId = UUID.randomUUID();
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            ((SessionCallback<Object>) invocation.getArgument(0)).execute(redisTemplate);
+            return List.of();
+        });
+
+        invalidator.tagList("all:summary", page(orderId, otherOrderId));
+
+        verify(setOperations).add("order-service:cache-tags:" + orderId, "all:summary");
+        verify(setOperations).add("order-service:cache-tags:" + otherOrderId, "all:summary");
+        verify(redisTemplate).expire("order-service:cache-tags:" + orderId, Duration.ofMinutes(30));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCachedListTagsAfterPut() {
+        Cache cache = cacheManager.getCache("orders");
+        OrderSummaryPage page = page(orderId);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            // Tag eklenirken liste zaten cache'te olmalı
+            assertNotNull(cache.get("all:summary"));
+            return List.of();
+        });
+
+        assertSame(page, invalidator.cachedList("all:summary", () -> page));
+        assertSame(page, invalidator.cachedList("all:summary", () -> fail("cache'ten okunmalı")));
+
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void testEvictOrderEvictsOnlyTaggedLists() {
+        Cache cache = cacheManager.getCache("orders");
+        String userKey = OrderCacheInvalidator.userOrdersKey(userId);
+        String otherUserKey = OrderCacheInvalidator.userOrdersKey(UUID.randomUUID());
+        cache.put(orderId.toString(), "detail");
+        cache.put("all:summary", "all");
+        cache.put(userKey, "user");
+        cache.put(otherUserKey, "other");
+        when(setOperations.members("order-service:cache-tags:" + orderId)).thenReturn(Set.of(userKey));
+
+        invalidator.evictOrder(orderId, userId);
+
+        assertNull(cache.get(orderId.toString()));
+        assertNull(cache.get(userKey));
+        assertNotNull(cache.get("all:summary"));  // Sipariş 'all' ilk sayfasında değil
+        assertNotNull(cache.get(otherUserKey));
+        // Tag set'i silinmez (TTL ile düşer): aynı anda cache'lenen liste tag'ini kaybetmesin
+        verify(redisTemplate, never()).delete(anyString());
+        assertEquals(1.0, meterRegistry.counter("orders.cache.tag.evictions").count());
+    }
+
+    @Test
+    void testEvictOrderFallsBackWhenTagIndexUnavailable() {
+        Cache cache = cacheManager.getCache("orders");
+        cache.put("all:summary", "all");
+        cache.put(OrderCacheInvalidator.userOrdersKey(userId), "user");
+        when(setOperations.members(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        invalidator.evictOrder(orderId, userId);
+
+        assertNull(cache.get("all:summary"));
+        assertNull(cache.get(OrderCacheInvalidator.userOrdersKey(userId)));
+        assertEquals(1.0, meterRegistry.counter("orders.cache.tag.errors").count());
+    }
+
+    @Test
+    void testEvictionWaitsForCommit() {
+        Cache cache = cacheManager.getCache("orders");
+        cache.put("all:summary", "all");
+        cache.put(OrderCacheInvalidator.userOrdersKey(userId), "user");
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.evictListsForNewOrder(userId);
+
+        // Commit'ten önce cache'e dokunulmaz
+        assertNotNull(cache.get("all:summary"));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertNull(cache.get("all:summary"));
+        assertNull(cache.get(OrderCacheInvalidator.userOrdersKey(userId)));
+    }
+
+    private OrderSummaryPage page(UUID... ids) {
+        List<OrderSummary> items = java.util.Arrays.stream(ids)
+            .map(id -> new OrderSummary(id, userId, OrderStatus.PENDING, new BigDecimal("100.00"),
+                LocalDateTime.now(), LocalDateTime.now(), 1))
+            .toList();
+        return new OrderSummaryPage(items, null, false);
+    }
+}
@@ -0,0 +1,140 @@
+package com.microservices.order.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.microservices.order.Config.CacheInvalidationBus;
+import com.microservices.order.Config.TwoLevelCacheManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two Level Cache Test
+ *
+ * L1 (Caffeine) / L2 okuma sırasını, invalidation yayınını ve metrikleri test eder
+ * L2 olarak ConcurrentMapCache, Redis yerine mock StringRedisTemplate kullanılır
+ */
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private StringRedisTemplate redisTemplate;
+    private CacheInvalidationBus invalidationBus;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager("orders");
+        redisTemplate = mock(StringRedisTemplate.class);
+        invalidationBus = new CacheInvalidationBus(redisTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(
+            remoteCacheManager, invalidationBus, meterRegistry, Duration.ofSeconds(10), 100);
+    }
+
+    @Test
+    void testL2HitIsPromotedToL1() {
+        Cache cache = cacheManager.getCache("orders");
+        remoteCache().put("order-1", "value");
+
+        assertEquals("value", cache.get("order-1").get());
+        // L2'den silinse bile ikinci okuma L1'den gelir
+        remoteCache().evict("order-1");
+        assertEquals("value", cache.get("order-1").get());
+
+        assertEquals(1.0, gets("l1", "hit"));
+        assertEquals(1.0, gets("l1", "miss"));
+        assertEquals(1.0, gets("l2", "hit"));
+        assertEquals(1L, meterRegistry.timer("orders.cache.l2.latency", "cache", "orders").count());
+    }
+
+    @Test
+    void testMissReturnsNullAndLoaderFillsBothLevels() {
+        Cache cache = cacheManager.getCache("orders");
+
+        assertNull(cache.get("order-1"));
+        assertEquals(1.0, gets("l2", "miss"));
+
+        assertEquals("loaded", cache.get("order-1", () -> "loaded"));
+        assertEquals("loaded", remoteCache().get("order-1").get());
+        assertEquals("loaded", cache.get("order-1", () -> "other"));
+        assertEquals(1.0, gets("l1", "hit"));
+    }
+
+    @Test
+    void testEvictRemovesBothLevelsAndPublishes() {
+        Cache cache = cacheManager.getCache("orders");
+        cache.put("order-1", "value");
+
+        cache.evict("order-1");
+
+        assertNull(remoteCache().get("order-1"));
+        assertNull(cache.get("order-1"));
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), contains("|EVICT|orders|order-1"));
+    }
+
+    @Test
+    void testRemoteInvalidationEvictsOnlyL1() {
+        Cache cache = cacheManager.getCache("orders");
+        cache.put("order-1", "value");
+        cache.put("order-2", "value");
+        // Başka bir instance L2'yi güncellemiş olsun
+        remoteCache().put("order-1", "updated");
+
+        invalidationBus.onMessage(message("other-instance|EVICT|orders|order-1"), null);
+
+        assertEquals("updated", cache.get("order-1").get());
+        assertEquals("value", cache.get("order-2").get());
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void testRemoteClearEmptiesL1() {
+        Cache cache = cacheManager.getCache("orders");
+        cache.put("order-1", "value");
+        remoteCache().clear();
+
+        invalidationBus.onMessage(message("other-instance|CLEAR|orders|"), null);
+
+        assertNull(cache.get("order-1"));
+    }
+
+    @Test
+    void testOwnInvalidationMessageIsIgnored() {
+        Cache cache = cacheManager.getCache("orders");
+        cache.evict("order-1");
+        org.mockito.ArgumentCaptor<String> captor = org.mockito.ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), captor.capture());
+
+        cache.put("order-1", "value");
+        remoteCache().evict("order-1");
+        invalidationBus.onMessage(message(captor.getValue()), null);
+
+        // Kendi mesajımız L1'i tekrar temizlemez
+        assertEquals("value", cache.get("order-1").get());
+    }
+
+    private ConcurrentMapCache remoteCache() {
+        return (ConcurrentMapCache) remoteCacheManager.getCache("orders");
+    }
+
+    private double gets(String level, String result) {
+        return meterRegistry.counter("orders.cache.gets", "cache", "orders", "level", level, "result", result).count();
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(
+            CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,114 @@
+package com.microservices.order.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.microservices.order.Config.ReplicaLagMonitor;
+import com.microservices.order.Config.ReplicaRoutingDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Replica Routing DataSource Test
+ *
+ * İki in-process H2 veritabanı primary/replica stand-in'i olarak kullanılır;
+ * her biri hangi node olduğunu döner. Lag query'si replica'daki lag tablosundan okunur.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private ReplicaLagMonitor lagMonitor;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = node("primary");
+        replica = node("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE IF NOT EXISTS replica_lag (ms BIGINT)");
+        new JdbcTemplate(replica).execute("DELETE FROM replica_lag");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+
+        routing = new ReplicaRoutingDataSource(primary, replica);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        lagMonitor = new ReplicaLagMonitor(routing, replica, new SimpleMeterRegistry(), 1000,
+            "SELECT ms FROM replica_lag");
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplicaWritesStayOnPrimary() {
+        lagMonitor.check();
+
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+        assertEquals("primary", currentNode());  // Transaction dışı
+    }
+
+    @Test
+    void testReplicaIsNotUsedBeforeFirstLagCheck() {
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        lagMonitor.check();
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET ms = 5000");
+        lagMonitor.check();
+
+        assertFalse(routing.isReplicaAvailable());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        // Replica yetişince tekrar kullanılır
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET ms = 200");
+        lagMonitor.check();
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testFailedLagCheckDisablesReplica() {
+        lagMonitor.check();
+        new JdbcTemplate(replica).execute("DROP TABLE replica_lag");
+        lagMonitor.check();
+
+        assertFalse(routing.isReplicaAvailable());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testOnPrimaryOverridesReadOnlyRouting() {
+        lagMonitor.check();
+
+        assertEquals("primary", readOnly.execute(status -> ReplicaRoutingDataSource.onPrimary(this::currentNode)));
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:order_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        template.execute("DELETE FROM node");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
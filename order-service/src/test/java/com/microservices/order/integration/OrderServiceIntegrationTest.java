@@ -130,25 +130,21 @@ class OrderServiceIntegrationTest {
             .setBody(objectMapper.writeValueAsString(userResponse))
             .addHeader("Content-Type", "application/json"));
 
-        // Product Service Mock Responses
+        // Product Service Mock Response
         ProductServiceClient.ProductResponse product1 = new ProductServiceClient.ProductResponse();
         product1.setId(testProductId1);
         product1.setName("MacBook Pro");
         product1.setPrice(new BigDecimal("45000.00"));
         
-        mockProductServer.enqueue(new MockResponse()
-            .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(product1))
-            .addHeader("Content-Type", "application/json"));
-
         ProductServiceClient.ProductResponse product2 = new ProductServiceClient.ProductResponse();
         product2.setId(testProductId2);
         product2.setName("iPhone 15");
         product2.setPrice(new BigDecimal("35000.00"));
         
+        // Batch endpoint: tüm ürünler tek response'ta (POST /products/batch)
         mockProductServer.enqueue(new MockResponse()
             .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(product2))
+            .setBody(objectMapper.writeValueAsString(List.of(product1, product2)))
             .addHeader("Content-Type", "application/json"));
 
         // Inventory Service Mock Responses
@@ -158,11 +154,6 @@ class OrderServiceIntegrationTest {
         inventory1.setQuantity(100);
         inventory1.setReservedQuantity(0);
         inventory1.setStatus("IN_STOCK");
-        
-        mockInventoryServer.enqueue(new MockResponse()
-            .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory1))
-            .addHeader("Content-Type", "application/json"));
 
         InventoryServiceClient.InventoryResponse inventory2 = new InventoryServiceClient.InventoryResponse();
         inventory2.setId(UUID.randomUUID());
@@ -171,9 +162,10 @@ class OrderServiceIntegrationTest {
         inventory2.setReservedQuantity(0);
         inventory2.setStatus("IN_STOCK");
         
+        // Batch endpoint: tüm stoklar tek response'ta (POST /inventory/product/batch)
         mockInventoryServer.enqueue(new MockResponse()
             .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory2))
+            .setBody(objectMapper.writeValueAsString(List.of(inventory1, inventory2)))
             .addHeader("Content-Type", "application/json"));
 
         // Stock Check Mock Response
@@ -235,21 +227,16 @@ class OrderServiceIntegrationTest {
         assertEquals("GET", userRequest.getMethod());
         assertTrue(userRequest.getPath().contains("/users/" + testUserId));
 
-        RecordedRequest productRequest1 = mockProductServer.takeRequest();
-        assertEquals("GET", productRequest1.getMethod());
-        assertTrue(productRequest1.getPath().contains("/products/" + testProductId1));
-
-        RecordedRequest productRequest2 = mockProductServer.takeRequest();
-        assertEquals("GET", productRequest2.getMethod());
-        assertTrue(productRequest2.getPath().contains("/products/" + testProductId2));
-
-        RecordedRequest inventoryRequest1 = mockInventoryServer.takeRequest();
-        assertEquals("GET", inventoryRequest1.getMethod());
-        assertTrue(inventoryRequest1.getPath().contains("/inventory/product/" + testProductId1));
+        // Ürün ve stok bilgileri sepet başına tek batch istek ile çekilir
+        RecordedRequest productRequest = mockProductServer.takeRequest();
+        assertEquals("POST", productRequest.getMethod());
+        assertEquals("/products/batch", productRequest.getPath());
+        assertTrue(productRequest.getBody().readUtf8().contains(testProductId2.toString()));
+        assertEquals(1, mockProductServer.getRequestCount());
 
-        RecordedRequest inventoryRequest2 = mockInventoryServer.takeRequest();
-        assertEquals("GET", inventoryRequest2.getMethod());
-        assertTrue(inventoryRequest2.getPath().contains("/inventory/product/" + testProductId2));
+        RecordedRequest inventoryRequest = mockInventoryServer.takeRequest();
+        assertEquals("POST", inventoryRequest.getMethod());
+        assertEquals("/inventory/product/batch", inventoryRequest.getPath());
 
         RecordedRequest stockCheckRequest = mockInventoryServer.takeRequest();
         assertEquals("POST", stockCheckRequest.getMethod());
@@ -309,7 +296,7 @@ class OrderServiceIntegrationTest {
         
         mockProductServer.enqueue(new MockResponse()
             .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(product))
+            .setBody(objectMapper.writeValueAsString(List.of(product)))
             .addHeader("Content-Type", "application/json"));
 
         // Inventory Service Mock Response
@@ -322,7 +309,7 @@ class OrderServiceIntegrationTest {
         
         mockInventoryServer.enqueue(new MockResponse()
             .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory))
+            .setBody(objectMapper.writeValueAsString(List.of(inventory)))
             .addHeader("Content-Type", "application/json"));
 
         // Stock Check Mock Response: Yetersiz stok
@@ -366,39 +353,18 @@ class OrderServiceIntegrationTest {
         Order createdOrder = orderService.createOrder(order);
         UUID orderId = createdOrder.getId();
 
-        // Inventory bilgisini çekmek için mock
-        InventoryServiceClient.InventoryResponse inventory1 = new InventoryServiceClient.InventoryResponse();
-        inventory1.setId(UUID.randomUUID());
-        inventory1.setProductId(testProductId1);
-        inventory1.setQuantity(100);
-        inventory1.setReservedQuantity(0);
-        
-        mockInventoryServer.enqueue(new MockResponse()
-            .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory1))
-            .addHeader("Content-Type", "application/json"));
-
-        InventoryServiceClient.InventoryResponse inventory2 = new InventoryServiceClient.InventoryResponse();
-        inventory2.setId(UUID.randomUUID());
-        inventory2.setProductId(testProductId2);
-        inventory2.setQuantity(50);
-        inventory2.setReservedQuantity(0);
-        
+        // Sipariş bazlı rezervasyon mock'u (tüm kalemler tek POST ile)
+        InventoryServiceClient.ReservationResponse reservation = new InventoryServiceClient.ReservationResponse();
+        reservation.setReservationId(UUID.randomUUID());
+        reservation.setOrderId(orderId);
+        reservation.setStatus("ACTIVE");
+        reservation.setSuccess(true);
         mockInventoryServer.enqueue(new MockResponse()
             .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory2))
+            .setBody(objectMapper.writeValueAsString(reservation))
             .addHeader("Content-Type", "application/json"));
 
-        // Stok rezerve mock'ları
-        mockInventoryServer.enqueue(new MockResponse()
-            .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory1))
-            .addHeader("Content-Type", "application/json"));
-
-        mockInventoryServer.enqueue(new MockResponse()
-            .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory2))
-            .addHeader("Content-Type", "application/json"));
+        int requestsBefore = mockInventoryServer.getRequestCount();
 
         // When: PENDING → CONFIRMED geçişi (stoklar rezerve edilmeli)
         Order updatedOrder = orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
@@ -406,11 +372,8 @@ class OrderServiceIntegrationTest {
         // Then: Durum CONFIRMED oldu
         assertEquals(OrderStatus.CONFIRMED, updatedOrder.getStatus());
 
-        // Not: MockWebServer PATCH request'i desteklemiyor
-        // Bu yüzden stok rezerve request'lerini doğrulamıyoruz
-        // Gerçek uygulamada Inventory Service PATCH'i destekler ve stoklar rezerve edilir
-        // Bu test sadece order status'unun CONFIRMED olduğunu doğrular
-        // Stok rezerve işlemi OrderService'de try-catch içinde olduğu için hata fırlatılmaz
+        // Inventory Service'e sipariş başına tek istek gitti
+        assertEquals(requestsBefore + 1, mockInventoryServer.getRequestCount());
     }
 
     // Helper methods
@@ -434,19 +397,15 @@ class OrderServiceIntegrationTest {
         product1.setName("MacBook Pro");
         product1.setPrice(new BigDecimal("45000.00"));
         
-        mockProductServer.enqueue(new MockResponse()
-            .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(product1))
-            .addHeader("Content-Type", "application/json"));
-
         ProductServiceClient.ProductResponse product2 = new ProductServiceClient.ProductResponse();
         product2.setId(testProductId2);
         product2.setName("iPhone 15");
         product2.setPrice(new BigDecimal("35000.00"));
         
+        // Batch endpoint: tüm ürünler tek response'ta (POST /products/batch)
         mockProductServer.enqueue(new MockResponse()
             .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(product2))
+            .setBody(objectMapper.writeValueAsString(List.of(product1, product2)))
             .addHeader("Content-Type", "application/json"));
 
         // Inventory Service Mocks
@@ -456,11 +415,6 @@ class OrderServiceIntegrationTest {
         inventory1.setQuantity(100);
         inventory1.setReservedQuantity(0);
         inventory1.setStatus("IN_STOCK");
-        
-        mockInventoryServer.enqueue(new MockResponse()
-            .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory1))
-            .addHeader("Content-Type", "application/json"));
 
         InventoryServiceClient.InventoryResponse inventory2 = new InventoryServiceClient.InventoryResponse();
         inventory2.setId(UUID.randomUUID());
@@ -469,9 +423,10 @@ class OrderServiceIntegrationTest {
         inventory2.setReservedQuantity(0);
         inventory2.setStatus("IN_STOCK");
         
+        // Batch endpoint: tüm stoklar tek response'ta (POST /inventory/product/batch)
         mockInventoryServer.enqueue(new MockResponse()
             .setResponseCode(200)
-            .setBody(objectMapper.writeValueAsString(inventory2))
+            .setBody(objectMapper.writeValueAsString(List.of(inventory1, inventory2)))
             .addHeader("Content-Type", "application/json"));
 
         // Stock Check Mock
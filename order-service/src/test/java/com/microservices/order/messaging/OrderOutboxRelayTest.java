@@ -0,0 +1,165 @@
+package com.microservices.order.messaging;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.microservices.order.Config.RabbitMQConfig;
+import com.microservices.order.Event.OrderCreatedEvent;
+import com.microservices.order.Model.OutboxEvent;
+import com.microservices.order.Model.OutboxStatus;
+import com.microservices.order.Repository.OutboxEventRepository;
+import com.microservices.order.Service.OrderOutboxRelay;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Order Outbox Relay Test
+ *
+ * Relay'in publisher confirm sonucuna göre outbox kayıtlarını güncellemesini test eder
+ * RabbitTemplate mock'lanır; confirm'ler CorrelationData future'ı tamamlanarak simüle edilir
+ */
+class OrderOutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private RabbitTemplate rabbitTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OrderOutboxRelay(
+            outboxEventRepository,
+            rabbitTemplate,
+            mock(PlatformTransactionManager.class),
+            meterRegistry,
+            10,     // batch-size
+            5,      // max-batches-per-run
+            200,    // confirm-timeout-ms
+            3,      // max-attempts
+            72);    // retention-hours
+    }
+
+    @Test
+    void testAckedEventsAreMarkedSent() {
+        OutboxEvent first = pendingEvent();
+        OutboxEvent second = pendingEvent();
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(first, second));
+        confirmAll(true);
+
+        relay.relay();
+
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(2)).send(
+            eq(RabbitMQConfig.ORDER_EXCHANGE), eq(RabbitMQConfig.ROUTING_KEY_CREATED),
+            messageCaptor.capture(), any(CorrelationData.class));
+        Message message = messageCaptor.getAllValues().get(0);
+        assertEquals(first.getId().toString(), message.getMessageProperties().getMessageId());
+        assertEquals(OrderCreatedEvent.class.getName(), message.getMessageProperties().getHeader("__TypeId__"));
+        assertEquals(first.getPayload(), new String(message.getBody()));
+
+        verify(outboxEventRepository).markSent(
+            argThat((Collection<UUID> ids) -> ids.size() == 2 && ids.contains(first.getId()) && ids.contains(second.getId())),
+            any(LocalDateTime.class));
+        assertEquals(2.0, meterRegistry.counter("orders.outbox.published").count());
+        assertEquals(0, first.getAttempts());
+    }
+
+    @Test
+    void testNackedEventStaysPendingAndCountsAttempt() {
+        OutboxEvent event = pendingEvent();
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(event));
+        confirmAll(false);
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).markSent(anyCollection(), any(LocalDateTime.class));
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getLastError().contains("nack"));
+    }
+
+    @Test
+    void testMissingConfirmTimesOut() {
+        OutboxEvent event = pendingEvent();
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(event));
+        // Confirm hiç gelmiyor (send mock'u future'ı tamamlamaz)
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).markSent(anyCollection(), any(LocalDateTime.class));
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getLastError().contains("timed out"));
+    }
+
+    @Test
+    void testBrokerDownStopsBatch() {
+        OutboxEvent first = pendingEvent();
+        OutboxEvent second = pendingEvent();
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(first, second));
+        doThrow(new AmqpConnectException(new java.net.ConnectException("Connection refused")))
+            .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        relay.relay();
+
+        // İlk gönderim hata verince ikinci event denenmez
+        verify(rabbitTemplate, times(1)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        verify(outboxEventRepository, never()).markSent(anyCollection(), any(LocalDateTime.class));
+        assertEquals(1, first.getAttempts());
+        assertEquals(0, second.getAttempts());
+    }
+
+    @Test
+    void testEventFailsAfterMaxAttempts() {
+        OutboxEvent event = pendingEvent();
+        event.setAttempts(2);
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(event));
+        confirmAll(false);
+
+        relay.relay();
+
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+        assertEquals(3, event.getAttempts());
+        assertEquals(1.0, meterRegistry.counter("orders.outbox.failed").count());
+    }
+
+    private void confirmAll(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack from broker"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private OutboxEvent pendingEvent() {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setAggregateId(UUID.randomUUID());
+        event.setEventType(OrderCreatedEvent.class.getName());
+        event.setExchange(RabbitMQConfig.ORDER_EXCHANGE);
+        event.setRoutingKey(RabbitMQConfig.ROUTING_KEY_CREATED);
+        event.setPayload("{\"orderId\":\"" + event.getAggregateId() + "\"}");
+        event.setStatus(OutboxStatus.PENDING);
+        event.setAttempts(0);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -27,14 +28,18 @@ import com.microservices.order.Event.OrderStatusChangedEvent;
 import com.microservices.order.Model.Order;
 import com.microservices.order.Model.OrderItem;
 import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Model.OutboxEvent;
+import com.microservices.order.Model.OutboxStatus;
 import com.microservices.order.Repository.OrderRepository;
+import com.microservices.order.Repository.OutboxEventRepository;
 import com.microservices.order.Service.OrderService;
 
 /**
  * Order Service RabbitMQ Integration Test
  * 
- * OrderService'in RabbitMQ'ya event gönderme işlemlerini test eder
- * MockRabbitTemplate kullanarak gerçek RabbitMQ'ya bağlanmadan test yapar
+ * OrderService'in event'leri outbox'a yazma işlemlerini test eder
+ * Event'ler sipariş transaction'ında order_outbox'a yazılır; RabbitTemplate'e doğrudan gönderim yapılmaz
+ * (gönderim OrderOutboxRelay'de, test profilinde relay kapalı)
  */
 @SpringBootTest
 @ActiveProfiles("test")
@@ -47,6 +52,9 @@ class OrderServiceRabbitMQIntegrationTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @MockBean
     private ProductServiceClient productServiceClient;
 
@@ -113,11 +121,11 @@ class OrderServiceRabbitMQIntegrationTest {
     }
 
     @Test
-    void testCreateOrderSendsRabbitMQEvent() {
+    void testCreateOrderWritesOrderCreatedEventToOutbox() {
         // Given: Mock service responses
         when(userServiceClient.getUserById(testUserId)).thenReturn(testUser);
-        when(productServiceClient.getProductById(testProductId)).thenReturn(testProduct);
-        when(inventoryServiceClient.getInventoryByProductId(testProductId)).thenReturn(testInventory);
+        when(productServiceClient.getProductsByIds(anyList())).thenReturn(List.of(testProduct));
+        when(inventoryServiceClient.getInventoriesByProductIds(anyList())).thenReturn(List.of(testInventory));
         
         Map<UUID, Boolean> stockAvailability = new HashMap<>();
         stockAvailability.put(testProductId, true);
@@ -126,11 +134,18 @@ class OrderServiceRabbitMQIntegrationTest {
         // When: Order oluşturuluyor
         Order createdOrder = orderService.createOrder(testOrder);
 
-        // Then: RabbitMQ'ya OrderCreatedEvent gönderilmiş olmalı
-        verify(rabbitTemplate, times(1)).convertAndSend(
-            eq(RabbitMQConfig.ORDER_CREATED_QUEUE),
-            org.mockito.ArgumentMatchers.any(OrderCreatedEvent.class)
-        );
+        // Then: OrderCreatedEvent outbox'a yazılmış olmalı (broker'a inline gönderim yok)
+        List<OutboxEvent> outboxEvents = outboxEventRepository.findAll();
+        assertEquals(1, outboxEvents.size());
+        OutboxEvent outboxEvent = outboxEvents.get(0);
+        assertEquals(createdOrder.getId(), outboxEvent.getAggregateId());
+        assertEquals(OrderCreatedEvent.class.getName(), outboxEvent.getEventType());
+        assertEquals(RabbitMQConfig.ORDER_EXCHANGE, outboxEvent.getExchange());
+        assertEquals(RabbitMQConfig.ROUTING_KEY_CREATED, outboxEvent.getRoutingKey());
+        assertEquals(OutboxStatus.PENDING, outboxEvent.getStatus());
+        assertTrue(outboxEvent.getPayload().contains(createdOrder.getId().toString()));
+        assertTrue(outboxEvent.getPayload().contains("test@example.com"));
+        verifyNoInteractions(rabbitTemplate);
 
         // Order başarıyla oluşturuldu
         assertNotNull(createdOrder.getId());
@@ -138,11 +153,11 @@ class OrderServiceRabbitMQIntegrationTest {
     }
 
     @Test
-    void testUpdateOrderStatusSendsRabbitMQEvent() {
+    void testUpdateOrderStatusWritesStatusChangedEventToOutbox() {
         // Given: Bir order oluşturuluyor
         when(userServiceClient.getUserById(testUserId)).thenReturn(testUser);
-        when(productServiceClient.getProductById(testProductId)).thenReturn(testProduct);
-        when(inventoryServiceClient.getInventoryByProductId(testProductId)).thenReturn(testInventory);
+        when(productServiceClient.getProductsByIds(anyList())).thenReturn(List.of(testProduct));
+        when(inventoryServiceClient.getInventoriesByProductIds(anyList())).thenReturn(List.of(testInventory));
         
         Map<UUID, Boolean> stockAvailability = new HashMap<>();
         stockAvailability.put(testProductId, true);
@@ -151,18 +166,19 @@ class OrderServiceRabbitMQIntegrationTest {
         Order createdOrder = orderService.createOrder(testOrder);
         UUID orderId = createdOrder.getId();
 
-        // Mock'ları temizle
-        reset(rabbitTemplate);
-
         // When: Order durumu güncelleniyor
         when(userServiceClient.getUserById(testUserId)).thenReturn(testUser);
         Order updatedOrder = orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
 
-        // Then: RabbitMQ'ya OrderStatusChangedEvent gönderilmiş olmalı
-        verify(rabbitTemplate, times(1)).convertAndSend(
-            eq(RabbitMQConfig.ORDER_STATUS_CHANGED_QUEUE),
-            org.mockito.ArgumentMatchers.any(OrderStatusChangedEvent.class)
-        );
+        // Then: OrderStatusChangedEvent outbox'a yazılmış olmalı
+        List<OutboxEvent> statusEvents = outboxEventRepository.findAll().stream()
+            .filter(e -> e.getEventType().equals(OrderStatusChangedEvent.class.getName()))
+            .toList();
+        assertEquals(1, statusEvents.size());
+        assertEquals(orderId, statusEvents.get(0).getAggregateId());
+        assertEquals(RabbitMQConfig.ROUTING_KEY_STATUS_CHANGED, statusEvents.get(0).getRoutingKey());
+        assertTrue(statusEvents.get(0).getPayload().contains("CONFIRMED"));
+        verifyNoInteractions(rabbitTemplate);
 
         // Order durumu güncellendi
         assertEquals(OrderStatus.CONFIRMED, updatedOrder.getStatus());
@@ -172,8 +188,8 @@ class OrderServiceRabbitMQIntegrationTest {
     void testRabbitMQFailureDoesNotBlockOrderCreation() {
         // Given: RabbitMQ hatası simüle ediliyor
         when(userServiceClient.getUserById(testUserId)).thenReturn(testUser);
-        when(productServiceClient.getProductById(testProductId)).thenReturn(testProduct);
-        when(inventoryServiceClient.getInventoryByProductId(testProductId)).thenReturn(testInventory);
+        when(productServiceClient.getProductsByIds(anyList())).thenReturn(List.of(testProduct));
+        when(inventoryServiceClient.getInventoriesByProductIds(anyList())).thenReturn(List.of(testInventory));
         
         Map<UUID, Boolean> stockAvailability = new HashMap<>();
         stockAvailability.put(testProductId, true);
@@ -181,17 +197,14 @@ class OrderServiceRabbitMQIntegrationTest {
         
         // RabbitMQ exception fırlatıyor
         doThrow(new RuntimeException("RabbitMQ connection error"))
-            .when(rabbitTemplate).convertAndSend(
-                org.mockito.ArgumentMatchers.anyString(), 
-                org.mockito.ArgumentMatchers.any(OrderCreatedEvent.class)
-            );
+            .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
 
         // When: Order oluşturuluyor
-        // Then: Order yine de oluşturulmalı (RabbitMQ hatası engellememeli)
-        assertDoesNotThrow(() -> {
-            Order createdOrder = orderService.createOrder(testOrder);
-            assertNotNull(createdOrder.getId());
-        });
+        // Then: Order yine de oluşturulmalı, event outbox'ta relay'i beklemeli
+        Order createdOrder = assertDoesNotThrow(() -> orderService.createOrder(testOrder));
+        assertNotNull(createdOrder.getId());
+        assertEquals(1, outboxEventRepository.findAll().size());
+        assertEquals(OutboxStatus.PENDING, outboxEventRepository.findAll().get(0).getStatus());
     }
 }
 
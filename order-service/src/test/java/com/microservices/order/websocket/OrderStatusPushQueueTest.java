@@ -0,0 +1,128 @@
+package com.microservices.order.websocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.microservices.order.Controller.OrderWebSocketController;
+import com.microservices.order.DTO.OrderStatusUpdate;
+import com.microservices.order.DTO.OrderStatusUpdateBatch;
+import com.microservices.order.Model.OrderStatus;
+import com.microservices.order.Service.OrderStatusPushQueue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Order Status Push Queue Test
+ *
+ * Commit sonrası kuyruğa alma, aynı sipariş için birleştirme ve kullanıcı bazlı batch'leri test eder
+ */
+class OrderStatusPushQueueTest {
+
+    private OrderWebSocketController webSocketController;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderStatusPushQueue pushQueue;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        webSocketController = mock(OrderWebSocketController.class);
+        meterRegistry = new SimpleMeterRegistry();
+        pushQueue = new OrderStatusPushQueue(webSocketController, meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testUpdatesForSameOrderAreCoalescedToLatestState() {
+        UUID orderId = UUID.randomUUID();
+        pushQueue.enqueue(new OrderStatusUpdate(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED, userId));
+        pushQueue.enqueue(new OrderStatusUpdate(orderId, OrderStatus.CONFIRMED, OrderStatus.PROCESSING, userId));
+        pushQueue.enqueue(new OrderStatusUpdate(orderId, OrderStatus.PROCESSING, OrderStatus.SHIPPED, userId));
+
+        pushQueue.flush();
+
+        ArgumentCaptor<OrderStatusUpdate> sent = ArgumentCaptor.forClass(OrderStatusUpdate.class);
+        verify(webSocketController, times(1)).sendOrderStatusUpdate(eq(orderId), sent.capture());
+        assertEquals(OrderStatus.PENDING, sent.getValue().getOldStatus());
+        assertEquals(OrderStatus.SHIPPED, sent.getValue().getNewStatus());
+        assertEquals("Order status changed from PENDING to SHIPPED", sent.getValue().getMessage());
+        verify(webSocketController, times(1)).sendUserOrderUpdate(userId, sent.getValue());
+        assertEquals(2.0, meterRegistry.counter("orders.websocket.push.coalesced").count());
+    }
+
+    @Test
+    void testUpdatesForSameUserAreBatchedOnSeparateTopic() {
+        for (int i = 0; i < 3; i++) {
+            pushQueue.enqueue(new OrderStatusUpdate(UUID.randomUUID(), OrderStatus.PENDING, OrderStatus.CONFIRMED, userId));
+        }
+
+        pushQueue.flush();
+
+        verify(webSocketController, times(3)).sendOrderStatusUpdate(any(UUID.class), any(OrderStatusUpdate.class));
+        ArgumentCaptor<OrderStatusUpdateBatch> batches = ArgumentCaptor.forClass(OrderStatusUpdateBatch.class);
+        // max-batch-size=2 → 2 + 1
+        verify(webSocketController, times(2)).sendUserOrderUpdates(eq(userId), batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).getUpdates().size());
+        assertEquals(1, batches.getAllValues().get(1).getUpdates().size());
+        // Kullanıcı topic'i şekil değiştirmez: sipariş başına tek update
+        verify(webSocketController, times(3)).sendUserOrderUpdate(eq(userId), any(OrderStatusUpdate.class));
+    }
+
+    @Test
+    void testUpdateIsQueuedOnlyAfterCommit() {
+        UUID orderId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        pushQueue.enqueue(new OrderStatusUpdate(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED, userId));
+        pushQueue.flush();
+        verifyNoInteractions(webSocketController);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        pushQueue.flush();
+
+        verify(webSocketController).sendOrderStatusUpdate(eq(orderId), any(OrderStatusUpdate.class));
+    }
+
+    @Test
+    void testRolledBackUpdateIsNeverSent() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        pushQueue.enqueue(new OrderStatusUpdate(UUID.randomUUID(), OrderStatus.PENDING, OrderStatus.CONFIRMED, userId));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        pushQueue.flush();
+
+        verifyNoInteractions(webSocketController);
+    }
+
+    @Test
+    void testFailedPushDoesNotBlockOthers() {
+        UUID failing = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        doThrow(new IllegalStateException("session closed"))
+            .when(webSocketController).sendOrderStatusUpdate(eq(failing), any(OrderStatusUpdate.class));
+        pushQueue.enqueue(new OrderStatusUpdate(failing, OrderStatus.PENDING, OrderStatus.CONFIRMED, UUID.randomUUID()));
+        pushQueue.enqueue(new OrderStatusUpdate(other, OrderStatus.PENDING, OrderStatus.CONFIRMED, UUID.randomUUID()));
+
+        pushQueue.flush();
+
+        verify(webSocketController).sendOrderStatusUpdate(eq(other), any(OrderStatusUpdate.class));
+        assertEquals(1.0, meterRegistry.counter("orders.websocket.push.errors").count());
+    }
+}
@@ -0,0 +1,99 @@
+package com.microservices.order.websocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import com.microservices.order.Config.RelayDestinationInterceptor;
+import com.microservices.order.Config.StompDestinations;
+import com.microservices.order.Controller.OrderWebSocketController;
+import com.microservices.order.DTO.OrderStatusUpdate;
+import com.microservices.order.Model.OrderStatus;
+
+/**
+ * STOMP Destinations Test
+ *
+ * simple / relay broker modlarında topic adlarını ve relay için SUBSCRIBE adres dönüşümünü test eder
+ */
+class StompDestinationsTest {
+
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void testSimpleBrokerKeepsClientDestinations() {
+        StompDestinations destinations = new StompDestinations(StompDestinations.SIMPLE);
+
+        assertFalse(destinations.isRelay());
+        assertEquals("/topic/order-updates/" + orderId, destinations.orderUpdates(orderId));
+        assertEquals("/topic/user-orders/" + userId, destinations.userOrders(userId));
+        assertEquals("/topic/user-order-batches/" + userId, destinations.userOrderBatches(userId));
+    }
+
+    @Test
+    void testRelayUsesDotSeparatedRoutingKeys() {
+        StompDestinations destinations = new StompDestinations(StompDestinations.RELAY);
+
+        assertTrue(destinations.isRelay());
+        assertEquals("/topic/order-updates." + orderId, destinations.orderUpdates(orderId));
+        assertEquals("/topic/user-orders." + userId, destinations.userOrders(userId));
+        assertEquals("/topic/user-order-batches." + userId, destinations.userOrderBatches(userId));
+        assertEquals("/topic/order-updates", destinations.toBroker("/topic/order-updates"));
+        assertEquals("/app/order/status", destinations.toBroker("/app/order/status"));
+    }
+
+    @Test
+    void testUnknownBrokerModeFailsAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> new StompDestinations("redis"));
+    }
+
+    @Test
+    void testRelayInterceptorRewritesSubscribeDestination() {
+        RelayDestinationInterceptor interceptor =
+            new RelayDestinationInterceptor(new StompDestinations(StompDestinations.RELAY));
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination("/topic/user-orders/" + userId);
+        accessor.setSubscriptionId("sub-0");
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        Message<?> result = interceptor.preSend(message, mock(MessageChannel.class));
+
+        StompHeaderAccessor rewritten = StompHeaderAccessor.wrap(result);
+        assertEquals("/topic/user-orders." + userId, rewritten.getDestination());
+        assertEquals("sub-0", rewritten.getSubscriptionId());
+    }
+
+    @Test
+    void testRelayInterceptorIgnoresOtherCommands() {
+        RelayDestinationInterceptor interceptor =
+            new RelayDestinationInterceptor(new StompDestinations(StompDestinations.RELAY));
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        accessor.setSubscriptionId("sub-0");
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        assertSame(message, interceptor.preSend(message, mock(MessageChannel.class)));
+    }
+
+    @Test
+    void testStatusUpdateIsNotBroadcastToGlobalTopic() {
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        OrderWebSocketController controller =
+            new OrderWebSocketController(template, new StompDestinations(StompDestinations.RELAY));
+        OrderStatusUpdate update = new OrderStatusUpdate(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED, userId);
+
+        controller.sendOrderStatusUpdate(orderId, update);
+
+        verify(template).convertAndSend("/topic/order-updates." + orderId, update);
+        verify(template, never()).convertAndSend(eq("/topic/order-updates"), any(Object.class));
+    }
+}
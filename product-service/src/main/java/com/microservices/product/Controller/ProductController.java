@@ -85,6 +85,20 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
     
+    /**
+     * Birden fazla ürünü tek istekte getir
+     * POST /products/batch
+     * Request body: ["product-id-1", "product-id-2", ...]
+     *
+     * Order Service sipariş oluştururken kullanır (sepet başına tek çağrı)
+     * Bulunamayan ID'ler response listesinde yer almaz
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Product>> getProductsByIds(@RequestBody List<UUID> productIds) {
+        List<Product> products = productService.getProductsByIds(productIds);
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * Yeni ürün oluştur
      * POST /products
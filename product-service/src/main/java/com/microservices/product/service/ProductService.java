@@ -47,6 +47,21 @@ public class ProductService {
         return enrichProductWithRating(product);
     }
 
+    /**
+     * Birden fazla ürünü tek sorguda getir (batch)
+     * Order Service sepet için N ayrı GET yerine bunu kullanır
+     *
+     * NOT: Rating zenginleştirmesi yapılmaz - her ürün için Review Service'e
+     * ayrı çağrı gerekir ve sipariş tarafı sadece isim/fiyat snapshot'ı ister.
+     * Bulunamayan ID'ler response'ta yer almaz (hata fırlatılmaz).
+     */
+    public List<Product> getProductsByIds(List<UUID> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findAllById(productIds.stream().distinct().toList());
+    }
+
     /**
      * Kategoriye göre ürünleri getir
      * Review-service'den rating ve reviewCount bilgilerini çekip ekler
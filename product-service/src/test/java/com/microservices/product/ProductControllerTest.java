@@ -107,6 +107,24 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductById(productId);
     }
 
+    @Test
+    void testGetProductsByIds() throws Exception {
+        // Given: Batch lookup - bulunamayan ID response'ta yer almaz
+        UUID missingId = UUID.randomUUID();
+        java.util.List<UUID> ids = java.util.List.of(testProduct.getId(), missingId);
+        when(productService.getProductsByIds(ids)).thenReturn(java.util.List.of(testProduct));
+
+        // When & Then: POST /products/batch
+        mockMvc.perform(post("/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testProduct.getId().toString()));
+
+        verify(productService, times(1)).getProductsByIds(ids);
+    }
+
     @Test
     void testGetProductsByCategory() throws Exception {
         // Given: Mock service davranışı